@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fll.scheduler.SchedParams.InvalidParametersException;
+
+/**
+ * Time for {@link GreedySolver#solve(fll.util.CheckCanceled)} to find the first
+ * solution and to prove a solution optimal. Each solve is a single invocation
+ * as a solve takes seconds.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GreedySolverBenchmark {
+
+  /**
+   * Parameter file copied to a temporary directory that the solver writes its
+   * output to.
+   */
+  public abstract static class SolverState {
+    private Path directory;
+
+    private File datafile;
+
+    /**
+     * @return the tournament to solve
+     */
+    protected abstract ScheduleCorpus getCorpus();
+
+    /**
+     * @throws IOException if there is an error copying the parameter file
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      directory = Files.createTempDirectory("fll-solver-benchmark");
+      datafile = getCorpus().copyTo(directory);
+    }
+
+    /**
+     * @throws IOException if there is an error deleting the files
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      ScheduleCorpus.deleteDirectory(directory);
+    }
+
+    /**
+     * @return the parameter file
+     */
+    public File getDatafile() {
+      return datafile;
+    }
+  }
+
+  /**
+   * All of the tournaments.
+   */
+  @State(Scope.Benchmark)
+  public static class FirstSolutionState extends SolverState {
+    /**
+     * The tournament to solve.
+     */
+    @Param({ "SMALL", "MEDIUM", "LARGE" })
+    public ScheduleCorpus corpus;
+
+    @Override
+    protected ScheduleCorpus getCorpus() {
+      return corpus;
+    }
+  }
+
+  /**
+   * Only the tournaments that can be solved to optimal in a reasonable amount
+   * of time.
+   */
+  @State(Scope.Benchmark)
+  public static class OptimalState extends SolverState {
+    /**
+     * The tournament to solve.
+     */
+    @Param({ "SMALL" })
+    public ScheduleCorpus corpus;
+
+    @Override
+    protected ScheduleCorpus getCorpus() {
+      return corpus;
+    }
+  }
+
+  /**
+   * @param state the tournament
+   * @return number of solutions found
+   * @throws IOException if there is an error reading the parameters
+   * @throws ParseException if there is an error parsing the parameters
+   * @throws InvalidParametersException if the parameters are not valid
+   */
+  @Benchmark
+  public int firstSolution(final FirstSolutionState state)
+      throws IOException, ParseException, InvalidParametersException {
+    final GreedySolver solver = new GreedySolver(state.getDatafile(), false);
+    return solver.solve(null);
+  }
+
+  /**
+   * @param state the tournament
+   * @return number of solutions found
+   * @throws IOException if there is an error reading the parameters
+   * @throws ParseException if there is an error parsing the parameters
+   * @throws InvalidParametersException if the parameters are not valid
+   */
+  @Benchmark
+  public int optimal(final OptimalState state) throws IOException, ParseException, InvalidParametersException {
+    final GreedySolver solver = new GreedySolver(state.getDatafile(), true);
+    return solver.solve(null);
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fll.scheduler.SchedParams.InvalidParametersException;
+
+/**
+ * Time for {@link ScheduleChecker#verifySchedule()} on a solved schedule.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleCheckerBenchmark {
+
+  /**
+   * The tournament to check.
+   */
+  @Param({ "SMALL", "MEDIUM", "LARGE" })
+  public ScheduleCorpus corpus;
+
+  private ScheduleChecker checker;
+
+  /**
+   * @throws IOException if there is an error writing the solver files
+   * @throws ParseException if there is an error parsing the parameters
+   * @throws InvalidParametersException if the parameters are not valid
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException, ParseException, InvalidParametersException {
+    final Path directory = Files.createTempDirectory("fll-checker-benchmark");
+    try {
+      final TournamentSchedule schedule = corpus.createSchedule(directory);
+      checker = new ScheduleChecker(corpus.loadParameters(), schedule);
+    } finally {
+      ScheduleCorpus.deleteDirectory(directory);
+    }
+  }
+
+  /**
+   * @return the violations
+   */
+  @Benchmark
+  public List<ConstraintViolation> verifySchedule() {
+    return checker.verifySchedule();
+  }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import fll.Utilities;
+import fll.db.CategoryColumnMapping;
+import fll.scheduler.SchedParams.InvalidParametersException;
+import fll.scheduler.TournamentSchedule.ColumnInformation;
+import fll.util.CSVCellReader;
+import fll.util.CellFileReader;
+import fll.util.FLLInternalException;
+
+/**
+ * The tournaments used by the scheduler benchmarks. Each tournament is
+ * described by a parameter file in {@code fll/scheduler/benchmark}.
+ * The benchmarks that need a schedule solve the parameter file to the first
+ * solution with seed 0 so that every run works on the same schedule.
+ */
+public enum ScheduleCorpus {
+  /**
+   * 12 teams, 1 judging group, 1 table.
+   */
+  SMALL("small.properties", 0),
+  /**
+   * 32 teams, 2 judging groups, 2 tables.
+   */
+  MEDIUM("medium.properties", 0),
+  /**
+   * 73 teams, 7 judging groups, 4 tables, the first round is a practice round.
+   */
+  LARGE("large.properties", 1);
+
+  /**
+   * Name of the sheet used when writing schedules as XLSX.
+   */
+  public static final String SHEET_NAME = "Schedule";
+
+  ScheduleCorpus(final String resource,
+                 final int numPracticeRounds) {
+    this.resource = resource;
+    this.numPracticeRounds = numPracticeRounds;
+  }
+
+  private final String resource;
+
+  private final int numPracticeRounds;
+
+  /**
+   * The solver parameters can't describe a practice round. Rounds that are
+   * solved as regular match play rounds are marked as practice when the
+   * schedule is created.
+   *
+   * @return number of practice rounds in {@link #createSchedule(Path)}
+   */
+  public int getNumPracticeRounds() {
+    return numPracticeRounds;
+  }
+
+  /**
+   * Copy the parameter file into a directory. The solver writes its output
+   * next to the parameter file.
+   *
+   * @param directory where to put the file
+   * @return the parameter file
+   * @throws IOException if there is an error copying the file
+   */
+  public File copyTo(final Path directory) throws IOException {
+    final Path datafile = directory.resolve(resource);
+    try (InputStream stream = openResource()) {
+      Files.copy(stream, datafile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return datafile.toFile();
+  }
+
+  /**
+   * @return the parameters for the tournament
+   * @throws IOException if there is an error reading the parameter file
+   * @throws ParseException if there is an error parsing the parameter file
+   */
+  public SolverParams loadParameters() throws IOException, ParseException {
+    final Properties properties = new Properties();
+    try (Reader reader = new InputStreamReader(openResource(), Utilities.DEFAULT_CHARSET)) {
+      properties.load(reader);
+    }
+
+    final SolverParams params = new SolverParams();
+    params.load(properties);
+    return params;
+  }
+
+  /**
+   * Solve the tournament to the first solution.
+   *
+   * @param directory where the solver can write its files
+   * @return the schedule with {@link #getNumPracticeRounds()} practice rounds
+   * @throws IOException if there is an error writing the solver files
+   * @throws ParseException if there is an error parsing the parameter file
+   * @throws InvalidParametersException if the parameter file isn't valid
+   */
+  public TournamentSchedule createSchedule(final Path directory)
+      throws IOException, ParseException, InvalidParametersException {
+    final SolverIncumbent incumbent = new SolverIncumbent();
+    final GreedySolver solver = new GreedySolver(copyTo(directory), false, 0, incumbent);
+    solver.solve(null);
+
+    final TournamentSchedule solved = incumbent.getBestSchedule();
+    if (null == solved) {
+      throw new FLLInternalException("No solution found for "
+          + resource);
+    }
+
+    final Collection<TeamScheduleInfo> teams = solved.getSchedule();
+    for (final TeamScheduleInfo ti : teams) {
+      final List<PerformanceTime> practice = new ArrayList<>(ti.getAllPerformances()).subList(0,
+                                                                                          numPracticeRounds);
+      for (final PerformanceTime performance : practice) {
+        ti.removePerformance(performance);
+        ti.addPerformance(new PerformanceTime(performance.getTime(), performance.getTable(), performance.getSide(),
+                                              true));
+      }
+    }
+
+    return new TournamentSchedule(name(), teams, solved.getSubjectiveStations());
+  }
+
+  /**
+   * Write a schedule with {@link TournamentSchedule#writeToCSV(Writer)}.
+   *
+   * @param schedule the schedule to write
+   * @param csvFile where to write the schedule
+   * @throws IOException if there is an error writing
+   */
+  public static void writeCsv(final TournamentSchedule schedule,
+                              final Path csvFile)
+      throws IOException {
+    try (OutputStream out = Files.newOutputStream(csvFile)) {
+      schedule.outputScheduleAsCSV(out);
+    }
+  }
+
+  /**
+   * Write a schedule as XLSX with the same columns as
+   * {@link TournamentSchedule#writeToCSV(Writer)}.
+   *
+   * @param csvFile the schedule written by
+   *          {@link TournamentSchedule#writeToCSV(Writer)}
+   * @param out where to write the workbook
+   * @throws IOException if there is an error reading or writing
+   */
+  public static void writeXlsx(final Path csvFile,
+                               final OutputStream out)
+      throws IOException {
+    try (CellFileReader reader = new CSVCellReader(csvFile);
+        XSSFWorkbook workbook = new XSSFWorkbook()) {
+      final Sheet sheet = workbook.createSheet(SHEET_NAME);
+      int rowIndex = 0;
+      @Nullable
+      String @Nullable [] line;
+      while (null != (line = reader.readNext())) {
+        final Row row = sheet.createRow(rowIndex);
+        for (int column = 0; column < line.length; ++column) {
+          row.createCell(column).setCellValue(line[column]);
+        }
+        ++rowIndex;
+      }
+      workbook.write(out);
+    }
+  }
+
+  /**
+   * Column information for a schedule written by
+   * {@link TournamentSchedule#writeToCSV(Writer)}.
+   *
+   * @param schedule the schedule that was written
+   * @return the columns to use when parsing the schedule
+   */
+  public static ColumnInformation createColumnInformation(final TournamentSchedule schedule) {
+    final List<String> headerLine = new ArrayList<>();
+    headerLine.add(TournamentSchedule.TEAM_NUMBER_HEADER);
+    headerLine.add(TournamentSchedule.AWARD_GROUP_HEADER);
+    headerLine.add(TournamentSchedule.TEAM_NAME_HEADER);
+    headerLine.add(TournamentSchedule.ORGANIZATION_HEADER);
+    headerLine.add(TournamentSchedule.JUDGE_GROUP_HEADER);
+
+    final List<CategoryColumnMapping> subjectiveColumnMappings = new ArrayList<>();
+    for (final String station : schedule.getSubjectiveStations()) {
+      headerLine.add(station);
+      subjectiveColumnMappings.add(new CategoryColumnMapping(station, station));
+    }
+
+    final String[] practiceColumn = new String[schedule.getNumberOfPracticeRounds()];
+    final String[] practiceTableColumn = new String[practiceColumn.length];
+    for (int round = 0; round < practiceColumn.length; ++round) {
+      practiceColumn[round] = String.format(TournamentSchedule.PRACTICE_HEADER_FORMAT, round
+          + 1);
+      practiceTableColumn[round] = String.format(TournamentSchedule.PRACTICE_TABLE_HEADER_FORMAT, round
+          + 1);
+      headerLine.add(practiceColumn[round]);
+      headerLine.add(practiceTableColumn[round]);
+    }
+
+    final String[] perfColumn = new String[schedule.getNumberOfRegularMatchPlayRounds()];
+    final String[] perfTableColumn = new String[perfColumn.length];
+    for (int round = 0; round < perfColumn.length; ++round) {
+      perfColumn[round] = String.format(TournamentSchedule.PERF_HEADER_FORMAT, round
+          + 1);
+      perfTableColumn[round] = String.format(TournamentSchedule.TABLE_HEADER_FORMAT, round
+          + 1);
+      headerLine.add(perfColumn[round]);
+      headerLine.add(perfTableColumn[round]);
+    }
+
+    return new ColumnInformation(0, headerLine.toArray(new String[headerLine.size()]),
+                                 TournamentSchedule.TEAM_NUMBER_HEADER, TournamentSchedule.ORGANIZATION_HEADER,
+                                 TournamentSchedule.TEAM_NAME_HEADER, TournamentSchedule.AWARD_GROUP_HEADER,
+                                 TournamentSchedule.JUDGE_GROUP_HEADER, subjectiveColumnMappings, perfColumn,
+                                 perfTableColumn, practiceColumn, practiceTableColumn);
+  }
+
+  /**
+   * Delete a directory created for a benchmark and everything in it.
+   *
+   * @param directory the directory to delete
+   * @throws IOException if there is an error deleting
+   */
+  public static void deleteDirectory(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  private InputStream openResource() {
+    final InputStream stream = ScheduleCorpus.class.getResourceAsStream("benchmark/"
+        + resource);
+    if (null == stream) {
+      throw new FLLInternalException("Cannot find benchmark parameters "
+          + resource);
+    }
+    return stream;
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fll.scheduler.SchedParams.InvalidParametersException;
+import fll.scheduler.TournamentSchedule.ColumnInformation;
+import fll.util.CSVCellReader;
+import fll.util.CellFileReader;
+
+/**
+ * Time for {@link TableOptimizer#optimize(fll.util.CheckCanceled)} on a solved
+ * schedule. The optimizer modifies the schedule, so each invocation optimizes
+ * a freshly parsed copy.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableOptimizerBenchmark {
+
+  /**
+   * The tournament to optimize.
+   */
+  @Param({ "SMALL", "MEDIUM", "LARGE" })
+  public ScheduleCorpus corpus;
+
+  /**
+   * Threads used by the optimizer.
+   */
+  @Param({ "1", "4" })
+  public int numThreads;
+
+  private Path directory;
+
+  private Path csvFile;
+
+  private SolverParams params;
+
+  private ColumnInformation columnInfo;
+
+  private TournamentSchedule schedule;
+
+  /**
+   * @throws IOException if there is an error writing the solver files
+   * @throws ParseException if there is an error parsing the parameters
+   * @throws InvalidParametersException if the parameters are not valid
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException, ParseException, InvalidParametersException {
+    directory = Files.createTempDirectory("fll-table-optimizer-benchmark");
+    params = corpus.loadParameters();
+
+    final TournamentSchedule solved = corpus.createSchedule(directory);
+    columnInfo = ScheduleCorpus.createColumnInformation(solved);
+    csvFile = directory.resolve("schedule.csv");
+    ScheduleCorpus.writeCsv(solved, csvFile);
+  }
+
+  /**
+   * @throws IOException if there is an error reading the schedule
+   * @throws ParseException if there is an error parsing the schedule
+   * @throws ScheduleParseException if there is an error parsing the schedule
+   */
+  @Setup(Level.Invocation)
+  public void loadSchedule() throws IOException, ParseException, ScheduleParseException {
+    try (CellFileReader reader = new CSVCellReader(csvFile)) {
+      schedule = new TournamentSchedule(corpus.name(), reader, columnInfo);
+    }
+  }
+
+  /**
+   * @throws IOException if there is an error deleting the files
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ScheduleCorpus.deleteDirectory(directory);
+  }
+
+  /**
+   * @return the optimized schedule
+   */
+  @Benchmark
+  public TournamentSchedule optimize() {
+    final TableOptimizer optimizer = new TableOptimizer(params, schedule, directory.toFile(), numThreads);
+    optimizer.optimize(null);
+    return schedule;
+  }
+
+}
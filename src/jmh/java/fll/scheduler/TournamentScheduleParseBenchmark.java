@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fll.scheduler.SchedParams.InvalidParametersException;
+import fll.scheduler.TournamentSchedule.ColumnInformation;
+import fll.util.CSVCellReader;
+import fll.util.CellFileReader;
+import fll.util.ExcelCellReader;
+
+/**
+ * Time to parse a schedule from CSV and XLSX.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TournamentScheduleParseBenchmark {
+
+  /**
+   * The tournament to parse.
+   */
+  @Param({ "SMALL", "MEDIUM", "LARGE" })
+  public ScheduleCorpus corpus;
+
+  private Path directory;
+
+  private Path csvFile;
+
+  private Path xlsxFile;
+
+  private ColumnInformation columnInfo;
+
+  /**
+   * @throws IOException if there is an error writing the files
+   * @throws ParseException if there is an error parsing the parameters
+   * @throws InvalidParametersException if the parameters are not valid
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException, ParseException, InvalidParametersException {
+    directory = Files.createTempDirectory("fll-schedule-parse-benchmark");
+
+    final TournamentSchedule solved = corpus.createSchedule(directory);
+    columnInfo = ScheduleCorpus.createColumnInformation(solved);
+
+    csvFile = directory.resolve("schedule.csv");
+    ScheduleCorpus.writeCsv(solved, csvFile);
+
+    xlsxFile = directory.resolve("schedule.xlsx");
+    try (OutputStream out = Files.newOutputStream(xlsxFile)) {
+      ScheduleCorpus.writeXlsx(csvFile, out);
+    }
+  }
+
+  /**
+   * @throws IOException if there is an error deleting the files
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ScheduleCorpus.deleteDirectory(directory);
+  }
+
+  /**
+   * @return the parsed schedule
+   * @throws IOException if there is an error reading the file
+   * @throws ParseException if there is an error parsing the file
+   * @throws ScheduleParseException if there is an error in the schedule
+   */
+  @Benchmark
+  public TournamentSchedule parseCsv() throws IOException, ParseException, ScheduleParseException {
+    try (CellFileReader reader = new CSVCellReader(csvFile)) {
+      return new TournamentSchedule(corpus.name(), reader, columnInfo);
+    }
+  }
+
+  /**
+   * @return the parsed schedule
+   * @throws IOException if there is an error reading the file
+   * @throws ParseException if there is an error parsing the file
+   * @throws ScheduleParseException if there is an error in the schedule
+   */
+  @Benchmark
+  public TournamentSchedule parseXlsx() throws IOException, ParseException, ScheduleParseException {
+    try (InputStream stream = Files.newInputStream(xlsxFile);
+        CellFileReader reader = new ExcelCellReader(stream, ScheduleCorpus.SHEET_NAME)) {
+      return new TournamentSchedule(corpus.name(), reader, columnInfo);
+    }
+  }
+
+}
@@ -9,19 +9,27 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
 
 import fll.db.GlobalParameters;
 import fll.db.Queries;
+import fll.db.SubjectiveScoreStatistics;
 import fll.xml.ChallengeDescription;
 import fll.xml.PerformanceScoreCategory;
 import fll.xml.ScoreCategory;
 
 /**
  * Does score standardization routines from the web.
+ * The results are compared with what is already stored and only the rows that
+ * changed are written, so summarizing the scores after a few scores have
+ * changed only rewrites the affected teams.
  */
 public final class ScoreStandardization {
 
@@ -31,8 +39,14 @@ public final class ScoreStandardization {
     // no instances
   }
 
+  /**
+   * Compute the standardized performance scores.
+   *
+   * @param finalScores where to put the scores
+   */
   private static void summarizePerformanceScores(final Connection connection,
-                                                 final int tournament)
+                                                 final int tournament,
+                                                 final Map<FinalScoreKey, Double> finalScores)
       throws SQLException {
 
     final double mean = GlobalParameters.getStandardizedMean(connection);
@@ -69,12 +83,7 @@ public final class ScoreStandardization {
             }
 
             try (
-                PreparedStatement select = connection.prepareStatement("SELECT TeamNumber, ((Score - ?) * ?) + ? FROM performance_seeding_max WHERE performance_seeding_max.tournament = ?");
-                PreparedStatement insert = connection.prepareStatement("INSERT INTO final_scores (category, goal_group, tournament, team_number, final_score) VALUES(?, ?, ?, ?, ?)")) {
-              insert.setString(1, PerformanceScoreCategory.CATEGORY_NAME);
-              insert.setString(2, "");
-              insert.setInt(3, tournament);
-
+                PreparedStatement select = connection.prepareStatement("SELECT TeamNumber, ((Score - ?) * ?) + ? FROM performance_seeding_max WHERE performance_seeding_max.tournament = ?")) {
               select.setDouble(1, sgMean);
               select.setDouble(2, sigma
                   / sgStdev);
@@ -92,9 +101,7 @@ public final class ScoreStandardization {
                         + stdScore);
                   }
 
-                  insert.setInt(4, teamNumber);
-                  insert.setDouble(5, stdScore);
-                  insert.executeUpdate();
+                  finalScores.put(new FinalScoreKey(PerformanceScoreCategory.CATEGORY_NAME, "", teamNumber), stdScore);
                 } // foreach team's score
               } // select team scores
             } // allocate statements
@@ -109,29 +116,40 @@ public final class ScoreStandardization {
     } // allocate params stmt
   }
 
+  /**
+   * Compute the subjective final scores, the average of the standardized scores
+   * across judges.
+   *
+   * @param finalScores where to put the scores
+   */
   private static void summarizeSubjectiveScores(final Connection connection,
-                                                final int tournament)
+                                                final int tournament,
+                                                final Map<FinalScoreKey, Double> finalScores)
       throws SQLException {
-    // insert rows from the current tournament and category, keeping team
-    // number and score group as well as computing the average (across
-    // judges)
-    try (PreparedStatement updatePrep = connection.prepareStatement("INSERT INTO final_scores" //
-        + " (category, goal_group, tournament, team_number, final_score)"
-        + " ( SELECT " //
-        + "   category, goal_group, tournament, team_number, Avg(standardized_score)" //
+    try (PreparedStatement selectPrep = connection.prepareStatement("SELECT " //
+        + "   category, goal_group, team_number, Avg(standardized_score)" //
         + "   FROM subjective_computed_scores"
         + "   WHERE standardized_score IS NOT NULL" //
         + "     AND tournament = ?" //
-        + "   GROUP BY category, goal_group, tournament, team_number)" //
+        + "   GROUP BY category, goal_group, team_number" //
     )) {
-      updatePrep.setInt(1, tournament);
-      updatePrep.executeUpdate();
+      selectPrep.setInt(1, tournament);
+      try (ResultSet rs = selectPrep.executeQuery()) {
+        while (rs.next()) {
+          final String category = castNonNull(rs.getString(1));
+          final String goalGroup = castNonNull(rs.getString(2));
+          final int teamNumber = rs.getInt(3);
+          final double score = rs.getDouble(4);
+          finalScores.put(new FinalScoreKey(category, goalGroup, teamNumber), score);
+        }
+      }
     }
   }
 
   /**
    * Summarize the scores for the given tournament. This puts the standardized
    * scores in the final_scores table to be weighted and then summed.
+   * Only the rows of final_scores that change are written.
    *
    * @param connection connection to the database with delete and insert
    *          privileges
@@ -141,21 +159,119 @@ public final class ScoreStandardization {
   public static void summarizeScores(final Connection connection,
                                      final int tournament)
       throws SQLException {
-
-    // delete all final scores for the tournament
-    try (PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM final_scores WHERE tournament = ?")) {
-      deletePrep.setInt(1, tournament);
-      deletePrep.executeUpdate();
+    // compute all final scores for the tournament
+    final Map<FinalScoreKey, Double> finalScores = new HashMap<>();
+    summarizePerformanceScores(connection, tournament, finalScores);
+    summarizeSubjectiveScores(connection, tournament, finalScores);
+
+    final Map<FinalScoreKey, Double> storedScores = new HashMap<>();
+    try (PreparedStatement selectPrep = connection.prepareStatement("SELECT category, goal_group, team_number, final_score" //
+        + " FROM final_scores" //
+        + " WHERE tournament = ?")) {
+      selectPrep.setInt(1, tournament);
+      try (ResultSet rs = selectPrep.executeQuery()) {
+        while (rs.next()) {
+          final String category = castNonNull(rs.getString(1));
+          final String goalGroup = castNonNull(rs.getString(2));
+          final int teamNumber = rs.getInt(3);
+          double score = rs.getDouble(4);
+          if (rs.wasNull()) {
+            score = Double.NaN;
+          }
+          storedScores.put(new FinalScoreKey(category, goalGroup, teamNumber), score);
+        }
+      }
     }
 
-    // compute all final scores for the tournament
-    summarizePerformanceScores(connection, tournament);
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
+
+      try (PreparedStatement insertPrep = connection.prepareStatement("INSERT INTO final_scores" //
+          + " (final_score, category, goal_group, tournament, team_number)" //
+          + " VALUES(?, ?, ?, ?, ?)");
+          PreparedStatement updatePrep = connection.prepareStatement("UPDATE final_scores" //
+              + " SET final_score = ?" //
+              + " WHERE category = ? AND goal_group = ? AND tournament = ? AND team_number = ?");
+          PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM final_scores" //
+              + " WHERE category = ? AND goal_group = ? AND tournament = ? AND team_number = ?")) {
+        boolean haveInserts = false;
+        boolean haveUpdates = false;
+        for (final Map.Entry<FinalScoreKey, Double> entry : finalScores.entrySet()) {
+          final FinalScoreKey key = entry.getKey();
+          final double score = entry.getValue();
+
+          final @Nullable Double stored = storedScores.remove(key);
+          if (null == stored) {
+            setFinalScore(insertPrep, tournament, key, score);
+            insertPrep.addBatch();
+            haveInserts = true;
+          } else if (Double.compare(stored, score) != 0) {
+            setFinalScore(updatePrep, tournament, key, score);
+            updatePrep.addBatch();
+            haveUpdates = true;
+          }
+        }
+
+        // scores that no longer exist
+        for (final FinalScoreKey key : storedScores.keySet()) {
+          deletePrep.setString(1, key.category);
+          deletePrep.setString(2, key.goalGroup);
+          deletePrep.setInt(3, tournament);
+          deletePrep.setInt(4, key.teamNumber);
+          deletePrep.addBatch();
+        }
+
+        if (haveInserts) {
+          insertPrep.executeBatch();
+        }
+        if (haveUpdates) {
+          updatePrep.executeBatch();
+        }
+        if (!storedScores.isEmpty()) {
+          deletePrep.executeBatch();
+        }
+      }
+
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
 
-    summarizeSubjectiveScores(connection, tournament);
+  /**
+   * Set parameters 1 - 5 of a statement that uses the columns in the order
+   * final_score, category, goal_group, tournament, team_number.
+   */
+  private static void setFinalScore(final PreparedStatement prep,
+                                    final int tournament,
+                                    final FinalScoreKey key,
+                                    final double score)
+      throws SQLException {
+    if (Double.isNaN(score)) {
+      prep.setNull(1, Types.DOUBLE);
+    } else {
+      prep.setDouble(1, score);
+    }
+    prep.setString(2, key.category);
+    prep.setString(3, key.goalGroup);
+    prep.setInt(4, tournament);
+    prep.setInt(5, key.teamNumber);
   }
 
   /**
    * Populate the standardized_score column of subjective_computed_scores.
+   * The mean and standard deviation of each judge's scores are computed from
+   * the running totals in {@link SubjectiveScoreStatistics}. Only the judges
+   * whose scores have changed, or that were standardized with a different
+   * standardized mean or sigma, are updated.
    * 
    * @param connection database connection
    * @param tournament ID of tournament to work on
@@ -167,74 +283,146 @@ public final class ScoreStandardization {
     final double mean = GlobalParameters.getStandardizedMean(connection);
     final double sigma = GlobalParameters.getStandardizedSigma(connection);
 
-    try (PreparedStatement selectPrep = connection.prepareStatement("SELECT category, goal_group, judge," //
-        + " Avg(computed_total) AS sg_mean," //
-        + " Count(computed_total) AS sg_count," //
-        + " stddev_pop(computed_total) AS sg_stdev" //
-        + " FROM subjective_computed_scores" //
-        + " WHERE tournament = ?" //
-        + "   AND computed_total IS NOT NULL" //
-        + "   AND no_show = false"//
-        + " GROUP BY category, goal_group, judge" //
-    );
-        /*
-         * Update StandardizedScore for each team in the ScoreGroup formula:
-         *
-         * SS = ( ( ComputedTotal - sgMean ) * ( sigma / sgStdev ) ) + mean
-         *
-         * sgMean = average(all scores from judge)
-         * sgStdev = stdev(all scores from judge)
-         */
-        // 1 - sg_mean
-        // 2 - sigma / stStdev
-        // 3 - mean
-        // 4 - judge
-        // 5 - tournament
-        // 6 - category
-        // 7 - goal group
-        PreparedStatement updatePrep = connection.prepareStatement("UPDATE subjective_computed_scores " //
-            + " SET standardized_score = ((computed_total - ?) * ? ) + ?"
-            + " WHERE judge = ?" //
-            + " AND tournament = ?" //
-            + " AND category = ?" //
-            + " AND goal_group = ?" //
-        )) {
-      selectPrep.setInt(1, tournament);
-
-      updatePrep.setDouble(3, mean);
-      updatePrep.setInt(5, tournament);
-
-      try (ResultSet rs = selectPrep.executeQuery()) {
-        while (rs.next()) {
-          final String category = rs.getString(1);
-          final String goalGroup = rs.getString(2);
-          final String judge = rs.getString(3);
-
-          final int sgCount = rs.getInt(5);
-
-          if (sgCount > 1) {
-            final double sgMean = rs.getDouble(4);
-            final double sgStdev = rs.getDouble(6);
-
-            updatePrep.setDouble(1, sgMean);
-            updatePrep.setDouble(2, sigma
-                / sgStdev);
-            updatePrep.setString(4, judge);
-            updatePrep.setString(6, category);
-            updatePrep.setString(7, goalGroup);
-            updatePrep.executeUpdate();
-          } else { // if(sgCount == 1) {
-            LOGGER.error("Not enough scores for Judge: {} in category: {} goal group: {}", judge, category, goalGroup);
-          } // ignore 0 in a judging group
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
+
+      try (PreparedStatement selectPrep = connection.prepareStatement("SELECT category, goal_group, judge," //
+          + " score_count, score_mean, score_m2" //
+          + " FROM subjective_score_statistics" //
+          + " WHERE tournament = ?" //
+          + "   AND (standardized_mean IS NULL" //
+          + "     OR standardized_sigma IS NULL" //
+          + "     OR standardized_mean <> ?" //
+          + "     OR standardized_sigma <> ?)" //
+      );
+          /*
+           * Update StandardizedScore for each team in the ScoreGroup formula:
+           *
+           * SS = ( ( ComputedTotal - sgMean ) * ( sigma / sgStdev ) ) + mean
+           *
+           * sgMean = average(all scores from judge)
+           * sgStdev = stdev(all scores from judge)
+           */
+          // 1 - sg_mean
+          // 2 - sigma / stStdev
+          // 3 - mean
+          // 4 - judge
+          // 5 - tournament
+          // 6 - category
+          // 7 - goal group
+          PreparedStatement updatePrep = connection.prepareStatement("UPDATE subjective_computed_scores " //
+              + " SET standardized_score = ((computed_total - ?) * ? ) + ?"
+              + " WHERE judge = ?" //
+              + " AND tournament = ?" //
+              + " AND category = ?" //
+              + " AND goal_group = ?" //
+          );
+          // not enough scores to standardize
+          PreparedStatement clearPrep = connection.prepareStatement("UPDATE subjective_computed_scores " //
+              + " SET standardized_score = NULL"
+              + " WHERE judge = ?" //
+              + " AND tournament = ?" //
+              + " AND category = ?" //
+              + " AND goal_group = ?" //
+          );
+          PreparedStatement markPrep = connection.prepareStatement("UPDATE subjective_score_statistics" //
+              + " SET standardized_mean = ?, standardized_sigma = ?" //
+              + " WHERE judge = ?" //
+              + " AND tournament = ?" //
+              + " AND category = ?" //
+              + " AND goal_group = ?" //
+          )) {
+        selectPrep.setInt(1, tournament);
+        selectPrep.setDouble(2, mean);
+        selectPrep.setDouble(3, sigma);
+
+        updatePrep.setDouble(3, mean);
+        updatePrep.setInt(5, tournament);
+        clearPrep.setInt(2, tournament);
+        markPrep.setDouble(1, mean);
+        markPrep.setDouble(2, sigma);
+        markPrep.setInt(4, tournament);
+
+        boolean haveUpdates = false;
+        boolean haveClears = false;
+        boolean haveMarks = false;
+        try (ResultSet rs = selectPrep.executeQuery()) {
+          while (rs.next()) {
+            final String category = castNonNull(rs.getString(1));
+            final String goalGroup = castNonNull(rs.getString(2));
+            final String judge = castNonNull(rs.getString(3));
+
+            final int sgCount = rs.getInt(4);
+
+            if (sgCount > 1) {
+              final double sgMean = rs.getDouble(5);
+              final double sgStdev = SubjectiveScoreStatistics.standardDeviation(sgCount, rs.getDouble(6));
+
+              updatePrep.setDouble(1, sgMean);
+              if (sgStdev > 0) {
+                updatePrep.setDouble(2, sigma
+                    / sgStdev);
+              } else {
+                // all of the judge's scores are the same, they are all average
+                LOGGER.warn("All scores are the same for Judge: {} in category: {} goal group: {}", judge, category,
+                            goalGroup);
+                updatePrep.setDouble(2, 0);
+              }
+              updatePrep.setString(4, judge);
+              updatePrep.setString(6, category);
+              updatePrep.setString(7, goalGroup);
+              updatePrep.addBatch();
+              haveUpdates = true;
+            } else {
+              if (1 == sgCount) {
+                LOGGER.error("Not enough scores for Judge: {} in category: {} goal group: {}", judge, category,
+                             goalGroup);
+              } // ignore 0 in a judging group
+
+              clearPrep.setString(1, judge);
+              clearPrep.setString(3, category);
+              clearPrep.setString(4, goalGroup);
+              clearPrep.addBatch();
+              haveClears = true;
+            }
 
-        } // foreach result
-      } // result set
-    } // prepared statements
+            markPrep.setString(3, judge);
+            markPrep.setString(5, category);
+            markPrep.setString(6, goalGroup);
+            markPrep.addBatch();
+            haveMarks = true;
+          } // foreach result
+        } // result set
+
+        if (haveUpdates) {
+          updatePrep.executeBatch();
+        }
+        if (haveClears) {
+          clearPrep.executeBatch();
+        }
+        if (haveMarks) {
+          markPrep.executeBatch();
+        }
+      } // prepared statements
+
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
   }
 
   /**
    * Updates overall_scores with the sum of the the scores times the weights for
-   * the given tournament.
+   * the given tournament. Only the teams whose overall score changes are
+   * written.
    *
    * @param description challenge description
    * @param connection database connection
@@ -255,46 +443,147 @@ public final class ScoreStandardization {
 
     final Tournament currentTournament = Tournament.findTournamentByID(connection, tournament);
 
-    // delete old values
-    try (
-        PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM overall_scores WHERE tournament = ?")) {
-      deletePrep.setInt(1, currentTournament.getTournamentID());
-      deletePrep.executeUpdate();
+    // compute scores for all teams treating NULL as 0
+    final Map<Integer, Double> overallScores = new HashMap<>();
+    for (final int teamNumber : tournamentTeams.keySet()) {
+      overallScores.put(teamNumber, 0D);
     }
-
-    // insert new values
     try (
-        PreparedStatement selectPrep = connection.prepareStatement("SELECT category, final_score FROM final_scores WHERE goal_group = ? AND tournament = ? AND team_number = ?");
-        PreparedStatement insertPrep = connection.prepareStatement("INSERT INTO overall_scores (tournament, team_number, overall_score) VALUES (?, ?, ?)")) {
+        PreparedStatement selectPrep = connection.prepareStatement("SELECT team_number, category, final_score FROM final_scores WHERE goal_group = ? AND tournament = ?")) {
       selectPrep.setString(1, "");
       selectPrep.setInt(2, currentTournament.getTournamentID());
-      insertPrep.setInt(1, currentTournament.getTournamentID());
-
-      // compute scores for all teams treating NULL as 0
-      for (final int teamNumber : tournamentTeams.keySet()) {
-        double overallScore = 0;
-
-        selectPrep.setInt(3, teamNumber);
-        try (ResultSet selectResult = selectPrep.executeQuery()) {
-          while (selectResult.next()) {
-            final String categoryName = castNonNull(selectResult.getString(1));
-
-            if (categoryWeights.containsKey(categoryName)) {
-              final double weight = categoryWeights.get(categoryName);
-              final double score = selectResult.getDouble(2);
-              overallScore += score
-                  * weight;
-            }
-          } // foreach result
-        } // selectResult
+      try (ResultSet selectResult = selectPrep.executeQuery()) {
+        while (selectResult.next()) {
+          final int teamNumber = selectResult.getInt(1);
+          final String categoryName = castNonNull(selectResult.getString(2));
+
+          if (overallScores.containsKey(teamNumber)
+              && categoryWeights.containsKey(categoryName)) {
+            final double weight = categoryWeights.get(categoryName);
+            final double score = selectResult.getDouble(3);
+            overallScores.merge(teamNumber, score
+                * weight, Double::sum);
+          }
+        } // foreach result
+      } // selectResult
+    }
 
-        insertPrep.setInt(2, teamNumber);
-        insertPrep.setDouble(3, overallScore);
-        insertPrep.executeUpdate();
-      } // foreach team
+    final Map<Integer, Double> storedScores = new HashMap<>();
+    try (
+        PreparedStatement selectPrep = connection.prepareStatement("SELECT team_number, overall_score FROM overall_scores WHERE tournament = ?")) {
+      selectPrep.setInt(1, currentTournament.getTournamentID());
+      try (ResultSet rs = selectPrep.executeQuery()) {
+        while (rs.next()) {
+          double score = rs.getDouble(2);
+          if (rs.wasNull()) {
+            score = Double.NaN;
+          }
+          storedScores.put(rs.getInt(1), score);
+        }
+      }
+    }
+
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
+
+      try (
+          PreparedStatement insertPrep = connection.prepareStatement("INSERT INTO overall_scores (overall_score, tournament, team_number) VALUES (?, ?, ?)");
+          PreparedStatement updatePrep = connection.prepareStatement("UPDATE overall_scores SET overall_score = ? WHERE tournament = ? AND team_number = ?");
+          PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM overall_scores WHERE tournament = ? AND team_number = ?")) {
+        insertPrep.setInt(2, currentTournament.getTournamentID());
+        updatePrep.setInt(2, currentTournament.getTournamentID());
+        deletePrep.setInt(1, currentTournament.getTournamentID());
+
+        boolean haveInserts = false;
+        boolean haveUpdates = false;
+        for (final Map.Entry<Integer, Double> entry : overallScores.entrySet()) {
+          final int teamNumber = entry.getKey();
+          final double overallScore = entry.getValue();
+
+          final @Nullable Double stored = storedScores.remove(teamNumber);
+          if (null == stored) {
+            insertPrep.setDouble(1, overallScore);
+            insertPrep.setInt(3, teamNumber);
+            insertPrep.addBatch();
+            haveInserts = true;
+          } else if (Double.compare(stored, overallScore) != 0) {
+            updatePrep.setDouble(1, overallScore);
+            updatePrep.setInt(3, teamNumber);
+            updatePrep.addBatch();
+            haveUpdates = true;
+          }
+        } // foreach team
+
+        // teams no longer in the tournament
+        for (final int teamNumber : storedScores.keySet()) {
+          deletePrep.setInt(2, teamNumber);
+          deletePrep.addBatch();
+        }
+
+        if (haveInserts) {
+          insertPrep.executeBatch();
+        }
+        if (haveUpdates) {
+          updatePrep.executeBatch();
+        }
+        if (!storedScores.isEmpty()) {
+          deletePrep.executeBatch();
+        }
+      } // PreparedStatements
 
       currentTournament.recordScoreSummariesUpdated(connection);
-    } // PreparedStatements
+
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  /**
+   * Primary key of final_scores within a tournament.
+   */
+  private static final class FinalScoreKey {
+    FinalScoreKey(final String category,
+                  final String goalGroup,
+                  final int teamNumber) {
+      this.category = category;
+      this.goalGroup = goalGroup;
+      this.teamNumber = teamNumber;
+    }
+
+    private final String category;
+
+    private final String goalGroup;
+
+    private final int teamNumber;
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(category, goalGroup, teamNumber);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (null == o
+          || getClass() != o.getClass()) {
+        return false;
+      } else {
+        final FinalScoreKey other = (FinalScoreKey) o;
+        return teamNumber == other.teamNumber
+            && category.equals(other.category)
+            && goalGroup.equals(other.goalGroup);
+      }
+    }
   }
 
 }
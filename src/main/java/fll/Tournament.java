@@ -31,6 +31,9 @@ import fll.db.GenerateDB;
 import fll.db.Queries;
 import fll.util.FLLInternalException;
 import fll.web.admin.Tournaments;
+import fll.web.event.ScheduleChanged;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEventBus;
 import fll.xml.ChallengeDescription;
 import fll.xml.SubjectiveScoreCategory;
 
@@ -552,6 +555,9 @@ public final class Tournament implements Serializable {
   /**
    * Delete a tournament.
    * This will delete a tournament if there are no scores associated with it.
+   * When the connection is in auto-commit mode the tournament is deleted in a
+   * single transaction, otherwise the caller owns the transaction and is
+   * responsible for committing it.
    * 
    * @param connection database connection
    * @param tournamentID tournament to delete
@@ -560,49 +566,84 @@ public final class Tournament implements Serializable {
   public static void deleteTournament(final Connection connection,
                                       final int tournamentID)
       throws SQLException {
-    try (PreparedStatement deleteTables = connection.prepareStatement("DELETE FROM TableNames WHERE tournament = ?")) {
-      deleteTables.setInt(1, tournamentID);
-      deleteTables.executeUpdate();
-    }
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
 
-    try (PreparedStatement deleteJudges = connection.prepareStatement("DELETE FROM judges WHERE tournament = ?")) {
-      deleteJudges.setInt(1, tournamentID);
-      deleteJudges.executeUpdate();
-    }
+      try (PreparedStatement deleteTables = connection.prepareStatement("DELETE FROM TableNames WHERE tournament = ?")) {
+        deleteTables.setInt(1, tournamentID);
+        deleteTables.executeUpdate();
+      }
 
-    try (
-        PreparedStatement deleteSchedulePerf = connection.prepareStatement("DELETE FROM sched_perf_rounds WHERE tournament = ?")) {
-      deleteSchedulePerf.setInt(1, tournamentID);
-      deleteSchedulePerf.executeUpdate();
-    }
+      try (PreparedStatement deleteJudges = connection.prepareStatement("DELETE FROM judges WHERE tournament = ?")) {
+        deleteJudges.setInt(1, tournamentID);
+        deleteJudges.executeUpdate();
+      }
 
-    try (
-        PreparedStatement deleteScheduleSubj = connection.prepareStatement("DELETE FROM sched_subjective WHERE tournament = ?")) {
-      deleteScheduleSubj.setInt(1, tournamentID);
-      deleteScheduleSubj.executeUpdate();
-    }
+      try (
+          PreparedStatement deleteSchedulePerf = connection.prepareStatement("DELETE FROM sched_perf_rounds WHERE tournament = ?")) {
+        deleteSchedulePerf.setInt(1, tournamentID);
+        deleteSchedulePerf.executeUpdate();
+      }
 
-    try (PreparedStatement deleteSchedule = connection.prepareStatement("DELETE FROM schedule WHERE tournament = ?")) {
-      deleteSchedule.setInt(1, tournamentID);
-      deleteSchedule.executeUpdate();
-    }
+      try (
+          PreparedStatement deleteScheduleSubj = connection.prepareStatement("DELETE FROM sched_subjective WHERE tournament = ?")) {
+        deleteScheduleSubj.setInt(1, tournamentID);
+        deleteScheduleSubj.executeUpdate();
+      }
 
-    try (
-        PreparedStatement deleteTournamentParameters = connection.prepareStatement("DELETE FROM tournament_parameters WHERE tournament = ?")) {
-      deleteTournamentParameters.setInt(1, tournamentID);
-      deleteTournamentParameters.executeUpdate();
-    }
+      try (PreparedStatement deleteSchedule = connection.prepareStatement("DELETE FROM schedule WHERE tournament = ?")) {
+        deleteSchedule.setInt(1, tournamentID);
+        deleteSchedule.executeUpdate();
+      }
 
-    try (
-        PreparedStatement deleteTournamentTeams = connection.prepareStatement("DELETE FROM TournamentTeams WHERE tournament = ?")) {
-      deleteTournamentTeams.setInt(1, tournamentID);
-      deleteTournamentTeams.executeUpdate();
-    }
+      try (
+          PreparedStatement deleteTournamentParameters = connection.prepareStatement("DELETE FROM tournament_parameters WHERE tournament = ?")) {
+        deleteTournamentParameters.setInt(1, tournamentID);
+        deleteTournamentParameters.executeUpdate();
+      }
 
-    try (
-        PreparedStatement deleteTournament = connection.prepareStatement("DELETE FROM Tournaments WHERE tournament_id = ?")) {
-      deleteTournament.setInt(1, tournamentID);
-      deleteTournament.executeUpdate();
+      try (
+          PreparedStatement deleteStatistics = connection.prepareStatement("DELETE FROM subjective_score_statistics WHERE tournament = ?")) {
+        deleteStatistics.setInt(1, tournamentID);
+        deleteStatistics.executeUpdate();
+      }
+
+      try (
+          PreparedStatement deleteSeeding = connection.prepareStatement("DELETE FROM performance_seeding_max WHERE tournament = ?")) {
+        deleteSeeding.setInt(1, tournamentID);
+        deleteSeeding.executeUpdate();
+      }
+
+      try (
+          PreparedStatement deleteTournamentTeams = connection.prepareStatement("DELETE FROM TournamentTeams WHERE tournament = ?")) {
+        deleteTournamentTeams.setInt(1, tournamentID);
+        deleteTournamentTeams.executeUpdate();
+      }
+
+      try (
+          PreparedStatement deleteTournament = connection.prepareStatement("DELETE FROM Tournaments WHERE tournament_id = ?")) {
+        deleteTournament.setInt(1, tournamentID);
+        deleteTournament.executeUpdate();
+      }
+
+      // drop anything cached for the tournament once the delete is visible to
+      // other connections
+      TournamentEventBus.publishAfterCommit(connection, new ScheduleChanged(tournamentID));
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(tournamentID));
+
+      if (autoCommit) {
+        connection.commit();
+        TournamentEventBus.transactionCommitted(connection);
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+        TournamentEventBus.transactionRolledBack(connection);
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
     }
   }
 
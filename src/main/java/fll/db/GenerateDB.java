@@ -41,7 +41,7 @@ public final class GenerateDB {
   /**
    * Version of the database that will be created.
    */
-  public static final int DATABASE_VERSION = 34;
+  public static final int DATABASE_VERSION = 36;
 
   private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
 
@@ -319,6 +319,8 @@ public final class GenerateDB {
       }
 
       createSubjectiveComputedScoresTable(connection, true);
+      createSubjectiveScoreStatisticsTable(connection, true);
+      createPerformanceSeedingMaxTable(connection, true);
       createFinalScoresTable(connection, true);
       createOverallScoresTable(connection, true);
 
@@ -351,17 +353,6 @@ public final class GenerateDB {
           + "           AND TP2.tournament IN (-1, T1.tournament_id ) )) as seeding_rounds" //
           + "      FROM tournaments as T1");
 
-      // max seeding round score for all tournaments
-      stmt.executeUpdate("DROP VIEW IF EXISTS performance_seeding_max");
-      stmt.executeUpdate("CREATE VIEW performance_seeding_max AS "//
-          + "    SELECT MAX(Performance.TeamNumber) AS TeamNumber" //
-          + "         , MAX(Performance.ComputedTotal) AS score" //
-          + "         , AVG(Performance.ComputedTotal) AS average" //
-          + "         , Performance.tournament" //
-          + "    FROM Performance, tournament_seeding_rounds AS TSR" //
-          + "    WHERE Performance.RunNumber <= TSR.seeding_rounds" //
-          + "    GROUP BY Performance.tournament, Performance.TeamNumber");
-
       // verified performance scores
       stmt.executeUpdate("DROP VIEW IF EXISTS verified_performance");
       stmt.executeUpdate("CREATE VIEW verified_performance AS SELECT "
@@ -876,6 +867,75 @@ public final class GenerateDB {
     }
   }
 
+  /**
+   * Create the subjective_score_statistics table.
+   *
+   * @param connection database connection
+   * @param createConstraints true if creating constraints, false when using from
+   *          {@link ImportDB} to upgrade a database
+   * @see SubjectiveScoreStatistics
+   */
+  /* package */ static void createSubjectiveScoreStatisticsTable(final Connection connection,
+                                                                 final boolean createConstraints)
+      throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+
+      final StringBuilder sql = new StringBuilder();
+      sql.append("CREATE TABLE subjective_score_statistics (");
+      sql.append("  tournament INTEGER NOT NULL");
+      sql.append(" ,category LONGVARCHAR NOT NULL");
+      sql.append(" ,goal_group LONGVARCHAR NOT NULL");
+      sql.append(" ,judge VARCHAR(64) NOT NULL");
+      sql.append(" ,score_count INTEGER DEFAULT 0 NOT NULL");
+      sql.append(" ,score_mean float DEFAULT 0 NOT NULL");
+      // sum of the squared differences of the scores from score_mean
+      sql.append(" ,score_m2 float DEFAULT 0 NOT NULL");
+      // the standardized mean and sigma used the last time the judge's scores
+      // were standardized, null when the scores have changed since then
+      sql.append(" ,standardized_mean float DEFAULT NULL");
+      sql.append(" ,standardized_sigma float DEFAULT NULL");
+      if (createConstraints) {
+        sql.append(" ,CONSTRAINT subjective_score_statistics_pk PRIMARY KEY (tournament, category, goal_group, judge)");
+        sql.append(" ,CONSTRAINT subjective_score_statistics_fk1 FOREIGN KEY(tournament) REFERENCES Tournaments(tournament_id)");
+      }
+      sql.append(")");
+
+      stmt.executeUpdate(sql.toString());
+    }
+  }
+
+  /**
+   * Create the performance_seeding_max table.
+   *
+   * @param connection database connection
+   * @param createConstraints true if creating constraints, false when using from
+   *          {@link ImportDB} to upgrade a database
+   * @see PerformanceSeedingMax
+   */
+  /* package */ static void createPerformanceSeedingMaxTable(final Connection connection,
+                                                             final boolean createConstraints)
+      throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+
+      final StringBuilder sql = new StringBuilder();
+      sql.append("CREATE TABLE performance_seeding_max (");
+      sql.append("  tournament INTEGER NOT NULL");
+      sql.append(" ,TeamNumber INTEGER NOT NULL");
+      // null when all of the team's seeding runs are no shows
+      sql.append(" ,score float DEFAULT NULL");
+      sql.append(" ,average float DEFAULT NULL");
+      sql.append(" ,seeding_runs INTEGER NOT NULL");
+      if (createConstraints) {
+        sql.append(" ,CONSTRAINT performance_seeding_max_pk PRIMARY KEY (tournament, TeamNumber)");
+        sql.append(" ,CONSTRAINT performance_seeding_max_fk1 FOREIGN KEY(tournament) REFERENCES Tournaments(tournament_id)");
+        sql.append(" ,CONSTRAINT performance_seeding_max_fk2 FOREIGN KEY(TeamNumber) REFERENCES Teams(TeamNumber)");
+      }
+      sql.append(")");
+
+      stmt.executeUpdate(sql.toString());
+    }
+  }
+
   /**
    * Create the final_scores table.
    *
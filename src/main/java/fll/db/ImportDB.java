@@ -23,6 +23,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -62,6 +63,9 @@ import fll.util.FLLRuntimeException;
 import fll.web.GatherBugReport;
 import fll.web.UserRole;
 import fll.web.developer.importdb.ImportDBDump;
+import fll.web.event.ScheduleChanged;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEventBus;
 import fll.xml.AbstractGoal;
 import fll.xml.ChallengeDescription;
 import fll.xml.ChallengeParser;
@@ -652,6 +656,16 @@ public final class ImportDB {
       upgrade33To34(connection);
     }
 
+    dbVersion = Queries.getDatabaseVersion(connection);
+    if (dbVersion < 35) {
+      upgrade34To35(connection);
+    }
+
+    dbVersion = Queries.getDatabaseVersion(connection);
+    if (dbVersion < 36) {
+      upgrade35To36(connection);
+    }
+
     // NOTE: when adding new tournament parameters they need to be explicitly set in
     // importTournamentParameters
 
@@ -1244,6 +1258,33 @@ public final class ImportDB {
     setDBVersion(connection, 33);
   }
 
+  /**
+   * Add running totals of the subjective scores used for standardization.
+   */
+  private static void upgrade34To35(final Connection connection) throws SQLException {
+    LOGGER.debug("Upgrading database from 34 to 35");
+
+    GenerateDB.createSubjectiveScoreStatisticsTable(connection, false);
+    SubjectiveScoreStatistics.rebuild(connection);
+
+    setDBVersion(connection, 35);
+  }
+
+  /**
+   * Replace the performance_seeding_max view with a table.
+   */
+  private static void upgrade35To36(final Connection connection) throws SQLException {
+    LOGGER.debug("Upgrading database from 35 to 36");
+
+    try (Statement stmt = connection.createStatement()) {
+      stmt.executeUpdate("DROP VIEW IF EXISTS performance_seeding_max");
+    }
+    GenerateDB.createPerformanceSeedingMaxTable(connection, false);
+    PerformanceSeedingMax.rebuild(connection);
+
+    setDBVersion(connection, 36);
+  }
+
   /**
    * Add tournament parameter for number of practice rounds.
    */
@@ -1685,14 +1726,15 @@ public final class ImportDB {
    *          be imported
    * @param importSubjective if the subjective data should be imported
    * @param importFinalist if the finalist schedule should be imported
+   * @return information about the import
    * @throws SQLException on a database error
    */
-  public static void importDatabase(final Connection sourceConnection,
-                                    final Connection destinationConnection,
-                                    final String tournamentName,
-                                    final boolean importPerformance,
-                                    final boolean importSubjective,
-                                    final boolean importFinalist)
+  public static ImportStatistics importDatabase(final Connection sourceConnection,
+                                                final Connection destinationConnection,
+                                                final String tournamentName,
+                                                final boolean importPerformance,
+                                                final boolean importSubjective,
+                                                final boolean importFinalist)
       throws SQLException {
 
     final ChallengeDescription description = GlobalParameters.getChallengeDescription(destinationConnection);
@@ -1705,22 +1747,51 @@ public final class ImportDB {
     LOGGER.debug("Importing tournament {} sourceId: {} destId: {}", tournamentName, sourceTournamentID,
                  destTournamentID);
 
-    importTournamentData(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
+    // everything is imported in one transaction so that the destination
+    // database never has partially imported data
+    final boolean autoCommit = destinationConnection.getAutoCommit();
+    try {
+      destinationConnection.setAutoCommit(false);
 
-    if (importPerformance) {
-      importPerformanceData(sourceConnection, destinationConnection, description, sourceTournamentID, destTournamentID);
-    }
+      importTournamentData(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
 
-    if (importSubjective) {
-      importSubjectiveData(sourceConnection, destinationConnection, description, sourceTournamentID, destTournamentID);
-    }
+      final ImportStatistics statistics;
+      if (importPerformance) {
+        statistics = importPerformanceData(sourceConnection, destinationConnection, description, sourceTournamentID,
+                                           destTournamentID);
+      } else {
+        statistics = new ImportStatistics(0, Duration.ZERO);
+      }
 
-    if (importFinalist) {
-      importFinalistSchedule(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
-    }
+      if (importSubjective) {
+        importSubjectiveData(sourceConnection, destinationConnection, description, sourceTournamentID,
+                             destTournamentID);
+      }
+
+      if (importFinalist) {
+        importFinalistSchedule(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
+      }
+
+      // update score totals, performance totals are computed in
+      // importPerformanceData
+      if (importSubjective) {
+        Queries.updateSubjectiveScoreTotals(description, destinationConnection, destTournamentID);
+      }
 
-    // update score totals
-    Queries.updateScoreTotals(description, destinationConnection, destTournamentID);
+      if (autoCommit) {
+        destinationConnection.commit();
+        TournamentEventBus.transactionCommitted(destinationConnection);
+      }
+      return statistics;
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        destinationConnection.rollback();
+        TournamentEventBus.transactionRolledBack(destinationConnection);
+      }
+      throw e;
+    } finally {
+      destinationConnection.setAutoCommit(autoCommit);
+    }
   }
 
   private static void importSubjectiveData(final Connection sourceConnection,
@@ -1737,18 +1808,30 @@ public final class ImportDB {
     importAwardReportGroupSort(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
   }
 
-  private static void importPerformanceData(final Connection sourceConnection,
-                                            final Connection destinationConnection,
-                                            final ChallengeDescription description,
-                                            final int sourceTournamentID,
-                                            final int destTournamentID)
+  private static ImportStatistics importPerformanceData(final Connection sourceConnection,
+                                                        final Connection destinationConnection,
+                                                        final ChallengeDescription description,
+                                                        final int sourceTournamentID,
+                                                        final int destTournamentID)
       throws SQLException {
-    importPerformance(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID, description);
+    final long start = System.nanoTime();
+
+    final int numRows = importPerformance(sourceConnection, destinationConnection, sourceTournamentID,
+                                          destTournamentID, description);
+    // one pass over the imported rows rather than computing each row on insert
+    Queries.updatePerformanceScoreTotals(description, destinationConnection, destTournamentID);
 
     importPlayoffData(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
     importPlayoffTeams(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
 
     importDelayedPerformance(sourceConnection, destinationConnection, sourceTournamentID, destTournamentID);
+
+    final ImportStatistics statistics = new ImportStatistics(numRows, Duration.ofNanos(System.nanoTime()
+        - start));
+    LOGGER.info("Imported {} performance scores in {} ms ({} scores/second)", statistics.getNumPerformanceScores(),
+                statistics.getPerformanceDuration().toMillis(),
+                String.format("%.1f", statistics.getPerformanceScoresPerSecond()));
+    return statistics;
   }
 
   private static void importDelayedPerformance(final Connection sourceConnection,
@@ -1826,16 +1909,22 @@ public final class ImportDB {
     copyData(sourcePrep, 0, destPrep, 1, -1);
   }
 
-  private static void copyData(final PreparedStatement sourcePrep,
-                               final int sourceOffset,
-                               final PreparedStatement destPrep,
-                               final int destOffset,
-                               final int columnCountOverride)
+  /**
+   * Copy all rows from <code>sourcePrep</code> to <code>destPrep</code> as a
+   * batch.
+   *
+   * @return the number of rows copied
+   */
+  private static int copyData(final PreparedStatement sourcePrep,
+                              final int sourceOffset,
+                              final PreparedStatement destPrep,
+                              final int destOffset,
+                              final int columnCountOverride)
       throws SQLException {
     try (ResultSet sourceRS = sourcePrep.executeQuery()) {
       final int columnCount = -1 == columnCountOverride ? sourceRS.getMetaData().getColumnCount() : columnCountOverride;
 
-      boolean needsExecute = false;
+      int numRows = 0;
       while (sourceRS.next()) {
         for (int i = 1; i <= columnCount; i++) {
           Object sourceObj = sourceRS.getObject(i
@@ -1846,13 +1935,14 @@ public final class ImportDB {
           destPrep.setObject(i
               + destOffset, sourceObj);
         }
-        needsExecute = true;
+        ++numRows;
         destPrep.addBatch();
       }
 
-      if (needsExecute) {
+      if (numRows > 0) {
         destPrep.executeBatch();
       }
+      return numRows;
     } // sourceRs
   }
 
@@ -1871,6 +1961,10 @@ public final class ImportDB {
 
     importAwardsScriptData(sourceConnection, destinationConnection, GenerateDB.INTERNAL_TOURNAMENT_LEVEL_ID,
                            sourceTournamentID, GenerateDB.INTERNAL_TOURNAMENT_LEVEL_ID, destTournamentID);
+
+    // published once the import is committed
+    TournamentEventBus.publishAfterCommit(destinationConnection, new TeamsChanged(destTournamentID));
+    TournamentEventBus.publishAfterCommit(destinationConnection, new ScheduleChanged(destTournamentID));
   }
 
   private static void importSchedule(final Connection sourceConnection,
@@ -2190,10 +2284,11 @@ public final class ImportDB {
    * @param destTournamentID
    * @param sourceConnection
    * @param sourceTournamentID
+   * @return the number of rows imported
    * @throws SQLException
    */
   @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Dynamic based upon goals and category")
-  private static void importCommon(final StringBuilder columns,
+  private static int importCommon(final StringBuilder columns,
                                    final String tableName,
                                    final int numColumns,
                                    final Connection destinationConnection,
@@ -2224,18 +2319,18 @@ public final class ImportDB {
 
       destPrep.setInt(1, destTournamentID);
       sourcePrep.setInt(1, sourceTournamentID);
-      copyData(sourcePrep, 1, destPrep, 1, numColumns
+      return copyData(sourcePrep, 1, destPrep, 1, numColumns
           - 1);
     }
 
   }
 
   @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Dynamic table based upon category")
-  private static void importPerformance(final Connection sourceConnection,
-                                        final Connection destinationConnection,
-                                        final int sourceTournamentID,
-                                        final int destTournamentID,
-                                        final ChallengeDescription description)
+  private static int importPerformance(final Connection sourceConnection,
+                                       final Connection destinationConnection,
+                                       final int sourceTournamentID,
+                                       final int destTournamentID,
+                                       final ChallengeDescription description)
       throws SQLException {
     LOGGER.debug("Importing performance scores");
     final PerformanceScoreCategory performanceElement = description.getPerformance();
@@ -2268,8 +2363,8 @@ public final class ImportDB {
     columns.append(" Bye,");
     columns.append(" Verified");
 
-    importCommon(columns, tableName, numColumns, destinationConnection, destTournamentID, sourceConnection,
-                 sourceTournamentID);
+    return importCommon(columns, tableName, numColumns, destinationConnection, destTournamentID, sourceConnection,
+                        sourceTournamentID);
   }
 
   /**
@@ -2851,4 +2946,56 @@ public final class ImportDB {
 
   }
 
+  /**
+   * Information about an import from
+   * {@link ImportDB#importDatabase(Connection, Connection, String, boolean, boolean, boolean)}.
+   */
+  public static final class ImportStatistics {
+
+    /**
+     * @param numPerformanceScores {@link #getNumPerformanceScores()}
+     * @param performanceDuration {@link #getPerformanceDuration()}
+     */
+    public ImportStatistics(final int numPerformanceScores,
+                            final Duration performanceDuration) {
+      this.numPerformanceScores = numPerformanceScores;
+      this.performanceDuration = performanceDuration;
+    }
+
+    private final int numPerformanceScores;
+
+    /**
+     * @return the number of performance scores imported
+     */
+    public int getNumPerformanceScores() {
+      return numPerformanceScores;
+    }
+
+    private final Duration performanceDuration;
+
+    /**
+     * @return how long the import of the performance data took
+     */
+    public Duration getPerformanceDuration() {
+      return performanceDuration;
+    }
+
+    /**
+     * @return performance scores imported per second, 0 if no scores were
+     *         imported
+     */
+    public double getPerformanceScoresPerSecond() {
+      final long nanos = performanceDuration.toNanos();
+      if (0 == numPerformanceScores
+          || 0 == nanos) {
+        return 0;
+      } else {
+        return numPerformanceScores
+            / (nanos
+                / 1E9);
+      }
+    }
+
+  }
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Maintains the table performance_seeding_max. The table has a row per
+ * tournament and team that has performance scores in the seeding rounds with
+ * the maximum score, the average score and the number of seeding runs.
+ * The rows are updated when seeding round scores are written and when the
+ * number of seeding rounds for a tournament changes, so that reading the
+ * seeding scores of a team doesn't need to group the Performance table.
+ * Playoff runs are after the seeding rounds and don't change the table.
+ */
+public final class PerformanceSeedingMax {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private PerformanceSeedingMax() {
+  }
+
+  /**
+   * Recompute the row for a team after one of the team's seeding round scores
+   * changes.
+   *
+   * @param connection the database connection
+   * @param tournament the tournament the score is in
+   * @param teamNumber the team the score is for
+   * @throws SQLException on a database error
+   */
+  public static void updateTeam(final Connection connection,
+                                final int tournament,
+                                final int teamNumber)
+      throws SQLException {
+    final int seedingRounds = TournamentParameters.getNumSeedingRounds(connection, tournament);
+
+    try (PreparedStatement delete = connection.prepareStatement("DELETE FROM performance_seeding_max" //
+        + " WHERE tournament = ? AND TeamNumber = ?");
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO performance_seeding_max" //
+            + " (tournament, TeamNumber, score, average, seeding_runs)" //
+            + " SELECT Tournament, TeamNumber, MAX(ComputedTotal), AVG(ComputedTotal), COUNT(*)" //
+            + " FROM Performance" //
+            + " WHERE Tournament = ?" //
+            + "   AND TeamNumber = ?" //
+            + "   AND RunNumber <= ?" //
+            + " GROUP BY Tournament, TeamNumber")) {
+      delete.setInt(1, tournament);
+      delete.setInt(2, teamNumber);
+      delete.executeUpdate();
+
+      insert.setInt(1, tournament);
+      insert.setInt(2, teamNumber);
+      insert.setInt(3, seedingRounds);
+      insert.executeUpdate();
+    }
+  }
+
+  /**
+   * Recompute the rows for all teams in a tournament. Used when the number of
+   * seeding rounds changes or many scores are written at once.
+   *
+   * @param connection the database connection
+   * @param tournament the tournament to update
+   * @throws SQLException on a database error
+   */
+  public static void updateTournament(final Connection connection,
+                                      final int tournament)
+      throws SQLException {
+    final int seedingRounds = TournamentParameters.getNumSeedingRounds(connection, tournament);
+    LOGGER.trace("Updating seeding scores for tournament {} with {} seeding rounds", tournament, seedingRounds);
+
+    try (PreparedStatement delete = connection.prepareStatement("DELETE FROM performance_seeding_max" //
+        + " WHERE tournament = ?");
+        PreparedStatement insert = connection.prepareStatement("INSERT INTO performance_seeding_max" //
+            + " (tournament, TeamNumber, score, average, seeding_runs)" //
+            + " SELECT Tournament, TeamNumber, MAX(ComputedTotal), AVG(ComputedTotal), COUNT(*)" //
+            + " FROM Performance" //
+            + " WHERE Tournament = ?" //
+            + "   AND RunNumber <= ?" //
+            + " GROUP BY Tournament, TeamNumber")) {
+      delete.setInt(1, tournament);
+      delete.executeUpdate();
+
+      insert.setInt(1, tournament);
+      insert.setInt(2, seedingRounds);
+      insert.executeUpdate();
+    }
+  }
+
+  /**
+   * Compute the rows for all tournaments. Used when upgrading a database.
+   *
+   * @param connection the database connection
+   * @throws SQLException on a database error
+   */
+  /* package */ static void rebuild(final Connection connection) throws SQLException {
+    final List<Integer> tournaments = new LinkedList<>();
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT tournament_id FROM Tournaments")) {
+      while (rs.next()) {
+        tournaments.add(rs.getInt(1));
+      }
+    }
+
+    for (final int tournament : tournaments) {
+      updateTournament(connection, tournament);
+    }
+  }
+
+}
@@ -16,10 +16,12 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -39,13 +41,17 @@ import fll.TournamentTeam;
 import fll.Utilities;
 import fll.util.FLLInternalException;
 import fll.util.FLLRuntimeException;
+import fll.web.NotificationQueue;
+import fll.web.event.PerformanceScoreChanged;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
 import fll.web.playoff.BracketUpdate;
 import fll.web.playoff.DatabaseTeamScore;
 import fll.web.playoff.H2HUpdateWebSocket;
 import fll.web.playoff.HttpTeamScore;
 import fll.web.playoff.Playoff;
 import fll.web.playoff.TeamScore;
-import fll.web.scoreEntry.UnverifiedRunsWebSocket;
 import fll.xml.AbstractGoal;
 import fll.xml.ChallengeDescription;
 import fll.xml.PerformanceScoreCategory;
@@ -288,6 +294,7 @@ public final class Queries {
                                                     final Connection connection,
                                                     final HttpServletRequest request)
       throws SQLException, ParseException, RuntimeException {
+    final NotificationQueue notifications = new NotificationQueue();
     final int oldTransactionIsolation = connection.getTransactionIsolation();
     final boolean oldAutoCommit = connection.getAutoCommit();
     try {
@@ -295,18 +302,22 @@ public final class Queries {
       connection.setAutoCommit(false);
       connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
 
-      final int rowsUpdated = updatePerformanceScore(description, connection, request);
+      final Tournament tournament = Tournament.getCurrentTournament(connection);
+      final int rowsUpdated = updatePerformanceScore(description, connection, tournament, request, notifications);
       if (rowsUpdated < 1) {
-        insertPerformanceScore(description, connection, request);
+        insertPerformanceScore(description, connection, tournament, request, notifications);
       }
       connection.commit();
+    } catch (final SQLException | ParseException | RuntimeException e) {
+      notifications.discard();
+      connection.rollback();
+      throw e;
     } finally {
       connection.setTransactionIsolation(oldTransactionIsolation);
       connection.setAutoCommit(oldAutoCommit);
     }
 
-    // notify that there may be more runs to verify
-    UnverifiedRunsWebSocket.notifyToUpdate();
+    notifications.publish();
   }
 
   /**
@@ -320,14 +331,36 @@ public final class Queries {
    * @throws RuntimeException if a parameter is missing.
    * @throws ParseException if the team number cannot be parsed
    */
-  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Goals determine columns")
   public static void insertPerformanceScore(final ChallengeDescription description,
                                             final Connection connection,
                                             final HttpServletRequest request)
       throws SQLException, ParseException, RuntimeException {
-    final int currentTournament = getCurrentTournament(connection);
-    final Tournament tournament = Tournament.findTournamentByID(connection, currentTournament);
+    final Tournament tournament = Tournament.getCurrentTournament(connection);
+    final NotificationQueue notifications = new NotificationQueue();
+    insertPerformanceScore(description, connection, tournament, request, notifications);
+    notifications.publish();
+  }
 
+  /**
+   * Insert a performance score into the database. All of the values are
+   * expected to be in request. The display notifications are added to
+   * <code>notifications</code> for the caller to publish.
+   *
+   * @param description describes the challenge
+   * @param connection database connection
+   * @param tournament the tournament to insert the score into
+   * @param request HTTP request with all of the data
+   * @param notifications where to put the display notifications
+   * @throws SQLException on a database error.
+   * @throws RuntimeException if a parameter is missing.
+   * @throws ParseException if the team number cannot be parsed
+   */
+  public static void insertPerformanceScore(final ChallengeDescription description,
+                                            final Connection connection,
+                                            final Tournament tournament,
+                                            final HttpServletRequest request,
+                                            final NotificationQueue notifications)
+      throws SQLException, ParseException, RuntimeException {
     final String teamNumberStr = request.getParameter("TeamNumber");
     if (null == teamNumberStr) {
       throw new RuntimeException("Missing parameter: TeamNumber");
@@ -349,7 +382,7 @@ public final class Queries {
 
     final TeamScore teamScore = new HttpTeamScore(teamNumber, runNumber, request);
 
-    insertPerformanceScore(connection, description, tournament, verified, teamScore);
+    insertPerformanceScore(connection, description, tournament, verified, teamScore, notifications);
   }
 
   /**
@@ -364,13 +397,40 @@ public final class Queries {
    * @throws SQLException on a database error
    * @throws ParseException on an error parsing the score data
    */
-  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate list of columns off the goals")
   public static void insertPerformanceScore(final Connection connection,
                                             final ChallengeDescription description,
                                             final Tournament tournament,
                                             final boolean verified,
                                             final TeamScore teamScore)
       throws SQLException, ParseException {
+    final NotificationQueue notifications = new NotificationQueue();
+    insertPerformanceScore(connection, description, tournament, verified, teamScore, notifications);
+    notifications.publish();
+  }
+
+  /**
+   * Insert a performance score into the database and do all appropriate updates
+   * to the playoff tables. The notifications to the UI code are added to
+   * <code>notifications</code> for the caller to publish once the changes are
+   * committed.
+   *
+   * @param connection the database connection
+   * @param description the challenge description
+   * @param tournament which tournament
+   * @param verified if the run is verified
+   * @param teamScore the team score
+   * @param notifications where to put the display notifications
+   * @throws SQLException on a database error
+   * @throws ParseException on an error parsing the score data
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate list of columns off the goals")
+  public static void insertPerformanceScore(final Connection connection,
+                                            final ChallengeDescription description,
+                                            final Tournament tournament,
+                                            final boolean verified,
+                                            final TeamScore teamScore,
+                                            final NotificationQueue notifications)
+      throws SQLException, ParseException {
     final WinnerType winnerCriteria = description.getWinner();
     final PerformanceScoreCategory performanceElement = description.getPerformance();
     final List<TiebreakerTest> tiebreakerElement = performanceElement.getTiebreaker();
@@ -447,23 +507,28 @@ public final class Queries {
             LOGGER.trace("Updating playoff score from insert");
           }
           updatePlayoffScore(connection, verified, tournament.getTournamentID(), winnerCriteria, performanceElement,
-                             tiebreakerElement, teamScore.getTeamNumber(), teamScore.getRunNumber(), teamScore);
+                             tiebreakerElement, teamScore.getTeamNumber(), teamScore.getRunNumber(), teamScore,
+                             notifications);
         } else {
           // send H2H update that this team's score is entered
           final String bracketName = Playoff.getPlayoffDivision(connection, tournament.getTournamentID(),
                                                                 teamScore.getTeamNumber(), teamScore.getRunNumber());
           final Team team = Team.getTeamFromDatabase(connection, teamScore.getTeamNumber());
+          final int dbLine = getPlayoffTableLineNumber(connection, tournament.getTournamentID(),
+                                                       teamScore.getTeamNumber(), teamScore.getRunNumber());
 
-          H2HUpdateWebSocket.updateBracket(connection, performanceElement.getScoreType(), bracketName, team,
-                                           teamScore.getRunNumber());
+          H2HUpdateWebSocket.queueBracketUpdate(notifications, connection, tournament.getTournamentID(),
+                                                performanceElement.getScoreType(), bracketName, team,
+                                                teamScore.getRunNumber(), dbLine);
         }
       } // running head to head
     } else {
+      PerformanceSeedingMax.updateTeam(connection, tournament.getTournamentID(), teamScore.getTeamNumber());
       tournament.recordPerformanceSeedingModified(connection);
     }
 
-    // notify that there may be more runs to verify
-    UnverifiedRunsWebSocket.notifyToUpdate();
+    notifications.add(new PerformanceScoreChanged(tournament.getTournamentID(), teamScore.getTeamNumber(),
+                                                  teamScore.getRunNumber()));
   }
 
   /**
@@ -509,13 +574,41 @@ public final class Queries {
    * @throws ParseException if the XML document is invalid.
    * @throws RuntimeException if a parameter is missing.
    */
-  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate list of columns off the goals")
   public static int updatePerformanceScore(final ChallengeDescription description,
                                            final Connection connection,
                                            final HttpServletRequest request)
       throws SQLException, ParseException, RuntimeException {
-    final int currentTournament = getCurrentTournament(connection);
-    final Tournament tournament = Tournament.findTournamentByID(connection, currentTournament);
+    final Tournament tournament = Tournament.getCurrentTournament(connection);
+    final NotificationQueue notifications = new NotificationQueue();
+    final int numRowsUpdated = updatePerformanceScore(description, connection, tournament, request, notifications);
+    notifications.publish();
+    return numRowsUpdated;
+  }
+
+  /**
+   * Update a performance score in the database. All of the values are expected
+   * to be in request. The display notifications are added to
+   * <code>notifications</code> for the caller to publish.
+   *
+   * @param description
+   *          description of the challenge
+   * @param connection database connection
+   * @param tournament the tournament that the score is in
+   * @param request HTTP request that contains the expected values
+   * @param notifications where to put the display notifications
+   * @return the number of rows updated, should be 0 or 1
+   * @throws SQLException on a database error.
+   * @throws ParseException if the XML document is invalid.
+   * @throws RuntimeException if a parameter is missing.
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate list of columns off the goals")
+  public static int updatePerformanceScore(final ChallengeDescription description,
+                                           final Connection connection,
+                                           final Tournament tournament,
+                                           final HttpServletRequest request,
+                                           final NotificationQueue notifications)
+      throws SQLException, ParseException, RuntimeException {
+    final int currentTournament = tournament.getTournamentID();
 
     final WinnerType winnerCriteria = description.getWinner();
     final PerformanceScoreCategory performanceElement = description.getPerformance();
@@ -610,15 +703,15 @@ public final class Queries {
 
           final boolean verified = "1".equals(request.getParameter("Verified"));
           updatePlayoffScore(connection, verified, currentTournament, winnerCriteria, performanceElement,
-                             tiebreakerElement, teamNumber, runNumber, teamScore);
+                             tiebreakerElement, teamNumber, runNumber, teamScore, notifications);
         }
       } else {
+        PerformanceSeedingMax.updateTeam(connection, currentTournament, teamNumber);
         tournament.recordPerformanceSeedingModified(connection);
       }
-    }
 
-    // notify that there may be more runs to verify
-    UnverifiedRunsWebSocket.notifyToUpdate();
+      notifications.add(new PerformanceScoreChanged(currentTournament, teamNumber, runNumber));
+    }
 
     return numRowsUpdated;
   }
@@ -635,7 +728,8 @@ public final class Queries {
                                          final List<TiebreakerTest> tiebreakerElement,
                                          final int teamNumber,
                                          final int runNumber,
-                                         final TeamScore teamScore)
+                                         final TeamScore teamScore,
+                                         final NotificationQueue notifications)
       throws SQLException, ParseException {
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Updating playoff score for team: "
@@ -662,7 +756,8 @@ public final class Queries {
             + score);
       }
 
-      H2HUpdateWebSocket.updateBracket(connection, performanceElement.getScoreType(), division, team, runNumber);
+      H2HUpdateWebSocket.queueBracketUpdate(notifications, connection, currentTournament,
+                                            performanceElement.getScoreType(), division, team, runNumber, ptLine);
 
       final int siblingDbLine = ptLine
           % 2 == 0 ? ptLine
@@ -752,7 +847,8 @@ public final class Queries {
         if (!verified
             || !(Queries.performanceScoreExists(connection, currentTournament, teamB, runNumber)
                 && Queries.isVerified(connection, currentTournament, teamB, runNumber))) {
-          removePlayoffScore(connection, division, currentTournament, runNumber, ptLine);
+          removePlayoffScore(connection, performanceElement.getScoreType(), division, currentTournament, runNumber,
+                             ptLine, notifications);
         } else if (null != newWinner) {
           // have a winner to record
           final Team newLoser;
@@ -761,7 +857,8 @@ public final class Queries {
           } else {
             newLoser = team;
           }
-          updatePlayoffData(connection, division, currentTournament, runNumber, ptLine, newWinner, newLoser);
+          updatePlayoffData(connection, performanceElement.getScoreType(), division, currentTournament, runNumber,
+                            ptLine, newWinner, newLoser, notifications);
 
         } // verified score
       } // no sibling
@@ -781,12 +878,38 @@ public final class Queries {
    * @param runNumber run number to delete
    * @throws SQLException on a database error
    */
-  @SuppressFBWarnings(value = "OBL_UNSATISFIED_OBLIGATION", justification = "Bug in findbugs - ticket:2924739")
   public static void deletePerformanceScore(final Connection connection,
                                             final int teamNumber,
                                             final int runNumber)
       throws SQLException {
-    final int currentTournament = getCurrentTournament(connection);
+    final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
+    final Tournament tournament = Tournament.getCurrentTournament(connection);
+    final NotificationQueue notifications = new NotificationQueue();
+    deletePerformanceScore(connection, description, tournament, teamNumber, runNumber, notifications);
+    notifications.publish();
+  }
+
+  /**
+   * Delete a performance score in the database. The display notifications are
+   * added to <code>notifications</code> for the caller to publish.
+   *
+   * @param connection database connection
+   * @param description the challenge description
+   * @param tournament the tournament to delete the score from
+   * @param teamNumber team to delete the score for
+   * @param runNumber run number to delete
+   * @param notifications where to put the display notifications
+   * @throws SQLException on a database error
+   */
+  @SuppressFBWarnings(value = "OBL_UNSATISFIED_OBLIGATION", justification = "Bug in findbugs - ticket:2924739")
+  public static void deletePerformanceScore(final Connection connection,
+                                            final ChallengeDescription description,
+                                            final Tournament tournament,
+                                            final int teamNumber,
+                                            final int runNumber,
+                                            final NotificationQueue notifications)
+      throws SQLException {
+    final int currentTournament = tournament.getTournamentID();
 
     final int numSeedingRounds = TournamentParameters.getNumSeedingRounds(connection, currentTournament);
 
@@ -873,8 +996,9 @@ public final class Queries {
 
       deletePrep.executeUpdate();
 
-      if (runNumber > numSeedingRounds) {
-        final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
+      if (runNumber <= numSeedingRounds) {
+        PerformanceSeedingMax.updateTeam(connection, currentTournament, teamNumber);
+      } else {
         final PerformanceScoreCategory performance = description.getPerformance();
         final ScoreType performanceScoreType = performance.getScoreType();
 
@@ -882,15 +1006,16 @@ public final class Queries {
 
         // if the delete of the performance score succeeded it's save to remove the
         // information from the playoff table
-        removePlayoffScore(connection, division, currentTournament, runNumber, dbLine);
+        removePlayoffScore(connection, performanceScoreType, division, currentTournament, runNumber, dbLine,
+                           notifications);
 
         // update the display for the deleted score
-        H2HUpdateWebSocket.updateBracket(connection, performanceScoreType, division, team, runNumber);
+        H2HUpdateWebSocket.queueBracketUpdate(notifications, connection, currentTournament, performanceScoreType,
+                                              division, team, runNumber, dbLine);
       }
     }
 
-    // notify that the list of unverified runs may have changed
-    UnverifiedRunsWebSocket.notifyToUpdate();
+    notifications.add(new PerformanceScoreChanged(currentTournament, teamNumber, runNumber));
   }
 
   /**
@@ -899,11 +1024,13 @@ public final class Queries {
    * LineNumber).
    */
   private static void updatePlayoffTable(final Connection connection,
+                                         final ScoreType performanceScoreType,
                                          final Team team,
                                          final String division,
                                          final int currentTournament,
                                          final int runNumber,
-                                         final int lineNumber)
+                                         final int lineNumber,
+                                         final NotificationQueue notifications)
       throws SQLException {
 
     try (PreparedStatement prep = connection.prepareStatement("UPDATE PlayoffData" //
@@ -938,33 +1065,35 @@ public final class Queries {
 
     }
 
-    final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
-    final PerformanceScoreCategory performance = description.getPerformance();
-    final ScoreType performanceScoreType = performance.getScoreType();
-
-    H2HUpdateWebSocket.updateBracket(connection, performanceScoreType, division, team, runNumber, lineNumber);
+    H2HUpdateWebSocket.queueBracketUpdate(notifications, connection, currentTournament, performanceScoreType, division,
+                                          team, runNumber, lineNumber);
   }
 
   /**
    * Remove the playoff score for the next run.
    */
   private static void removePlayoffScore(final Connection connection,
+                                         final ScoreType performanceScoreType,
                                          final String division,
                                          final int currentTournament,
                                          final int runNumber,
-                                         final int ptLine)
+                                         final int ptLine,
+                                         final NotificationQueue notifications)
       throws SQLException {
     // winner and loser are both null now
-    updatePlayoffData(connection, division, currentTournament, runNumber, ptLine, Team.NULL, Team.NULL);
+    updatePlayoffData(connection, performanceScoreType, division, currentTournament, runNumber, ptLine, Team.NULL,
+                      Team.NULL, notifications);
   }
 
   private static void updatePlayoffData(final Connection connection,
+                                        final ScoreType performanceScoreType,
                                         final String bracketName,
                                         final int tournamentId,
                                         final int runNumber,
                                         final int dbLine,
                                         final Team winner,
-                                        final Team loser)
+                                        final Team loser,
+                                        final NotificationQueue notifications)
       throws SQLException {
     final int nextRunNumber = runNumber
         + 1;
@@ -972,7 +1101,8 @@ public final class Queries {
         + 1)
         / 2);
 
-    updatePlayoffTable(connection, winner, bracketName, tournamentId, nextRunNumber, nextDbLine);
+    updatePlayoffTable(connection, performanceScoreType, winner, bracketName, tournamentId, nextRunNumber, nextDbLine,
+                       notifications);
 
     final int semiFinalRound = getNumPlayoffRounds(connection, tournamentId, bracketName)
         - 1;
@@ -980,7 +1110,8 @@ public final class Queries {
     if (playoffRun == semiFinalRound
         && isThirdPlaceEnabled(connection, tournamentId, bracketName)) {
       final int thirdPlaceDbLine = Playoff.computeThirdPlaceDbLine(dbLine);
-      updatePlayoffTable(connection, loser, bracketName, tournamentId, nextRunNumber, thirdPlaceDbLine);
+      updatePlayoffTable(connection, performanceScoreType, loser, bracketName, tournamentId, nextRunNumber,
+                         thirdPlaceDbLine, notifications);
     }
   }
 
@@ -1336,6 +1467,12 @@ public final class Queries {
         prep.executeUpdate();
       }
 
+      // delete from performance_seeding_max
+      try (PreparedStatement prep = connection.prepareStatement("DELETE FROM performance_seeding_max WHERE TeamNumber = ?")) {
+        prep.setInt(1, teamNumber);
+        prep.executeUpdate();
+      }
+
       // delete from final_scores
       try (PreparedStatement prep = connection.prepareStatement("DELETE FROM final_scores WHERE team_number = ?")) {
         prep.setInt(1, teamNumber);
@@ -1348,7 +1485,8 @@ public final class Queries {
         prep.executeUpdate();
       }
 
-      // delete from overall_scores
+      // delete from subjective_computed_scores
+      SubjectiveScoreStatistics.removeTeam(connection, teamNumber, null);
       try (
           PreparedStatement prep = connection.prepareStatement("DELETE FROM subjective_computed_scores WHERE team_number = ?")) {
         prep.setInt(1, teamNumber);
@@ -1386,6 +1524,8 @@ public final class Queries {
         }
       }
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
   }
 
   /**
@@ -1410,96 +1550,290 @@ public final class Queries {
   /**
    * Compute the total scores for all entered subjective scores.
    * This populates the table subjecive_computed_scores.
+   * The scores are compared with the totals that are already stored and only
+   * the rows that changed are written, so that summarizing the scores again
+   * after a few scores have been entered doesn't rewrite every row. The
+   * standardized score of a changed row is cleared and the changes are added
+   * to {@link SubjectiveScoreStatistics}, see
+   * {@link fll.ScoreStandardization#standardizeSubjectiveScores(Connection, int)}.
+   * The changes are written in batches in a single transaction. If the
+   * connection is already in a transaction the caller is responsible for
+   * committing.
    *
-   * @param connection
-   * @throws SQLException
+   * @param description description of the challenge
+   * @param connection connection to the database
+   * @param tournament the tournament to update scores for
+   * @throws SQLException on a database error
    */
   @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Category determines table name")
-  private static void updateSubjectiveScoreTotals(final ChallengeDescription description,
+  public static void updateSubjectiveScoreTotals(final ChallengeDescription description,
                                                   final Connection connection,
                                                   final int tournament)
       throws SQLException {
+    final Map<SubjectiveComputedScoreKey, SubjectiveComputedScore> storedScores = getSubjectiveComputedScores(connection,
+                                                                                                             tournament);
 
-    try (
-        PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM subjective_computed_scores WHERE tournament = ?")) {
-      deletePrep.setInt(1, tournament);
-      deletePrep.executeUpdate();
-    }
-
-    for (final SubjectiveScoreCategory subjectiveElement : description.getSubjectiveCategories()) {
-      final String categoryName = subjectiveElement.getName();
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
 
       try (PreparedStatement insertPrep = connection.prepareStatement("INSERT INTO subjective_computed_scores"//
-          + " (category, goal_group, tournament, team_number, judge, computed_total, no_show) " //
+          + " (computed_total, no_show, category, goal_group, tournament, team_number, judge) " //
           + " VALUES(?, ?, ?, ?, ?, ?, ?)");
-          PreparedStatement selectPrep = connection.prepareStatement("SELECT * FROM " //
+          PreparedStatement updatePrep = connection.prepareStatement("UPDATE subjective_computed_scores" //
+              + " SET computed_total = ?, no_show = ?, standardized_score = NULL" //
+              + " WHERE category = ? AND goal_group = ? AND tournament = ? AND team_number = ? AND judge = ?");
+          PreparedStatement deletePrep = connection.prepareStatement("DELETE FROM subjective_computed_scores" //
+              + " WHERE category = ? AND goal_group = ? AND tournament = ? AND team_number = ? AND judge = ?")) {
+        final SubjectiveScoreStatistics statistics = new SubjectiveScoreStatistics(tournament);
+        int numInserts = 0;
+        int numUpdates = 0;
+
+        for (final SubjectiveScoreCategory subjectiveElement : description.getSubjectiveCategories()) {
+          final String categoryName = subjectiveElement.getName();
+
+          try (PreparedStatement selectPrep = connection.prepareStatement("SELECT * FROM " //
               + categoryName //
               + " WHERE Tournament = ?")) {
-        selectPrep.setInt(1, tournament);
+            selectPrep.setInt(1, tournament);
+
+            try (ResultSet rs = selectPrep.executeQuery()) {
+              while (rs.next()) {
+                final int teamNumber = rs.getInt("TeamNumber");
+                final String judge = castNonNull(rs.getString("Judge"));
+
+                try (DatabaseTeamScore teamScore = new DatabaseTeamScore(teamNumber, rs)) {
+                  final double computedTotal;
+                  if (teamScore.isNoShow()) {
+                    computedTotal = Double.NaN;
+                  } else {
+                    computedTotal = subjectiveElement.evaluate(teamScore);
+                  }
+
+                  // goal group scores and the category score
+                  final Map<String, Double> scores = new HashMap<>(subjectiveElement.getGoalGroupScores(teamScore));
+                  scores.put("", computedTotal);
+
+                  for (final Map.Entry<String, Double> entry : scores.entrySet()) {
+                    final SubjectiveComputedScoreKey key = new SubjectiveComputedScoreKey(categoryName,
+                                                                                          entry.getKey(), teamNumber,
+                                                                                          judge);
+                    final SubjectiveComputedScore score = new SubjectiveComputedScore(entry.getValue(),
+                                                                                      teamScore.isNoShow());
+
+                    final @Nullable SubjectiveComputedScore stored = storedScores.remove(key);
+                    if (null == stored) {
+                      setSubjectiveComputedScore(insertPrep, tournament, key, score);
+                      insertPrep.addBatch();
+                      statistics.add(key.category, key.goalGroup, key.judge, score.computedTotal, score.noShow);
+                      ++numInserts;
+                    } else if (!stored.equals(score)) {
+                      setSubjectiveComputedScore(updatePrep, tournament, key, score);
+                      updatePrep.addBatch();
+                      statistics.remove(key.category, key.goalGroup, key.judge, stored.computedTotal, stored.noShow);
+                      statistics.add(key.category, key.goalGroup, key.judge, score.computedTotal, score.noShow);
+                      ++numUpdates;
+                    }
+                  }
+                } // team score
+              } // foreach result
+            } // ResultSet
+          } // select
+        } // foreach category
+
+        // anything left was deleted from the category tables
+        for (final Map.Entry<SubjectiveComputedScoreKey, SubjectiveComputedScore> entry : storedScores.entrySet()) {
+          final SubjectiveComputedScoreKey key = entry.getKey();
+          final SubjectiveComputedScore stored = entry.getValue();
+          statistics.remove(key.category, key.goalGroup, key.judge, stored.computedTotal, stored.noShow);
+
+          deletePrep.setString(1, key.category);
+          deletePrep.setString(2, key.goalGroup);
+          deletePrep.setInt(3, tournament);
+          deletePrep.setInt(4, key.teamNumber);
+          deletePrep.setString(5, key.judge);
+          deletePrep.addBatch();
+        }
 
-        insertPrep.setString(1, categoryName);
-        insertPrep.setInt(3, tournament);
+        if (numInserts > 0) {
+          insertPrep.executeBatch();
+        }
+        if (numUpdates > 0) {
+          updatePrep.executeBatch();
+        }
+        if (!storedScores.isEmpty()) {
+          deletePrep.executeBatch();
+        }
+        statistics.store(connection);
 
-        try (ResultSet rs = selectPrep.executeQuery()) {
-          while (rs.next()) {
-            final int teamNumber = rs.getInt("TeamNumber");
-            insertPrep.setInt(4, teamNumber);
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Subjective computed scores for tournament "
+              + tournament
+              + " inserted: "
+              + numInserts
+              + " updated: "
+              + numUpdates
+              + " deleted: "
+              + storedScores.size());
+        }
+      } // prepared statements
 
-            try (DatabaseTeamScore teamScore = new DatabaseTeamScore(teamNumber, rs)) {
-              final double computedTotal;
-              if (teamScore.isNoShow()) {
-                computedTotal = Double.NaN;
-              } else {
-                computedTotal = subjectiveElement.evaluate(teamScore);
-              }
+      if (autoCommit) {
+        connection.commit();
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
 
-              final String judge = rs.getString("Judge");
-              insertPrep.setString(5, judge);
+  /**
+   * Set parameters 1 - 7 of a statement that uses the columns in the order
+   * computed_total, no_show, category, goal_group, tournament, team_number,
+   * judge.
+   */
+  private static void setSubjectiveComputedScore(final PreparedStatement prep,
+                                                 final int tournament,
+                                                 final SubjectiveComputedScoreKey key,
+                                                 final SubjectiveComputedScore score)
+      throws SQLException {
+    if (null == score.computedTotal) {
+      prep.setNull(1, Types.DOUBLE);
+    } else {
+      prep.setDouble(1, score.computedTotal);
+    }
+    prep.setBoolean(2, score.noShow);
+    prep.setString(3, key.category);
+    prep.setString(4, key.goalGroup);
+    prep.setInt(5, tournament);
+    prep.setInt(6, key.teamNumber);
+    prep.setString(7, key.judge);
+  }
 
-              insertPrep.setBoolean(7, teamScore.isNoShow());
+  private static Map<SubjectiveComputedScoreKey, SubjectiveComputedScore> getSubjectiveComputedScores(final Connection connection,
+                                                                                                      final int tournament)
+      throws SQLException {
+    final Map<SubjectiveComputedScoreKey, SubjectiveComputedScore> scores = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT category, goal_group, team_number, judge" //
+        + ", computed_total, no_show" //
+        + " FROM subjective_computed_scores" //
+        + " WHERE tournament = ?")) {
+      prep.setInt(1, tournament);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final SubjectiveComputedScoreKey key = new SubjectiveComputedScoreKey(castNonNull(rs.getString(1)),
+                                                                                castNonNull(rs.getString(2)),
+                                                                                rs.getInt(3),
+                                                                                castNonNull(rs.getString(4)));
+          double computedTotal = rs.getDouble(5);
+          if (rs.wasNull()) {
+            computedTotal = Double.NaN;
+          }
+          scores.put(key, new SubjectiveComputedScore(computedTotal, rs.getBoolean(6)));
+        }
+      }
+    }
+    return scores;
+  }
 
-              // insert category score
-              insertPrep.setString(2, "");
-              if (Double.isNaN(computedTotal)) {
-                insertPrep.setNull(6, Types.DOUBLE);
-              } else {
-                insertPrep.setDouble(6, computedTotal);
-              }
-              insertPrep.executeUpdate();
-
-              // insert goal group scores
-              final Map<String, Double> goalGroupScores = subjectiveElement.getGoalGroupScores(teamScore);
-              for (final Map.Entry<String, Double> entry : goalGroupScores.entrySet()) {
-                final String group = entry.getKey();
-                final double score = entry.getValue();
-
-                insertPrep.setString(2, group);
-                if (Double.isNaN(score)) {
-                  insertPrep.setNull(6, Types.DOUBLE);
-                } else {
-                  insertPrep.setDouble(6, score);
-                }
-                insertPrep.executeUpdate();
-              }
-            } // team score
-          } // foreach result
-        } // ResultSet
-      } // prepared statements
-    } // foreach category
+  /**
+   * Primary key of subjective_computed_scores within a tournament.
+   */
+  private static final class SubjectiveComputedScoreKey {
+    SubjectiveComputedScoreKey(final String category,
+                               final String goalGroup,
+                               final int teamNumber,
+                               final String judge) {
+      this.category = category;
+      this.goalGroup = goalGroup;
+      this.teamNumber = teamNumber;
+      this.judge = judge;
+    }
+
+    private final String category;
+
+    private final String goalGroup;
+
+    private final int teamNumber;
+
+    private final String judge;
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(category, goalGroup, teamNumber, judge);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (null == o
+          || getClass() != o.getClass()) {
+        return false;
+      } else {
+        final SubjectiveComputedScoreKey other = (SubjectiveComputedScoreKey) o;
+        return teamNumber == other.teamNumber
+            && category.equals(other.category)
+            && goalGroup.equals(other.goalGroup)
+            && judge.equals(other.judge);
+      }
+    }
+  }
+
+  /**
+   * Value of a row in subjective_computed_scores.
+   */
+  private static final class SubjectiveComputedScore {
+    /**
+     * @param computedTotal the score, NaN is stored as null
+     */
+    SubjectiveComputedScore(final double computedTotal,
+                            final boolean noShow) {
+      this.computedTotal = Double.isNaN(computedTotal) ? null : computedTotal;
+      this.noShow = noShow;
+    }
+
+    private final @Nullable Double computedTotal;
+
+    private final boolean noShow;
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(computedTotal, noShow);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (null == o
+          || getClass() != o.getClass()) {
+        return false;
+      } else {
+        final SubjectiveComputedScore other = (SubjectiveComputedScore) o;
+        return noShow == other.noShow
+            && Objects.equals(computedTotal, other.computedTotal);
+      }
+    }
   }
 
   /**
    * Compute the total scores for all entered performance scores. Uses both
-   * verified and unverified scores.
+   * verified and unverified scores. The seeding scores in
+   * {@link PerformanceSeedingMax} are updated as well.
    *
    * @param description description of the challenge
    * @param connection connection to the database
    * @param tournament the tournament to update scores for.
    * @throws SQLException on a database error
    */
-  private static void updatePerformanceScoreTotals(final ChallengeDescription description,
-                                                   final Connection connection,
-                                                   final int tournament)
+  public static void updatePerformanceScoreTotals(final ChallengeDescription description,
+                                                  final Connection connection,
+                                                  final int tournament)
       throws SQLException {
     try (
         PreparedStatement updatePrep = connection.prepareStatement("UPDATE Performance SET ComputedTotal = ? WHERE TeamNumber = ? AND Tournament = ? AND RunNumber = ?");
@@ -1510,6 +1844,7 @@ public final class Queries {
 
       final PerformanceScoreCategory performanceElement = description.getPerformance();
       final double minimumPerformanceScore = performanceElement.getMinimumScore();
+      boolean needsExecute = false;
       try (ResultSet rs = selectPrep.executeQuery()) {
         while (rs.next()) {
           if (!rs.getBoolean("Bye")) {
@@ -1541,11 +1876,18 @@ public final class Queries {
             }
             updatePrep.setInt(2, teamNumber);
             updatePrep.setInt(4, runNumber);
-            updatePrep.executeUpdate();
+            updatePrep.addBatch();
+            needsExecute = true;
           }
         }
       }
+
+      if (needsExecute) {
+        updatePrep.executeBatch();
+      }
     }
+
+    PerformanceSeedingMax.updateTournament(connection, tournament);
   }
 
   /**
@@ -1590,13 +1932,19 @@ public final class Queries {
                                                 final int tournamentID,
                                                 final String judgingStation)
       throws SQLException {
+    final boolean modified;
     try (
         PreparedStatement prep = connection.prepareStatement("UPDATE TournamentTeams SET judging_station = ? WHERE TeamNumber = ? AND Tournament = ?")) {
       prep.setString(1, judgingStation);
       prep.setInt(2, teamNumber);
       prep.setInt(3, tournamentID);
-      return prep.executeUpdate() > 0;
+      modified = prep.executeUpdate() > 0;
+    }
+
+    if (modified) {
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(tournamentID));
     }
+    return modified;
   }
 
   /**
@@ -1636,6 +1984,14 @@ public final class Queries {
       prep.executeUpdate();
     }
 
+    // delete from performance_seeding_max
+    try (
+        PreparedStatement prep = connection.prepareStatement("DELETE FROM performance_seeding_max WHERE TeamNumber = ? AND tournament = ?")) {
+      prep.setInt(1, teamNumber);
+      prep.setInt(2, currentTournament);
+      prep.executeUpdate();
+    }
+
     // delete from final_scores
     try (
         PreparedStatement prep = connection.prepareStatement("DELETE FROM final_scores WHERE team_number = ? AND tournament = ?")) {
@@ -1653,6 +2009,7 @@ public final class Queries {
     }
 
     // delete from subjective_computed_scores
+    SubjectiveScoreStatistics.removeTeam(connection, teamNumber, currentTournament);
     try (
         PreparedStatement prep = connection.prepareStatement("DELETE FROM subjective_computed_scores WHERE team_number = ? AND tournament = ?")) {
       prep.setInt(1, teamNumber);
@@ -1696,6 +2053,7 @@ public final class Queries {
       prep.executeUpdate();
     }
 
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(currentTournament));
   }
 
   /**
@@ -1754,6 +2112,8 @@ public final class Queries {
         }
       }
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
     return null;
   }
 
@@ -1808,6 +2168,7 @@ public final class Queries {
       prep.executeUpdate();
     }
 
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(tournament));
   }
 
   /**
@@ -1831,6 +2192,8 @@ public final class Queries {
       prep.setInt(3, number);
       prep.executeUpdate();
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
   }
 
   /**
@@ -1854,6 +2217,8 @@ public final class Queries {
       prep.setInt(3, tournamentID);
       prep.executeUpdate();
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(tournamentID));
   }
 
   /**
@@ -1873,6 +2238,8 @@ public final class Queries {
       prep.setInt(2, number);
       prep.executeUpdate();
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
   }
 
   /**
@@ -1893,6 +2260,8 @@ public final class Queries {
       prep.setInt(2, number);
       prep.executeUpdate();
     }
+
+    TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
   }
 
   /**
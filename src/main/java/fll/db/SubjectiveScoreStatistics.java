@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.db;
+
+import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Running totals of the subjective computed scores that are used to
+ * standardize the subjective scores. The table subjective_score_statistics has
+ * a row per tournament, category, goal group and judge with the count, mean and
+ * sum of squared differences from the mean of the computed totals that are
+ * standardized, those that are not null and not a no show. The mean and
+ * standard deviation of a judge's scores are computed from these without
+ * reading the judge's scores. The totals are kept as a mean and sum of squared
+ * differences (Welford) rather than a sum and sum of squares so that the
+ * variance doesn't lose its precision when the scores are large compared to
+ * their spread.
+ * The totals are updated whenever rows in subjective_computed_scores change and
+ * the row is marked as needing to be standardized again, see
+ * {@link fll.ScoreStandardization#standardizeSubjectiveScores(Connection, int)}.
+ */
+public final class SubjectiveScoreStatistics {
+
+  private final int tournament;
+
+  private final Map<Key, Delta> deltas = new HashMap<>();
+
+  /**
+   * Collect changes to the statistics of a tournament.
+   *
+   * @param tournament the tournament the changes are for
+   */
+  /* package */ SubjectiveScoreStatistics(final int tournament) {
+    this.tournament = tournament;
+  }
+
+  /**
+   * Note that a row was added to subjective_computed_scores.
+   *
+   * @param category the category
+   * @param goalGroup the goal group, empty string for the category score
+   * @param judge the judge
+   * @param computedTotal the score, null if there isn't one
+   * @param noShow true if the team was a no show
+   */
+  /* package */ void add(final String category,
+                         final String goalGroup,
+                         final String judge,
+                         final @Nullable Double computedTotal,
+                         final boolean noShow) {
+    update(category, goalGroup, judge, computedTotal, noShow, 1);
+  }
+
+  /**
+   * Note that a row was removed from subjective_computed_scores.
+   *
+   * @param category the category
+   * @param goalGroup the goal group, empty string for the category score
+   * @param judge the judge
+   * @param computedTotal the score, null if there isn't one
+   * @param noShow true if the team was a no show
+   */
+  /* package */ void remove(final String category,
+                            final String goalGroup,
+                            final String judge,
+                            final @Nullable Double computedTotal,
+                            final boolean noShow) {
+    update(category, goalGroup, judge, computedTotal, noShow, -1);
+  }
+
+  private void update(final String category,
+                      final String goalGroup,
+                      final String judge,
+                      final @Nullable Double computedTotal,
+                      final boolean noShow,
+                      final int sign) {
+    // the judge's scores need to be standardized again even if the totals
+    // don't change, the scores in the group may have been swapped
+    final Delta delta = deltas.computeIfAbsent(new Key(category, goalGroup, judge), k -> new Delta());
+    if (null != computedTotal
+        && !noShow) {
+      if (sign > 0) {
+        delta.added.add(computedTotal);
+      } else {
+        delta.removed.add(computedTotal);
+      }
+    }
+  }
+
+  /**
+   * Add the collected changes to the database. Each judge that has changes is
+   * marked as needing to be standardized again.
+   * The stored totals are combined with the added scores and then with the
+   * removed scores, a removal is a combination with a negative count. Both
+   * happen in the database so that concurrent changes for the same judge
+   * aren't lost.
+   *
+   * @param connection the database connection
+   * @throws SQLException on a database error
+   */
+  /* package */ void store(final Connection connection) throws SQLException {
+    if (deltas.isEmpty()) {
+      return;
+    }
+
+    // combining (n, mean, m2) with (dn, dmean, dm2):
+    // n' = n + dn
+    // mean' = mean + dn * (dmean - mean) / n'
+    // m2' = m2 + dm2 + (dmean - mean)^2 * n * dn / n'
+    try (PreparedStatement prep = connection.prepareStatement("MERGE INTO subjective_score_statistics" //
+        + " USING (VALUES(CAST(? AS INTEGER), CAST(? AS LONGVARCHAR), CAST(? AS LONGVARCHAR), CAST(? AS VARCHAR(64))" //
+        + ", CAST(? AS INTEGER), CAST(? AS DOUBLE), CAST(? AS DOUBLE)))" //
+        + " AS delta(tournament, category, goal_group, judge, score_count, score_mean, score_m2)" //
+        + " ON subjective_score_statistics.tournament = delta.tournament" //
+        + " AND subjective_score_statistics.category = delta.category" //
+        + " AND subjective_score_statistics.goal_group = delta.goal_group" //
+        + " AND subjective_score_statistics.judge = delta.judge" //
+        + " WHEN MATCHED THEN UPDATE SET" //
+        + "   score_count = subjective_score_statistics.score_count + delta.score_count" //
+        + " , score_mean = CASE WHEN subjective_score_statistics.score_count + delta.score_count = 0 THEN 0" //
+        + "     ELSE subjective_score_statistics.score_mean" //
+        + "       + delta.score_count * (delta.score_mean - subjective_score_statistics.score_mean)" //
+        + "       / (subjective_score_statistics.score_count + delta.score_count) END" //
+        + " , score_m2 = CASE WHEN subjective_score_statistics.score_count + delta.score_count = 0 THEN 0" //
+        + "     ELSE GREATEST(0, subjective_score_statistics.score_m2 + delta.score_m2" //
+        + "       + (delta.score_mean - subjective_score_statistics.score_mean)" //
+        + "       * (delta.score_mean - subjective_score_statistics.score_mean)" //
+        + "       * subjective_score_statistics.score_count * delta.score_count" //
+        + "       / (subjective_score_statistics.score_count + delta.score_count)) END" //
+        + " , standardized_mean = NULL" //
+        + " , standardized_sigma = NULL" //
+        + " WHEN NOT MATCHED THEN INSERT" //
+        + " (tournament, category, goal_group, judge, score_count, score_mean, score_m2)" //
+        + " VALUES (delta.tournament, delta.category, delta.goal_group, delta.judge" //
+        + ", delta.score_count, delta.score_mean, delta.score_m2)")) {
+      prep.setInt(1, tournament);
+      for (final Map.Entry<Key, Delta> entry : deltas.entrySet()) {
+        final Key key = entry.getKey();
+        final Delta delta = entry.getValue();
+        prep.setString(2, key.category);
+        prep.setString(3, key.goalGroup);
+        prep.setString(4, key.judge);
+
+        // always store the added scores, this marks the judge even if there
+        // are no changes to the totals
+        prep.setInt(5, delta.added.count);
+        prep.setDouble(6, delta.added.mean);
+        prep.setDouble(7, delta.added.m2);
+        prep.addBatch();
+
+        if (delta.removed.count > 0) {
+          prep.setInt(5, -delta.removed.count);
+          prep.setDouble(6, delta.removed.mean);
+          prep.setDouble(7, -delta.removed.m2);
+          prep.addBatch();
+        }
+      }
+      prep.executeBatch();
+    }
+
+    deltas.clear();
+  }
+
+  /**
+   * Remove the scores of a team from the statistics. Call this before deleting
+   * the team's rows from subjective_computed_scores.
+   *
+   * @param connection the database connection
+   * @param teamNumber the team that is being removed
+   * @param tournament the tournament to remove the team from, null for all
+   *          tournaments
+   * @throws SQLException on a database error
+   */
+  @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Tournament restriction is optional")
+  /* package */ static void removeTeam(final Connection connection,
+                                       final int teamNumber,
+                                       final @Nullable Integer tournament)
+      throws SQLException {
+    final Map<Integer, SubjectiveScoreStatistics> statistics = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT tournament, category, goal_group, judge" //
+        + ", computed_total, no_show" //
+        + " FROM subjective_computed_scores" //
+        + " WHERE team_number = ?" //
+        + (null == tournament ? "" : " AND tournament = ?"))) {
+      prep.setInt(1, teamNumber);
+      if (null != tournament) {
+        prep.setInt(2, tournament);
+      }
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final int scoreTournament = rs.getInt(1);
+          final String category = castNonNull(rs.getString(2));
+          final String goalGroup = castNonNull(rs.getString(3));
+          final String judge = castNonNull(rs.getString(4));
+          final double computedTotal = rs.getDouble(5);
+          final @Nullable Double total = rs.wasNull() ? null : computedTotal;
+          final boolean noShow = rs.getBoolean(6);
+
+          statistics.computeIfAbsent(scoreTournament, SubjectiveScoreStatistics::new)
+                    .remove(category, goalGroup, judge, total, noShow);
+        }
+      }
+    }
+
+    for (final SubjectiveScoreStatistics tournamentStatistics : statistics.values()) {
+      tournamentStatistics.store(connection);
+    }
+  }
+
+  /**
+   * Compute the statistics for all tournaments from subjective_computed_scores.
+   * Used when upgrading a database.
+   *
+   * @param connection the database connection
+   * @throws SQLException on a database error
+   */
+  /* package */ static void rebuild(final Connection connection) throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.executeUpdate("DELETE FROM subjective_score_statistics");
+      stmt.executeUpdate("INSERT INTO subjective_score_statistics" //
+          + " (tournament, category, goal_group, judge, score_count, score_mean, score_m2)" //
+          + " SELECT scores.tournament, scores.category, scores.goal_group, scores.judge" //
+          + "   , COUNT(scores.computed_total)" //
+          + "   , COALESCE(MAX(means.score_mean), 0)" //
+          + "   , COALESCE(SUM((scores.computed_total - means.score_mean) * (scores.computed_total - means.score_mean)), 0)" //
+          + "   FROM subjective_computed_scores AS scores" //
+          + "   JOIN (SELECT tournament, category, goal_group, judge, AVG(computed_total) AS score_mean" //
+          + "     FROM subjective_computed_scores" //
+          + "     WHERE no_show = FALSE" //
+          + "     GROUP BY tournament, category, goal_group, judge) AS means" //
+          + "   ON scores.tournament = means.tournament" //
+          + "   AND scores.category = means.category" //
+          + "   AND scores.goal_group = means.goal_group" //
+          + "   AND scores.judge = means.judge" //
+          + "   WHERE scores.no_show = FALSE" //
+          + "   GROUP BY scores.tournament, scores.category, scores.goal_group, scores.judge");
+    }
+  }
+
+  /**
+   * Population standard deviation from running totals. Rounding errors from
+   * adding and removing scores can make the sum of squared differences slightly
+   * negative, this is treated as 0.
+   *
+   * @param count number of scores
+   * @param m2 sum of the squared differences of the scores from their mean
+   * @return the standard deviation, NaN if count is 0
+   */
+  public static double standardDeviation(final int count,
+                                         final double m2) {
+    return Math.sqrt(Math.max(0, m2)
+        / count);
+  }
+
+  /**
+   * Category, goal group and judge within the tournament.
+   */
+  private static final class Key {
+    Key(final String category,
+        final String goalGroup,
+        final String judge) {
+      this.category = category;
+      this.goalGroup = goalGroup;
+      this.judge = judge;
+    }
+
+    private final String category;
+
+    private final String goalGroup;
+
+    private final String judge;
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(category, goalGroup, judge);
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (null == o
+          || getClass() != o.getClass()) {
+        return false;
+      } else {
+        final Key other = (Key) o;
+        return category.equals(other.category)
+            && goalGroup.equals(other.goalGroup)
+            && judge.equals(other.judge);
+      }
+    }
+  }
+
+  /**
+   * Change to the totals of a judge.
+   */
+  private static final class Delta {
+    private final Moments added = new Moments();
+
+    private final Moments removed = new Moments();
+  }
+
+  /**
+   * Count, mean and sum of squared differences from the mean of some scores,
+   * updated with Welford's algorithm.
+   */
+  private static final class Moments {
+    private int count = 0;
+
+    private double mean = 0;
+
+    private double m2 = 0;
+
+    void add(final double value) {
+      ++count;
+      final double difference = value
+          - mean;
+      mean += difference
+          / count;
+      m2 += difference
+          * (value
+              - mean);
+    }
+  }
+
+}
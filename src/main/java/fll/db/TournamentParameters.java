@@ -387,6 +387,7 @@ public final class TournamentParameters {
                                          final int value)
       throws SQLException {
     setIntParameter(connection, tournament, SEEDING_ROUNDS, value);
+    PerformanceSeedingMax.updateTournament(connection, tournament);
   }
 
   /**
@@ -399,10 +400,13 @@ public final class TournamentParameters {
                                            final int tournament)
       throws SQLException {
     unsetParameter(connection, tournament, SEEDING_ROUNDS);
+    PerformanceSeedingMax.updateTournament(connection, tournament);
   }
 
   /**
    * Set the default value for the number of seeding rounds.
+   * This does not update {@link PerformanceSeedingMax} for the tournaments that
+   * use the default value, the default is only set when creating a database.
    * 
    * @param connection database connection
    * @param newSeedingRounds the new value
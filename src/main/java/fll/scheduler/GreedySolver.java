@@ -6,18 +6,27 @@
 
 package fll.scheduler;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -26,9 +35,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -36,20 +48,19 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.checkerframework.checker.initialization.qual.NotOnlyInitialized;
 import org.checkerframework.checker.initialization.qual.UnderInitialization;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.RequiresNonNull;
 
+import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
+
 import com.opencsv.CSVWriter;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fll.Utilities;
-import fll.db.CategoryColumnMapping;
 import fll.scheduler.SchedParams.InvalidParametersException;
-import fll.util.CellFileReader;
 import fll.util.CheckCanceled;
 import fll.util.FLLInternalException;
 import fll.util.FLLRuntimeException;
@@ -86,24 +97,46 @@ public class GreedySolver {
   private final int[][] performanceScheduled;
 
   /**
-   * group, team, station, time
+   * group, team, station; bit set for the time slot the team starts at the
+   * station.
+   */
+  private final BitSet[][][] sz;
+
+  /**
+   * group, team, table, side; bit set for each time slot the team is at the
+   * table.
+   */
+  private final BitSet[][][][] py;
+
+  /**
+   * group, team, table, side; bit set for the time slot the team starts at the
+   * table.
+   */
+  private final BitSet[][][][] pz;
+
+  /**
+   * group, team; bit set for each time slot the team is at any subjective
+   * station. A team is never at 2 stations at once, so a range can be cleared
+   * when unassigning.
    */
-  private final boolean[][][][] sy;
+  private final BitSet[][] teamSubjectiveOccupancy;
 
   /**
-   * group, team, station, time
+   * group, team; union of {@link #py} over all tables and sides. A team is
+   * never at 2 tables at once, so a range can be cleared when unassigning.
    */
-  private final boolean[][][][] sz;
+  private final BitSet[][] teamPerformanceOccupancy;
 
   /**
-   * group, team, table, side, time
+   * group, station; bit set for each time slot that a team in the group is at
+   * the station.
    */
-  private final boolean[][][][][] py;
+  private final BitSet[][] stationOccupancy;
 
   /**
-   * group, team, table, side, time
+   * table, side; union of {@link #py} over all teams.
    */
-  private final boolean[][][][][] pz;
+  private final BitSet[][] tableOccupancy;
 
   /**
    * next available time for group, station
@@ -132,18 +165,96 @@ public class GreedySolver {
     return mBestSchedule;
   }
 
+  /**
+   * @return the best solution found, shared with the other solvers when this
+   *         solver is part of a portfolio
+   */
+  /* package */ SolverIncumbent getIncumbent() {
+    return incumbent;
+  }
+
   private int solutionsFound = 0;
 
-  private @Nullable ObjectiveValue bestObjective = null;
+  private final SolverIncumbent incumbent;
+
+  /**
+   * The best solution found by this solver. Only this solver's own solutions
+   * tighten {@link #getNumTimeslots()}, the search for a seed is then the same
+   * whether or not other solvers share {@link #incumbent}. This is the same
+   * object as {@link #incumbent} if this solver owns it.
+   */
+  private final SolverIncumbent solverBest;
+
+  /**
+   * True if this solver is the only user of {@link #incumbent} and is
+   * responsible for writing out the best schedule.
+   */
+  private final boolean ownsIncumbent;
+
+  private final long seed;
+
+  /**
+   * Order to consider subjective stations in when more than 1 is available.
+   */
+  private final int[] stationOrder;
+
+  /**
+   * Order to consider tables in when more than 1 is available.
+   */
+  private final int[] tableOrder;
 
   private final boolean optimize;
 
+  /**
+   * The contents of {@link #datafile}, used to make sure that a checkpoint is
+   * for the same problem.
+   */
+  private final Properties description;
+
+  /**
+   * Where the state of the search is written so that it can be resumed.
+   */
+  private final File checkpointFile;
+
+  /**
+   * How often the state of the search is written to {@link #checkpointFile}.
+   */
+  private static final Duration CHECKPOINT_INTERVAL = Duration.ofMinutes(1);
+
+  /**
+   * Changed when the contents of the checkpoint file change.
+   */
+  private static final int CHECKPOINT_VERSION = 1;
+
+  /**
+   * Value of {@link System#nanoTime()} when the next checkpoint is due.
+   */
+  private long nextCheckpoint;
+
+  private final AtomicLong nodes = new AtomicLong(0);
+
+  /**
+   * @return the number of search nodes visited, safe to call from other
+   *         threads
+   */
+  /* package */ long getNodes() {
+    return nodes.get();
+  }
+
   private final @NotOnlyInitialized FewestAssignments fewestAssignments;
 
   private static final String OPTIMIZE_OPTION = "o";
 
   private static final String DATA_FILE_OPTION = "d";
 
+  private static final String THREADS_OPTION = "t";
+
+  private static final String SEED_OPTION = "s";
+
+  private static final String TIME_BUDGET_OPTION = "b";
+
+  private static final String RESUME_OPTION = "r";
+
   private static Options buildOptions() {
     final Options options = new Options();
     Option option = new Option(DATA_FILE_OPTION, "datafile", true, "<file> the file ");
@@ -153,6 +264,21 @@ public class GreedySolver {
     option = new Option(OPTIMIZE_OPTION, "optimize", false, "Turn on optimization (default: false)");
     options.addOption(option);
 
+    option = new Option(THREADS_OPTION, "threads", true, "<count> number of solvers to run in parallel (default: 1)");
+    options.addOption(option);
+
+    option = new Option(SEED_OPTION, "seed", true,
+                        "<seed> seed for the first solver, use the logged seed with 1 thread to repeat a search (default: 0)");
+    options.addOption(option);
+
+    option = new Option(TIME_BUDGET_OPTION, "time-budget", true,
+                        "<minutes> stop solving after this many minutes (default: max_solve_minutes from the datafile)");
+    options.addOption(option);
+
+    option = new Option(RESUME_OPTION, "resume", false,
+                        "Continue from the checkpoints of a previous run with the same options (default: false)");
+    options.addOption(option);
+
     return options;
   }
 
@@ -170,6 +296,10 @@ public class GreedySolver {
     // parse options
     boolean optimize = false;
     File datafile = null;
+    int numThreads = 1;
+    long seed = 0;
+    Duration timeBudget = null;
+    boolean resume = false;
     try {
       final CommandLineParser parser = new DefaultParser();
       final CommandLine cmd = parser.parse(options, args);
@@ -179,7 +309,20 @@ public class GreedySolver {
       }
 
       datafile = new File(cmd.getOptionValue(DATA_FILE_OPTION));
-    } catch (final org.apache.commons.cli.ParseException pe) {
+
+      if (cmd.hasOption(THREADS_OPTION)) {
+        numThreads = Integer.parseInt(cmd.getOptionValue(THREADS_OPTION));
+      }
+      if (cmd.hasOption(SEED_OPTION)) {
+        seed = Long.parseLong(cmd.getOptionValue(SEED_OPTION));
+      }
+      if (cmd.hasOption(TIME_BUDGET_OPTION)) {
+        timeBudget = Duration.ofMinutes(Long.parseLong(cmd.getOptionValue(TIME_BUDGET_OPTION)));
+      }
+      if (cmd.hasOption(RESUME_OPTION)) {
+        resume = true;
+      }
+    } catch (final org.apache.commons.cli.ParseException | NumberFormatException pe) {
       LOGGER.error(pe.getMessage());
       usage(options);
       System.exit(1);
@@ -192,9 +335,18 @@ public class GreedySolver {
         System.exit(4);
       }
 
-      final GreedySolver solver = new GreedySolver(datafile, optimize);
+      final PortfolioSolver solver = new PortfolioSolver(datafile, optimize, numThreads, seed, timeBudget);
+      if (resume) {
+        final int resumed = solver.resume();
+        LOGGER.info(resumed
+            + " of "
+            + numThreads
+            + " solvers continue from a checkpoint");
+      } else if (solver.hasCheckpoint()) {
+        LOGGER.info("Ignoring checkpoints from a previous run, use --resume to continue it");
+      }
       final long start = System.currentTimeMillis();
-      solver.solve(null);
+      solver.solve(null, progress -> LOGGER.info(progress.toString()));
       final long stop = System.currentTimeMillis();
       LOGGER.info("Solve took: "
           + (stop
@@ -225,8 +377,37 @@ public class GreedySolver {
   public GreedySolver(final File datafile,
                       final boolean optimize)
       throws IOException, ParseException, InvalidParametersException {
+    this(datafile, optimize, 0, null);
+  }
+
+  /**
+   * Create a solver that can be run as part of a portfolio. The seed decides
+   * the order that stations, tables and tied teams are tried in and adjusts
+   * the subjective attempt offset. A seed of 0 uses the parameters as
+   * specified. Running a solver with the same seed by itself repeats the same
+   * search.
+   *
+   * @param datafile the datafile for the schedule to solve
+   * @param optimize if true, find an optimal solution
+   * @param seed used to vary the search
+   * @param incumbent the best solution shared with other solvers, if null this
+   *          solver keeps its own and writes the best schedule when
+   *          {@link #solve(CheckCanceled)} finishes
+   * @throws ParseException if there is an error parsing the data file
+   * @throws InvalidParametersException if the parameters are not valid
+   * @throws IOException if there is an error reading the file
+   */
+  /* package */ GreedySolver(final File datafile,
+                             final boolean optimize,
+                             final long seed,
+                             final @Nullable SolverIncumbent incumbent)
+      throws IOException, ParseException, InvalidParametersException {
     this.datafile = datafile;
     this.optimize = optimize;
+    this.seed = seed;
+    this.ownsIncumbent = null == incumbent;
+    this.incumbent = null == incumbent ? new SolverIncumbent() : incumbent;
+    this.solverBest = ownsIncumbent ? this.incumbent : new SolverIncumbent();
     if (this.optimize) {
       LOGGER.info("Optimization is turned on");
     }
@@ -239,6 +420,12 @@ public class GreedySolver {
       LOGGER.debug(properties.toString());
     }
 
+    this.description = properties;
+    this.checkpointFile = new File(Utilities.extractAbsoluteBasename(datafile)
+        + "-seed"
+        + seed
+        + ".checkpoint");
+
     this.solverParameters = new SolverParams();
     this.solverParameters.load(properties);
     final List<String> parameterErrors = this.solverParameters.isValid();
@@ -246,7 +433,19 @@ public class GreedySolver {
       throw new InvalidParametersException(parameterErrors);
     }
 
-    subjectiveAttemptOffset = solverParameters.getSubjectiveAttemptOffsetMinutes();
+    final Random random = new Random(seed);
+    stationOrder = IntStream.range(0, solverParameters.getNumSubjectiveStations()).toArray();
+    tableOrder = IntStream.range(0, solverParameters.getNumTables()).toArray();
+    if (0 == seed) {
+      subjectiveAttemptOffset = solverParameters.getSubjectiveAttemptOffsetMinutes();
+    } else {
+      shuffle(stationOrder, random);
+      shuffle(tableOrder, random);
+      // try one less, the same or one more minute between subjective attempts
+      subjectiveAttemptOffset = Math.max(1, solverParameters.getSubjectiveAttemptOffsetMinutes()
+          - 1
+          + random.nextInt(3));
+    }
 
     numTimeslots = (solverParameters.getTMaxHours()
         * 60
@@ -258,10 +457,17 @@ public class GreedySolver {
 
     performanceChangetime = this.solverParameters.getPerformanceChangetimeMinutes();
 
-    sz = new boolean[solverParameters.getNumGroups()][][][];
-    sy = new boolean[solverParameters.getNumGroups()][][][];
-    pz = new boolean[solverParameters.getNumGroups()][][][][];
-    py = new boolean[solverParameters.getNumGroups()][][][][];
+    sz = new BitSet[solverParameters.getNumGroups()][][];
+    pz = new BitSet[solverParameters.getNumGroups()][][][];
+    py = new BitSet[solverParameters.getNumGroups()][][][];
+    teamSubjectiveOccupancy = new BitSet[solverParameters.getNumGroups()][];
+    teamPerformanceOccupancy = new BitSet[solverParameters.getNumGroups()][];
+    stationOccupancy = new BitSet[solverParameters.getNumGroups()][solverParameters.getNumSubjectiveStations()];
+    tableOccupancy = new BitSet[solverParameters.getNumTables()][2];
+    for (int table = 0; table < solverParameters.getNumTables(); ++table) {
+      tableOccupancy[table][0] = new BitSet(numTimeslots);
+      tableOccupancy[table][1] = new BitSet(numTimeslots);
+    }
     subjectiveScheduled = new boolean[solverParameters.getNumGroups()][][];
     subjectiveStations = new int[solverParameters.getNumGroups()][solverParameters.getNumSubjectiveStations()];
     performanceScheduled = new int[solverParameters.getNumGroups()][];
@@ -315,25 +521,30 @@ public class GreedySolver {
       final int count = entry.getValue();
 
       groupNames[group] = entry.getKey();
-      sz[group] = new boolean[count][solverParameters.getNumSubjectiveStations()][numTimeslots];
-      sy[group] = new boolean[count][solverParameters.getNumSubjectiveStations()][numTimeslots];
-      pz[group] = new boolean[count][solverParameters.getNumTables()][2][numTimeslots];
-      py[group] = new boolean[count][solverParameters.getNumTables()][2][numTimeslots];
+      sz[group] = new BitSet[count][solverParameters.getNumSubjectiveStations()];
+      pz[group] = new BitSet[count][solverParameters.getNumTables()][2];
+      py[group] = new BitSet[count][solverParameters.getNumTables()][2];
+      teamSubjectiveOccupancy[group] = new BitSet[count];
+      teamPerformanceOccupancy[group] = new BitSet[count];
+      for (int station = 0; station < solverParameters.getNumSubjectiveStations(); ++station) {
+        stationOccupancy[group][station] = new BitSet(numTimeslots);
+      }
       subjectiveScheduled[group] = new boolean[count][solverParameters.getNumSubjectiveStations()];
       for (int team = 0; team < count; ++team) {
         teams.add(new SchedTeam(team, group));
 
         for (int station = 0; station < solverParameters.getNumSubjectiveStations(); ++station) {
-          Arrays.fill(sz[group][team][station], false);
-          Arrays.fill(sy[group][team][station], false);
+          sz[group][team][station] = new BitSet(numTimeslots);
         }
 
         for (int table = 0; table < solverParameters.getNumTables(); ++table) {
-          Arrays.fill(pz[group][team][table][0], false);
-          Arrays.fill(pz[group][team][table][1], false);
-          Arrays.fill(py[group][team][table][0], false);
-          Arrays.fill(py[group][team][table][1], false);
+          for (int side = 0; side < 2; ++side) {
+            pz[group][team][table][side] = new BitSet(numTimeslots);
+            py[group][team][table][side] = new BitSet(numTimeslots);
+          }
         }
+        teamSubjectiveOccupancy[group][team] = new BitSet(numTimeslots);
+        teamPerformanceOccupancy[group][team] = new BitSet(numTimeslots);
         Arrays.fill(subjectiveScheduled[group][team], false);
         Arrays.fill(subjectiveStations[group], 0);
       } // foreach team in a judging group
@@ -352,6 +563,26 @@ public class GreedySolver {
 
     // sort list of teams to make sure that the scheduler is deterministic
     Collections.sort(teams, LOWEST_TEAM_INDEX);
+    if (0 != seed) {
+      // the sort by number of assignments is stable, so this changes how ties
+      // are broken
+      Collections.shuffle(teams, random);
+    }
+  }
+
+  /**
+   * Fisher-Yates shuffle.
+   */
+  private static void shuffle(final int[] values,
+                              final Random random) {
+    for (int i = values.length
+        - 1; i > 0; --i) {
+      final int j = random.nextInt(i
+          + 1);
+      final int tmp = values[i];
+      values[i] = values[j];
+      values[j] = tmp;
+    }
   }
 
   private boolean assignSubjective(final int group,
@@ -377,14 +608,11 @@ public class GreedySolver {
       return false;
     }
 
-    for (int otherCat = 0; otherCat < getNumSubjectiveStations(); ++otherCat) {
-      if (!checkSubjFree(group, team, otherCat, timeslot, getSubjectiveDuration(station))) {
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("FAILED: overlap with other subjective category: "
-              + otherCat);
-        }
-        return false;
+    if (!checkSubjFree(group, team, timeslot, getSubjectiveDuration(station))) {
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("FAILED: overlap with other subjective category");
       }
+      return false;
     }
     if (!checkPerfFree(group, team, timeslot, getSubjectiveDuration(station))) {
       if (LOGGER.isTraceEnabled()) {
@@ -400,12 +628,12 @@ public class GreedySolver {
       return false;
     }
 
+    final int end = timeslot
+        + getSubjectiveDuration(station);
     subjectiveScheduled[group][team][station] = true;
-    sz[group][team][station][timeslot] = true;
-    for (int slot = timeslot; slot < timeslot
-        + getSubjectiveDuration(station); ++slot) {
-      sy[group][team][station][slot] = true;
-    }
+    sz[group][team][station].set(timeslot);
+    teamSubjectiveOccupancy[group][team].set(timeslot, end);
+    stationOccupancy[group][station].set(timeslot, end);
 
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("    SUCCESS");
@@ -419,17 +647,8 @@ public class GreedySolver {
   private boolean checkSubjStationNoOverlap(final int group,
                                             final int station,
                                             final int timeslot) {
-    for (final SchedTeam team : getAllTeams()) {
-      if (team.getGroup() == group) {
-        for (int slot = timeslot; slot < Math.min(getNumTimeslots(), timeslot
-            + getSubjectiveDuration(station)); ++slot) {
-          if (sy[group][team.getIndex()][station][slot]) {
-            return false;
-          }
-        }
-      }
-    }
-    return true;
+    return isClear(stationOccupancy[group][station], timeslot, Math.min(getNumTimeslots(), timeslot
+        + getSubjectiveDuration(station)));
   }
 
   /**
@@ -438,15 +657,25 @@ public class GreedySolver {
   private boolean checkPerfNoOverlap(final int table,
                                      final int side,
                                      final int timeslot) {
-    for (final SchedTeam team : getAllTeams()) {
-      for (int slot = timeslot; slot < Math.min(getNumTimeslots(), timeslot
-          + getPerformanceDuration()); ++slot) {
-        if (py[team.getGroup()][team.getIndex()][table][side][slot]) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return isClear(tableOccupancy[table][side], timeslot, Math.min(getNumTimeslots(), timeslot
+        + getPerformanceDuration()));
+  }
+
+  /**
+   * @param slots the occupied time slots
+   * @param from first time slot to check
+   * @param to time slot after the last one to check
+   * @return true if none of the time slots in [from, to) are occupied
+   */
+  private static boolean isClear(final BitSet slots,
+                                 final int from,
+                                 final int to) {
+    if (from >= to) {
+      return true;
+    }
+    final int next = slots.nextSetBit(from);
+    return next < 0
+        || next >= to;
   }
 
   /**
@@ -484,32 +713,27 @@ public class GreedySolver {
           + timeslot);
     }
 
+    final int end = timeslot
+        + getSubjectiveDuration(station);
     subjectiveScheduled[group][team][station] = false;
-    sz[group][team][station][timeslot] = false;
-    for (int slot = timeslot; slot < timeslot
-        + getSubjectiveDuration(station); ++slot) {
-      sy[group][team][station][slot] = false;
-    }
+    sz[group][team][station].clear(timeslot);
+    teamSubjectiveOccupancy[group][team].clear(timeslot, end);
+    stationOccupancy[group][station].clear(timeslot, end);
   }
 
   /**
-   * Make sure that the station for a given team is available and there is
+   * Make sure that the given team isn't at any subjective station and there is
    * enough changetime.
    */
   private boolean checkSubjFree(final int group,
                                 final int team,
-                                final int station,
                                 final int timeslot,
                                 final int duration) {
-    for (int slot = Math.max(0, timeslot
-        - getChangetime()); slot < Math.min(getNumTimeslots(), timeslot
-            + duration
-            + getChangetime()); ++slot) {
-      if (sy[group][team][station][slot]) {
-        return false;
-      }
-    }
-    return true;
+    return isClear(teamSubjectiveOccupancy[group][team], Math.max(0, timeslot
+        - getChangetime()),
+                   Math.min(getNumTimeslots(), timeslot
+                       + duration
+                       + getChangetime()));
   }
 
   private final int changetime;
@@ -530,20 +754,11 @@ public class GreedySolver {
                                 final int duration) {
     // check [timeslot - changetime, timeslot + duration + changetime) for
     // conflicts
-    for (int slot = Math.max(0, timeslot
-        - getChangetime()); slot < Math.min(getNumTimeslots(), timeslot
-            + duration
-            + getChangetime()); ++slot) {
-      for (int table = 0; table < solverParameters.getNumTables(); ++table) {
-        if (py[group][team][table][0][slot]) {
-          return false;
-        }
-        if (py[group][team][table][1][slot]) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return isClear(teamPerformanceOccupancy[group][team], Math.max(0, timeslot
+        - getChangetime()),
+                   Math.min(getNumTimeslots(), timeslot
+                       + duration
+                       + getChangetime()));
   }
 
   private boolean assignPerformance(final int group,
@@ -597,14 +812,11 @@ public class GreedySolver {
       }
       return false;
     }
-    for (int station = 0; station < getNumSubjectiveStations(); ++station) {
-      if (!checkSubjFree(group, team, station, timeslot, getPerformanceDuration())) {
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("FAILED: overlap with subjective station: "
-              + station);
-        }
-        return false;
+    if (!checkSubjFree(group, team, timeslot, getPerformanceDuration())) {
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("FAILED: overlap with subjective station");
       }
+      return false;
     }
     if (!checkPerfFree(group, team, timeslot, getPerformanceDuration())) {
       if (LOGGER.isTraceEnabled()) {
@@ -640,12 +852,13 @@ public class GreedySolver {
             + timeslot);
       }
 
+      final int end = timeslot
+          + getPerformanceDuration();
       ++performanceScheduled[group][team];
-      pz[group][team][table][side][timeslot] = true;
-      for (int slot = timeslot; slot < timeslot
-          + getPerformanceDuration(); ++slot) {
-        py[group][team][table][side][slot] = true;
-      }
+      pz[group][team][table][side].set(timeslot);
+      py[group][team][table][side].set(timeslot, end);
+      teamPerformanceOccupancy[group][team].set(timeslot, end);
+      tableOccupancy[table][side].set(timeslot, end);
 
       if (LOGGER.isTraceEnabled()) {
         LOGGER.trace("SUCCESS");
@@ -658,20 +871,11 @@ public class GreedySolver {
   private boolean checkPerfChangetime(final int group,
                                       final int team,
                                       final int timeslot) {
-    for (int slot = Math.max(0, timeslot
-        - getPerformanceChangetime()); slot < Math.min(getNumTimeslots(), timeslot
-            + getPerformanceChangetime()
-            + getPerformanceDuration()); ++slot) {
-      for (int table = 0; table < solverParameters.getNumTables(); ++table) {
-        if (py[group][team][table][0][slot]) {
-          return false;
-        }
-        if (py[group][team][table][1][slot]) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return isClear(teamPerformanceOccupancy[group][team], Math.max(0, timeslot
+        - getPerformanceChangetime()),
+                   Math.min(getNumTimeslots(), timeslot
+                       + getPerformanceChangetime()
+                       + getPerformanceDuration()));
   }
 
   private final int performanceChangetime;
@@ -702,12 +906,13 @@ public class GreedySolver {
           + timeslot);
     }
 
+    final int end = timeslot
+        + getPerformanceDuration();
     --performanceScheduled[group][team];
-    pz[group][team][table][side][timeslot] = false;
-    for (int slot = timeslot; slot < timeslot
-        + getPerformanceDuration(); ++slot) {
-      py[group][team][table][side][slot] = false;
-    }
+    pz[group][team][table][side].clear(timeslot);
+    py[group][team][table][side].clear(timeslot, end);
+    teamPerformanceOccupancy[group][team].clear(timeslot, end);
+    tableOccupancy[table][side].clear(timeslot, end);
   }
 
   private final int performanceDuration;
@@ -736,183 +941,6 @@ public class GreedySolver {
         && oddPerfRounds;
   }
 
-  private boolean schedPerf(final int table,
-                            final int timeslot)
-      throws InterruptedException {
-    final List<SchedTeam> teams = getPossiblePerformanceTeams(timeslot);
-    SchedTeam team1 = null;
-
-    final List<SchedTeam> possibleValues = new LinkedList<>();
-    for (final SchedTeam team : teams) {
-      if (null == team1) {
-        if (assignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 0)) {
-          if (optimize) {
-            // just build up list of possible values
-            possibleValues.add(team);
-            unassignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 0);
-          } else {
-            team1 = team;
-          }
-        }
-      } else {
-        if (assignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 1)) {
-          final boolean result = scheduleNextStation();
-          if (!result) {
-            // if we get to this point we should look for another solution
-            unassignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 1);
-
-            // unassignPerformance(team1.getGroup(), team1.getIndex(), timeslot,
-            // table, 0);
-            // team1 = null;
-
-            // if (timeslot
-            // + getPerformanceDuration() >= getNumTimeslots()) {
-            // if (LOGGER.isDebugEnabled()) {
-            // LOGGER.debug("Hit max timeslots - perf");
-            // }
-            // return false;
-            // }
-          } else {
-            return true;
-          }
-        }
-      }
-    }
-
-    // TODO find prev team on each table and see if any of them can be assigned,
-    // if so, keep going
-    // not working yet...
-
-    // undo partial assignment if not allowed
-    if (null != team1) {
-      final boolean lastRoundForTeam1 = performanceScheduled[team1.getGroup()][team1.getIndex()] == solverParameters.getNumPerformanceRounds();
-
-      boolean foundOtherTeam = false;
-      if (lastRoundForTeam1
-          && partialPerformanceAssignmentAllowed()) {
-        for (int otable = 0; !foundOtherTeam
-            && otable < solverParameters.getNumTables(); ++otable) {
-          final SchedTeam prevTeamOnTable0 = findPrevTeamOnTable(timeslot, table, 0);
-          if (null != prevTeamOnTable0) {
-            if (assignPerformance(prevTeamOnTable0.getGroup(), prevTeamOnTable0.getIndex(), timeslot, table, 1, false,
-                                  true)) {
-              if (LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Choose dummy group: "
-                    + prevTeamOnTable0.getGroup()
-                    + " team: "
-                    + prevTeamOnTable0.getIndex());
-              }
-              foundOtherTeam = true;
-            }
-          }
-
-          if (!foundOtherTeam) {
-            final SchedTeam prevTeamOnTable1 = findPrevTeamOnTable(timeslot, table, 1);
-            if (null != prevTeamOnTable1) {
-              if (LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Choose dummy group: "
-                    + prevTeamOnTable1.getGroup()
-                    + " team: "
-                    + prevTeamOnTable1.getIndex());
-              }
-              if (assignPerformance(prevTeamOnTable1.getGroup(), prevTeamOnTable1.getIndex(), timeslot, table, 1, false,
-                                    true)) {
-                foundOtherTeam = true;
-              }
-            }
-          }
-        }
-      }
-
-      final SchedTeam prevTeamOnTable = findPrevTeamOnTable(timeslot, table, 1);
-      if (partialPerformanceAssignmentAllowed()
-          && null != prevTeamOnTable
-          /*
-           * commenting this out makes search go crazy on odd number of teams,
-           * leaving it in seems to cause problems as well
-           */
-          && foundOtherTeam
-      /*
-       * && assignPerformance(prevTeamOnTable.getGroup(),
-       * prevTeamOnTable.getIndex(), timeslot, table, 1, false)
-       */
-      ) {
-        // use a dummy team as the other team
-
-        dummyPerformanceSlotUsed = true;
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("Scheduling dummy slot");
-        }
-
-        final boolean result = scheduleNextStation();
-        if (!result) {
-          dummyPerformanceSlotUsed = false;
-          unassignPerformance(team1.getGroup(), team1.getIndex(), timeslot, table, 0);
-          team1 = null;
-        } else {
-          return true;
-        }
-
-      } else {
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("Partial table assignment, unassigning group: "
-              + team1.getGroup() //
-              + " team: "
-              + team1.getIndex() //
-              + " slot: "
-              + timeslot //
-              + " table: "
-              + table //
-              + " prevTeamOnTable null?: "
-              + (null == prevTeamOnTable) //
-              + " partial allowed: "
-              + partialPerformanceAssignmentAllowed() //
-          );
-        }
-        unassignPerformance(team1.getGroup(), team1.getIndex(), timeslot, table, 0);
-        team1 = null;
-      }
-    }
-
-    if (optimize
-        && possibleValues.size() > 1) {
-      // try all possible values
-      for (final SchedTeam t1 : possibleValues) {
-        if (!assignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0)) {
-          throw new FLLRuntimeException("Internal error, should not have trouble assigning values here - 1");
-        }
-        for (final SchedTeam t2 : possibleValues) {
-          if (!t1.equals(t2)) {
-            if (!assignPerformance(t2.getGroup(), t2.getIndex(), timeslot, table, 1)) {
-              throw new FLLRuntimeException("Internal error, should not have trouble assigning values here - 2");
-            }
-            // ignore result as we want to try all values
-            scheduleNextStation();
-
-            unassignPerformance(t2.getGroup(), t2.getIndex(), timeslot, table, 1);
-
-            // in case a better answer was found
-            if (timeslot
-                + getPerformanceDuration() >= getNumTimeslots()) {
-              if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Hit max timeslots - perf optimize");
-              }
-              unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
-              return false;
-            }
-          }
-        }
-        unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
-      }
-    }
-
-    return false;
-  }
-
-  /**
-   *
-   */
-
   /**
    * Find the team that is on the table and side prior to timeslot.
    *
@@ -924,12 +952,17 @@ public class GreedySolver {
   private @Nullable SchedTeam findPrevTeamOnTable(final int timeslot,
                                                   final int table,
                                                   final int side) {
-    for (int slot = timeslot
-        - 1; slot >= 0; --slot) {
-      for (final SchedTeam team : getAllTeams()) {
-        if (py[team.getGroup()][team.getIndex()][table][side][slot]) {
-          return team;
-        }
+    if (timeslot < 1) {
+      return null;
+    }
+    final int slot = tableOccupancy[table][side].previousSetBit(timeslot
+        - 1);
+    if (slot < 0) {
+      return null;
+    }
+    for (final SchedTeam team : getAllTeams()) {
+      if (py[team.getGroup()][team.getIndex()][table][side].get(slot)) {
+        return team;
       }
     }
     return null;
@@ -938,10 +971,13 @@ public class GreedySolver {
   /**
    * Get all teams that need scheduling in the specified station sorted by
    * number of assignments.
+   *
+   * @param possibles filled in with the teams
    */
-  private List<SchedTeam> getPossibleSubjectiveTeams(final int group,
-                                                     final int station) {
-    final List<SchedTeam> possibles = new LinkedList<>();
+  private void getPossibleSubjectiveTeams(final int group,
+                                          final int station,
+                                          final List<SchedTeam> possibles) {
+    possibles.clear();
     for (final SchedTeam team : getAllTeams()) {
       if (team.getGroup() == group
           && !subjectiveScheduled[team.getGroup()][team.getIndex()][station]) {
@@ -966,11 +1002,9 @@ public class GreedySolver {
         }
       }
       if (firstAssignment) {
-        return Collections.singletonList(possibles.get(0));
+        possibles.subList(1, possibles.size()).clear();
       }
     }
-
-    return possibles;
   }
 
   private long[] perfEarliestTimes;
@@ -1000,9 +1034,12 @@ public class GreedySolver {
    * Get all teams that need scheduling in performance sorted by number of
    * assignments. Only include those teams that can be scheduled at the
    * specified timeslot.
+   *
+   * @param possibles filled in with the teams
    */
-  private List<SchedTeam> getPossiblePerformanceTeams(final int timeslot) {
-    final List<SchedTeam> possibles = new LinkedList<>();
+  private void getPossiblePerformanceTeams(final int timeslot,
+                                           final List<SchedTeam> possibles) {
+    possibles.clear();
     for (final SchedTeam team : getAllTeams()) {
       final int teamNextRound = performanceScheduled[team.getGroup()][team.getIndex()];
       if (teamNextRound < perfEarliestTimes.length) {
@@ -1012,34 +1049,6 @@ public class GreedySolver {
       }
     }
     Collections.sort(possibles, fewestAssignments);
-    return possibles;
-  }
-
-  private boolean schedSubj(final int group,
-                            final int station,
-                            final int timeslot)
-      throws InterruptedException {
-    final List<SchedTeam> teams = getPossibleSubjectiveTeams(group, station);
-    for (final SchedTeam team : teams) {
-      if (assignSubjective(team.getGroup(), team.getIndex(), station, timeslot)) {
-        final boolean result = scheduleNextStation();
-        if (!result
-            || optimize) {
-          unassignSubjective(team.getGroup(), team.getIndex(), station, timeslot);
-
-          // if (timeslot
-          // + getSubjectiveDuration(station) >= getNumTimeslots()) {
-          // if (LOGGER.isDebugEnabled()) {
-          // LOGGER.debug("Hit max timeslots - subj");
-          // }
-          // return false;
-          // }
-        } else {
-          return true;
-        }
-      }
-    }
-    return false;
   }
 
   private boolean subjectiveFinished() {
@@ -1094,11 +1103,20 @@ public class GreedySolver {
 
     try {
       LOGGER.info("Starting solve");
-      scheduleNextStation();
+      search();
+
+      if (ownsIncumbent) {
+        // the search is finished, there is nothing to resume
+        deleteCheckpoint();
+      }
     } catch (final InterruptedException e) {
       LOGGER.debug("Solver interrupted");
     }
 
+    if (ownsIncumbent) {
+      outputBestSchedule();
+    }
+
     if (solutionsFound < 1) {
       if (null != checkCanceled
           && checkCanceled.isCanceled()) {
@@ -1117,48 +1135,34 @@ public class GreedySolver {
   /**
    * Get the number of warnings.
    *
-   * @param scheduleFile
+   * @param schedule the schedule to check
    * @return the number of warnings or -1 if there are hard violations
    */
-  private int getNumWarnings(final File scheduleFile) {
-    try {
-      final TournamentSchedule schedule = new TournamentSchedule(datafile.getName(),
-                                                                 CellFileReader.createCellReader(scheduleFile, null),
-                                                                 createColumnInformation());
-      final ScheduleChecker checker = new ScheduleChecker(this.solverParameters, schedule);
-      final List<ConstraintViolation> violations = checker.verifySchedule();
-      for (final ConstraintViolation violation : violations) {
-        if (ConstraintViolation.Type.HARD == violation.getType()) {
-          LOGGER.debug("Found hard constraint violations from autosched: "
-              + violation.getMessage());
-          return -1;
-        }
+  private int getNumWarnings(final TournamentSchedule schedule) {
+    final ScheduleChecker checker = new ScheduleChecker(this.solverParameters, schedule);
+    final List<ConstraintViolation> violations = checker.verifySchedule();
+    for (final ConstraintViolation violation : violations) {
+      if (ConstraintViolation.Type.HARD == violation.getType()) {
+        LOGGER.debug("Found hard constraint violations from autosched: "
+            + violation.getMessage());
+        return -1;
       }
-      return violations.size();
-    } catch (final IOException e) {
-      throw new FLLRuntimeException("Should not have an IOException trying to get warnings from CSV file", e);
-    } catch (final ParseException e) {
-      throw new FLLRuntimeException("Should not have a ParseException trying to get warnings from CSV file", e);
-    } catch (final ScheduleParseException e) {
-      throw new FLLRuntimeException("Should not have a ScheduleParseException trying to get warnings from CSV file", e);
-    } catch (final InvalidFormatException e) {
-      throw new FLLRuntimeException("Should not have an InvalidFormatException trying to get warnings from CSV file",
-                                    e);
     }
+    return violations.size();
   }
 
   /**
-   * @param scheduleFile
+   * @param schedule the schedule built from the current solution
    * @return the objective value, null on failure
    */
-  private @Nullable ObjectiveValue computeObjectiveValue(final File scheduleFile) {
+  private @Nullable ObjectiveValue computeObjectiveValue(final TournamentSchedule schedule) {
     final int[] numTeams = new int[solverParameters.getNumGroups()];
     final int[] latestSubjectiveTime = new int[solverParameters.getNumGroups()];
     for (int group = 0; group < numTeams.length; ++group) {
       numTeams[group] = subjectiveScheduled[group].length;
       latestSubjectiveTime[group] = findLatestSubjectiveTime(group);
     }
-    final int numWarnings = getNumWarnings(scheduleFile);
+    final int numWarnings = getNumWarnings(schedule);
     if (numWarnings == -1) {
       return null;
     }
@@ -1169,17 +1173,14 @@ public class GreedySolver {
    * The slot that has the latest subjective time for a group of teams.
    */
   private int findLatestSubjectiveTime(final int group) {
-    for (int slot = getNumTimeslots()
-        - 1; slot >= 0; --slot) {
-      for (int station = 0; station < getNumSubjectiveStations(); ++station) {
-        for (final SchedTeam team : getAllTeams()) {
-          if (team.getGroup() == group) {
-            if (sy[team.getGroup()][team.getIndex()][station][slot]) {
-              return slot;
-            }
-          }
-        }
-      }
+    int latest = -1;
+    for (int station = 0; station < getNumSubjectiveStations(); ++station) {
+      // not limited by getNumTimeslots() as it shrinks when solutions are found
+      latest = Math.max(latest, stationOccupancy[group][station].length()
+          - 1);
+    }
+    if (latest >= 0) {
+      return latest;
     }
     LOGGER.warn("Got to end of findLatestSubjectiveTime("
         + group
@@ -1191,163 +1192,829 @@ public class GreedySolver {
    * The slot that has the last performance time.
    */
   private int findLatestPerformanceTime() {
-    for (int slot = getNumTimeslots()
-        - 1; slot >= 0; --slot) {
-      for (int table = 0; table < solverParameters.getNumTables(); ++table) {
-        for (final SchedTeam team : getAllTeams()) {
-          if (py[team.getGroup()][team.getIndex()][table][0][slot]) {
-            return slot;
-          }
-          if (py[team.getGroup()][team.getIndex()][table][1][slot]) {
-            return slot;
-          }
-        }
+    int latest = -1;
+    for (int table = 0; table < solverParameters.getNumTables(); ++table) {
+      for (int side = 0; side < 2; ++side) {
+        latest = Math.max(latest, tableOccupancy[table][side].length()
+            - 1);
       }
     }
+    if (latest >= 0) {
+      return latest;
+    }
     LOGGER.warn("Got to end of findLatestPerformanceTime, this implies that nothing was scheduled");
     return 0;
   }
 
   /**
-   * @return if a solution has been found
-   * @throws InterruptedException if the solver was canceled
+   * Result of {@link SearchFrame#step(boolean)}, the frame pushed a child
+   * frame onto the stack.
    */
-  private boolean scheduleNextStation() throws InterruptedException {
-    if (null != checkCanceled
-        && checkCanceled.isCanceled()) {
-      throw new InterruptedException();
-    }
+  private static final int CALL = 0;
 
-    if (scheduleFinished()) {
-      if (outputCurrentSolution()) {
-        ++solutionsFound;
-        LOGGER.info("Schedule finished num solutions: "
-            + solutionsFound);
+  /**
+   * Result of {@link SearchFrame#step(boolean)}, the frame is finished and no
+   * solution was found.
+   */
+  private static final int RETURN_FALSE = 1;
 
-        return true;
-      } else {
-        return false;
-      }
-    }
+  /**
+   * Result of {@link SearchFrame#step(boolean)}, the frame is finished and a
+   * solution was found.
+   */
+  private static final int RETURN_TRUE = 2;
 
-    // find possible values
-    final List<Integer> possibleSubjectiveStations = new ArrayList<>();
-    final List<Integer> subjectiveGroups = new ArrayList<>();
-    final int nextAvailableSubjSlot = findNextAvailableSubjectiveSlot(possibleSubjectiveStations, subjectiveGroups);
+  /**
+   * The decision stack. Each frame is one decision point in the backtracking
+   * search and holds what is needed to try the next alternative and undo the
+   * current one.
+   */
+  private @Nullable SearchFrame[] stack = new SearchFrame[256];
 
-    final List<Integer> possiblePerformanceTables = new LinkedList<>();
-    final int nextAvailablePerfSlot = findNextAvailablePerformanceSlot(possiblePerformanceTables);
+  private int stackDepth = 0;
 
-    if (Math.min(nextAvailablePerfSlot, nextAvailableSubjSlot) >= getNumTimeslots()) {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Hit max timeslots");
+  private final ArrayDeque<StationFrame> freeStationFrames = new ArrayDeque<>();
+
+  private final ArrayDeque<SubjectiveFrame> freeSubjectiveFrames = new ArrayDeque<>();
+
+  private final ArrayDeque<PerformanceFrame> freePerformanceFrames = new ArrayDeque<>();
+
+  /**
+   * Run the search until it finishes.
+   *
+   * @return if a solution has been found
+   * @throws InterruptedException if the solver was canceled
+   */
+  private boolean search() throws InterruptedException {
+    try {
+      if (0 == stackDepth) {
+        pushStationFrame();
+      } // else resuming from a checkpoint
+      nextCheckpoint = System.nanoTime()
+          + CHECKPOINT_INTERVAL.toNanos();
+      boolean result = false;
+      while (stackDepth > 0) {
+        final SearchFrame frame = castNonNull(stack[stackDepth
+            - 1]);
+        final int action = frame.step(result);
+        if (CALL != action) {
+          result = RETURN_TRUE == action;
+          popFrame(frame);
+        }
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      // interrupted at the start of a station frame, the same place that the
+      // periodic checkpoints are written
+      writeCheckpoint();
+      throw e;
+    } finally {
+      // release the frames if the search was interrupted
+      while (stackDepth > 0) {
+        popFrame(castNonNull(stack[stackDepth
+            - 1]));
+      }
+    }
+  }
+
+  private void push(final SearchFrame frame) {
+    if (stackDepth == stack.length) {
+      stack = Arrays.copyOf(stack, stack.length
+          * 2);
+    }
+    stack[stackDepth] = frame;
+    ++stackDepth;
+  }
+
+  private void popFrame(final SearchFrame frame) {
+    --stackDepth;
+    stack[stackDepth] = null;
+    frame.release();
+  }
+
+  private void pushStationFrame() {
+    final StationFrame frame = freeStationFrames.poll();
+    push(null == frame ? new StationFrame() : frame);
+  }
+
+  private void pushSubjectiveFrame(final int group,
+                                   final int station,
+                                   final int timeslot) {
+    SubjectiveFrame frame = freeSubjectiveFrames.poll();
+    if (null == frame) {
+      frame = new SubjectiveFrame();
+    }
+    frame.init(group, station, timeslot);
+    push(frame);
+  }
+
+  private void pushPerformanceFrame(final int table,
+                                    final int timeslot) {
+    PerformanceFrame frame = freePerformanceFrames.poll();
+    if (null == frame) {
+      frame = new PerformanceFrame();
+    }
+    frame.init(table, timeslot);
+    push(frame);
+  }
+
+  /**
+   * One level of the search. Frames are reused once they are popped so that
+   * the search doesn't allocate memory for each assignment.
+   */
+  private abstract static class SearchFrame {
+    /**
+     * Continue this frame.
+     *
+     * @param childResult the result of the last child frame that finished, not
+     *          used the first time a frame is stepped
+     * @return {@link #CALL}, {@link #RETURN_TRUE} or {@link #RETURN_FALSE}
+     * @throws InterruptedException if the solver was canceled
+     */
+    abstract int step(boolean childResult) throws InterruptedException;
+
+    /**
+     * Return the frame to the free list.
+     */
+    abstract void release();
+
+    /**
+     * @return the state of this frame for a checkpoint, the first value is the
+     *         type of frame
+     * @see #restore(FrameReader)
+     */
+    abstract int[] save();
+
+    /**
+     * Restore the state written by {@link #save()}.
+     *
+     * @param data positioned after the type of frame
+     */
+    abstract void restore(FrameReader data);
+
+    static void addIntegers(final IntStream.Builder data,
+                            final List<Integer> values) {
+      data.add(values.size());
+      for (final int value : values) {
+        data.add(value);
+      }
+    }
+
+    static void addTeam(final IntStream.Builder data,
+                        final @Nullable SchedTeam team) {
+      if (null == team) {
+        data.add(-1).add(-1);
+      } else {
+        data.add(team.getGroup()).add(team.getIndex());
       }
-      return false;
     }
 
-    if ((solverParameters.getSubjectiveFirst()
-        && !subjectiveFinished())
-        || (nextAvailableSubjSlot <= nextAvailablePerfSlot)) {
-      // schedule a subjective station
+    static void addTeams(final IntStream.Builder data,
+                         final List<SchedTeam> teams) {
+      data.add(teams.size());
+      for (final SchedTeam team : teams) {
+        addTeam(data, team);
+      }
+    }
+  }
+
+  /**
+   * Reads the values written by {@link SearchFrame#save()} in order.
+   */
+  private static final class FrameReader {
+    private final int[] data;
+
+    private int position = 0;
+
+    FrameReader(final int[] data) {
+      this.data = data;
+    }
+
+    int next() {
+      if (position >= data.length) {
+        throw new FLLRuntimeException("Checkpoint frame is too short");
+      }
+      final int value = data[position];
+      ++position;
+      return value;
+    }
+
+    void readIntegers(final List<Integer> values) {
+      values.clear();
+      final int size = next();
+      for (int i = 0; i < size; ++i) {
+        values.add(next());
+      }
+    }
+
+    @Nullable
+    SchedTeam readTeam() {
+      final int group = next();
+      final int index = next();
+      if (group < 0) {
+        return null;
+      } else {
+        return new SchedTeam(index, group);
+      }
+    }
+
+    void readTeams(final List<SchedTeam> teams) {
+      teams.clear();
+      final int size = next();
+      for (int i = 0; i < size; ++i) {
+        teams.add(castNonNull(readTeam()));
+      }
+    }
+  }
+
+  private static final int STATION_FRAME = 0;
+
+  private static final int SUBJECTIVE_FRAME = 1;
+
+  private static final int PERFORMANCE_FRAME = 2;
+
+  /**
+   * Find the next available subjective station or performance table and try
+   * to schedule a team there. If that doesn't work, move on to the next
+   * available time.
+   */
+  private final class StationFrame extends SearchFrame {
+    private static final int START = 0;
+
+    private static final int AFTER_SCHEDULE = 1;
+
+    private static final int AFTER_NEXT = 2;
+
+    private int pc = START;
+
+    private final List<Integer> possibleSubjectiveStations = new ArrayList<>();
+
+    private final List<Integer> subjectiveGroups = new ArrayList<>();
+
+    private final List<Integer> possiblePerformanceTables = new ArrayList<>();
+
+    private int nextAvailableSubjSlot;
+
+    private int nextAvailablePerfSlot;
+
+    private boolean scheduleSubjective;
+
+    private int index;
+
+    @Override
+    int step(final boolean childResult) throws InterruptedException {
+      switch (pc) {
+      case START:
+        if (null != checkCanceled
+            && checkCanceled.isCanceled()) {
+          throw new InterruptedException();
+        }
+
+        nodes.incrementAndGet();
+        if (System.nanoTime()
+            - nextCheckpoint >= 0) {
+          writeCheckpoint();
+          nextCheckpoint = System.nanoTime()
+              + CHECKPOINT_INTERVAL.toNanos();
+        }
+
+        if (scheduleFinished()) {
+          if (outputCurrentSolution()) {
+            ++solutionsFound;
+            LOGGER.info("Schedule finished num solutions: "
+                + solutionsFound);
+
+            return RETURN_TRUE;
+          } else {
+            return RETURN_FALSE;
+          }
+        }
+
+        // find possible values
+        nextAvailableSubjSlot = findNextAvailableSubjectiveSlot(possibleSubjectiveStations, subjectiveGroups);
+        nextAvailablePerfSlot = findNextAvailablePerformanceSlot(possiblePerformanceTables);
+
+        if (Math.min(nextAvailablePerfSlot, nextAvailableSubjSlot) >= getNumTimeslots()) {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Hit max timeslots");
+          }
+          return RETURN_FALSE;
+        }
 
-      for (int i = 0; i < possibleSubjectiveStations.size(); ++i) {
-        final int station = possibleSubjectiveStations.get(i);
-        final int group = subjectiveGroups.get(i);
+        scheduleSubjective = (solverParameters.getSubjectiveFirst()
+            && !subjectiveFinished())
+            || (nextAvailableSubjSlot <= nextAvailablePerfSlot);
+        index = 0;
+        break;
+      case AFTER_SCHEDULE:
+        if (childResult) {
+          return RETURN_TRUE;
+        }
+        final int slot = scheduleSubjective ? nextAvailableSubjSlot : nextAvailablePerfSlot;
+        if (slot >= getNumTimeslots()) {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Hit max timeslots - schedNext "
+                + (scheduleSubjective ? "subj" : "perf"));
+          }
+          return RETURN_FALSE;
+        }
+        ++index;
+        break;
+      case AFTER_NEXT:
+        return afterNext(childResult);
+      default:
+        throw new FLLInternalException("Unknown state: "
+            + pc);
+      }
+
+      if (scheduleSubjective) {
+        // schedule a subjective station
+        for (; index < possibleSubjectiveStations.size(); ++index) {
+          final int station = possibleSubjectiveStations.get(index);
+          final int group = subjectiveGroups.get(index);
+
+          if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("subjective group: "
+                + group
+                + " station: "
+                + station
+                + " next available: "
+                + nextAvailableSubjSlot);
+          }
 
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("subjective group: "
-              + group
-              + " station: "
-              + station
-              + " next available: "
-              + nextAvailableSubjSlot);
+          // mark the subjective station as used at this timeslot and advance
+          // the next available slot
+          // TODO: maybe should set value to nextAvailableSubjSlot + offset...
+          subjectiveStations[group][station] += getSubjectiveAttemptOffset();
+          if (checkSubjectiveBreaks(station, nextAvailableSubjSlot)) {
+            pushSubjectiveFrame(group, station, nextAvailableSubjSlot);
+            pc = AFTER_SCHEDULE;
+            return CALL;
+          } else {
+            if (LOGGER.isTraceEnabled()) {
+              LOGGER.trace("Overlaps breaks, skipping");
+            }
+          }
         }
+      } else {
+        // schedule a performance station
+        for (; index < possiblePerformanceTables.size(); ++index) {
+          final int table = possiblePerformanceTables.get(index);
+          if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("performance table: "
+                + table
+                + " next available: "
+                + nextAvailablePerfSlot);
+          }
 
-        // mark the subjective station as used at this timeslot and advance the
-        // next available slot
-        // TODO: maybe should set value to nextAvailableSubjSlot + offset...
-        subjectiveStations[group][station] += getSubjectiveAttemptOffset();
-        if (checkSubjectiveBreaks(station, nextAvailableSubjSlot)) {
-          final boolean result = schedSubj(group, station, nextAvailableSubjSlot);
-          if (result) {
-            return true;
-          } else if (nextAvailableSubjSlot >= getNumTimeslots()) {
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.debug("Hit max timeslots - schedNext subj");
+          // mark the performance station as used at this timeslot and advance
+          // the next available slot
+          final List<Integer> availableTableSlots = performanceTables.get(table);
+          if (null == availableTableSlots) {
+            throw new FLLInternalException("Cannot find available slots for table "
+                + table);
+          }
+          final int checkTimeslot = availableTableSlots.remove(0);
+          if (checkTimeslot != nextAvailablePerfSlot) {
+            throw new FLLInternalException(String.format("Error the next available timeslot for the table (%d) doesn't match the one computed (%d)",
+                                                         checkTimeslot, nextAvailablePerfSlot));
+          }
+          if (checkPerformanceBreaks(nextAvailablePerfSlot)) {
+            pushPerformanceFrame(table, nextAvailablePerfSlot);
+            pc = AFTER_SCHEDULE;
+            return CALL;
+          } else {
+            if (LOGGER.isTraceEnabled()) {
+              LOGGER.trace("Overlaps breaks, skipping");
             }
-            return false;
           }
+        }
+      }
 
+      // nothing could be scheduled at this time, move on to the next time
+      pushStationFrame();
+      pc = AFTER_NEXT;
+      return CALL;
+    }
+
+    private int afterNext(final boolean result) {
+      if (!result
+          || optimize) {
+        // undo changes made above
+        if (nextAvailableSubjSlot <= nextAvailablePerfSlot) {
+          for (int i = 0; i < possibleSubjectiveStations.size(); ++i) {
+            final int station = possibleSubjectiveStations.get(i);
+            final int group = subjectiveGroups.get(i);
+            subjectiveStations[group][station] -= getSubjectiveAttemptOffset();
+          }
         } else {
-          if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace("Overlaps breaks, skipping");
+          for (final int table : possiblePerformanceTables) {
+            final List<Integer> availableTableSlots = performanceTables.get(table);
+            if (null == availableTableSlots) {
+              throw new FLLInternalException("Cannot find available slots for table "
+                  + table);
+            }
+            availableTableSlots.add(0, nextAvailablePerfSlot);
           }
         }
       }
-    } else {
-      // schedule a performance station
-
-      for (final int table : possiblePerformanceTables) {
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("performance table: "
-              + table
-              + " next available: "
-              + nextAvailablePerfSlot);
+      return result ? RETURN_TRUE : RETURN_FALSE;
+    }
+
+    @Override
+    void release() {
+      pc = START;
+      possibleSubjectiveStations.clear();
+      subjectiveGroups.clear();
+      possiblePerformanceTables.clear();
+      freeStationFrames.push(this);
+    }
+
+    @Override
+    int[] save() {
+      final IntStream.Builder data = IntStream.builder();
+      data.add(STATION_FRAME).add(pc).add(nextAvailableSubjSlot).add(nextAvailablePerfSlot)
+          .add(scheduleSubjective ? 1 : 0).add(index);
+      addIntegers(data, possibleSubjectiveStations);
+      addIntegers(data, subjectiveGroups);
+      addIntegers(data, possiblePerformanceTables);
+      return data.build().toArray();
+    }
+
+    @Override
+    void restore(final FrameReader data) {
+      pc = data.next();
+      nextAvailableSubjSlot = data.next();
+      nextAvailablePerfSlot = data.next();
+      scheduleSubjective = 1 == data.next();
+      index = data.next();
+      data.readIntegers(possibleSubjectiveStations);
+      data.readIntegers(subjectiveGroups);
+      data.readIntegers(possiblePerformanceTables);
+    }
+  }
+
+  /**
+   * Try each team that still needs the subjective station at a timeslot.
+   */
+  private final class SubjectiveFrame extends SearchFrame {
+    private static final int START = 0;
+
+    private static final int AFTER_NEXT = 1;
+
+    private int pc = START;
+
+    private int group;
+
+    private int station;
+
+    private int timeslot;
+
+    private final List<SchedTeam> teams = new ArrayList<>();
+
+    private int index;
+
+    void init(final int group,
+              final int station,
+              final int timeslot) {
+      this.group = group;
+      this.station = station;
+      this.timeslot = timeslot;
+    }
+
+    @Override
+    int step(final boolean childResult) {
+      if (START == pc) {
+        getPossibleSubjectiveTeams(group, station, teams);
+        index = 0;
+      } else {
+        final SchedTeam team = teams.get(index);
+        if (!childResult
+            || optimize) {
+          unassignSubjective(team.getGroup(), team.getIndex(), station, timeslot);
+        } else {
+          return RETURN_TRUE;
         }
+        ++index;
+      }
 
-        // mark the performance station as used at this timeslot and advance the
-        // next available slot
-        final List<Integer> availableTableSlots = performanceTables.get(table);
-        if (null == availableTableSlots) {
-          throw new FLLInternalException("Cannot find available slots for table "
-              + table);
+      for (; index < teams.size(); ++index) {
+        final SchedTeam team = teams.get(index);
+        if (assignSubjective(team.getGroup(), team.getIndex(), station, timeslot)) {
+          pushStationFrame();
+          pc = AFTER_NEXT;
+          return CALL;
         }
-        final int checkTimeslot = availableTableSlots.remove(0);
-        if (checkTimeslot != nextAvailablePerfSlot) {
-          throw new FLLInternalException(String.format("Error the next available timeslot for the table (%d) doesn't match the one computed (%d)",
-                                                       checkTimeslot, nextAvailablePerfSlot));
+      }
+      return RETURN_FALSE;
+    }
+
+    @Override
+    void release() {
+      pc = START;
+      teams.clear();
+      freeSubjectiveFrames.push(this);
+    }
+
+    @Override
+    int[] save() {
+      final IntStream.Builder data = IntStream.builder();
+      data.add(SUBJECTIVE_FRAME).add(pc).add(group).add(station).add(timeslot).add(index);
+      addTeams(data, teams);
+      return data.build().toArray();
+    }
+
+    @Override
+    void restore(final FrameReader data) {
+      pc = data.next();
+      group = data.next();
+      station = data.next();
+      timeslot = data.next();
+      index = data.next();
+      data.readTeams(teams);
+    }
+  }
+
+  /**
+   * Try pairs of teams on both sides of a table at a timeslot.
+   */
+  private final class PerformanceFrame extends SearchFrame {
+    private static final int START = 0;
+
+    private static final int AFTER_PAIR = 1;
+
+    private static final int AFTER_DUMMY = 2;
+
+    private static final int AFTER_OPTIMIZE = 3;
+
+    private int pc = START;
+
+    private int table;
+
+    private int timeslot;
+
+    private final List<SchedTeam> teams = new ArrayList<>();
+
+    private int index;
+
+    private @Nullable SchedTeam team1;
+
+    /**
+     * Teams that can go on side 1 of the table, only used when optimizing.
+     */
+    private final List<SchedTeam> possibleValues = new ArrayList<>();
+
+    /**
+     * Index into {@link #possibleValues} for side 1.
+     */
+    private int first;
+
+    /**
+     * Index into {@link #possibleValues} for side 2.
+     */
+    private int second;
+
+    void init(final int table,
+              final int timeslot) {
+      this.table = table;
+      this.timeslot = timeslot;
+    }
+
+    @Override
+    int step(final boolean childResult) {
+      switch (pc) {
+      case START:
+        getPossiblePerformanceTeams(timeslot, teams);
+        team1 = null;
+        index = 0;
+        return pairTeams();
+      case AFTER_PAIR:
+        if (childResult) {
+          return RETURN_TRUE;
+        }
+        // if we get to this point we should look for another solution
+        final SchedTeam team = teams.get(index);
+        unassignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 1);
+        ++index;
+        return pairTeams();
+      case AFTER_DUMMY:
+        if (childResult) {
+          return RETURN_TRUE;
+        }
+        final SchedTeam t1 = castNonNull(team1);
+        dummyPerformanceSlotUsed = false;
+        unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
+        team1 = null;
+        first = 0;
+        second = 0;
+        return tryAllPairs();
+      case AFTER_OPTIMIZE:
+        return afterOptimize();
+      default:
+        throw new FLLInternalException("Unknown state: "
+            + pc);
+      }
+    }
+
+    /**
+     * Put the first team that fits on side 1 and then try each team that fits
+     * on side 2.
+     */
+    private int pairTeams() {
+      for (; index < teams.size(); ++index) {
+        final SchedTeam team = teams.get(index);
+        if (null == team1) {
+          if (assignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 0)) {
+            if (optimize) {
+              // just build up list of possible values
+              possibleValues.add(team);
+              unassignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 0);
+            } else {
+              team1 = team;
+            }
+          }
+        } else {
+          if (assignPerformance(team.getGroup(), team.getIndex(), timeslot, table, 1)) {
+            pushStationFrame();
+            pc = AFTER_PAIR;
+            return CALL;
+          }
         }
-        if (checkPerformanceBreaks(nextAvailablePerfSlot)) {
-          final boolean result = schedPerf(table, nextAvailablePerfSlot);
-          if (result) {
-            return true;
-          } else if (nextAvailablePerfSlot >= getNumTimeslots()) {
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.debug("Hit max timeslots - schedNext perf");
+      }
+
+      // TODO find prev team on each table and see if any of them can be
+      // assigned, if so, keep going
+      // not working yet...
+
+      // undo partial assignment if not allowed
+      final SchedTeam t1 = team1;
+      if (null != t1) {
+        final boolean lastRoundForTeam1 = performanceScheduled[t1.getGroup()][t1.getIndex()] == solverParameters.getNumPerformanceRounds();
+
+        boolean foundOtherTeam = false;
+        if (lastRoundForTeam1
+            && partialPerformanceAssignmentAllowed()) {
+          for (int otable = 0; !foundOtherTeam
+              && otable < solverParameters.getNumTables(); ++otable) {
+            final SchedTeam prevTeamOnTable0 = findPrevTeamOnTable(timeslot, table, 0);
+            if (null != prevTeamOnTable0) {
+              if (assignPerformance(prevTeamOnTable0.getGroup(), prevTeamOnTable0.getIndex(), timeslot, table, 1,
+                                    false, true)) {
+                if (LOGGER.isTraceEnabled()) {
+                  LOGGER.trace("Choose dummy group: "
+                      + prevTeamOnTable0.getGroup()
+                      + " team: "
+                      + prevTeamOnTable0.getIndex());
+                }
+                foundOtherTeam = true;
+              }
+            }
+
+            if (!foundOtherTeam) {
+              final SchedTeam prevTeamOnTable1 = findPrevTeamOnTable(timeslot, table, 1);
+              if (null != prevTeamOnTable1) {
+                if (LOGGER.isTraceEnabled()) {
+                  LOGGER.trace("Choose dummy group: "
+                      + prevTeamOnTable1.getGroup()
+                      + " team: "
+                      + prevTeamOnTable1.getIndex());
+                }
+                if (assignPerformance(prevTeamOnTable1.getGroup(), prevTeamOnTable1.getIndex(), timeslot, table, 1,
+                                      false, true)) {
+                  foundOtherTeam = true;
+                }
+              }
             }
-            return false;
           }
+        }
+
+        final SchedTeam prevTeamOnTable = findPrevTeamOnTable(timeslot, table, 1);
+        if (partialPerformanceAssignmentAllowed()
+            && null != prevTeamOnTable
+            /*
+             * commenting this out makes search go crazy on odd number of teams,
+             * leaving it in seems to cause problems as well
+             */
+            && foundOtherTeam) {
+          // use a dummy team as the other team
+
+          dummyPerformanceSlotUsed = true;
+          if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Scheduling dummy slot");
+          }
+
+          pushStationFrame();
+          pc = AFTER_DUMMY;
+          return CALL;
         } else {
           if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace("Overlaps breaks, skipping");
+            LOGGER.trace("Partial table assignment, unassigning group: "
+                + t1.getGroup() //
+                + " team: "
+                + t1.getIndex() //
+                + " slot: "
+                + timeslot //
+                + " table: "
+                + table //
+                + " prevTeamOnTable null?: "
+                + (null == prevTeamOnTable) //
+                + " partial allowed: "
+                + partialPerformanceAssignmentAllowed() //
+            );
           }
+          unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
+          team1 = null;
         }
       }
+
+      first = 0;
+      second = 0;
+      return tryAllPairs();
     }
 
-    final boolean result = scheduleNextStation();
-    if (!result
-        || optimize) {
-      // undo changes made above
-      if (nextAvailableSubjSlot <= nextAvailablePerfSlot) {
-        for (int i = 0; i < possibleSubjectiveStations.size(); ++i) {
-          final int station = possibleSubjectiveStations.get(i);
-          final int group = subjectiveGroups.get(i);
-          subjectiveStations[group][station] -= getSubjectiveAttemptOffset();
+    /**
+     * When optimizing try all pairs of possible values.
+     */
+    private int tryAllPairs() {
+      if (!optimize
+          || possibleValues.size() <= 1) {
+        return RETURN_FALSE;
+      }
+
+      for (; first < possibleValues.size(); ++first) {
+        final SchedTeam t1 = possibleValues.get(first);
+        if (0 == second) {
+          if (!assignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0)) {
+            throw new FLLRuntimeException("Internal error, should not have trouble assigning values here - 1");
+          }
         }
-      } else {
-        for (final int table : possiblePerformanceTables) {
-          final List<Integer> availableTableSlots = performanceTables.get(table);
-          if (null == availableTableSlots) {
-            throw new FLLInternalException("Cannot find available slots for table "
-                + table);
+        for (; second < possibleValues.size(); ++second) {
+          final SchedTeam t2 = possibleValues.get(second);
+          if (!t1.equals(t2)) {
+            if (!assignPerformance(t2.getGroup(), t2.getIndex(), timeslot, table, 1)) {
+              throw new FLLRuntimeException("Internal error, should not have trouble assigning values here - 2");
+            }
+            // the result is ignored as we want to try all values
+            pushStationFrame();
+            pc = AFTER_OPTIMIZE;
+            return CALL;
           }
-          availableTableSlots.add(0, nextAvailablePerfSlot);
         }
+        unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
+        second = 0;
       }
+      return RETURN_FALSE;
+    }
+
+    private int afterOptimize() {
+      final SchedTeam t1 = possibleValues.get(first);
+      final SchedTeam t2 = possibleValues.get(second);
+      unassignPerformance(t2.getGroup(), t2.getIndex(), timeslot, table, 1);
+
+      // in case a better answer was found
+      if (timeslot
+          + getPerformanceDuration() >= getNumTimeslots()) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Hit max timeslots - perf optimize");
+        }
+        unassignPerformance(t1.getGroup(), t1.getIndex(), timeslot, table, 0);
+        return RETURN_FALSE;
+      }
+      ++second;
+      return tryAllPairs();
+    }
+
+    @Override
+    void release() {
+      pc = START;
+      teams.clear();
+      possibleValues.clear();
+      team1 = null;
+      freePerformanceFrames.push(this);
+    }
+
+    @Override
+    int[] save() {
+      final IntStream.Builder data = IntStream.builder();
+      data.add(PERFORMANCE_FRAME).add(pc).add(table).add(timeslot).add(index).add(first).add(second);
+      addTeam(data, team1);
+      addTeams(data, teams);
+      addTeams(data, possibleValues);
+      return data.build().toArray();
     }
-    return result;
 
+    @Override
+    void restore(final FrameReader data) {
+      pc = data.next();
+      table = data.next();
+      timeslot = data.next();
+      index = data.next();
+      first = data.next();
+      second = data.next();
+      team1 = data.readTeam();
+      data.readTeams(teams);
+      data.readTeams(possibleValues);
+    }
   }
 
   /**
@@ -1360,7 +2027,7 @@ public class GreedySolver {
    */
   private int findNextAvailablePerformanceSlot(final List<Integer> possiblePerformanceTables) {
     int nextAvailablePerfSlot = Integer.MAX_VALUE;
-    for (int table = 0; table < solverParameters.getNumTables(); ++table) {
+    for (final int table : tableOrder) {
       final List<Integer> tableSlotsAvailable = performanceTables.get(table);
       if (null == tableSlotsAvailable) {
         throw new FLLInternalException("Cannot find available slots for table "
@@ -1398,7 +2065,7 @@ public class GreedySolver {
                                               final List<Integer> subjectiveGroups) {
     int nextAvailableSubjSlot = Integer.MAX_VALUE;
     for (int group = 0; group < solverParameters.getNumGroups(); ++group) {
-      for (int station = 0; station < getNumSubjectiveStations(); ++station) {
+      for (final int station : stationOrder) {
         if (subjectiveStations[group][station] <= nextAvailableSubjSlot) {
           if (subjectiveStations[group][station] < nextAvailableSubjSlot) {
             // previous subjective stations are no longer valid for this time
@@ -1415,60 +2082,279 @@ public class GreedySolver {
   }
 
   private boolean outputCurrentSolution() {
+    final TournamentSchedule schedule = createSchedule();
+
+    final ObjectiveValue objective = computeObjectiveValue(schedule);
+    if (null == objective) {
+      LOGGER.info("Objective is null, solution is not valid");
+      return false;
+    }
+
+    // tightens the number of timeslots if this is better
+    solverBest.offer(objective, schedule, seed);
+    if (!ownsIncumbent) {
+      incumbent.offer(objective, schedule, seed);
+    }
+
+    return true;
+  }
+
+  /**
+   * Write the best schedule found to a CSV file next to the data file.
+   * Only the best schedule is written, the other solutions are only evaluated
+   * in memory. When solvers share an incumbent this is called once by the
+   * owner of the portfolio after all solvers have finished.
+   */
+  /* package */ void outputBestSchedule() {
+    final TournamentSchedule schedule = incumbent.getBestSchedule();
+    if (null == schedule) {
+      return;
+    }
+
     final File scheduleFile = new File(Utilities.extractAbsoluteBasename(datafile)
         + "-"
-        + solutionsFound
+        + incumbent.getBestSolutionNumber()
         + ".csv");
 
     try {
-      outputSchedule(scheduleFile);
+      outputSchedule(scheduleFile, schedule);
     } catch (final IOException ioe) {
       throw new FLLRuntimeException("Error writing schedule", ioe);
     }
 
     LOGGER.info("Solution output to "
         + scheduleFile.getAbsolutePath());
+    mBestSchedule = scheduleFile;
+  }
 
-    final ObjectiveValue objective = computeObjectiveValue(scheduleFile);
-    if (null == objective) {
-      LOGGER.info("Objective is null, solution is not valid");
-      if (!scheduleFile.delete()) {
-        scheduleFile.deleteOnExit();
+  /**
+   * @return the file that the state of the search is written to
+   */
+  /* package */ File getCheckpointFile() {
+    return checkpointFile;
+  }
+
+  /**
+   * Write the state of the search and the best schedule to
+   * {@link #checkpointFile}. This must only be called at the start of a
+   * {@link StationFrame} when all of the state matches the stack. The file is
+   * replaced in one step so that a crash while writing leaves the previous
+   * checkpoint.
+   * Errors are logged, the search continues without a checkpoint.
+   */
+  private void writeCheckpoint() {
+    final List<int[]> frames = new ArrayList<>(stackDepth);
+    for (int i = 0; i < stackDepth; ++i) {
+      frames.add(castNonNull(stack[i]).save());
+    }
+
+    final int[][] tableSlots = new int[solverParameters.getNumTables()][];
+    for (final Map.Entry<Integer, List<Integer>> entry : performanceTables.entrySet()) {
+      tableSlots[entry.getKey()] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    final File tempFile = new File(checkpointFile.getAbsolutePath()
+        + ".tmp");
+    try {
+      try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeObject(description);
+        out.writeBoolean(optimize);
+        out.writeLong(seed);
+        out.writeInt(solutionsFound);
+        out.writeLong(nodes.get());
+        out.writeBoolean(dummyPerformanceSlotUsed);
+        out.writeObject(subjectiveScheduled);
+        out.writeObject(performanceScheduled);
+        out.writeObject(sz);
+        out.writeObject(py);
+        out.writeObject(pz);
+        out.writeObject(teamSubjectiveOccupancy);
+        out.writeObject(teamPerformanceOccupancy);
+        out.writeObject(stationOccupancy);
+        out.writeObject(tableOccupancy);
+        out.writeObject(subjectiveStations);
+        out.writeObject(tableSlots);
+        out.writeObject(frames.toArray(new int[0][]));
+        solverBest.writeBest(out);
+      }
+      Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Wrote checkpoint "
+            + checkpointFile.getAbsolutePath());
       }
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to write checkpoint "
+          + checkpointFile.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * Load the state of the search from {@link #checkpointFile}. This must be
+   * called before {@link #solve(CheckCanceled)}. The checkpoint is ignored if
+   * it was written for a different schedule description, optimize flag or
+   * seed.
+   *
+   * @return true if the search will continue from the checkpoint
+   */
+  /* package */ boolean resumeFromCheckpoint() {
+    if (!checkpointFile.exists()) {
       return false;
     }
 
-    if (null == bestObjective
-        || objective.compareTo(bestObjective) < 0) {
-      LOGGER.info("Schedule provides a better objective value");
-      bestObjective = objective;
+    final int solutionsFoundValue;
+    final long nodesValue;
+    final boolean dummyUsedValue;
+    final Object[] arrays = new Object[10];
+    final int[][] tableSlots;
+    final int[][] frames;
+    final @Nullable ObjectiveValue bestObjective;
+    final @Nullable TournamentSchedule bestSchedule;
+    final long bestSeed;
+    try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+      if (CHECKPOINT_VERSION != in.readInt()) {
+        LOGGER.warn("Checkpoint "
+            + checkpointFile.getAbsolutePath()
+            + " was written by a different version, ignoring it");
+        return false;
+      }
+      final Object savedDescription = in.readObject();
+      final boolean savedOptimize = in.readBoolean();
+      final long savedSeed = in.readLong();
+      if (!description.equals(savedDescription)
+          || optimize != savedOptimize
+          || seed != savedSeed) {
+        LOGGER.warn("Checkpoint "
+            + checkpointFile.getAbsolutePath()
+            + " is for a different problem, ignoring it");
+        return false;
+      }
 
-      if (null != mBestSchedule) {
-        if (!mBestSchedule.delete()) {
-          mBestSchedule.deleteOnExit();
-        }
+      solutionsFoundValue = in.readInt();
+      nodesValue = in.readLong();
+      dummyUsedValue = in.readBoolean();
+      for (int i = 0; i < arrays.length; ++i) {
+        arrays[i] = in.readObject();
       }
-      mBestSchedule = scheduleFile;
+      tableSlots = (int[][]) in.readObject();
+      frames = (int[][]) in.readObject();
+      bestObjective = (ObjectiveValue) in.readObject();
+      bestSchedule = (TournamentSchedule) in.readObject();
+      bestSeed = in.readLong();
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      LOGGER.warn("Unable to read checkpoint "
+          + checkpointFile.getAbsolutePath()
+          + ", ignoring it", e);
+      return false;
+    }
 
-      // tighten down the constraints so that we find a better solution
-      final int newNumTimeslots = objective.getLatestPerformanceTime()
-          + 1;
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Tightening numTimeslots from "
-            + numTimeslots
-            + " to "
-            + newNumTimeslots);
+    // order matches writeCheckpoint
+    copyInto(subjectiveScheduled, arrays[0]);
+    copyInto(performanceScheduled, arrays[1]);
+    copyInto(sz, arrays[2]);
+    copyInto(py, arrays[3]);
+    copyInto(pz, arrays[4]);
+    copyInto(teamSubjectiveOccupancy, arrays[5]);
+    copyInto(teamPerformanceOccupancy, arrays[6]);
+    copyInto(stationOccupancy, arrays[7]);
+    copyInto(tableOccupancy, arrays[8]);
+    copyInto(subjectiveStations, arrays[9]);
+    for (int table = 0; table < tableSlots.length; ++table) {
+      final List<Integer> slots = performanceTables.get(table);
+      if (null == slots) {
+        throw new FLLRuntimeException("Checkpoint has too many tables");
       }
-      numTimeslots = newNumTimeslots;
-    } else {
-      if (!scheduleFile.delete()) {
-        scheduleFile.deleteOnExit();
+      slots.clear();
+      for (final int slot : tableSlots[table]) {
+        slots.add(slot);
+      }
+    }
+    solutionsFound = solutionsFoundValue;
+    nodes.set(nodesValue);
+    dummyPerformanceSlotUsed = dummyUsedValue;
+
+    for (final int[] frame : frames) {
+      final FrameReader data = new FrameReader(frame);
+      final int type = data.next();
+      switch (type) {
+      case STATION_FRAME:
+        pushStationFrame();
+        break;
+      case SUBJECTIVE_FRAME:
+        pushSubjectiveFrame(0, 0, 0);
+        break;
+      case PERFORMANCE_FRAME:
+        pushPerformanceFrame(0, 0);
+        break;
+      default:
+        throw new FLLRuntimeException("Unknown frame type in checkpoint: "
+            + type);
+      }
+      castNonNull(stack[stackDepth
+          - 1]).restore(data);
+    }
+
+    if (null != bestObjective
+        && null != bestSchedule) {
+      solverBest.offer(bestObjective, bestSchedule, bestSeed);
+      if (!ownsIncumbent) {
+        incumbent.offer(bestObjective, bestSchedule, bestSeed);
       }
     }
 
+    LOGGER.info("Resuming seed "
+        + seed
+        + " from checkpoint with "
+        + solutionsFound
+        + " solutions found");
     return true;
   }
 
+  /**
+   * Copy an array read from a checkpoint into the matching array of this
+   * solver.
+   */
+  private static void copyInto(final Object target,
+                               final @Nullable Object source) {
+    if (target instanceof BitSet
+        && source instanceof BitSet) {
+      final BitSet bits = (BitSet) target;
+      bits.clear();
+      bits.or((BitSet) source);
+    } else if (target instanceof boolean[]
+        && source instanceof boolean[]
+        && ((boolean[]) target).length == ((boolean[]) source).length) {
+      System.arraycopy(source, 0, target, 0, ((boolean[]) target).length);
+    } else if (target instanceof int[]
+        && source instanceof int[]
+        && ((int[]) target).length == ((int[]) source).length) {
+      System.arraycopy(source, 0, target, 0, ((int[]) target).length);
+    } else if (target instanceof Object[]
+        && source instanceof Object[]
+        && ((Object[]) target).length == ((Object[]) source).length) {
+      final Object[] targetArray = (Object[]) target;
+      final Object[] sourceArray = (Object[]) source;
+      for (int i = 0; i < targetArray.length; ++i) {
+        copyInto(castNonNull(targetArray[i]), sourceArray[i]);
+      }
+    } else {
+      throw new FLLRuntimeException("Checkpoint does not match the schedule description");
+    }
+  }
+
+  /**
+   * Remove the checkpoint, called once the search has finished.
+   */
+  /* package */ void deleteCheckpoint() {
+    try {
+      Files.deleteIfExists(checkpointFile.toPath());
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to delete checkpoint "
+          + checkpointFile.getAbsolutePath(), e);
+    }
+  }
+
   /**
    * @return the number of subjective judging stations
    */
@@ -1486,39 +2372,17 @@ public class GreedySolver {
 
   private final int subjectiveAttemptOffset;
 
-  private int numTimeslots;
+  private final int numTimeslots;
 
   /**
-   * The number of timeslots available to schedule in.
+   * The number of timeslots available to schedule in. This shrinks as better
+   * solutions are found by this solver. It isn't shrunk by the solutions of
+   * other solvers sharing {@link #incumbent}, the search returns early when it
+   * runs out of timeslots and doesn't undo everything it tried, so a smaller
+   * limit can make it miss solutions that it would find by itself.
    */
   private int getNumTimeslots() {
-    return numTimeslots;
-  }
-
-  private TournamentSchedule.ColumnInformation createColumnInformation() {
-    final int numRounds = solverParameters.getNumPerformanceRounds();
-    final String[] perfColumn = new String[numRounds];
-    final String[] perfTableColumn = new String[numRounds];
-    for (int round = 0; round < numRounds; ++round) {
-      perfColumn[round] = String.format(TournamentSchedule.PERF_HEADER_FORMAT, round
-          + 1);
-      perfTableColumn[round] = String.format(TournamentSchedule.TABLE_HEADER_FORMAT, round
-          + 1);
-    }
-
-    // 12/27/2021 JPS - This assumes that the subjective category names match the
-    // columns. There is a good chance this isn't going to be true and something
-    // smarter should be done using a challenge description
-    final Collection<CategoryColumnMapping> subjectiveColumnMappings = solverParameters.getSubjectiveStations().stream() //
-                                                                                       .map(s -> new CategoryColumnMapping(s.getName(),
-                                                                                                                           s.getName())) //
-                                                                                       .collect(Collectors.toList());
-
-    return new TournamentSchedule.ColumnInformation(0, createHeaderRow(), TournamentSchedule.TEAM_NUMBER_HEADER,
-                                                    TournamentSchedule.ORGANIZATION_HEADER,
-                                                    TournamentSchedule.TEAM_NAME_HEADER, null,
-                                                    TournamentSchedule.JUDGE_GROUP_HEADER, subjectiveColumnMappings,
-                                                    perfColumn, perfTableColumn, new String[0], new String[0]);
+    return Math.min(numTimeslots, solverBest.getNumTimeslots());
   }
 
   private String[] createHeaderRow() {
@@ -1541,88 +2405,113 @@ public class GreedySolver {
     return line.toArray(new String[line.size()]);
   }
 
-  private void outputSchedule(final File schedule) throws IOException {
+  /**
+   * Build a schedule from the current assignments.
+   *
+   * @return the schedule, independent of the solver state
+   */
+  private TournamentSchedule createSchedule() {
     final List<SubjectiveStation> subjectiveStations = solverParameters.getSubjectiveStations();
 
-    try (CSVWriter csv = new CSVWriter(new OutputStreamWriter(new FileOutputStream(schedule),
-                                                              Utilities.DEFAULT_CHARSET))) {
-      final List<String> line = new ArrayList<>();
-      line.add(TournamentSchedule.TEAM_NUMBER_HEADER);
-      line.add(TournamentSchedule.TEAM_NAME_HEADER);
-      line.add(TournamentSchedule.ORGANIZATION_HEADER);
-      line.add(TournamentSchedule.JUDGE_GROUP_HEADER);
-      for (final SubjectiveStation station : subjectiveStations) {
-        line.add(station.getName());
+    final List<TeamScheduleInfo> teamSchedules = new ArrayList<>();
+    for (final SchedTeam team : getAllTeams()) {
+      final int teamNum = (team.getGroup()
+          + 1)
+          * 100
+          + team.getIndex();
+      final int judgingGroup = team.getGroup();
+
+      final TeamScheduleInfo ti = new TeamScheduleInfo(teamNum);
+      ti.setTeamName("Team "
+          + teamNum);
+      ti.setOrganization("Org "
+          + teamNum);
+      ti.setJudgingGroup(groupNames[judgingGroup]);
+
+      for (int subj = 0; subj < subjectiveStations.size(); ++subj) {
+        final SubjectiveStation station = subjectiveStations.get(subj);
+
+        final LocalTime time = getTime(sz[team.getGroup()][team.getIndex()][subj], 1);
+        if (null == time) {
+          throw new RuntimeException("Could not find a subjective start for group: "
+              + groupNames[team.getGroup()]
+              + " team: "
+              + (team.getIndex()
+                  + 1)
+              + " subj: "
+              + station.getName());
+        }
+        ti.addSubjectiveTime(new SubjectiveTime(station.getName(), time));
       }
+
+      // find all performances for a team and then sort by time
+      final SortedSet<PerformanceTime> perfTimes = new TreeSet<>();
       for (int round = 0; round < solverParameters.getNumPerformanceRounds(); ++round) {
-        line.add(String.format(TournamentSchedule.PERF_HEADER_FORMAT, round
-            + 1));
-        line.add(String.format(TournamentSchedule.TABLE_HEADER_FORMAT, round
-            + 1));
-      }
-      csv.writeNext(line.toArray(new String[line.size()]));
-      line.clear();
-
-      for (final SchedTeam team : getAllTeams()) {
-        final int teamNum = (team.getGroup()
-            + 1)
-            * 100
-            + team.getIndex();
-        final int judgingGroup = team.getGroup();
-        line.add(String.valueOf(teamNum));
-        line.add("Team "
-            + teamNum);
-        line.add("Org "
-            + teamNum);
-        line.add(groupNames[judgingGroup]); // judging group
-        for (int subj = 0; subj < subjectiveStations.size(); ++subj) {
-          final SubjectiveStation station = subjectiveStations.get(subj);
-
-          final LocalTime time = getTime(sz[team.getGroup()][team.getIndex()][subj], 1);
-          if (null == time) {
-            throw new RuntimeException("Could not find a subjective start for group: "
-                + groupNames[team.getGroup()]
-                + " team: "
-                + (team.getIndex()
-                    + 1)
-                + " subj: "
-                + station.getName());
+        for (int table = 0; table < solverParameters.getNumTables(); ++table) {
+          for (int side = 0; side < 2; ++side) {
+            final LocalTime time = getTime(pz[team.getGroup()][team.getIndex()][table][side], round
+                + 1);
+            if (null != time) {
+              final String tableName = String.format("Table%d", (table
+                  + 1));
+              final int displayedSide = side
+                  + 1;
+              perfTimes.add(new PerformanceTime(time, tableName, displayedSide, false));
+            }
           }
-          line.add(TournamentSchedule.formatTime(time));
         }
+      }
+      if (perfTimes.size() != solverParameters.getNumPerformanceRounds()) {
+        throw new FLLRuntimeException("Expecting "
+            + solverParameters.getNumPerformanceRounds()
+            + " performance times, but found "
+            + perfTimes.size()
+            + " group: "
+            + (team.getGroup()
+                + 1)
+            + " team: "
+            + (team.getIndex()
+                + 1)
+            + " perfs: "
+            + perfTimes);
+      }
+      perfTimes.forEach(ti::addPerformance);
 
-        // find all performances for a team and then sort by time
-        final SortedSet<PerformanceTime> perfTimes = new TreeSet<>();
-        for (int round = 0; round < solverParameters.getNumPerformanceRounds(); ++round) {
-          for (int table = 0; table < solverParameters.getNumTables(); ++table) {
-            for (int side = 0; side < 2; ++side) {
-              final LocalTime time = getTime(pz[team.getGroup()][team.getIndex()][table][side], round
-                  + 1);
-              if (null != time) {
-                final String tableName = String.format("Table%d", (table
-                    + 1));
-                final int displayedSide = side
-                    + 1;
-                perfTimes.add(new PerformanceTime(time, tableName, displayedSide, false));
-              }
-            }
+      teamSchedules.add(ti);
+    }
+
+    final List<String> stationNames = subjectiveStations.stream() //
+                                                        .map(SubjectiveStation::getName) //
+                                                        .collect(Collectors.toList());
+    return new TournamentSchedule(datafile.getName(), teamSchedules, stationNames);
+  }
+
+  private void outputSchedule(final File file,
+                              final TournamentSchedule schedule)
+      throws IOException {
+    final List<SubjectiveStation> subjectiveStations = solverParameters.getSubjectiveStations();
+
+    try (CSVWriter csv = new CSVWriter(new OutputStreamWriter(new FileOutputStream(file), Utilities.DEFAULT_CHARSET))) {
+      csv.writeNext(createHeaderRow());
+
+      final List<String> line = new ArrayList<>();
+      for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+        line.add(String.valueOf(ti.getTeamNumber()));
+        line.add(ti.getTeamName());
+        line.add(ti.getOrganization());
+        line.add(ti.getJudgingGroup());
+        for (final SubjectiveStation station : subjectiveStations) {
+          final SubjectiveTime time = ti.getSubjectiveTimeByName(station.getName());
+          if (null == time) {
+            throw new FLLInternalException("Team "
+                + ti.getTeamNumber()
+                + " is missing a time for "
+                + station.getName());
           }
+          line.add(TournamentSchedule.formatTime(time.getTime()));
         }
-        if (perfTimes.size() != solverParameters.getNumPerformanceRounds()) {
-          throw new FLLRuntimeException("Expecting "
-              + solverParameters.getNumPerformanceRounds()
-              + " performance times, but found "
-              + perfTimes.size()
-              + " group: "
-              + (team.getGroup()
-                  + 1)
-              + " team: "
-              + (team.getIndex()
-                  + 1)
-              + " perfs: "
-              + perfTimes);
-        }
-        for (final PerformanceTime perfTime : perfTimes) {
+
+        for (final PerformanceTime perfTime : ti.getAllPerformances()) {
           line.add(TournamentSchedule.formatTime(perfTime.getTime()));
           line.add(perfTime.getTable()
               + " "
@@ -1642,16 +2531,15 @@ public class GreedySolver {
    * @param count which time to find, 1 based count
    * @return the time or null if the time slot cannot be found
    */
-  private @Nullable LocalTime getTime(final boolean[] slots,
+  private @Nullable LocalTime getTime(final BitSet slots,
                                       final int count) {
     int n = 0;
-    for (int i = 0; i < slots.length; ++i) {
-      if (slots[i]) {
-        ++n;
-        if (n == count) {
-          final LocalTime slotTime = solverParameters.getStartTime().plusMinutes(i);
-          return slotTime;
-        }
+    for (int i = slots.nextSetBit(0); i >= 0; i = slots.nextSetBit(i
+        + 1)) {
+      ++n;
+      if (n == count) {
+        final LocalTime slotTime = solverParameters.getStartTime().plusMinutes(i);
+        return slotTime;
       }
     }
     return null;
@@ -7,6 +7,7 @@
 package fll.scheduler;
 
 import java.io.PrintWriter;
+import java.io.Serializable;
 import java.io.StringWriter;
 import java.util.Arrays;
 
@@ -18,7 +19,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * from the same solver be compared. Comparing ObjectiveValue objects across
  * solvers is undefined.
  */
-/* package */class ObjectiveValue implements Comparable<ObjectiveValue> {
+/* package */class ObjectiveValue implements Comparable<ObjectiveValue>, Serializable {
 
   private final int solutionNumber;
 
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import fll.scheduler.SchedParams.InvalidParametersException;
+import fll.util.CheckCanceled;
+import fll.util.FLLInternalException;
+import fll.util.FLLRuntimeException;
+
+/**
+ * Run several {@link GreedySolver} instances in parallel on the same problem.
+ * Each solver uses a different seed so that they search the problem in a
+ * different order. The solvers share the best solution found so far, each
+ * solver only uses its own solutions to limit the rest of its search. This
+ * way each solver searches the same way as it does by itself and the result
+ * is never worse than that of any of the seeds.
+ * The solver with the first seed searches the same way as a
+ * {@link GreedySolver} created without a seed. The seed that found the best
+ * solution is logged, running with only that seed repeats that search.
+ * Each solver periodically writes a checkpoint next to the data file. If the
+ * solve is stopped by the time budget, canceled or the process dies the
+ * search can be continued with {@link #resume()}. The checkpoints are removed
+ * once the search finishes.
+ */
+public final class PortfolioSolver {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private final boolean optimize;
+
+  private final @Nullable Duration timeBudget;
+
+  private final SolverIncumbent incumbent = new SolverIncumbent();
+
+  private final List<GreedySolver> solvers = new ArrayList<>();
+
+  /**
+   * How often progress is reported while solving.
+   */
+  private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+  private @Nullable File bestSchedule = null;
+
+  /**
+   * @param datafile the datafile for the schedule to solve
+   * @param optimize if true, find an optimal solution, otherwise stop when the
+   *          first solution is found
+   * @param numThreads the number of solvers to run in parallel
+   * @param firstSeed the seed for the first solver, the other solvers use the
+   *          following seeds
+   * @param timeBudget the maximum amount of time to spend solving, null to use
+   *          {@link SolverParams#getSolveTimeBudget()}
+   * @throws ParseException if there is an error parsing the data file
+   * @throws InvalidParametersException if the parameters are not valid
+   * @throws IOException if there is an error reading the file
+   * @throws IllegalArgumentException if {@code numThreads} is less than 1
+   */
+  public PortfolioSolver(final File datafile,
+                         final boolean optimize,
+                         final int numThreads,
+                         final long firstSeed,
+                         final @Nullable Duration timeBudget)
+      throws IOException, ParseException, InvalidParametersException {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be at least 1: "
+          + numThreads);
+    }
+    this.optimize = optimize;
+    for (int i = 0; i < numThreads; ++i) {
+      solvers.add(new GreedySolver(datafile, optimize, firstSeed
+          + i, incumbent));
+    }
+    this.timeBudget = null == timeBudget ? getParameters().getSolveTimeBudget() : timeBudget;
+  }
+
+  /**
+   * @return true if there is a checkpoint from a previous solve of the same
+   *         data file
+   */
+  public boolean hasCheckpoint() {
+    return solvers.stream().anyMatch(solver -> solver.getCheckpointFile().exists());
+  }
+
+  /**
+   * Continue the search from the checkpoints left by a previous solve. Must be
+   * called before {@link #solve(CheckCanceled)}. Solvers without a matching
+   * checkpoint start from the beginning.
+   *
+   * @return the number of solvers that will continue from a checkpoint
+   */
+  public int resume() {
+    int resumed = 0;
+    for (final GreedySolver solver : solvers) {
+      if (solver.resumeFromCheckpoint()) {
+        ++resumed;
+      }
+    }
+    return resumed;
+  }
+
+  /**
+   * @return the parameters used by the solvers
+   */
+  public SolverParams getParameters() {
+    return solvers.get(0).getParameters();
+  }
+
+  /**
+   * @return File that contains the best schedule found, null if no schedule
+   *         was found
+   */
+  public @Nullable File getBestSchedule() {
+    return bestSchedule;
+  }
+
+  /**
+   * @return the best solution found by all of the solvers
+   */
+  /* package */ SolverIncumbent getIncumbent() {
+    return incumbent;
+  }
+
+  /**
+   * Solve the problem. Returns when all solvers have finished, the time budget
+   * has been used or the solve is canceled.
+   *
+   * @param checkCanceled if non-null, used to check if the schedule should be
+   *          interrupted
+   * @return the number of solutions found by all solvers
+   */
+  public int solve(final @Nullable CheckCanceled checkCanceled) {
+    return solve(checkCanceled, null);
+  }
+
+  /**
+   * Solve the problem. Returns when all solvers have finished, the time budget
+   * has been used or the solve is canceled.
+   *
+   * @param checkCanceled if non-null, used to check if the schedule should be
+   *          interrupted
+   * @param progress if non-null, called periodically from the thread calling
+   *          this method with the progress of the solvers
+   * @return the number of solutions found by all solvers
+   */
+  public int solve(final @Nullable CheckCanceled checkCanceled,
+                   final @Nullable Consumer<SolverProgress> progress) {
+    final long start = System.nanoTime();
+    final AtomicBoolean stop = new AtomicBoolean(false);
+    // set when the search is stopped before it finished, the checkpoints are
+    // kept so that it can be resumed
+    final AtomicBoolean interrupted = new AtomicBoolean(false);
+    final CheckCanceled solverCanceled = () -> {
+      if (stop.get()) {
+        return true;
+      } else if (null != checkCanceled
+          && checkCanceled.isCanceled()) {
+        interrupted.set(true);
+        return true;
+      } else if (null != timeBudget
+          && System.nanoTime()
+              - start >= timeBudget.toNanos()) {
+        LOGGER.info("Time budget used, stopping solvers");
+        interrupted.set(true);
+        stop.set(true);
+        return true;
+      } else {
+        return false;
+      }
+    };
+
+    LOGGER.info("Starting "
+        + solvers.size()
+        + " solvers");
+
+    final ExecutorService executor = Executors.newFixedThreadPool(solvers.size(), r -> {
+      final Thread thread = new Thread(r, "Scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (final GreedySolver solver : solvers) {
+        results.add(executor.submit(() -> {
+          final int found = solver.solve(solverCanceled);
+          if (!optimize
+              && found > 0) {
+            // only looking for a solution, no need for the others to keep going
+            stop.set(true);
+          }
+          return found;
+        }));
+      }
+
+      executor.shutdown();
+      while (!executor.awaitTermination(PROGRESS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+        reportProgress(progress, start);
+      }
+      reportProgress(progress, start);
+
+      int solutionsFound = 0;
+      for (final Future<Integer> result : results) {
+        solutionsFound += result.get();
+      }
+
+      if (!interrupted.get()) {
+        // the search is finished, there is nothing to resume
+        for (final GreedySolver solver : solvers) {
+          solver.deleteCheckpoint();
+        }
+      }
+
+      final GreedySolver first = solvers.get(0);
+      first.outputBestSchedule();
+      bestSchedule = first.getBestSchedule();
+      if (null != bestSchedule) {
+        LOGGER.info("Best schedule found with seed "
+            + incumbent.getBestSeed());
+      }
+
+      return solutionsFound;
+    } catch (final InterruptedException e) {
+      throw new FLLRuntimeException("Interrupted waiting for the solvers", e);
+    } catch (final ExecutionException e) {
+      throw new FLLInternalException("Error running solver", e.getCause());
+    } finally {
+      stop.set(true);
+      executor.shutdown();
+    }
+  }
+
+  private void reportProgress(final @Nullable Consumer<SolverProgress> progress,
+                              final long start) {
+    if (null == progress) {
+      return;
+    }
+
+    long nodes = 0;
+    for (final GreedySolver solver : solvers) {
+      nodes += solver.getNodes();
+    }
+
+    final ObjectiveValue best = incumbent.getBestObjective();
+    final @Nullable LocalTime latestPerformanceTime;
+    if (null == best) {
+      latestPerformanceTime = null;
+    } else {
+      latestPerformanceTime = getParameters().getStartTime().plusMinutes(best.getLatestPerformanceTime());
+    }
+
+    progress.accept(new SolverProgress(incumbent.getNumSolutions(), latestPerformanceTime, nodes,
+                                       Duration.ofNanos(System.nanoTime()
+                                           - start)));
+  }
+
+}
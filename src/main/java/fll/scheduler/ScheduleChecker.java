@@ -8,6 +8,7 @@ package fll.scheduler;
 
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -17,6 +18,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
@@ -47,19 +50,31 @@ public class ScheduleChecker {
 
   private void verifyNumTeamsAtTable(final Collection<ConstraintViolation> violations) {
     for (final Map.Entry<LocalTime, Map<String, List<TeamScheduleInfo>>> dateEntry : schedule.getMatches().entrySet()) {
-      for (final Map.Entry<String, List<TeamScheduleInfo>> timeEntry : dateEntry.getValue().entrySet()) {
-        final List<TeamScheduleInfo> tableMatches = timeEntry.getValue();
-        if (tableMatches.size() > 2) {
-          final List<Integer> teams = new LinkedList<>();
-          for (final TeamScheduleInfo team : tableMatches) {
-            teams.add(team.getTeamNumber());
-          }
-          final String message = String.format("Too many teams competing on table: %s at time: %s. Teams: %s",
-                                               timeEntry.getKey(), TournamentSchedule.formatTime(dateEntry.getKey()),
-                                               teams);
-          violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, Team.NULL_TEAM_NUMBER, null, null, null,
-                                                 message));
+      verifyNumTeamsAtTable(violations, dateEntry.getKey(), dateEntry.getValue());
+    }
+  }
+
+  /**
+   * Check the number of teams on each table at a time.
+   *
+   * @param violations where to add the violations
+   * @param time the time being checked
+   * @param tables table -&gt; teams at the time
+   */
+  /* package */ void verifyNumTeamsAtTable(final Collection<ConstraintViolation> violations,
+                                           final LocalTime time,
+                                           final Map<String, List<TeamScheduleInfo>> tables) {
+    for (final Map.Entry<String, List<TeamScheduleInfo>> timeEntry : tables.entrySet()) {
+      final List<TeamScheduleInfo> tableMatches = timeEntry.getValue();
+      if (tableMatches.size() > 2) {
+        final List<Integer> teams = new LinkedList<>();
+        for (final TeamScheduleInfo team : tableMatches) {
+          teams.add(team.getTeamNumber());
         }
+        final String message = String.format("Too many teams competing on table: %s at time: %s. Teams: %s",
+                                             timeEntry.getKey(), TournamentSchedule.formatTime(time), teams);
+        violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, Team.NULL_TEAM_NUMBER, null, null, null,
+                                               message));
       }
     }
   }
@@ -146,10 +161,41 @@ public class ScheduleChecker {
     }
   }
 
-  @SuppressFBWarnings(value = "IM_BAD_CHECK_FOR_ODD", justification = "The size of a container cannot be negative")
   private void verifyTeam(final Collection<ConstraintViolation> violations,
                           final TeamScheduleInfo ti) {
-    // Relationship between each subjective category
+    if (!verifySubjectiveTimes(violations, ti)) {
+      return;
+    }
+
+    checkConstraintTeam3(violations, ti);
+
+    // constraint: team:4
+    for (final PerformanceTime performance : ti.getAllPerformances()) {
+      final String performanceName = ti.getRoundName(performance);
+      verifyPerformanceVsSubjective(violations, ti, performanceName, performance.getTime());
+    }
+
+    verifyTableUse(violations, ti);
+  }
+
+  /**
+   * @param ti the team to check
+   * @return true if the subjective times of the team overlap, in this case
+   *         {@link #verifySchedule()} doesn't check anything else about the
+   *         team
+   */
+  /* package */ boolean hasSubjectiveConflict(final TeamScheduleInfo ti) {
+    return !verifySubjectiveTimes(new LinkedList<>(), ti);
+  }
+
+  /**
+   * Check the relationship between each subjective category.
+   *
+   * @return false if a violation was found and the rest of the team should
+   *         not be checked
+   */
+  private boolean verifySubjectiveTimes(final Collection<ConstraintViolation> violations,
+                                        final TeamScheduleInfo ti) {
     for (final SubjectiveTime category1 : ti.getSubjectiveTimes()) {
       for (final SubjectiveTime category2 : ti.getSubjectiveTimes()) {
         if (!category1.getName().equals(category2.getName())) {
@@ -163,14 +209,14 @@ public class ScheduleChecker {
                                                    ti.getTeamNumber(), category1.getName(), category2.getName());
               violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, ti.getTeamNumber(), category1,
                                                      category2, null, message));
-              return;
+              return false;
             } else if (cat1End.plus(getChangetime()).isAfter(cat2Start)) {
               final String message = String.format("Team %d has doesn't have enough time between %s and %s (need %d)",
                                                    ti.getTeamNumber(), category1.getName(), category2.getName(),
                                                    getChangetime().toMinutes());
               violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, ti.getTeamNumber(), category1,
                                                      category2, null, message));
-              return;
+              return false;
             }
           } else {
             final LocalTime cat2End = cat2Start.plus(getSubjectiveDuration(category2.getName()));
@@ -179,28 +225,34 @@ public class ScheduleChecker {
                                                    category2.getName(), category1.getName());
               violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, ti.getTeamNumber(), category1,
                                                      category2, null, message));
-              return;
+              return false;
             } else if (cat2End.plus(getChangetime()).isAfter(cat1Start)) {
               final String message = String.format("Team %d has doesn't have enough time between %s and %s (need %d)",
                                                    ti.getTeamNumber(), category1.getName(), category2.getName(),
                                                    getChangetime().toMinutes());
               violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, ti.getTeamNumber(), category1,
                                                      category2, null, message));
-              return;
+              return false;
             }
           }
         }
       }
     }
 
-    checkConstraintTeam3(violations, ti);
-
-    // constraint: team:4
-    for (final PerformanceTime performance : ti.getAllPerformances()) {
-      final String performanceName = ti.getRoundName(performance);
-      verifyPerformanceVsSubjective(violations, ti, performanceName, performance.getTime());
-    }
+    return true;
+  }
 
+  /**
+   * Check constraint team:5, the tables, sides and opponents of a team. This
+   * is the only check of a team that depends on which table and side the team
+   * is on.
+   *
+   * @param violations where to add the violations
+   * @param ti the team to check
+   */
+  @SuppressFBWarnings(value = "IM_BAD_CHECK_FOR_ODD", justification = "The size of a container cannot be negative")
+  /* package */ void verifyTableUse(final Collection<ConstraintViolation> violations,
+                                    final TeamScheduleInfo ti) {
     // constraint: team:5
     final Map<String, PerformanceTime> tableSides = new HashMap<>();
     for (final PerformanceTime performance : ti.getAllPerformances()) {
@@ -210,9 +262,7 @@ public class ScheduleChecker {
           throw new FLLRuntimeException("Internal error, findOpponent is broken and returned the same team");
         }
 
-        final String key = performance.getTable()
-            + " "
-            + performance.getSide();
+        final String key = tableSideKey(performance.getTable(), performance.getSide());
         if (tableSides.containsKey(key)) {
           final PerformanceTime otherPerformance = tableSides.get(key);
           final String tableMessage = String.format("Team %d is competing on %s %d more than once", ti.getTeamNumber(),
@@ -236,22 +286,16 @@ public class ScheduleChecker {
          * ti.getPerfTime(round), divMessage)); }
          */
 
-        int opponentSide = -1;
         // figure out which round matches up
-        for (final PerformanceTime opponentPerformance : opponent.getAllPerformances()) {
-          if (opponentPerformance.getTime().equals(performance.getTime())) {
-            opponentSide = opponentPerformance.getSide();
-            break;
-          }
-        }
-        if (-1 == opponentSide) {
+        final PerformanceTime opponentPerformance = opponent.getPerformanceAtTime(performance.getTime());
+        if (null == opponentPerformance) {
           final String message = String.format("Unable to find time match for rounds between team %d and team %d at time %s",
                                                ti.getTeamNumber(), opponent.getTeamNumber(),
                                                TournamentSchedule.formatTime(performance.getTime()));
           violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, ti.getTeamNumber(), null, null,
                                                  performance.getTime(), message));
         } else {
-          if (opponentSide == performance.getSide()) {
+          if (opponentPerformance.getSide() == performance.getSide()) {
             final String message = String.format("Team %d and team %d are both on table %s side %d at the same time for round %s",
                                                  ti.getTeamNumber(), opponent.getTeamNumber(), performance.getTable(),
                                                  performance.getSide(), ti.getRoundName(performance));
@@ -367,23 +411,39 @@ public class ScheduleChecker {
   }
 
   /**
-   * Verify the schedule.
-   *
-   * @return the constraint violations found, empty if no violations
+   * @return the checks run by {@link #verifySchedule()} in the order that
+   *         their violations are returned, each check adds its violations to
+   *         the collection passed to it
    */
-  public List<ConstraintViolation> verifySchedule() {
-    final List<ConstraintViolation> constraintViolations = new LinkedList<>();
-
+  /* package */ List<Consumer<Collection<ConstraintViolation>>> getChecks() {
+    final List<Consumer<Collection<ConstraintViolation>>> checks = new ArrayList<>();
     for (final TeamScheduleInfo verify : schedule.getSchedule()) {
-      verifyTeam(constraintViolations, verify);
+      checks.add(violations -> verifyTeam(violations, verify));
     }
 
-    verifyPerformanceAtTime(constraintViolations);
-    verifyNumTeamsAtTable(constraintViolations);
-    verifySubjectiveAtTime(constraintViolations);
-    verifyNoOverlap(constraintViolations);
+    checks.add(this::verifyPerformanceAtTime);
+    checks.add(this::verifyNumTeamsAtTable);
+    checks.add(this::verifySubjectiveAtTime);
+    checks.add(this::verifyNoOverlap);
+    return checks;
+  }
 
-    return constraintViolations;
+  /**
+   * Verify the schedule. The checks of each team and each check across teams
+   * only read the schedule, so they are run in parallel. The violations are
+   * returned in the same order as if the checks had been run one after the
+   * other.
+   *
+   * @return the constraint violations found, empty if no violations
+   */
+  public List<ConstraintViolation> verifySchedule() {
+    // the stream is ordered, so the violations are collected in the order of
+    // the checks no matter which thread runs each check
+    return getChecks().parallelStream().flatMap(check -> {
+      final List<ConstraintViolation> violations = new LinkedList<>();
+      check.accept(violations);
+      return violations.stream();
+    }).collect(Collectors.toCollection(LinkedList::new));
   }
 
   /**
@@ -391,7 +451,7 @@ public class ScheduleChecker {
    *
    * @param constraintViolations
    */
-  private void verifyNoOverlap(final List<ConstraintViolation> violations) {
+  private void verifyNoOverlap(final Collection<ConstraintViolation> violations) {
     final Map<String, SortedSet<LocalTime>> tableToTime = new HashMap<>();
     // category -> judge -> times
     final Map<String, Map<String, SortedSet<LocalTime>>> subjectiveToTime = new HashMap<>();
@@ -413,11 +473,7 @@ public class ScheduleChecker {
 
       for (final PerformanceTime performanceTime : si.getAllPerformances()) {
 
-        final String table = performanceTime.getTable();
-        final int side = performanceTime.getSide();
-        final String tableKey = table
-            + " "
-            + side;
+        final String tableKey = tableSideKey(performanceTime.getTable(), performanceTime.getSide());
         SortedSet<LocalTime> performance = tableToTime.get(tableKey);
         if (null == performance) {
           performance = new TreeSet<>();
@@ -452,22 +508,47 @@ public class ScheduleChecker {
     }
 
     for (final Map.Entry<String, SortedSet<LocalTime>> entry : tableToTime.entrySet()) {
-      LocalTime prev = null;
-      for (final LocalTime current : entry.getValue()) {
-        if (null != prev) {
-          if (prev.plus(getPerformanceDuration()).isAfter(current)) {
-            final String message = String.format("Overlap in performance for table %s between %s and %s",
-                                                 entry.getKey(), TournamentSchedule.formatTime(prev),
-                                                 TournamentSchedule.formatTime(current));
-            violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, Team.NULL_TEAM_NUMBER, null, null,
-                                                   prev, message));
-          }
-        }
+      verifyNoPerformanceOverlap(violations, entry.getKey(), entry.getValue());
+    }
+
+  }
 
-        prev = current;
+  /**
+   * Check that the performances on a table side don't overlap.
+   *
+   * @param violations where to add the violations
+   * @param tableKey the table side, see {@link #tableSideKey(String, int)}
+   * @param times the start of each performance on the table side
+   */
+  /* package */ void verifyNoPerformanceOverlap(final Collection<ConstraintViolation> violations,
+                                                final String tableKey,
+                                                final SortedSet<LocalTime> times) {
+    LocalTime prev = null;
+    for (final LocalTime current : times) {
+      if (null != prev) {
+        if (prev.plus(getPerformanceDuration()).isAfter(current)) {
+          final String message = String.format("Overlap in performance for table %s between %s and %s", tableKey,
+                                               TournamentSchedule.formatTime(prev),
+                                               TournamentSchedule.formatTime(current));
+          violations.add(new ConstraintViolation(ConstraintViolation.Type.HARD, Team.NULL_TEAM_NUMBER, null, null,
+                                                 prev, message));
+        }
       }
+
+      prev = current;
     }
+  }
 
+  /**
+   * @param table the table color
+   * @param side the side of the table
+   * @return the key used to identify a side of a table
+   */
+  /* package */ static String tableSideKey(final String table,
+                                           final int side) {
+    return table
+        + " "
+        + side;
   }
 
   /**
@@ -6,9 +6,12 @@
 
 package fll.scheduler;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
@@ -25,6 +28,10 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -33,6 +40,9 @@ import javax.xml.transform.TransformerException;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.fop.apps.FOPException;
 import org.apache.fop.apps.FopFactory;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -41,6 +51,7 @@ import com.diffplug.common.base.Errors;
 import fll.scheduler.TournamentSchedule.SubjectiveComparatorByAwardGroup;
 import fll.scheduler.TournamentSchedule.SubjectiveComparatorByTime;
 import fll.util.FLLInternalException;
+import fll.util.FLLRuntimeException;
 import fll.util.FOPUtils;
 import net.mtu.eggplant.xml.XMLUtils;
 
@@ -51,6 +62,143 @@ public final class ScheduleWriter {
   private ScheduleWriter() {
   }
 
+  /**
+   * Maximum number of documents that are rendered at the same time, across all
+   * callers. Each render holds the layout of its pages in memory.
+   */
+  private static final int MAX_CONCURRENT_RENDERS = 4;
+
+  /**
+   * Main memory used when merging the rendered documents, beyond this the merge
+   * uses temporary files.
+   */
+  private static final long MAX_MERGE_MEMORY = 16L
+      * 1024
+      * 1024;
+
+  /**
+   * Shared by all renders so that {@link #MAX_CONCURRENT_RENDERS} holds no
+   * matter how many schedules are being output at once.
+   */
+  private static final ExecutorService RENDER_EXECUTOR = Executors.newFixedThreadPool(Math.max(1,
+                                                                                               Math.min(MAX_CONCURRENT_RENDERS,
+                                                                                                        Runtime.getRuntime()
+                                                                                                               .availableProcessors())),
+                                                                                      ScheduleWriter::createRenderThread);
+
+  private static Thread createRenderThread(final Runnable r) {
+    final Thread thread = new Thread(r, "Schedule PDF");
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Create a document with a single page sequence that uses the simple page
+   * master and has a footer with page numbers.
+   *
+   * @param footerText additional text for the footer, null for none
+   * @return the document and the element to add the content to
+   */
+  private static ImmutablePair<Document, Element> createSimpleDocument(final @Nullable String footerText) {
+    final Document document = XMLUtils.DOCUMENT_BUILDER.newDocument();
+
+    final Element rootElement = FOPUtils.createRoot(document);
+    document.appendChild(rootElement);
+
+    final Element layoutMasterSet = FOPUtils.createXslFoElement(document, "layout-master-set");
+    rootElement.appendChild(layoutMasterSet);
+
+    final String pageMasterName = "simple";
+    final Element pageMaster = FOPUtils.createSimplePageMaster(document, pageMasterName);
+    layoutMasterSet.appendChild(pageMaster);
+
+    final Element pageSequence = FOPUtils.createPageSequence(document, pageMasterName);
+    rootElement.appendChild(pageSequence);
+    pageSequence.setAttribute("id", FOPUtils.PAGE_SEQUENCE_NAME);
+
+    final Element footer;
+    if (null == footerText) {
+      footer = FOPUtils.createSimpleFooter(document);
+    } else {
+      footer = FOPUtils.createSimpleFooter(document, footerText, FOPUtils.PAGE_SEQUENCE_NAME);
+    }
+    pageSequence.appendChild(footer);
+
+    final Element documentBody = FOPUtils.createBody(document);
+    pageSequence.appendChild(documentBody);
+
+    return ImmutablePair.of(document, documentBody);
+  }
+
+  /**
+   * Render each document to PDF and write the pages of all of the documents, in
+   * order, to {@code out}. The documents are rendered in parallel, at most
+   * {@link #MAX_CONCURRENT_RENDERS} at a time, to temporary files that are then
+   * merged. Each document has its own page numbers, so the documents need to
+   * be split where the content already starts a new page.
+   *
+   * @param documents the XSL-FO documents to render
+   * @param out where to write the PDF
+   * @throws IOException if there is an error writing
+   * @throws FOPException if there is an error configuring FOP
+   * @throws TransformerException if there is an error in one of the documents
+   */
+  private static void renderPdfs(final List<Document> documents,
+                                 final OutputStream out)
+      throws IOException, FOPException, TransformerException {
+    final FopFactory fopFactory = FOPUtils.createSimpleFopFactory();
+    if (documents.size() == 1) {
+      FOPUtils.renderPdf(fopFactory, documents.get(0), out);
+      return;
+    }
+
+    final List<Path> pdfFiles = new ArrayList<>();
+    final List<Future<?>> results = new ArrayList<>();
+    try {
+      for (final Document document : documents) {
+        final Path pdfFile = Files.createTempFile("schedule", ".pdf");
+        pdfFiles.add(pdfFile);
+        results.add(RENDER_EXECUTOR.submit(() -> {
+          try (OutputStream pdf = new BufferedOutputStream(Files.newOutputStream(pdfFile))) {
+            FOPUtils.renderPdf(fopFactory, document, pdf);
+          }
+          return null;
+        }));
+      }
+
+      final PDFMergerUtility merger = new PDFMergerUtility();
+      merger.setDestinationStream(out);
+      for (int index = 0; index < results.size(); ++index) {
+        results.get(index).get();
+        merger.addSource(pdfFiles.get(index).toFile());
+      }
+      merger.mergeDocuments(MemoryUsageSetting.setupMixed(MAX_MERGE_MEMORY));
+    } catch (final InterruptedException e) {
+      throw new FLLRuntimeException("Interrupted waiting for the schedule PDFs", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof FOPException) {
+        throw (FOPException) cause;
+      } else if (cause instanceof TransformerException) {
+        throw (TransformerException) cause;
+      } else {
+        throw new FLLInternalException("Error rendering schedule PDF", cause);
+      }
+    } finally {
+      // don't hold a render slot for a result that nobody will read
+      for (final Future<?> result : results) {
+        result.cancel(true);
+      }
+      for (final Path pdfFile : pdfFiles) {
+        if (!pdfFile.toFile().delete()) {
+          pdfFile.toFile().deleteOnExit();
+        }
+      }
+    }
+  }
+
   /**
    * Output the schedule sorted by team number. This schedule looks much like
    * the input spreadsheet.
@@ -315,7 +463,8 @@ public final class ScheduleWriter {
   }
 
   /**
-   * Output the performance schedule per table, sorted by time.
+   * Output the performance schedule per table, sorted by time. The pages for
+   * each table are numbered separately.
    *
    * @param schedule the schedule to write
    * @param pdfFos where to write the schedule
@@ -325,10 +474,8 @@ public final class ScheduleWriter {
                                                              final OutputStream pdfFos)
       throws IOException {
     try {
-      final Document performanceDoc = createPerformanceSchedulePerTable(schedule);
-      final FopFactory fopFactory = FOPUtils.createSimpleFopFactory();
-
-      FOPUtils.renderPdf(fopFactory, performanceDoc, pdfFos);
+      final List<Document> documents = createPerformanceSchedulePerTable(schedule);
+      renderPdfs(documents, pdfFos);
     } catch (FOPException | TransformerException e) {
       throw new FLLInternalException("Error creating the performance schedule PDF", e);
     }
@@ -344,7 +491,10 @@ public final class ScheduleWriter {
    */
   public static final double THICK_BORDER_WIDTH = 2;
 
-  private static Document createPerformanceSchedulePerTable(final TournamentSchedule schedule) {
+  /**
+   * @return a document for each table side
+   */
+  /* package */ static List<Document> createPerformanceSchedulePerTable(final TournamentSchedule schedule) {
     final SortedSet<ImmutablePair<String, Integer>> tables = new TreeSet<>();
 
     final Map<PerformanceTime, TeamScheduleInfo> performanceTimes = new HashMap<>();
@@ -356,30 +506,18 @@ public final class ScheduleWriter {
       }
     }
 
-    final Document document = XMLUtils.DOCUMENT_BUILDER.newDocument();
-
-    final Element rootElement = FOPUtils.createRoot(document);
-    document.appendChild(rootElement);
-
-    final Element layoutMasterSet = FOPUtils.createXslFoElement(document, "layout-master-set");
-    rootElement.appendChild(layoutMasterSet);
-
-    final String pageMasterName = "simple";
-    final Element pageMaster = FOPUtils.createSimplePageMaster(document, pageMasterName);
-    layoutMasterSet.appendChild(pageMaster);
-
-    final Element pageSequence = FOPUtils.createPageSequence(document, pageMasterName);
-    rootElement.appendChild(pageSequence);
-    pageSequence.setAttribute("id", FOPUtils.PAGE_SEQUENCE_NAME);
-
     final String footerText = String.format("Tournament: %s", schedule.getName());
-    final Element footer = FOPUtils.createSimpleFooter(document, footerText, FOPUtils.PAGE_SEQUENCE_NAME);
-    pageSequence.appendChild(footer);
-
-    final Element documentBody = FOPUtils.createBody(document);
-    pageSequence.appendChild(documentBody);
+    if (tables.isEmpty()) {
+      return Collections.singletonList(createSimpleDocument(footerText).getLeft());
+    }
 
+    final List<Document> documents = new ArrayList<>();
     tables.forEach(pair -> {
+      final ImmutablePair<Document, Element> simpleDocument = createSimpleDocument(footerText);
+      final Document document = simpleDocument.getLeft();
+      final Element documentBody = simpleDocument.getRight();
+      documents.add(document);
+
       final String table = pair.getLeft();
       final int side = pair.getRight();
 
@@ -396,10 +534,9 @@ public final class ScheduleWriter {
 
       final Element ele = createPerformanceScheduleTable(schedule, headerText, document, tablePerformanceTimes);
       documentBody.appendChild(ele);
-      ele.setAttribute("page-break-after", "always");
     });
 
-    return document;
+    return documents;
   }
 
   private static Document createPerformanceSchedule(final TournamentSchedule schedule) {
@@ -614,7 +751,8 @@ public final class ScheduleWriter {
   }
 
   /**
-   * Output the schedule for each team.
+   * Output the schedule for each team. The team schedules flow onto the pages
+   * without page breaks, so they are rendered as a single document.
    *
    * @param schedule the tournament schedule
    * @param params schedule parameters
@@ -628,10 +766,7 @@ public final class ScheduleWriter {
 
     try {
       final Document document = createTeamSchedules(schedule, params);
-
-      final FopFactory fopFactory = FOPUtils.createSimpleFopFactory();
-
-      FOPUtils.renderPdf(fopFactory, document, stream);
+      renderPdfs(Collections.singletonList(document), stream);
     } catch (FOPException | TransformerException e) {
       throw new FLLInternalException("Error creating the performance schedule PDF", e);
     }
@@ -639,27 +774,9 @@ public final class ScheduleWriter {
 
   private static Document createTeamSchedules(final TournamentSchedule schedule,
                                               final SchedParams params) {
-    final Document document = XMLUtils.DOCUMENT_BUILDER.newDocument();
-
-    final Element rootElement = FOPUtils.createRoot(document);
-    document.appendChild(rootElement);
-
-    final Element layoutMasterSet = FOPUtils.createXslFoElement(document, "layout-master-set");
-    rootElement.appendChild(layoutMasterSet);
-
-    final String pageMasterName = "simple";
-    final Element pageMaster = FOPUtils.createSimplePageMaster(document, pageMasterName);
-    layoutMasterSet.appendChild(pageMaster);
-
-    final Element pageSequence = FOPUtils.createPageSequence(document, pageMasterName);
-    rootElement.appendChild(pageSequence);
-    pageSequence.setAttribute("id", FOPUtils.PAGE_SEQUENCE_NAME);
-
-    final Element footer = FOPUtils.createSimpleFooter(document);
-    pageSequence.appendChild(footer);
-
-    final Element documentBody = FOPUtils.createBody(document);
-    pageSequence.appendChild(documentBody);
+    final ImmutablePair<Document, Element> simpleDocument = createSimpleDocument(null);
+    final Document document = simpleDocument.getLeft();
+    final Element documentBody = simpleDocument.getRight();
 
     final List<TeamScheduleInfo> scheduleEntries = new ArrayList<>(schedule.getSchedule());
     Collections.sort(scheduleEntries, TournamentSchedule.ComparatorByTeam.INSTANCE);
@@ -786,7 +903,7 @@ public final class ScheduleWriter {
 
   /**
    * Output the subjective schedules with a table for each category and sorted
-   * by time.
+   * by time. The pages for each category are numbered separately.
    *
    * @param schedule the schedule to write
    * @param pdfFos where to write the schedule
@@ -796,47 +913,34 @@ public final class ScheduleWriter {
                                                          final OutputStream pdfFos)
       throws IOException {
     try {
-      final Document performanceDoc = createSubjectiveSchedulesByCategory(schedule);
-      final FopFactory fopFactory = FOPUtils.createSimpleFopFactory();
-
-      FOPUtils.renderPdf(fopFactory, performanceDoc, pdfFos);
+      final List<Document> documents = createSubjectiveSchedulesByCategory(schedule);
+      renderPdfs(documents, pdfFos);
     } catch (FOPException | TransformerException e) {
       throw new FLLInternalException("Error creating the performance schedule PDF", e);
     }
   }
 
-  private static Document createSubjectiveSchedulesByCategory(final TournamentSchedule schedule) {
-    final Document document = XMLUtils.DOCUMENT_BUILDER.newDocument();
-
-    final Element rootElement = FOPUtils.createRoot(document);
-    document.appendChild(rootElement);
-
-    final Element layoutMasterSet = FOPUtils.createXslFoElement(document, "layout-master-set");
-    rootElement.appendChild(layoutMasterSet);
-
-    final String pageMasterName = "simple";
-    final Element pageMaster = FOPUtils.createSimplePageMaster(document, pageMasterName);
-    layoutMasterSet.appendChild(pageMaster);
-    // pageMaster.setAttribute("reference-orientation", "90");
-
-    final Element pageSequence = FOPUtils.createPageSequence(document, pageMasterName);
-    rootElement.appendChild(pageSequence);
-    pageSequence.setAttribute("id", FOPUtils.PAGE_SEQUENCE_NAME);
-
+  /**
+   * @return a document for each subjective station
+   */
+  private static List<Document> createSubjectiveSchedulesByCategory(final TournamentSchedule schedule) {
     final String footerText = String.format("Tournament: %s", schedule.getName());
-    final Element footer = FOPUtils.createSimpleFooter(document, footerText, FOPUtils.PAGE_SEQUENCE_NAME);
-    pageSequence.appendChild(footer);
-
-    final Element documentBody = FOPUtils.createBody(document);
-    pageSequence.appendChild(documentBody);
+    if (schedule.getSubjectiveStations().isEmpty()) {
+      return Collections.singletonList(createSimpleDocument(footerText).getLeft());
+    }
 
+    final List<Document> documents = new ArrayList<>();
     for (final String subjectiveStation : schedule.getSubjectiveStations()) {
+      final ImmutablePair<Document, Element> simpleDocument = createSimpleDocument(footerText);
+      final Document document = simpleDocument.getLeft();
+      final Element documentBody = simpleDocument.getRight();
+      documents.add(document);
+
       final Element table = outputSubjectiveScheduleByCategory(document, schedule, subjectiveStation);
       documentBody.appendChild(table);
-      table.setAttribute("page-break-after", "always");
     }
 
-    return document;
+    return documents;
   }
 
   private static Element outputSubjectiveScheduleByCategory(final Document document,
@@ -1141,7 +1245,8 @@ public final class ScheduleWriter {
 
   /**
    * Output the subjective schedules with a table for each category and sorted
-   * by judging station, then by time.
+   * by judging station, then by time. The pages for each category are numbered
+   * separately.
    *
    * @param schedule the schedule to output
    * @param pdfFos where to output the schedule
@@ -1151,46 +1256,34 @@ public final class ScheduleWriter {
                                                                final OutputStream pdfFos)
       throws IOException {
     try {
-      final Document document = createSubjectiveSchedulesByJudgingStation(schedule);
-      final FopFactory fopFactory = FOPUtils.createSimpleFopFactory();
-
-      FOPUtils.renderPdf(fopFactory, document, pdfFos);
+      final List<Document> documents = createSubjectiveSchedulesByJudgingStation(schedule);
+      renderPdfs(documents, pdfFos);
     } catch (FOPException | TransformerException e) {
       throw new FLLInternalException("Error creating the subjective schedule by judging station PDF", e);
     }
   }
 
-  private static Document createSubjectiveSchedulesByJudgingStation(final TournamentSchedule schedule) {
-    final Document document = XMLUtils.DOCUMENT_BUILDER.newDocument();
-
-    final Element rootElement = FOPUtils.createRoot(document);
-    document.appendChild(rootElement);
-
-    final Element layoutMasterSet = FOPUtils.createXslFoElement(document, "layout-master-set");
-    rootElement.appendChild(layoutMasterSet);
-
-    final String pageMasterName = "simple";
-    final Element pageMaster = FOPUtils.createSimplePageMaster(document, pageMasterName);
-    layoutMasterSet.appendChild(pageMaster);
-
-    final Element pageSequence = FOPUtils.createPageSequence(document, pageMasterName);
-    rootElement.appendChild(pageSequence);
-    pageSequence.setAttribute("id", FOPUtils.PAGE_SEQUENCE_NAME);
-
+  /**
+   * @return a document for each subjective station
+   */
+  /* package */ static List<Document> createSubjectiveSchedulesByJudgingStation(final TournamentSchedule schedule) {
     final String footerText = String.format("Tournament: %s", schedule.getName());
-    final Element footer = FOPUtils.createSimpleFooter(document, footerText, FOPUtils.PAGE_SEQUENCE_NAME);
-    pageSequence.appendChild(footer);
-
-    final Element documentBody = FOPUtils.createBody(document);
-    pageSequence.appendChild(documentBody);
+    if (schedule.getSubjectiveStations().isEmpty()) {
+      return Collections.singletonList(createSimpleDocument(footerText).getLeft());
+    }
 
+    final List<Document> documents = new ArrayList<>();
     for (final String subjectiveStation : schedule.getSubjectiveStations()) {
+      final ImmutablePair<Document, Element> simpleDocument = createSimpleDocument(footerText);
+      final Document document = simpleDocument.getLeft();
+      final Element documentBody = simpleDocument.getRight();
+      documents.add(document);
+
       final Element ele = createSubjectiveScheduleByJudgingStation(schedule, document, subjectiveStation);
       documentBody.appendChild(ele);
-      ele.setAttribute("page-break-after", "always");
     }
 
-    return document;
+    return documents;
   }
 
   private static Element createSubjectiveScheduleByJudgingStation(final TournamentSchedule schedule,
@@ -496,6 +496,7 @@ public class SchedulerUI extends JFrame {
 
       // description not null by now
       final SchedulerWorker worker = new SchedulerWorker(castNonNull(mScheduleDescriptionFile));
+      worker.offerResume();
 
       // make sure the task doesn't start until the window is up
       progressDialog.addComponentListener(new ComponentAdapter() {
@@ -530,16 +531,44 @@ public class SchedulerUI extends JFrame {
 
   }
 
-  private final class SchedulerWorker extends SwingWorker<Integer, Void> {
-    private final GreedySolver solver;
+  private final class SchedulerWorker extends SwingWorker<Integer, String> {
+    private final PortfolioSolver solver;
 
     SchedulerWorker(final File descriptionFile) throws IOException, ParseException, InvalidParametersException {
-      this.solver = new GreedySolver(descriptionFile, false);
+      this.solver = new PortfolioSolver(descriptionFile, false, getSchedulerThreads(), 0, null);
+    }
+
+    /**
+     * If a previous run of the scheduler on the same description was stopped,
+     * ask the user if it should be continued.
+     */
+    void offerResume() {
+      if (!solver.hasCheckpoint()) {
+        return;
+      }
+
+      final int result = JOptionPane.showConfirmDialog(SchedulerUI.this,
+                                                       "A previous run of the scheduler on this description did not finish. Would you like to continue it?",
+                                                       "Question", JOptionPane.YES_NO_OPTION);
+      if (JOptionPane.YES_OPTION == result) {
+        if (solver.resume() < 1) {
+          JOptionPane.showMessageDialog(SchedulerUI.this,
+                                        "The description has changed since the previous run, starting from the beginning");
+        }
+      }
     }
 
     @Override
     protected Integer doInBackground() {
-      return solver.solve(progressDialog);
+      return solver.solve(progressDialog, progress -> publish(progress.toString()));
+    }
+
+    @Override
+    protected void process(final List<String> chunks) {
+      if (!chunks.isEmpty()) {
+        progressDialog.setNote(chunks.get(chunks.size()
+            - 1));
+      }
     }
 
     @Override
@@ -833,10 +862,32 @@ public class SchedulerUI extends JFrame {
 
     @Override
     public void actionPerformed(final ActionEvent ae) {
-      JOptionPane.showMessageDialog(SchedulerUI.this, "Not implemented yet");
+      final JPanel panel = new JPanel(new GridBagLayout());
+
+      final JFormattedTextField threads = FormatterUtils.createIntegerField(1, MAX_SCHEDULER_THREADS);
+      threads.setValue(getSchedulerThreads());
+      threads.setToolTipText("The number of solvers to run in parallel, each one searches in a different order");
+      addRow(panel, new JLabel("Scheduler threads:"), threads);
+
+      final int result = JOptionPane.showConfirmDialog(SchedulerUI.this, panel, "Preferences",
+                                                       JOptionPane.OK_CANCEL_OPTION);
+      if (JOptionPane.OK_OPTION == result) {
+        PREFS.putInt(SCHEDULER_THREADS_PREF, ((Number) threads.getValue()).intValue());
+      }
     }
   }
 
+  private static final int MAX_SCHEDULER_THREADS = 64;
+
+  /**
+   * @return the number of solvers to run in parallel, defaults to the number of
+   *         processors
+   */
+  private static int getSchedulerThreads() {
+    final int threads = PREFS.getInt(SCHEDULER_THREADS_PREF, Runtime.getRuntime().availableProcessors());
+    return Math.max(1, Math.min(MAX_SCHEDULER_THREADS, threads));
+  }
+
   private final Action mExitAction = new ExitAction();
 
   private final class ExitAction extends AbstractAction {
@@ -1285,6 +1336,8 @@ public class SchedulerUI extends JFrame {
 
   private static final String DESCRIPTION_STARTING_DIRECTORY_PREF = "descriptionStartingDirectory";
 
+  private static final String SCHEDULER_THREADS_PREF = "schedulerThreads";
+
   /* package */
   TournamentSchedule getScheduleData() {
     return mScheduleData;
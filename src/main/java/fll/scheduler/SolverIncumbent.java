@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The best solution found so far by one or more {@link GreedySolver} instances
+ * working on the same problem. When a better solution is found the number of
+ * timeslots is tightened so that a solver using it only looks for solutions
+ * that finish earlier.
+ * This class is thread safe.
+ */
+/* package */ final class SolverIncumbent {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private @Nullable ObjectiveValue bestObjective = null;
+
+  private @Nullable TournamentSchedule bestSchedule = null;
+
+  private long bestSeed = 0;
+
+  private int numSolutions = 0;
+
+  private int bestSolutionNumber = 0;
+
+  private volatile int numTimeslots = Integer.MAX_VALUE;
+
+  /**
+   * Offer a valid solution.
+   *
+   * @param objective the objective value of the solution
+   * @param schedule the solution
+   * @param seed the seed of the solver that found the solution
+   * @return true if the solution is better than the current best solution
+   */
+  /* package */ synchronized boolean offer(final ObjectiveValue objective,
+                                           final TournamentSchedule schedule,
+                                           final long seed) {
+    final int solutionNumber = numSolutions;
+    ++numSolutions;
+
+    final ObjectiveValue currentBest = bestObjective;
+    if (null != currentBest
+        && objective.compareTo(currentBest) >= 0) {
+      return false;
+    }
+
+    LOGGER.info("Schedule provides a better objective value, seed: "
+        + seed);
+    bestObjective = objective;
+    bestSchedule = schedule;
+    bestSeed = seed;
+    bestSolutionNumber = solutionNumber;
+
+    // tighten down the constraints so that we find a better solution
+    final int newNumTimeslots = objective.getLatestPerformanceTime()
+        + 1;
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Tightening numTimeslots from "
+          + numTimeslots
+          + " to "
+          + newNumTimeslots);
+    }
+    numTimeslots = Math.min(numTimeslots, newNumTimeslots);
+
+    return true;
+  }
+
+  /**
+   * @return the maximum number of timeslots that a better solution can use,
+   *         {@link Integer#MAX_VALUE} if no solution has been found
+   */
+  /* package */ int getNumTimeslots() {
+    return numTimeslots;
+  }
+
+  /**
+   * @return the best schedule found, null if no solution has been found
+   */
+  /* package */ synchronized @Nullable TournamentSchedule getBestSchedule() {
+    return bestSchedule;
+  }
+
+  /**
+   * @return the objective value of {@link #getBestSchedule()}
+   */
+  /* package */ synchronized @Nullable ObjectiveValue getBestObjective() {
+    return bestObjective;
+  }
+
+  /**
+   * @return the seed of the solver that found {@link #getBestSchedule()}, used
+   *         to replay the search
+   */
+  /* package */ synchronized long getBestSeed() {
+    return bestSeed;
+  }
+
+  /**
+   * Write the best solution so that it can be offered again when a search is
+   * resumed. The objective value, schedule and seed are written in that order,
+   * the objective value and schedule are null if no solution has been found.
+   *
+   * @param out where to write
+   * @throws IOException if there is an error writing
+   */
+  /* package */ synchronized void writeBest(final ObjectOutputStream out) throws IOException {
+    out.writeObject(bestObjective);
+    out.writeObject(bestSchedule);
+    out.writeLong(bestSeed);
+  }
+
+  /**
+   * @return the number of solutions that have been offered
+   */
+  /* package */ synchronized int getNumSolutions() {
+    return numSolutions;
+  }
+
+  /**
+   * @return the number of solutions that were offered before
+   *         {@link #getBestSchedule()}
+   */
+  /* package */ synchronized int getBestSolutionNumber() {
+    return bestSolutionNumber;
+  }
+
+}
@@ -55,6 +55,8 @@ public class SolverParams extends SchedParams {
 
   private static final String PERF_EARLIEST_START_KEY = "perf_earliest_start";
 
+  private static final String MAX_SOLVE_MINUTES_KEY = "max_solve_minutes";
+
   /**
    * Format for the number of breaks property. Expected to be
    * used with String.format() and one argument that is the
@@ -161,6 +163,8 @@ public class SolverParams extends SchedParams {
     this.tmaxHours = Utilities.readIntProperty(properties, TMAX_HOURS_KEY);
     this.tmaxMinutes = Utilities.readIntProperty(properties, TMAX_MINUTES_KEY);
 
+    this.maxSolveMinutes = Utilities.readIntProperty(properties, MAX_SOLVE_MINUTES_KEY, this.maxSolveMinutes);
+
     parseBreaks(properties);
   }
 
@@ -199,6 +203,8 @@ public class SolverParams extends SchedParams {
     properties.setProperty(TMAX_HOURS_KEY, Integer.toString(this.tmaxHours));
     properties.setProperty(TMAX_MINUTES_KEY, Integer.toString(this.tmaxMinutes));
 
+    properties.setProperty(MAX_SOLVE_MINUTES_KEY, Integer.toString(this.maxSolveMinutes));
+
     saveBreaks(properties);
   }
 
@@ -469,6 +475,37 @@ public class SolverParams extends SchedParams {
     this.tmaxMinutes = v;
   }
 
+  private int maxSolveMinutes = 0;
+
+  /**
+   * @return The maximum number of minutes to spend searching for a schedule.
+   *         When the time is used the best schedule found so far is kept.
+   *         Defaults to 0, which means no limit.
+   * @see #getSolveTimeBudget()
+   */
+  public final int getMaxSolveMinutes() {
+    return this.maxSolveMinutes;
+  }
+
+  /**
+   * @param v {@link #getMaxSolveMinutes()}
+   */
+  public final void setMaxSolveMinutes(final int v) {
+    this.maxSolveMinutes = v;
+  }
+
+  /**
+   * @return {@link #getMaxSolveMinutes()} as a duration, null if there is no
+   *         limit
+   */
+  public final @Nullable Duration getSolveTimeBudget() {
+    if (getMaxSolveMinutes() > 0) {
+      return Duration.ofMinutes(getMaxSolveMinutes());
+    } else {
+      return null;
+    }
+  }
+
   private final LinkedList<ScheduledBreak> subjectiveBreaks = new LinkedList<ScheduledBreak>();
 
   /**
@@ -573,6 +610,12 @@ public class SolverParams extends SchedParams {
   public List<String> isValid() {
     final List<String> errors = super.isValid();
 
+    if (getMaxSolveMinutes() < 0) {
+      errors.add("The maximum number of minutes to solve ("
+          + getMaxSolveMinutes()
+          + ") cannot be negative.");
+    }
+
     if (getAlternateTables()) {
       // make sure performanceDuration is even
       final int performanceDurationMinutes = getPerformanceMinutes();
@@ -51,6 +51,8 @@ public class SolverParamsEditor extends JPanel {
 
   private final ScheduleDurationField maxTime;
 
+  private final JFormattedTextField maxSolveMinutes;
+
   private final JudgingGroupListEditor judgingGroups;
 
   private final PerformanceRoundsEditor performanceRounds;
@@ -129,6 +131,10 @@ public class SolverParamsEditor extends JPanel {
     subjectiveFirst = new JCheckBox("Schedule subjective before performance");
     addRow(subjectiveFirst);
 
+    maxSolveMinutes = FormatterUtils.createIntegerField(0, 10000);
+    maxSolveMinutes.setToolTipText("How many minutes to search for a schedule before using the best one found. 0 means no limit.");
+    addRow(new JLabel("Maximum minutes to search for a schedule"), maxSolveMinutes);
+
     // end of form spacer
     gbc = new GridBagConstraints();
     gbc.fill = GridBagConstraints.BOTH;
@@ -193,6 +199,7 @@ public class SolverParamsEditor extends JPanel {
     numTables.setValue(params.getNumTables());
 
     maxTime.setDuration(params.getMaxDuration());
+    maxSolveMinutes.setValue(params.getMaxSolveMinutes());
 
     subjectiveBreaks.setBreaks(params.getSubjectiveBreaks());
     performanceBreaks.setBreaks(params.getPerformanceBreaks());
@@ -232,6 +239,7 @@ public class SolverParamsEditor extends JPanel {
     params.setNumTables((Integer) numTables.getValue());
 
     params.setMaxDuration(maxTime.getDuration());
+    params.setMaxSolveMinutes((Integer) maxSolveMinutes.getValue());
 
     params.setSubjectiveBreaks(subjectiveBreaks.getBreaks());
     params.setPerformanceBreaks(performanceBreaks.getBreaks());
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Snapshot of how far a {@link PortfolioSolver} has gotten.
+ */
+public final class SolverProgress {
+
+  private final int solutionsFound;
+
+  private final @Nullable LocalTime latestPerformanceTime;
+
+  private final long nodes;
+
+  private final Duration elapsed;
+
+  /**
+   * @param solutionsFound {@link #getSolutionsFound()}
+   * @param latestPerformanceTime {@link #getLatestPerformanceTime()}
+   * @param nodes {@link #getNodes()}
+   * @param elapsed {@link #getElapsed()}
+   */
+  /* package */ SolverProgress(final int solutionsFound,
+                               final @Nullable LocalTime latestPerformanceTime,
+                               final long nodes,
+                               final Duration elapsed) {
+    this.solutionsFound = solutionsFound;
+    this.latestPerformanceTime = latestPerformanceTime;
+    this.nodes = nodes;
+    this.elapsed = elapsed;
+  }
+
+  /**
+   * @return the number of valid solutions found by all solvers
+   */
+  public int getSolutionsFound() {
+    return solutionsFound;
+  }
+
+  /**
+   * @return the start of the latest performance in the best solution, this is
+   *         the main part of the objective value, null if no solution has been
+   *         found
+   */
+  public @Nullable LocalTime getLatestPerformanceTime() {
+    return latestPerformanceTime;
+  }
+
+  /**
+   * @return the number of search nodes visited by all solvers
+   */
+  public long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * @return how long the solvers have been running
+   */
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  /**
+   * @return average number of search nodes per second
+   */
+  public long getNodesPerSecond() {
+    final long millis = elapsed.toMillis();
+    if (millis <= 0) {
+      return 0;
+    } else {
+      return nodes
+          * 1000
+          / millis;
+    }
+  }
+
+  @Override
+  public String toString() {
+    final LocalTime latest = getLatestPerformanceTime();
+    return String.format("Solutions found: %d, latest performance: %s, %,d nodes/second", getSolutionsFound(),
+                         null == latest ? "none" : TournamentSchedule.formatTime(latest), getNodesPerSecond());
+  }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
+
+import fll.util.FLLInternalException;
+
+/**
+ * Keeps the score used by {@link TableOptimizer} up to date as the teams at a
+ * time are moved between tables without running the whole
+ * {@link ScheduleChecker} each time.
+ * Only a few of the checks depend on the table and side that a team is on.
+ * The number of violations from the other checks is computed once. The
+ * violations from the table dependent checks are kept per team, per table side
+ * and per time so that a change at one time only needs the teams at that time,
+ * the table sides they moved from and to and the time itself to be checked
+ * again.
+ * {@link #getNumViolations()} always matches the size of
+ * {@link ScheduleChecker#verifySchedule()}.
+ */
+/* package */ final class TableAssignmentScorer {
+
+  private final TournamentSchedule schedule;
+
+  private final ScheduleChecker checker;
+
+  /**
+   * Number of violations that don't depend on the table assignments.
+   */
+  private final int fixedViolations;
+
+  /**
+   * Sum of the values in {@link #teamViolations},
+   * {@link #tableSideViolations} and {@link #timeViolations}.
+   */
+  private int dependentViolations;
+
+  /**
+   * Teams that {@link ScheduleChecker} doesn't check the tables of.
+   */
+  private final Set<TeamScheduleInfo> subjectiveConflicts = new HashSet<>();
+
+  /**
+   * time -&gt; team -&gt; performance, the assignments that the current counts
+   * are based on.
+   */
+  private final Map<LocalTime, Map<TeamScheduleInfo, PerformanceTime>> performancesAtTime = new HashMap<>();
+
+  /**
+   * table side -&gt; time -&gt; number of teams on the table side at the time
+   */
+  private final Map<String, TreeMap<LocalTime, Integer>> tableSideTimes = new HashMap<>();
+
+  /**
+   * table color -&gt; number of performances on the table
+   */
+  private final Map<String, Integer> tableUse = new HashMap<>();
+
+  private final Map<TeamScheduleInfo, Integer> teamViolations = new HashMap<>();
+
+  private final Map<String, Integer> tableSideViolations = new HashMap<>();
+
+  private final Map<LocalTime, Integer> timeViolations = new HashMap<>();
+
+  /**
+   * @param params the schedule parameters
+   * @param schedule the schedule, after changing the tables at a time
+   *          {@link #update(LocalTime)} must be called
+   */
+  /* package */ TableAssignmentScorer(final SchedParams params,
+                                      final TournamentSchedule schedule) {
+    this.schedule = schedule;
+    this.checker = new ScheduleChecker(params, schedule);
+
+    final int total = checker.verifySchedule().size();
+
+    for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+      if (checker.hasSubjectiveConflict(ti)) {
+        subjectiveConflicts.add(ti);
+      }
+
+      for (final PerformanceTime performance : ti.getAllPerformances()) {
+        performancesAtTime.computeIfAbsent(performance.getTime(), k -> new HashMap<>()).put(ti, performance);
+        addPerformance(performance);
+      }
+    }
+
+    dependentViolations = 0;
+    for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+      computeTeamViolations(ti);
+    }
+    for (final String tableKey : tableSideTimes.keySet()) {
+      computeTableSideViolations(tableKey);
+    }
+    for (final LocalTime time : performancesAtTime.keySet()) {
+      computeTimeViolations(time);
+    }
+
+    fixedViolations = total
+        - dependentViolations;
+  }
+
+  /**
+   * Update the counts after the teams competing at a time have been moved
+   * between tables.
+   *
+   * @param time the time that was changed
+   */
+  /* package */ void update(final LocalTime time) {
+    final Map<TeamScheduleInfo, PerformanceTime> teams = performancesAtTime.get(time);
+    if (null == teams) {
+      throw new FLLInternalException("No performances at "
+          + TournamentSchedule.formatTime(time));
+    }
+
+    final Set<String> changedTableSides = new HashSet<>();
+    for (final Map.Entry<TeamScheduleInfo, PerformanceTime> entry : teams.entrySet()) {
+      final TeamScheduleInfo ti = entry.getKey();
+      final PerformanceTime oldPerformance = entry.getValue();
+      final PerformanceTime newPerformance = ti.getPerformanceAtTime(time);
+      if (null == newPerformance) {
+        throw new FLLInternalException("Team "
+            + ti.getTeamNumber()
+            + " no longer has a performance at "
+            + TournamentSchedule.formatTime(time));
+      }
+
+      removePerformance(oldPerformance);
+      addPerformance(newPerformance);
+      entry.setValue(newPerformance);
+
+      changedTableSides.add(ScheduleChecker.tableSideKey(oldPerformance.getTable(), oldPerformance.getSide()));
+      changedTableSides.add(ScheduleChecker.tableSideKey(newPerformance.getTable(), newPerformance.getSide()));
+    }
+
+    // the opponents of the teams at this time are also at this time, so no
+    // other team is affected
+    for (final TeamScheduleInfo ti : teams.keySet()) {
+      computeTeamViolations(ti);
+    }
+    for (final String tableKey : changedTableSides) {
+      computeTableSideViolations(tableKey);
+    }
+    computeTimeViolations(time);
+  }
+
+  /**
+   * @return the number of violations that {@link ScheduleChecker} finds in the
+   *         schedule
+   */
+  /* package */ int getNumViolations() {
+    return fixedViolations
+        + dependentViolations;
+  }
+
+  /**
+   * The difference between the minimum number of times any table is used and
+   * the maximum number of times any table is used.
+   *
+   * @return score, lower is better
+   */
+  /* package */ int getTableUseScore() {
+    int minUse = Integer.MAX_VALUE;
+    int maxUse = 0;
+    for (final int use : tableUse.values()) {
+      if (use > 0) {
+        minUse = Math.min(minUse, use);
+        maxUse = Math.max(maxUse, use);
+      }
+    }
+
+    if (0 == maxUse) {
+      return 0;
+    } else {
+      return maxUse
+          - minUse;
+    }
+  }
+
+  private void addPerformance(final PerformanceTime performance) {
+    final String tableKey = ScheduleChecker.tableSideKey(performance.getTable(), performance.getSide());
+    tableSideTimes.computeIfAbsent(tableKey, k -> new TreeMap<>()).merge(performance.getTime(), 1, Integer::sum);
+    tableUse.merge(performance.getTable(), 1, Integer::sum);
+  }
+
+  private void removePerformance(final PerformanceTime performance) {
+    final String tableKey = ScheduleChecker.tableSideKey(performance.getTable(), performance.getSide());
+    final TreeMap<LocalTime, Integer> times = castNonNull(tableSideTimes.get(tableKey));
+    final int timeCount = castNonNull(times.get(performance.getTime()));
+    if (timeCount > 1) {
+      times.put(performance.getTime(), timeCount
+          - 1);
+    } else {
+      times.remove(performance.getTime());
+    }
+
+    tableUse.merge(performance.getTable(), -1, Integer::sum);
+  }
+
+  private void computeTeamViolations(final TeamScheduleInfo ti) {
+    final int count;
+    if (subjectiveConflicts.contains(ti)) {
+      count = 0;
+    } else {
+      final List<ConstraintViolation> violations = new LinkedList<>();
+      checker.verifyTableUse(violations, ti);
+      count = violations.size();
+    }
+    replace(teamViolations, ti, count);
+  }
+
+  private void computeTableSideViolations(final String tableKey) {
+    final TreeMap<LocalTime, Integer> times = tableSideTimes.get(tableKey);
+    final int count;
+    if (null == times) {
+      count = 0;
+    } else {
+      final List<ConstraintViolation> violations = new LinkedList<>();
+      checker.verifyNoPerformanceOverlap(violations, tableKey, times.navigableKeySet());
+      count = violations.size();
+    }
+    replace(tableSideViolations, tableKey, count);
+  }
+
+  private void computeTimeViolations(final LocalTime time) {
+    final @Nullable Map<String, List<TeamScheduleInfo>> tables = schedule.getMatches().get(time);
+    final List<ConstraintViolation> violations = new LinkedList<>();
+    checker.verifyNumTeamsAtTable(violations, time, null == tables ? Collections.emptyMap() : tables);
+    replace(timeViolations, time, violations.size());
+  }
+
+  /**
+   * Store a new count and keep {@link #dependentViolations} in sync.
+   */
+  private <K> void replace(final Map<K, Integer> counts,
+                           final K key,
+                           final int count) {
+    final Integer previous = counts.put(key, count);
+    dependentViolations += count
+        - (null == previous ? 0 : previous);
+  }
+
+}
@@ -8,16 +8,22 @@ package fll.scheduler;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -32,6 +38,11 @@ import fll.util.FLLRuntimeException;
 /**
  * Optimize a schedule by rearranging the sides of tables used and the tables
  * used. No times will be changed.
+ * Performance times that have no teams in common and are far enough apart
+ * that their performances can't overlap are optimized in parallel, each
+ * against its own copy of the schedule. The orderings found are merged in
+ * time order and each one is kept only if the merged schedule is still
+ * better, so the result doesn't depend on the number of threads.
  */
 public class TableOptimizer {
 
@@ -39,15 +50,27 @@ public class TableOptimizer {
 
   private final TournamentSchedule schedule;
 
+  private final SchedParams params;
+
   private final File basedir;
 
+  /**
+   * False for the copies used to optimize times in parallel, only the
+   * optimizer for the real schedule writes out better schedules.
+   */
+  private final boolean writeSchedules;
+
+  private final int numThreads;
+
   private int numSolutions = 0;
 
   private @Nullable File mBestScheduleOutputFile = null;
 
-  private Map<PerformanceTime, TeamScheduleInfo> bestPermutation = Collections.emptyMap();
-
-  private int bestScore;
+  /**
+   * Score of the schedule as it is now, set by the first call to
+   * {@link #computeBestTableOrdering(Map, LocalTime, List, CheckCanceled)}.
+   */
+  private int bestScore = -1;
 
   /**
    * List of table colors from the schedule. Each list inside the list is a
@@ -73,13 +96,19 @@ public class TableOptimizer {
     return null != violation.getPerformance();
   }
 
+  /**
+   * Kept up to date with the table assignments so that each ordering that is
+   * tried doesn't need a full run of {@link #checker}.
+   */
+  private final TableAssignmentScorer scorer;
+
   /**
    * Compute score for the current schedule. The lowest score is best.
    */
   private int computeScheduleScore() {
-    final int numWarnings = checker.verifySchedule().size();
+    final int numWarnings = scorer.getNumViolations();
 
-    final int tableUseScore = computeTableUseScore();
+    final int tableUseScore = scorer.getTableUseScore();
 
     // warnings is most important, then table use
     return numWarnings
@@ -87,65 +116,10 @@ public class TableOptimizer {
         + tableUseScore;
   }
 
-  /**
-   * Compute the table use score. This is the difference between the minimum
-   * number of times any table is used and the maximum number of times any table
-   * is used. This should even out the table use.
-   *
-   * @return score, lower is better
-   */
-  private int computeTableUseScore() {
-    final Map<String, Integer> tableUse = new HashMap<>();
-
-    for (final TeamScheduleInfo ti : this.schedule.getSchedule()) {
-
-      ti.allPerformances().forEach(performance -> {
-        final String tableColor = performance.getTable();
-        int count;
-        if (tableUse.containsKey(tableColor)) {
-          count = tableUse.get(tableColor);
-        } else {
-          count = 0;
-        }
-        ++count;
-        tableUse.put(tableColor, count);
-      });
-    } // foreach team
-
-    int minUse = Integer.MAX_VALUE;
-    int maxUse = 0;
-    for (final Map.Entry<String, Integer> entry : tableUse.entrySet()) {
-      minUse = Math.min(minUse, entry.getValue());
-      maxUse = Math.max(maxUse, entry.getValue());
-    } // foreach table
-
-    if (0 == maxUse) {
-      return 0;
-    } else {
-      return maxUse
-          - minUse;
-    }
-  }
-
-  /**
-   * Get the current table assignments for the specified time so that
-   * they can be re-applied if needed.
-   *
-   * @return key=table info, value=team number
-   */
-  private Map<PerformanceTime, TeamScheduleInfo> getCurrentTableAssignments(final LocalTime time) {
-    final Map<PerformanceTime, TeamScheduleInfo> assignments = new HashMap<>();
-
-    for (final TeamScheduleInfo si : this.schedule.getSchedule()) {
-      si.allPerformances().filter(pt -> pt.getTime().equals(time)).forEach(pt -> assignments.put(pt, si));
-    }
-
-    return assignments;
-  }
-
   /**
    * Compute the best table ordering for a set of teams at the
-   * specified time.
+   * specified time. The schedule is left with the best ordering found, which
+   * is the original ordering if nothing better is found.
    *
    * @param checkCanceled if non-null, check if the optimization should finish
    *          early
@@ -158,225 +132,291 @@ public class TableOptimizer {
       throw new IllegalArgumentException("Must have some teams to check");
     }
 
-    if (bestPermutation.isEmpty()) {
-      bestPermutation = getCurrentTableAssignments(time);
+    if (bestScore < 0) {
       bestScore = computeScheduleScore();
     }
 
-    final List<Map<PerformanceTime, TeamScheduleInfo>> possibleValues = computePossibleValues(originalValues, time,
-                                                                                              tables);
-    for (final Map<PerformanceTime, TeamScheduleInfo> possibleValue : possibleValues) {
-      if (null != checkCanceled
-          && checkCanceled.isCanceled()) {
-        // user interrupt
-        break;
-      }
+    final TableOrderingSearch search = new TableOrderingSearch(originalValues, time, tables, checkCanceled);
+    search.run();
+  }
 
-      applyPerformanceOrdering(possibleValue);
+  /**
+   * Depth first search over the ways to put a set of teams on the tables at a
+   * time. The positions are the table sides, side 1 of the first table, side 2
+   * of the first table, side 1 of the second table, ... and each holds the
+   * index of a team or {@link #EMPTY}. Only the current position is kept so
+   * memory use doesn't depend on the number of orderings.
+   * Empty positions are interchangeable, so each distinct assignment of teams
+   * to table sides is visited once. Every team is placed, tables have 2 teams
+   * or none, except that with an odd number of teams one table may have a
+   * single team.
+   * Sides can't be treated as symmetric because the checker looks at which
+   * side a team uses.
+   */
+  private final class TableOrderingSearch {
+    private static final int EMPTY = -1;
 
-      // check for better value
-      final int score = computeScheduleScore();
-      if (score < bestScore) {
-        try {
-          final File outputFile = new File(basedir, String.format("%s-opt-%d.csv", schedule.getName(), numSolutions));
-          LOGGER.info(String.format("Found better schedule (%d -> %d), writing to: %s", bestScore, score,
-                                    outputFile.getAbsolutePath()));
-          schedule.writeToCSV(outputFile);
+    private final Map<TeamScheduleInfo, PerformanceTime> originalValues;
 
-          ++numSolutions;
+    private final LocalTime time;
 
-          if (null != mBestScheduleOutputFile) {
-            if (!mBestScheduleOutputFile.delete()) {
-              mBestScheduleOutputFile.deleteOnExit();
-            }
+    private final List<String> tables;
+
+    private final @Nullable CheckCanceled checkCanceled;
+
+    /**
+     * Sorted by team number so that the search order is the same every time.
+     */
+    private final List<TeamScheduleInfo> teams;
+
+    /**
+     * team index -&gt; "table side" used with an opponent at other times
+     */
+    private final List<Set<String>> usedTableSides = new ArrayList<>();
+
+    /**
+     * team index -&gt; opponents at other times
+     */
+    private final List<Set<TeamScheduleInfo>> previousOpponents = new ArrayList<>();
+
+    private final int[] positions;
+
+    private final boolean[] placed;
+
+    private int emptyRemaining;
+
+    private int halfTablesRemaining;
+
+    private int @Nullable [] best = null;
+
+    private boolean stop = false;
+
+    TableOrderingSearch(final Map<TeamScheduleInfo, PerformanceTime> originalValues,
+                        final LocalTime time,
+                        final List<String> tables,
+                        final @Nullable CheckCanceled checkCanceled) {
+      this.originalValues = originalValues;
+      this.time = time;
+      this.tables = tables;
+      this.checkCanceled = checkCanceled;
+
+      this.teams = new ArrayList<>(originalValues.keySet());
+      this.teams.sort(Comparator.comparingInt(TeamScheduleInfo::getTeamNumber));
+
+      this.positions = new int[tables.size()
+          * 2];
+      if (teams.size() > positions.length) {
+        throw new FLLInternalException(String.format("More teams (%d) than table sides (%d) at %s", teams.size(),
+                                                     positions.length, TournamentSchedule.formatTime(time)));
+      }
+      this.placed = new boolean[teams.size()];
+      this.emptyRemaining = positions.length
+          - teams.size();
+      this.halfTablesRemaining = Utilities.isOdd(teams.size()) ? 1 : 0;
+
+      for (final TeamScheduleInfo team : teams) {
+        final Set<String> sides = new HashSet<>();
+        final Set<TeamScheduleInfo> opponents = new HashSet<>();
+        team.allPerformances().filter(pt -> !pt.getTime().equals(time)).forEach(pt -> {
+          final TeamScheduleInfo opponent = schedule.findOpponent(team, pt);
+          if (null != opponent) {
+            sides.add(ScheduleChecker.tableSideKey(pt.getTable(), pt.getSide()));
+            opponents.add(opponent);
           }
-          mBestScheduleOutputFile = outputFile;
-        } catch (final IOException e) {
-          throw new RuntimeException(e);
-        }
+        });
+        usedTableSides.add(sides);
+        previousOpponents.add(opponents);
+      }
+    }
 
-        bestPermutation = possibleValue;
-        bestScore = score;
+    /**
+     * Search all orderings and leave the schedule with the best one.
+     */
+    void run() {
+      search(0, 0);
 
-        if (bestScore == 0) {
-          break;
+      final int[] bestPositions = best;
+      if (null == bestPositions) {
+        for (final Map.Entry<TeamScheduleInfo, PerformanceTime> entry : originalValues.entrySet()) {
+          schedule.reassignTable(entry.getKey(), time, entry.getValue());
         }
+        scorer.update(time);
+      } else {
+        apply(bestPositions);
       }
     }
 
-    // assign the best value
-    applyPerformanceOrdering(bestPermutation);
-  }
+    /**
+     * @param position the position to fill
+     * @param forced number of violations that the positions before
+     *          {@code position} cause no matter how the rest are filled
+     */
+    private void search(final int position,
+                        final int forced) {
+      if (stop) {
+        return;
+      }
 
-  /**
-   * Compute all possible orderings of teams on the current set
-   * of tables.
-   *
-   * @param teams
-   * @return list of possible orderings, key=table information, value=team
-   *         schedule information
-   */
-  private List<Map<PerformanceTime, TeamScheduleInfo>> computePossibleValues(final Map<TeamScheduleInfo, PerformanceTime> originalValues,
-                                                                             final LocalTime time,
-                                                                             final List<String> tables) {
-    final List<TeamScheduleInfo> teams = new LinkedList<>(originalValues.keySet());
-
-    final List<Map<PerformanceTime, TeamScheduleInfo>> possibleValues = new LinkedList<>();
-
-    final boolean oddNumberOfTeams = Utilities.isOdd(teams.size());
-
-    final List<List<Integer>> possibleTableOrderings = permutate(tables.size()
-        * 2);
-    for (final List<Integer> ordering : possibleTableOrderings) {
-      if (ordering.size() != tables.size()
-          * 2) {
-        throw new FLLInternalException(String.format("All possible orderings must be twice the number of tables. ordering.size: %d tableColors: %d",
-                                                     ordering.size(), tables.size()));
-      }
-
-      boolean validToHaveNullTeam = oddNumberOfTeams;
-
-      // convert to valid ordering
-      final Map<PerformanceTime, TeamScheduleInfo> assignments = new HashMap<>();
-      for (int tableColorIndex = 0; tableColorIndex < tables.size(); ++tableColorIndex) {
-        final String tableColor = tables.get(tableColorIndex);
-
-        // check in pairs to make sure we have a valid table assignment
-        final int side1 = 1;
-        final int orderIndex1 = tableColorIndex
-            * 2;
-        final int teamIndex1 = ordering.get(orderIndex1);
-        final TeamScheduleInfo team1 = getTeam(teams, teamIndex1);
-
-        final int side2 = 2;
-        final int orderIndex2 = orderIndex1
-            + 1;
-        final int teamIndex2 = ordering.get(orderIndex2);
-        final TeamScheduleInfo team2 = getTeam(teams, teamIndex2);
-
-        // if the values are not null they are guaranteed to be keys for originalValues
-        if (null != team1
-            && null != team2) {
-          assignments.put(new PerformanceTime(time, tableColor, side1,
-                                              castNonNull(originalValues.get(team1)).isPractice()),
-                          team1);
-          assignments.put(new PerformanceTime(time, tableColor, side2,
-                                              castNonNull(originalValues.get(team2)).isPractice()),
-                          team2);
-        } else if (null != team1
-            && null == team2
-            && validToHaveNullTeam) {
-          assignments.put(new PerformanceTime(time, tableColor, side1,
-                                              castNonNull(originalValues.get(team1)).isPractice()),
-                          team1);
-
-          // can only have 1 uneven pairing at a time
-          validToHaveNullTeam = false;
-        } else if (null == team1
-            && null != team2
-            && validToHaveNullTeam) {
-          assignments.put(new PerformanceTime(time, tableColor, side2,
-                                              castNonNull(originalValues.get(team2)).isPractice()),
-                          team2);
-
-          // can only have 1 uneven pairing at a time
-          validToHaveNullTeam = false;
-        }
+      if (position == positions.length) {
+        evaluate();
+        return;
+      }
 
-        if (!assignments.isEmpty()) {
-          possibleValues.add(assignments);
+      for (int team = 0; team < teams.size()
+          && !stop; ++team) {
+        if (!placed[team]) {
+          placed[team] = true;
+          place(position, team, forced);
+          placed[team] = false;
         }
-      } // foreach table
+      }
 
-    } // foreach possible ordering
+      if (emptyRemaining > 0
+          && !stop) {
+        --emptyRemaining;
+        place(position, EMPTY, forced);
+        ++emptyRemaining;
+      }
+    }
 
-    return possibleValues;
-  }
+    private void place(final int position,
+                       final int team,
+                       final int forced) {
+      positions[position] = team;
 
-  /**
-   * Get team from teams using teamIndex.
-   *
-   * @param teams list of teams
-   * @param teamIndex index into teams
-   * @return the team number or null if the index is
-   *         larger than the list of teams
-   */
-  private static @Nullable TeamScheduleInfo getTeam(final List<TeamScheduleInfo> teams,
-                                                    final int teamIndex) {
-    if (teamIndex < teams.size()) {
-      return teams.get(teamIndex);
-    } else {
-      return null;
+      if (!Utilities.isOdd(position)) {
+        // first side of a table, the table is checked once both sides are set
+        search(position
+            + 1, forced);
+        return;
+      }
+
+      final int team1 = positions[position
+          - 1];
+      if (EMPTY == team1
+          && EMPTY == team) {
+        search(position
+            + 1, forced);
+      } else if (EMPTY == team1
+          || EMPTY == team) {
+        if (halfTablesRemaining > 0) {
+          --halfTablesRemaining;
+          // team has no opponent
+          searchIfCanImprove(position, forced
+              + 1);
+          ++halfTablesRemaining;
+        }
+      } else {
+        final String table = tables.get(position
+            / 2);
+        searchIfCanImprove(position, forced
+            + countForcedViolations(table, team1, team));
+      }
     }
-  }
 
-  private void applyPerformanceOrdering(final Map<PerformanceTime, TeamScheduleInfo> possibleValue) {
-    for (final Map.Entry<PerformanceTime, TeamScheduleInfo> entry : possibleValue.entrySet()) {
-      final TeamScheduleInfo team = entry.getValue();
-      final PerformanceTime perfTime = entry.getKey();
+    private void searchIfCanImprove(final int position,
+                                    final int forced) {
+      // the table use score is never negative
+      if (forced
+          * 1000 < bestScore) {
+        search(position
+            + 1, forced);
+      }
+    }
 
-      // can use perfTime.getTime() as oldTime since we know that we're just
-      // moving teams across tables
-      schedule.reassignTable(team, perfTime.getTime(), perfTime);
+    /**
+     * Count the violations that the checker is guaranteed to find when team1
+     * is on side 1 and team2 is on side 2 of table.
+     */
+    private int countForcedViolations(final String table,
+                                      final int team1,
+                                      final int team2) {
+      int count = 0;
+      // each use of the same table side is reported at both times
+      if (usedTableSides.get(team1).contains(ScheduleChecker.tableSideKey(table, 1))) {
+        count += 2;
+      }
+      if (usedTableSides.get(team2).contains(ScheduleChecker.tableSideKey(table, 2))) {
+        count += 2;
+      }
+      // competing again is reported for both teams at both times, once for each
+      // team
+      if (previousOpponents.get(team1).contains(teams.get(team2))) {
+        count += 8;
+      }
+      return count;
     }
 
-  }
+    private void evaluate() {
+      if (null != checkCanceled
+          && checkCanceled.isCanceled()) {
+        // user interrupt
+        stop = true;
+        return;
+      }
 
-  /**
-   * Compute permutations of the integers [0, numElements].
-   *
-   * @param numElements how many elements to be permuted
-   * @return all possible orderings
-   */
-  public static List<List<Integer>> permutate(final int numElements) {
-    final List<Integer> allElements = new ArrayList<>();
-    for (int i = 0; i < numElements; ++i) {
-      allElements.add(i);
-    }
+      apply(positions);
 
-    final List<Integer> order = new ArrayList<>(numElements);
-    for (int i = 0; i < numElements; ++i) {
-      order.add(i);
+      // check for better value
+      final int score = computeScheduleScore();
+      if (score < bestScore) {
+        if (writeSchedules) {
+          writeBetterSchedule(bestScore, score);
+        }
+
+        best = positions.clone();
+        bestScore = score;
+
+        if (bestScore == 0) {
+          stop = true;
+        }
+      }
     }
 
-    final List<List<Integer>> permutations = new LinkedList<>();
-    permutate(numElements, allElements, order, permutations);
-    return permutations;
+    private void apply(final int[] ordering) {
+      for (int position = 0; position < ordering.length; ++position) {
+        final int index = ordering[position];
+        if (EMPTY != index) {
+          final TeamScheduleInfo team = teams.get(index);
+          final String table = tables.get(position
+              / 2);
+          final int side = position
+              % 2
+              + 1;
+          final PerformanceTime perfTime = new PerformanceTime(time, table, side,
+                                                               castNonNull(originalValues.get(team)).isPractice());
+          // the time doesn't change, just moving teams across tables
+          schedule.reassignTable(team, time, perfTime);
+        }
+      }
+      scorer.update(time);
+    }
   }
 
   /**
-   * Recursive function that computes permutations. To
-   * be called from {@see #permutate(int)}.
+   * Write the schedule as it is now and make it the best schedule output file.
    *
-   * @param arrayCount
-   * @param elements the elements to compute permutations of
-   * @param order
-   * @param permutations the resulting permutations
+   * @param previousScore the score of the previous best schedule
+   * @param score the score of the schedule
    */
-  private static void permutate(final int arrayCount,
-                                final List<Integer> elements,
-                                final List<Integer> order,
-                                final List<List<Integer>> permutations) {
-    if (elements.isEmpty()) {
-      throw new IllegalArgumentException("Cannot permutate 0 elements");
-    }
-
-    final int position = arrayCount
-        - elements.size();
-
-    if (elements.size() == 1) {
-      order.set(position, elements.get(0));
-      permutations.add(order);
-    } else {
-      for (int i = 0; i < elements.size(); ++i) {
-        final int element = elements.get(i);
-        final List<Integer> newOrder = new ArrayList<>(order);
-        newOrder.set(position, element);
-
-        final List<Integer> newElements = new ArrayList<>(elements);
-        newElements.remove(i);
-        permutate(arrayCount, newElements, newOrder, permutations);
+  private void writeBetterSchedule(final int previousScore,
+                                   final int score) {
+    try {
+      final File outputFile = new File(basedir, String.format("%s-opt-%d.csv", schedule.getName(), numSolutions));
+      LOGGER.info(String.format("Found better schedule (%d -> %d), writing to: %s", previousScore, score,
+                                outputFile.getAbsolutePath()));
+      schedule.writeToCSV(outputFile);
+
+      ++numSolutions;
+
+      if (null != mBestScheduleOutputFile) {
+        if (!mBestScheduleOutputFile.delete()) {
+          mBestScheduleOutputFile.deleteOnExit();
+        }
       }
+      mBestScheduleOutputFile = outputFile;
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
     }
   }
 
@@ -530,18 +570,44 @@ public class TableOptimizer {
   }
 
   /**
+   * Use one thread per processor.
+   *
    * @param params the schedule parameters
    * @param schedule the schedule to optimize (will be modified)
    * @param basedir the directory to store better schedules in
    * @throws IllegalArgumentException if the schedule has hard constraint
    *           violations
+   * @see #TableOptimizer(SchedParams, TournamentSchedule, File, int)
    */
   public TableOptimizer(final SchedParams params,
                         final TournamentSchedule schedule,
                         final File basedir)
       throws IllegalArgumentException {
+    this(params, schedule, basedir, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param params the schedule parameters
+   * @param schedule the schedule to optimize (will be modified)
+   * @param basedir the directory to store better schedules in
+   * @param numThreads the number of performance times to optimize in parallel
+   * @throws IllegalArgumentException if the schedule has hard constraint
+   *           violations or {@code numThreads} is less than 1
+   */
+  public TableOptimizer(final SchedParams params,
+                        final TournamentSchedule schedule,
+                        final File basedir,
+                        final int numThreads)
+      throws IllegalArgumentException {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be at least 1: "
+          + numThreads);
+    }
+    this.params = params;
     this.schedule = schedule;
     this.basedir = basedir;
+    this.writeSchedules = true;
+    this.numThreads = numThreads;
     this.checker = new ScheduleChecker(params, schedule);
     this.tableGroups = determineTableGroups(schedule);
 
@@ -560,6 +626,27 @@ public class TableOptimizer {
     if (!this.basedir.isDirectory()) {
       throw new IllegalArgumentException("Basedir must be a directory");
     }
+
+    this.scorer = new TableAssignmentScorer(params, schedule);
+  }
+
+  /**
+   * Create an optimizer for a copy of the schedule that is used to optimize
+   * some times in parallel with other copies.
+   *
+   * @param parent the optimizer for the real schedule
+   * @param copy copy of the schedule of {@code parent} as it is now
+   */
+  private TableOptimizer(final TableOptimizer parent,
+                         final TournamentSchedule copy) {
+    this.params = parent.params;
+    this.schedule = copy;
+    this.basedir = parent.basedir;
+    this.writeSchedules = false;
+    this.numThreads = 1;
+    this.checker = new ScheduleChecker(params, copy);
+    this.tableGroups = parent.tableGroups;
+    this.scorer = new TableAssignmentScorer(params, copy);
   }
 
   /**
@@ -674,47 +761,223 @@ public class TableOptimizer {
    */
   private void optimize(final Set<LocalTime> perfTimes,
                         final CheckCanceled checkCanceled) {
-    for (final LocalTime time : perfTimes) {
-      final Map<TeamScheduleInfo, PerformanceTime> originalPerformances = new HashMap<>();
-
-      List<String> tables = null;
-      for (final TeamScheduleInfo si : schedule.getSchedule()) {
-        final List<PerformanceTime> pts = si.allPerformances().filter(pt -> pt.getTime().equals(time))
-                                            .collect(Collectors.toList());
-        if (pts.size() > 1) {
-          throw new FLLRuntimeException("Found multiple performances for "
-              + si.getTeamNumber()
-              + " at "
-              + time);
-        } else if (!pts.isEmpty()) {
-          final PerformanceTime pt = pts.get(0);
-          originalPerformances.put(si, pt);
-
-          // choose the tables to use for assignments
-          if (null == tables) {
-            for (int i = 0; null == tables
-                && i < tableGroups.size(); ++i) {
-              final List<String> group = this.tableGroups.get(i);
-              if (group.contains(pt.getTable())) {
-                tables = group;
-              }
-            }
-            if (null == tables) {
-              throw new FLLRuntimeException("Cannot find table group for "
-                  + pt.getTable());
+    final List<List<LocalTime>> partitions = partitionTimes(perfTimes);
+    if (partitions.stream().allMatch(partition -> partition.size() < 2)) {
+      for (final List<LocalTime> partition : partitions) {
+        optimize(partition.get(0), checkCanceled);
+      }
+      return;
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(numThreads);
+    try {
+      for (final List<LocalTime> partition : partitions) {
+        if (null != checkCanceled
+            && checkCanceled.isCanceled()) {
+          return;
+        }
+
+        if (partition.size() < 2) {
+          optimize(partition.get(0), checkCanceled);
+        } else {
+          optimizeInParallel(pool, partition, checkCanceled);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Optimize the table use at a single time.
+   */
+  private void optimize(final LocalTime time,
+                        final CheckCanceled checkCanceled) {
+    final Map<TeamScheduleInfo, PerformanceTime> originalPerformances = new HashMap<>();
+
+    List<String> tables = null;
+    for (final TeamScheduleInfo si : schedule.getSchedule()) {
+      final List<PerformanceTime> pts = si.allPerformances().filter(pt -> pt.getTime().equals(time))
+                                          .collect(Collectors.toList());
+      if (pts.size() > 1) {
+        throw new FLLRuntimeException("Found multiple performances for "
+            + si.getTeamNumber()
+            + " at "
+            + time);
+      } else if (!pts.isEmpty()) {
+        final PerformanceTime pt = pts.get(0);
+        originalPerformances.put(si, pt);
+
+        // choose the tables to use for assignments
+        if (null == tables) {
+          for (int i = 0; null == tables
+              && i < tableGroups.size(); ++i) {
+            final List<String> group = this.tableGroups.get(i);
+            if (group.contains(pt.getTable())) {
+              tables = group;
             }
           }
+          if (null == tables) {
+            throw new FLLRuntimeException("Cannot find table group for "
+                + pt.getTable());
+          }
         }
+      }
 
-      } // foreach schedule item
+    } // foreach schedule item
 
-      if (null == tables) {
-        throw new FLLRuntimeException("Cannot find any tables");
+    if (null == tables) {
+      throw new FLLRuntimeException("Cannot find any tables");
+    } else {
+      computeBestTableOrdering(originalPerformances, time, tables, checkCanceled);
+    }
+  }
+
+  /**
+   * Optimize each time against a copy of the schedule as it is now, then apply
+   * the orderings found in time order. An ordering is kept only if the
+   * schedule is better with it than without it, the times are independent of
+   * each other except for the table use score.
+   */
+  private void optimizeInParallel(final ForkJoinPool pool,
+                                  final List<LocalTime> times,
+                                  final CheckCanceled checkCanceled) {
+    if (bestScore < 0) {
+      bestScore = computeScheduleScore();
+    }
+
+    final List<Callable<Map<Integer, PerformanceTime>>> tasks = new ArrayList<>();
+    for (final LocalTime time : times) {
+      tasks.add(() -> {
+        final TableOptimizer copy = new TableOptimizer(this, copySchedule(schedule));
+        copy.optimize(time, checkCanceled);
+        return copy.getPerformancesAtTime(time);
+      });
+    }
+
+    final List<Map<Integer, PerformanceTime>> orderings = new ArrayList<>();
+    try {
+      for (final Future<Map<Integer, PerformanceTime>> result : pool.invokeAll(tasks)) {
+        orderings.add(result.get());
+      }
+    } catch (final InterruptedException e) {
+      throw new FLLRuntimeException("Interrupted waiting for the table optimizer", e);
+    } catch (final ExecutionException e) {
+      throw new FLLInternalException("Error optimizing tables", e.getCause());
+    }
+
+    final int initialScore = bestScore;
+    for (int i = 0; i < times.size(); ++i) {
+      final LocalTime time = times.get(i);
+      final Map<Integer, PerformanceTime> ordering = orderings.get(i);
+      final Map<Integer, PerformanceTime> original = getPerformancesAtTime(time);
+      if (ordering.equals(original)) {
+        continue;
+      }
+
+      applyPerformances(time, ordering);
+      final int score = computeScheduleScore();
+      if (score < bestScore) {
+        bestScore = score;
       } else {
-        computeBestTableOrdering(originalPerformances, time, tables, checkCanceled);
+        applyPerformances(time, original);
+      }
+    }
+
+    if (bestScore < initialScore) {
+      writeBetterSchedule(initialScore, bestScore);
+    }
+  }
+
+  /**
+   * @return team number -&gt; performance for the teams competing at
+   *         {@code time}
+   */
+  private Map<Integer, PerformanceTime> getPerformancesAtTime(final LocalTime time) {
+    final Map<Integer, PerformanceTime> performances = new HashMap<>();
+    for (final TeamScheduleInfo si : schedule.getSchedule()) {
+      final PerformanceTime performance = si.getPerformanceAtTime(time);
+      if (null != performance) {
+        performances.put(si.getTeamNumber(), performance);
       }
+    }
+    return performances;
+  }
+
+  private void applyPerformances(final LocalTime time,
+                                 final Map<Integer, PerformanceTime> performances) {
+    for (final Map.Entry<Integer, PerformanceTime> entry : performances.entrySet()) {
+      final TeamScheduleInfo si = schedule.getSchedInfoForTeam(entry.getKey());
+      if (null == si) {
+        throw new FLLInternalException("Cannot find team "
+            + entry.getKey()
+            + " in the schedule");
+      }
+      schedule.reassignTable(si, time, entry.getValue());
+    }
+    scorer.update(time);
+  }
+
+  /**
+   * Split the times into groups that can be optimized in parallel. Times in the
+   * same group don't have any teams in common and are at least a performance
+   * apart so that moving teams at one time can't change the violations found
+   * at another. The groups are in the order that they should be optimized and
+   * only depend on the schedule.
+   */
+  private List<List<LocalTime>> partitionTimes(final Set<LocalTime> perfTimes) {
+    final Duration performanceDuration = Duration.ofMinutes(params.getPerformanceMinutes());
+
+    final List<LocalTime> sortedTimes = new ArrayList<>(perfTimes);
+    Collections.sort(sortedTimes);
+
+    final List<List<LocalTime>> partitions = new ArrayList<>();
+    final List<Set<TeamScheduleInfo>> partitionTeams = new ArrayList<>();
+    for (final LocalTime time : sortedTimes) {
+      final Set<TeamScheduleInfo> teams = new HashSet<>();
+      schedule.getMatches().getOrDefault(time, Collections.emptyMap()).values().forEach(teams::addAll);
 
-    } // foreach time
+      boolean found = false;
+      for (int i = 0; i < partitions.size()
+          && !found; ++i) {
+        final Set<TeamScheduleInfo> otherTeams = partitionTeams.get(i);
+        if (Collections.disjoint(teams, otherTeams)
+            && partitions.get(i).stream()
+                         .allMatch(other -> Duration.between(other, time).abs().compareTo(performanceDuration) >= 0)) {
+          partitions.get(i).add(time);
+          otherTeams.addAll(teams);
+          found = true;
+        }
+      }
+
+      if (!found) {
+        final List<LocalTime> partition = new ArrayList<>();
+        partition.add(time);
+        partitions.add(partition);
+        partitionTeams.add(teams);
+      }
+    }
+
+    return partitions;
+  }
+
+  /**
+   * @return a copy of the schedule that can be modified without changing
+   *         {@code schedule}
+   */
+  private static TournamentSchedule copySchedule(final TournamentSchedule schedule) {
+    final List<TeamScheduleInfo> teams = new ArrayList<>();
+    for (final TeamScheduleInfo si : schedule.getSchedule()) {
+      final TeamScheduleInfo copy = new TeamScheduleInfo(si.getTeamNumber());
+      copy.setTeamName(si.getTeamName());
+      copy.setOrganization(si.getOrganization());
+      copy.setDivision(si.getAwardGroup());
+      copy.setJudgingGroup(si.getJudgingGroup());
+      si.getSubjectiveTimes().forEach(copy::addSubjectiveTime);
+      si.allPerformances().forEach(copy::addPerformance);
+      teams.add(copy);
+    }
+    return new TournamentSchedule(schedule.getName(), teams, schedule.getSubjectiveStations());
   }
 
 }
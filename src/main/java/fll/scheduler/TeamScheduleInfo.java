@@ -34,6 +34,12 @@ public final class TeamScheduleInfo implements Serializable {
 
   private final SortedSet<PerformanceTime> performances = new TreeSet<>();
 
+  /**
+   * time -&gt; first performance at the time, kept in sync with
+   * {@link #performances}.
+   */
+  private final HashMap<LocalTime, PerformanceTime> performancesByTime = new HashMap<>();
+
   /**
    * @return number of regular match play rounds
    */
@@ -90,6 +96,7 @@ public final class TeamScheduleInfo implements Serializable {
    */
   /* package */void addPerformance(final PerformanceTime performance) {
     performances.add(performance);
+    indexPerformances(performance.getTime());
   }
 
   /**
@@ -99,7 +106,19 @@ public final class TeamScheduleInfo implements Serializable {
    * @return if a performance was removed
    */
   /* package */ boolean removePerformance(final PerformanceTime performance) {
-    return performances.remove(performance);
+    final boolean removed = performances.remove(performance);
+    indexPerformances(performance.getTime());
+    return removed;
+  }
+
+  private void indexPerformances(final LocalTime time) {
+    final @Nullable PerformanceTime first = allPerformances().filter(pt -> pt.getTime().equals(time)).findFirst()
+                                                            .orElse(null);
+    if (null == first) {
+      performancesByTime.remove(time);
+    } else {
+      performancesByTime.put(time, first);
+    }
   }
 
   /**
@@ -109,7 +128,7 @@ public final class TeamScheduleInfo implements Serializable {
    * @return the performance or null if not found
    */
   public @Nullable PerformanceTime getPerformanceAtTime(final LocalTime time) {
-    return allPerformances().filter(pt -> pt.getTime().equals(time)).findFirst().orElse(null);
+    return performancesByTime.get(time);
   }
 
   /**
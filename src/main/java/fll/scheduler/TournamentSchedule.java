@@ -64,6 +64,8 @@ import fll.documents.writers.SubjectivePdfWriter;
 import fll.util.CellFileReader;
 import fll.util.FLLInternalException;
 import fll.util.FLLRuntimeException;
+import fll.web.event.ScheduleChanged;
+import fll.web.event.TournamentEventBus;
 import fll.web.playoff.ScoresheetGenerator;
 import fll.xml.ChallengeDescription;
 import fll.xml.ScoreCategory;
@@ -295,7 +297,12 @@ public class TournamentSchedule implements Serializable {
     return Collections.unmodifiableSet(judgingGroups);
   }
 
-  private final LinkedList<TeamScheduleInfo> schedule = new LinkedList<>();
+  private final ArrayList<TeamScheduleInfo> schedule = new ArrayList<>();
+
+  /**
+   * team number -&gt; schedule info, same contents as {@link #schedule}.
+   */
+  private final HashMap<Integer, TeamScheduleInfo> teamIndex = new HashMap<>();
 
   private final HashSet<String> subjectiveStations = new HashSet<>();
 
@@ -329,12 +336,7 @@ public class TournamentSchedule implements Serializable {
    * @return null if cannot be found
    */
   public @Nullable TeamScheduleInfo getSchedInfoForTeam(final int teamNumber) {
-    for (final TeamScheduleInfo si : schedule) {
-      if (si.getTeamNumber() == teamNumber) {
-        return si;
-      }
-    }
-    return null;
+    return teamIndex.get(teamNumber);
   }
 
   /**
@@ -370,6 +372,35 @@ public class TournamentSchedule implements Serializable {
     name = "empty";
   }
 
+  /**
+   * Create a schedule from team information that has already been built. This
+   * is used by the scheduler to check solutions without writing them to a file
+   * and parsing them back in.
+   *
+   * @param name {@link #getName()}
+   * @param teams the schedule for each team, all teams must have the same
+   *          number of performance and practice rounds
+   * @param subjectiveStations {@link #getSubjectiveStations()}
+   */
+  /* package */ TournamentSchedule(final String name,
+                                   final Collection<TeamScheduleInfo> teams,
+                                   final Collection<String> subjectiveStations) {
+    this.name = name;
+    for (final TeamScheduleInfo ti : teams) {
+      cacheTeamScheduleInformation(ti);
+    }
+    this.subjectiveStations.addAll(subjectiveStations);
+
+    if (!schedule.isEmpty()) {
+      this.numRegularMatchPlayRounds = schedule.get(0).getNumRegularMatchPlayRounds();
+      this.numPracticeRounds = schedule.get(0).getNumPracticeRounds();
+      validateRounds();
+    } else {
+      this.numRegularMatchPlayRounds = 0;
+      this.numPracticeRounds = 0;
+    }
+  }
+
   /**
    * Load a tournament from the database.
    *
@@ -690,7 +721,7 @@ public class TournamentSchedule implements Serializable {
    */
   private void addToSchedule(@UnderInitialization(TournamentSchedule.class) TournamentSchedule this,
                              final TeamScheduleInfo ti) {
-    if (!schedule.contains(ti)) {
+    if (null == teamIndex.putIfAbsent(ti.getTeamNumber(), ti)) {
       schedule.add(ti);
     } else {
       LOGGER.warn("Attempting to add the same team to the schedule twice: "
@@ -796,6 +827,9 @@ public class TournamentSchedule implements Serializable {
                                      @Nonnull final Map<ScoreCategory, @Nullable String> filenameSuffixes)
       throws IOException {
 
+    // sort a copy so that the schedule isn't modified
+    final List<TeamScheduleInfo> sortedSchedule = new ArrayList<>(schedule);
+
     // setup the sheets from the sucked in xml
     for (final SubjectiveScoreCategory category : description.getSubjectiveCategories()) {
       final String suffix = filenameSuffixes.get(category);
@@ -812,14 +846,14 @@ public class TournamentSchedule implements Serializable {
       // sort the schedule by the category we're working with
       final String subjectiveStation = categoryToSchedule.get(category);
       if (null != subjectiveStation) {
-        Collections.sort(schedule, new SubjectiveComparatorByAwardGroup(subjectiveStation));
+        Collections.sort(sortedSchedule, new SubjectiveComparatorByAwardGroup(subjectiveStation));
       }
 
       final String schedulerColumn = categoryToSchedule.get(category);
 
       try (OutputStream stream = new FileOutputStream(filename)) {
         SubjectivePdfWriter.createDocumentForSchedule(stream, description, tournamentName, category, schedulerColumn,
-                                                      schedule);
+                                                      sortedSchedule);
       }
     }
   }
@@ -1074,7 +1108,7 @@ public class TournamentSchedule implements Serializable {
     if (timeMatches.containsKey(performance.getTable())) {
       tableMatches = castNonNull(timeMatches.get(performance.getTable()));
     } else {
-      tableMatches = new LinkedList<>();
+      tableMatches = new ArrayList<>();
       timeMatches.put(performance.getTable(), tableMatches);
     }
 
@@ -1283,7 +1317,11 @@ public class TournamentSchedule implements Serializable {
 
   /**
    * Store a tournament schedule in the database. This will delete any previous
-   * schedule for the same tournament.
+   * schedule for the same tournament. When the connection is in auto-commit
+   * mode the schedule is replaced in a single transaction, so the previous
+   * schedule is kept if there is an error and other connections never see a
+   * partially stored schedule. Otherwise the caller owns the transaction and is
+   * responsible for committing it.
    *
    * @param connection where to store the schedule
    * @param tournamentID the ID of the tournament
@@ -1292,64 +1330,89 @@ public class TournamentSchedule implements Serializable {
   public void storeSchedule(final Connection connection,
                             final int tournamentID)
       throws SQLException {
-    // delete previous tournament schedule
-    try (
-        PreparedStatement deletePerfRounds = connection.prepareStatement("DELETE FROM sched_perf_rounds WHERE tournament = ?")) {
-      deletePerfRounds.setInt(1, tournamentID);
-      deletePerfRounds.executeUpdate();
-    }
+    final boolean autoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
 
-    try (
-        PreparedStatement deleteSubjective = connection.prepareStatement("DELETE FROM sched_subjective WHERE tournament = ?")) {
-      deleteSubjective.setInt(1, tournamentID);
-      deleteSubjective.executeUpdate();
-    }
+      // delete previous tournament schedule
+      try (
+          PreparedStatement deletePerfRounds = connection.prepareStatement("DELETE FROM sched_perf_rounds WHERE tournament = ?")) {
+        deletePerfRounds.setInt(1, tournamentID);
+        deletePerfRounds.executeUpdate();
+      }
 
-    try (PreparedStatement deleteSchedule = connection.prepareStatement("DELETE FROM schedule WHERE tournament = ?")) {
-      deleteSchedule.setInt(1, tournamentID);
-      deleteSchedule.executeUpdate();
-    }
+      try (
+          PreparedStatement deleteSubjective = connection.prepareStatement("DELETE FROM sched_subjective WHERE tournament = ?")) {
+        deleteSubjective.setInt(1, tournamentID);
+        deleteSubjective.executeUpdate();
+      }
 
-    // insert new tournament schedule
-    try (PreparedStatement insertSchedule = connection.prepareStatement("INSERT INTO schedule"//
-        + " (tournament, team_number, judging_station)"//
-        + " VALUES(?, ?, ?)");
-        PreparedStatement insertPerfRounds = connection.prepareStatement("INSERT INTO sched_perf_rounds"//
-            + " (tournament, team_number, practice, perf_time, table_color, table_side)"//
-            + " VALUES(?, ?, ?, ?, ?, ?)");
-        PreparedStatement insertSubjective = connection.prepareStatement("INSERT INTO sched_subjective" //
-            + " (tournament, team_number, name, subj_time)" //
-            + " VALUES(?, ?, ?, ?)")) {
+      try (PreparedStatement deleteSchedule = connection.prepareStatement("DELETE FROM schedule WHERE tournament = ?")) {
+        deleteSchedule.setInt(1, tournamentID);
+        deleteSchedule.executeUpdate();
+      }
 
-      insertSchedule.setInt(1, tournamentID);
+      // insert new tournament schedule
+      try (PreparedStatement insertSchedule = connection.prepareStatement("INSERT INTO schedule"//
+          + " (tournament, team_number, judging_station)"//
+          + " VALUES(?, ?, ?)");
+          PreparedStatement insertPerfRounds = connection.prepareStatement("INSERT INTO sched_perf_rounds"//
+              + " (tournament, team_number, practice, perf_time, table_color, table_side)"//
+              + " VALUES(?, ?, ?, ?, ?, ?)");
+          PreparedStatement insertSubjective = connection.prepareStatement("INSERT INTO sched_subjective" //
+              + " (tournament, team_number, name, subj_time)" //
+              + " VALUES(?, ?, ?, ?)")) {
+
+        insertSchedule.setInt(1, tournamentID);
+
+        insertPerfRounds.setInt(1, tournamentID);
+
+        insertSubjective.setInt(1, tournamentID);
+
+        for (final TeamScheduleInfo si : getSchedule()) {
+          insertSchedule.setInt(2, si.getTeamNumber());
+          insertSchedule.setString(3, si.getJudgingGroup());
+          insertSchedule.addBatch();
+
+          insertPerfRounds.setInt(2, si.getTeamNumber());
+          for (final PerformanceTime performance : si.getAllPerformances()) {
+            insertPerfRounds.setBoolean(3, performance.isPractice());
+            insertPerfRounds.setTime(4, Time.valueOf(performance.getTime()));
+            insertPerfRounds.setString(5, performance.getTable());
+            insertPerfRounds.setInt(6, performance.getSide());
+            insertPerfRounds.addBatch();
+          }
 
-      insertPerfRounds.setInt(1, tournamentID);
+          insertSubjective.setInt(2, si.getTeamNumber());
+          for (final SubjectiveTime subjectiveTime : si.getSubjectiveTimes()) {
+            insertSubjective.setString(3, subjectiveTime.getName());
+            insertSubjective.setTime(4, Time.valueOf(subjectiveTime.getTime()));
+            insertSubjective.addBatch();
+          }
+        } // foreach team
 
-      insertSubjective.setInt(1, tournamentID);
+        // the performance and subjective rows reference the schedule rows
+        insertSchedule.executeBatch();
+        insertPerfRounds.executeBatch();
+        insertSubjective.executeBatch();
+      }
 
-      for (final TeamScheduleInfo si : getSchedule()) {
-        insertSchedule.setInt(2, si.getTeamNumber());
-        insertSchedule.setString(3, si.getJudgingGroup());
-        insertSchedule.executeUpdate();
-
-        insertPerfRounds.setInt(2, si.getTeamNumber());
-        for (final PerformanceTime performance : si.getAllPerformances()) {
-          insertPerfRounds.setBoolean(3, performance.isPractice());
-          insertPerfRounds.setTime(4, Time.valueOf(performance.getTime()));
-          insertPerfRounds.setString(5, performance.getTable());
-          insertPerfRounds.setInt(6, performance.getSide());
-          insertPerfRounds.executeUpdate();
-        }
+      // only notify once the new schedule is visible to other connections
+      TournamentEventBus.publishAfterCommit(connection, new ScheduleChanged(tournamentID));
 
-        for (final SubjectiveTime subjectiveTime : si.getSubjectiveTimes()) {
-          insertSubjective.setInt(2, si.getTeamNumber());
-          insertSubjective.setString(3, subjectiveTime.getName());
-          insertSubjective.setTime(4, Time.valueOf(subjectiveTime.getTime()));
-          insertSubjective.executeUpdate();
-        }
-      } // foreach team
+      if (autoCommit) {
+        connection.commit();
+        TournamentEventBus.transactionCommitted(connection);
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+        TournamentEventBus.transactionRolledBack(connection);
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
     }
-
   }
 
   /**
@@ -1723,12 +1786,7 @@ public class TournamentSchedule implements Serializable {
    * @return the schedule info or null if not found
    */
   public @Nullable TeamScheduleInfo findScheduleInfo(final int team) {
-    for (final TeamScheduleInfo si : schedule) {
-      if (si.getTeamNumber() == team) {
-        return si;
-      }
-    }
-    return null;
+    return getSchedInfoForTeam(team);
   }
 
   /**
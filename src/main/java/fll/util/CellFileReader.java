@@ -72,10 +72,12 @@ public abstract class CellFileReader implements Closeable {
                                                 final @Nullable String sheetName)
       throws InvalidFormatException, IOException {
     if (ExcelCellReader.isExcelFile(file)) {
-      try (InputStream fis = Files.newInputStream(file)) {
-        if (null == sheetName) {
-          throw new IllegalArgumentException("Sheet name cannot be null when reading an Excel file");
-        } else {
+      if (null == sheetName) {
+        throw new IllegalArgumentException("Sheet name cannot be null when reading an Excel file");
+      } else if (XlsxCellReader.isXlsxFile(file)) {
+        return new XlsxCellReader(file, sheetName);
+      } else {
+        try (InputStream fis = Files.newInputStream(file)) {
           return new ExcelCellReader(fis, sheetName);
         }
       }
@@ -21,6 +21,9 @@ import java.util.Objects;
 
 import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormatter;
@@ -47,7 +50,7 @@ public class ExcelCellReader extends CellFileReader {
 
   // See https://github.com/typetools/checker-framework/issues/979
   @SuppressWarnings("nullness")
-  private static final ThreadLocal<DateFormat> DATE_FORMAT_AM_PM_SS = new ThreadLocal<DateFormat>() {
+  /* package */ static final ThreadLocal<DateFormat> DATE_FORMAT_AM_PM_SS = new ThreadLocal<DateFormat>() {
     @Override
     protected DateFormat initialValue() {
       return new SimpleDateFormat("hh:mm:ss a");
@@ -68,7 +71,7 @@ public class ExcelCellReader extends CellFileReader {
    * If a number and it's rounded value are equal to this precision, then the
    * number is an integer.
    */
-  private static final double INTEGER_FP_CHECK = 1E-10;
+  /* package */ static final double INTEGER_FP_CHECK = 1E-10;
 
   /**
    * @param file see {@link #isExcelFile(Path)}
@@ -116,35 +119,51 @@ public class ExcelCellReader extends CellFileReader {
   }
 
   /**
+   * Get the names of all sheets in the specified file. For an XLSX file only
+   * the index of the workbook is read, see
+   * {@link XlsxCellReader#getAllSheetNames(Path)}.
+   *
    * @param file the file to read
    * @return see {@link #getAllSheetNames(InputStream)}
    * @throws IOException see {@link #getAllSheetNames(InputStream)}
    */
   public static List<String> getAllSheetNames(final File file) throws IOException {
-    FileInputStream fis = null;
-    try {
-      fis = new FileInputStream(file);
-      final List<String> result = getAllSheetNames(fis);
-      fis.close();
-      return result;
-    } finally {
-      if (null != fis) {
-        fis.close();
-      }
+    if (XlsxCellReader.isXlsxFile(file.toPath())) {
+      return XlsxCellReader.getAllSheetNames(file.toPath());
+    }
+
+    try (InputStream fis = new FileInputStream(file)) {
+      return getAllSheetNames(fis);
     }
   }
 
   /**
-   * Get the names of all sheets in the specified stream.
+   * Get the names of all sheets in the specified stream. For an XLSX file only
+   * the index of the workbook is read.
    *
    * @param stream the file to read
    * @throws IOException if there is an error reading the file
    * @return the names of the sheets found in the workbook
    */
   public static List<String> getAllSheetNames(final InputStream stream) throws IOException {
+    final InputStream magicStream = FileMagic.prepareToCheckMagic(stream);
+    if (FileMagic.OOXML.equals(FileMagic.valueOf(magicStream))) {
+      final OPCPackage pkg;
+      try {
+        pkg = OPCPackage.open(magicStream);
+      } catch (final InvalidFormatException e) {
+        throw new IOException("Error opening workbook", e);
+      }
+      try {
+        return XlsxCellReader.readSheetNames(pkg);
+      } finally {
+        pkg.revert();
+      }
+    }
+
     final List<String> sheetNames = new LinkedList<>();
 
-    final Workbook workbook = createWorkbook(stream);
+    final Workbook workbook = createWorkbook(magicStream);
     final int numSheets = workbook.getNumberOfSheets();
     for (int i = 0; i < numSheets; ++i) {
       sheetNames.add(workbook.getSheetName(i));
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.xml.sax.SAXException;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Read an XLSX file one row at a time. Unlike {@link ExcelCellReader} the
+ * workbook isn't loaded into memory, the sheet is parsed as rows are read, so
+ * the memory used doesn't depend on the size of the sheet. Only the shared
+ * strings and the cell styles of the workbook are kept in memory.
+ * Formulas are not evaluated, the value that was cached when the workbook was
+ * last saved is used and formatted with the style of the cell.
+ * The values returned match {@link ExcelCellReader}.
+ */
+public class XlsxCellReader extends CellFileReader {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private final DataFormatter formatter = new DataFormatter();
+
+  private final OPCPackage pkg;
+
+  private final ReadOnlySharedStringsTable sharedStrings;
+
+  private final StylesTable styles;
+
+  private final InputStream sheetStream;
+
+  private final XMLStreamReader xml;
+
+  private int lineNumber = -1;
+
+  /**
+   * The row that was parsed, but not returned yet because there are empty rows
+   * before it.
+   */
+  private @Nullable String @Nullable [] pendingRow = null;
+
+  private int pendingRowIndex = -1;
+
+  /**
+   * @param path the file to check
+   * @return true if the file is an XLSX file that can be read by this class
+   * @throws IOException if there is an error reading the file
+   */
+  public static boolean isXlsxFile(final Path path) throws IOException {
+    return FileMagic.OOXML.equals(FileMagic.valueOf(path.toFile()));
+  }
+
+  /**
+   * Get the names of all sheets in an XLSX file. Only the index of the workbook
+   * is read.
+   *
+   * @param file the file to read
+   * @return the sheet names in the order they appear in the workbook
+   * @throws IOException if there is an error reading the file
+   */
+  public static List<String> getAllSheetNames(final Path file) throws IOException {
+    final OPCPackage pkg = openPackage(file);
+    try {
+      return readSheetNames(pkg);
+    } finally {
+      pkg.revert();
+    }
+  }
+
+  /**
+   * @param pkg the opened workbook
+   * @return the sheet names in the order they appear in the workbook
+   * @throws IOException if there is an error reading the workbook
+   */
+  /* package */ static List<String> readSheetNames(final OPCPackage pkg) throws IOException {
+    final List<String> sheetNames = new ArrayList<>();
+    try (InputStream workbookStream = new XSSFReader(pkg).getWorkbookData()) {
+      final XMLStreamReader workbookXml = XMLHelper.newXMLInputFactory().createXMLStreamReader(workbookStream);
+      try {
+        while (workbookXml.hasNext()) {
+          final int event = workbookXml.next();
+          if (XMLStreamConstants.START_ELEMENT == event
+              && "sheet".equals(workbookXml.getLocalName())) {
+            final @Nullable String name = workbookXml.getAttributeValue(null, "name");
+            if (null != name) {
+              sheetNames.add(name);
+            }
+          } else if (XMLStreamConstants.END_ELEMENT == event
+              && "sheets".equals(workbookXml.getLocalName())) {
+            break;
+          }
+        }
+      } finally {
+        workbookXml.close();
+      }
+    } catch (final OpenXML4JException | XMLStreamException e) {
+      throw new IOException("Error reading the sheet names", e);
+    }
+    return sheetNames;
+  }
+
+  /**
+   * @param file the XLSX file to read, see {@link #isXlsxFile(Path)}
+   * @param sheetName the sheet to read
+   * @throws IOException if there is an error reading the file or the sheet
+   *           doesn't exist
+   */
+  public XlsxCellReader(final Path file,
+                        final String sheetName)
+      throws IOException {
+    Objects.requireNonNull(sheetName, "Sheet name cannot be null");
+
+    pkg = openPackage(file);
+    try {
+      final XSSFReader reader = new XSSFReader(pkg);
+      sharedStrings = new ReadOnlySharedStringsTable(pkg);
+      styles = reader.getStylesTable();
+
+      @Nullable
+      InputStream found = null;
+      final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+      while (null == found
+          && sheets.hasNext()) {
+        final InputStream stream = sheets.next();
+        if (sheetName.equals(sheets.getSheetName())) {
+          found = stream;
+        } else {
+          stream.close();
+        }
+      }
+      if (null == found) {
+        throw new IOException("Cannot find sheet '"
+            + sheetName
+            + "' in "
+            + file);
+      }
+      sheetStream = found;
+
+      xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+    } catch (final OpenXML4JException | SAXException | XMLStreamException e) {
+      pkg.revert();
+      throw new IOException("Error opening "
+          + file, e);
+    } catch (final IOException | RuntimeException e) {
+      pkg.revert();
+      throw e;
+    }
+  }
+
+  private static OPCPackage openPackage(final Path file) throws IOException {
+    try {
+      // opening from a file reads the parts from the zip as they are needed
+      return OPCPackage.open(file.toFile(), PackageAccess.READ);
+    } catch (final OpenXML4JException e) {
+      throw new IOException("Error opening "
+          + file, e);
+    }
+  }
+
+  @Override
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  @SuppressFBWarnings(value = "PZLA_PREFER_ZERO_LENGTH_ARRAYS", justification = "Return null rather than zero length array so that we know when we hit EFO")
+  public @Nullable String @Nullable [] readNext() throws IOException {
+    @Nullable
+    String @Nullable [] row = pendingRow;
+    if (null == row) {
+      try {
+        row = parseNextRow();
+      } catch (final XMLStreamException e) {
+        throw new IOException("Error reading row "
+            + (lineNumber
+                + 1), e);
+      }
+      if (null == row) {
+        return null;
+      }
+    }
+
+    ++lineNumber;
+    if (lineNumber < pendingRowIndex) {
+      // rows without any cells are not in the file
+      pendingRow = row;
+      return new String[0];
+    } else {
+      pendingRow = null;
+      return row;
+    }
+  }
+
+  /**
+   * Parse the next row element in the sheet and set {@link #pendingRowIndex}.
+   *
+   * @return the cells of the row, null if there are no more rows
+   */
+  private @Nullable String @Nullable [] parseNextRow() throws XMLStreamException {
+    while (xml.hasNext()) {
+      final int event = xml.next();
+      if (XMLStreamConstants.START_ELEMENT == event
+          && "row".equals(xml.getLocalName())) {
+        final @Nullable String rowRef = xml.getAttributeValue(null, "r");
+        pendingRowIndex = null == rowRef ? pendingRowIndex
+            + 1 : Integer.parseInt(rowRef)
+                - 1;
+
+        final List<@Nullable String> data = new ArrayList<>();
+        while (xml.hasNext()) {
+          final int rowEvent = xml.next();
+          if (XMLStreamConstants.START_ELEMENT == rowEvent
+              && "c".equals(xml.getLocalName())) {
+            final @Nullable String cellRef = xml.getAttributeValue(null, "r");
+            final int column = null == cellRef ? data.size() : new CellReference(cellRef).getCol();
+            while (data.size() < column) {
+              data.add(null);
+            }
+            data.add(parseCell());
+          } else if (XMLStreamConstants.END_ELEMENT == rowEvent
+              && "row".equals(xml.getLocalName())) {
+            break;
+          }
+        }
+        return data.toArray(new String[data.size()]);
+      } else if (XMLStreamConstants.END_ELEMENT == event
+          && "sheetData".equals(xml.getLocalName())) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parse the cell element that the reader is on.
+   *
+   * @return the formatted value, empty string for a blank cell
+   */
+  private String parseCell() throws XMLStreamException {
+    final @Nullable String type = xml.getAttributeValue(null, "t");
+    final @Nullable String styleIndex = xml.getAttributeValue(null, "s");
+
+    @Nullable
+    String value = null;
+    boolean formula = false;
+    final StringBuilder inlineString = new StringBuilder();
+    while (xml.hasNext()) {
+      final int event = xml.next();
+      if (XMLStreamConstants.START_ELEMENT == event) {
+        final String name = xml.getLocalName();
+        if ("v".equals(name)) {
+          value = xml.getElementText();
+        } else if ("t".equals(name)) {
+          // text of an inline string, possibly split into runs
+          inlineString.append(xml.getElementText());
+        } else if ("f".equals(name)) {
+          // use the cached value
+          formula = true;
+          xml.getElementText();
+        }
+      } else if (XMLStreamConstants.END_ELEMENT == event
+          && "c".equals(xml.getLocalName())) {
+        break;
+      }
+    }
+
+    if ("inlineStr".equals(type)) {
+      return inlineString.toString();
+    } else if (null == value) {
+      return "";
+    } else if ("s".equals(type)) {
+      return sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+    } else if ("b".equals(type)) {
+      return "0".equals(value) ? "FALSE" : "TRUE";
+    } else if ("str".equals(type)
+        || "e".equals(type)
+        || "d".equals(type)) {
+      return value;
+    } else {
+      return formatNumber(Double.parseDouble(value), styleIndex, formula);
+    }
+  }
+
+  /**
+   * @param formula true if the value is the cached result of a formula, these
+   *          are formatted with the style of the cell like
+   *          {@link DataFormatter#formatCellValue(org.apache.poi.ss.usermodel.Cell, org.apache.poi.ss.usermodel.FormulaEvaluator)}
+   *          does for {@link ExcelCellReader}
+   */
+  private String formatNumber(final double d,
+                              final @Nullable String styleIndex,
+                              final boolean formula) {
+    int formatIndex = 0;
+    @Nullable
+    String formatString = null;
+    if (null != styleIndex) {
+      final XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+      if (null != style) {
+        formatIndex = style.getDataFormat();
+        formatString = style.getDataFormatString();
+      }
+    }
+    if (null == formatString) {
+      formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+    }
+    if (null == formatString) {
+      formatString = "General";
+    }
+
+    if (formula) {
+      return formatter.formatRawCellContents(d, formatIndex, formatString);
+    } else if (DateUtil.isValidExcelDate(d)
+        && DateUtil.isADateFormat(formatIndex, formatString)) {
+      // make sure to format times like we expect them
+      final Date date = DateUtil.getJavaDate(d);
+      return ExcelCellReader.DATE_FORMAT_AM_PM_SS.get().format(date);
+    } else if (FP.equals(d, Math.round(d), ExcelCellReader.INTEGER_FP_CHECK)) {
+      return String.valueOf((int) d);
+    } else {
+      return formatter.formatRawCellContents(d, formatIndex, formatString);
+    }
+  }
+
+  /**
+   * @see java.io.Closeable#close()
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      xml.close();
+    } catch (final XMLStreamException e) {
+      LOGGER.debug("Error closing the sheet", e);
+    }
+    sheetStream.close();
+    pkg.revert();
+  }
+
+}
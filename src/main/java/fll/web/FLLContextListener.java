@@ -20,6 +20,11 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import fll.Utilities;
 import fll.flltools.MhubMessageHandler;
+import fll.web.event.BracketChanged;
+import fll.web.event.PerformanceScoreChanged;
+import fll.web.event.TournamentEventBus;
+import fll.web.playoff.H2HUpdateWebSocket;
+import fll.web.scoreEntry.UnverifiedRunsWebSocket;
 
 /**
  * Take care of initializing some variables in the servlet context.
@@ -50,6 +55,16 @@ public class FLLContextListener implements ServletContextListener {
     mhubMessageHandler = new MhubMessageHandler(application);
     mhubMessageHandler.start();
 
+    subscribeToEvents();
+  }
+
+  /**
+   * Connect the displays to the changes that they show.
+   */
+  private static void subscribeToEvents() {
+    TournamentEventBus.subscribe(BracketChanged.class, H2HUpdateWebSocket::bracketChanged);
+    TournamentEventBus.subscribe(PerformanceScoreChanged.class, e -> UnverifiedRunsWebSocket.notifyToUpdate());
+    ScheduleCache.subscribe();
   }
 
   @Override
@@ -60,6 +75,9 @@ public class FLLContextListener implements ServletContextListener {
       mhubMessageHandler.shutdown();
     }
 
+    TournamentEventBus.unsubscribeAll();
+    ScheduleCache.clear();
+
     // shutdown the database
     final DataSource datasource = ApplicationAttributes.getDataSource(application);
     if (null != datasource) {
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
+
+/**
+ * Collects the events generated while modifying the database so that they can
+ * be published once the transaction has been committed.
+ * Any data that the events need must be read from the database before
+ * being added to the queue.
+ * This class is not thread safe, each request is expected to use its own
+ * queue.
+ */
+public final class NotificationQueue {
+
+  private final List<TournamentEvent> pending = new LinkedList<>();
+
+  /**
+   * Add an event to be published when the queue is published.
+   *
+   * @param event the event to publish
+   */
+  public void add(final TournamentEvent event) {
+    pending.add(event);
+  }
+
+  /**
+   * Throw away all events, used when the transaction is rolled back.
+   */
+  public void discard() {
+    pending.clear();
+  }
+
+  /**
+   * Publish all of the events on {@link TournamentEventBus} in the order they
+   * were added and empty the queue.
+   * This should be called after the transaction has been committed.
+   */
+  public void publish() {
+    for (final TournamentEvent event : pending) {
+      TournamentEventBus.publish(event);
+    }
+    pending.clear();
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fll.scheduler.TournamentSchedule;
+import fll.web.event.ScheduleChanged;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
+
+/**
+ * Schedules loaded from the database, shared by all of the pages that display
+ * the schedule so that it is only parsed once each time it changes.
+ * A schedule is dropped when {@link ScheduleChanged} or {@link TeamsChanged}
+ * is published for its tournament, see {@link #subscribe()}.
+ * Each load is tagged with a version. A schedule that was being loaded when
+ * its tournament changed is not kept, so a schedule read before the change
+ * is never returned after the change has been delivered.
+ * The schedules returned are shared between requests and must not be
+ * modified.
+ */
+public final class ScheduleCache {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  /**
+   * Incremented on each invalidation.
+   */
+  private static final AtomicLong VERSION = new AtomicLong(0);
+
+  /**
+   * tournament -&gt; version of the last invalidation of the tournament
+   */
+  private static final Map<Integer, Long> INVALIDATED = new ConcurrentHashMap<>();
+
+  /**
+   * Version of the last invalidation of all tournaments.
+   */
+  private static volatile long allInvalidated = 0;
+
+  private static final Map<Integer, CachedSchedule> SCHEDULES = new ConcurrentHashMap<>();
+
+  private ScheduleCache() {
+  }
+
+  /**
+   * Drop schedules when they change. Called once when the web application
+   * starts. The schedules are dropped on the publishing thread, so once a
+   * change has been committed and published the old schedule is not returned.
+   */
+  public static void subscribe() {
+    TournamentEventBus.subscribeSynchronous(ScheduleChanged.class, e -> invalidate(e.getTournamentId()));
+    TournamentEventBus.subscribeSynchronous(TeamsChanged.class, e -> invalidate(e.getTournamentId()));
+  }
+
+  /**
+   * Get the schedule for a tournament. The caller is expected to have checked
+   * {@link TournamentSchedule#scheduleExistsInDatabase(Connection, int)}.
+   *
+   * @param connection used to load the schedule if it isn't cached
+   * @param tournamentId the tournament to get the schedule for
+   * @return the schedule, must not be modified
+   * @throws SQLException on a database error
+   */
+  public static TournamentSchedule getSchedule(final Connection connection,
+                                               final int tournamentId)
+      throws SQLException {
+    final CachedSchedule cached = SCHEDULES.get(tournamentId);
+    if (null != cached
+        && isCurrent(tournamentId, cached.getVersion())) {
+      return cached.getSchedule();
+    }
+
+    // read the version before loading so that a change while loading makes
+    // the result stale
+    final long version = VERSION.get();
+    final TournamentSchedule schedule = new TournamentSchedule(connection, tournamentId);
+    SCHEDULES.compute(tournamentId, (k,
+                                     previous) -> {
+      if (!isCurrent(tournamentId, version)) {
+        return previous;
+      } else if (null != previous
+          && previous.getVersion() > version) {
+        return previous;
+      } else {
+        return new CachedSchedule(version, schedule);
+      }
+    });
+
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Loaded schedule for tournament "
+          + tournamentId
+          + " version "
+          + version);
+    }
+    return schedule;
+  }
+
+  /**
+   * Drop the schedule for a tournament.
+   *
+   * @param tournamentId the tournament or
+   *          {@link TournamentEvent#ALL_TOURNAMENTS}
+   */
+  public static void invalidate(final int tournamentId) {
+    final long version = VERSION.incrementAndGet();
+    if (TournamentEvent.ALL_TOURNAMENTS == tournamentId) {
+      allInvalidated = version;
+      SCHEDULES.clear();
+    } else {
+      INVALIDATED.put(tournamentId, version);
+      SCHEDULES.remove(tournamentId);
+    }
+  }
+
+  /**
+   * Drop all schedules. Used when the web application is shutdown.
+   */
+  public static void clear() {
+    invalidate(TournamentEvent.ALL_TOURNAMENTS);
+  }
+
+  private static boolean isCurrent(final int tournamentId,
+                                   final long version) {
+    return version >= allInvalidated
+        && version >= INVALIDATED.getOrDefault(tournamentId, 0L);
+  }
+
+  private static final class CachedSchedule {
+    CachedSchedule(final long version,
+                   final TournamentSchedule schedule) {
+      this.version = version;
+      this.schedule = schedule;
+    }
+
+    private final long version;
+
+    long getVersion() {
+      return version;
+    }
+
+    private final TournamentSchedule schedule;
+
+    TournamentSchedule getSchedule() {
+      return schedule;
+    }
+  }
+
+}
@@ -19,6 +19,7 @@ import fll.scheduler.TournamentSchedule;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
 import fll.web.BaseFLLServlet;
+import fll.web.ScheduleCache;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.web.WebUtils;
@@ -61,7 +62,7 @@ public class PerformanceSchedulePerTable extends BaseFLLServlet {
         return;
       }
 
-      final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournamentID);
+      final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournamentID);
 
       response.reset();
       response.setContentType("application/pdf");
@@ -26,6 +26,7 @@ import fll.util.FLLInternalException;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
 import fll.web.BaseFLLServlet;
+import fll.web.ScheduleCache;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.web.WebUtils;
@@ -64,7 +65,7 @@ public class PerformanceSheets extends BaseFLLServlet {
         return;
       }
 
-      final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournamentID);
+      final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournamentID);
 
       final Tournament tournament = Tournament.findTournamentByID(connection, currentTournamentID);
 
@@ -24,6 +24,7 @@ import fll.scheduler.TournamentSchedule;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
 import fll.web.BaseFLLServlet;
+import fll.web.ScheduleCache;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.web.WebUtils;
@@ -59,7 +60,7 @@ public class ScheduleAsCsv extends BaseFLLServlet {
         return;
       }
 
-      final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournamentID);
+      final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournamentID);
 
       response.reset();
       response.setContentType("text/csv");
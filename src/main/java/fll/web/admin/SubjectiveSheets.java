@@ -31,6 +31,7 @@ import fll.util.FLLRuntimeException;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
 import fll.web.BaseFLLServlet;
+import fll.web.ScheduleCache;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.web.WebUtils;
@@ -75,7 +76,7 @@ public class SubjectiveSheets extends BaseFLLServlet {
           return;
         }
 
-        final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournamentID);
+        final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournamentID);
 
         final Tournament tournament = Tournament.findTournamentByID(connection, currentTournamentID);
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.admin;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.text.StringEscapeUtils;
+
+/**
+ * What changed in the database when teams were imported with
+ * {@link UploadTeams#importTeams(java.sql.Connection, String, java.util.Map, java.util.Map, String, String, String)}.
+ */
+public final class TeamImportSummary {
+
+  /**
+   * @param teamsAdded {@link #getTeamsAdded()}
+   * @param teamsUpdated {@link #getTeamsUpdated()}
+   * @param teamsUnchanged {@link #getTeamsUnchanged()}
+   * @param tournamentTeamsAdded {@link #getTournamentTeamsAdded()}
+   * @param tournamentTeamsUpdated {@link #getTournamentTeamsUpdated()}
+   * @param tournamentTeamsUnchanged {@link #getTournamentTeamsUnchanged()}
+   * @param tournamentsCreated {@link #getTournamentsCreated()}
+   */
+  public TeamImportSummary(final int teamsAdded,
+                           final int teamsUpdated,
+                           final int teamsUnchanged,
+                           final int tournamentTeamsAdded,
+                           final int tournamentTeamsUpdated,
+                           final int tournamentTeamsUnchanged,
+                           final List<String> tournamentsCreated) {
+    this.teamsAdded = teamsAdded;
+    this.teamsUpdated = teamsUpdated;
+    this.teamsUnchanged = teamsUnchanged;
+    this.tournamentTeamsAdded = tournamentTeamsAdded;
+    this.tournamentTeamsUpdated = tournamentTeamsUpdated;
+    this.tournamentTeamsUnchanged = tournamentTeamsUnchanged;
+    this.tournamentsCreated = Collections.unmodifiableList(tournamentsCreated);
+  }
+
+  private final int teamsAdded;
+
+  /**
+   * @return number of teams added to the Teams table
+   */
+  public int getTeamsAdded() {
+    return teamsAdded;
+  }
+
+  private final int teamsUpdated;
+
+  /**
+   * @return number of teams that were already in the Teams table and had
+   *         different information
+   */
+  public int getTeamsUpdated() {
+    return teamsUpdated;
+  }
+
+  private final int teamsUnchanged;
+
+  /**
+   * @return number of teams that were already in the Teams table with the same
+   *         information
+   */
+  public int getTeamsUnchanged() {
+    return teamsUnchanged;
+  }
+
+  private final int tournamentTeamsAdded;
+
+  /**
+   * @return number of teams that were added to a tournament
+   */
+  public int getTournamentTeamsAdded() {
+    return tournamentTeamsAdded;
+  }
+
+  private final int tournamentTeamsUpdated;
+
+  /**
+   * @return number of teams that were already in a tournament and had their
+   *         award group or judging group changed
+   */
+  public int getTournamentTeamsUpdated() {
+    return tournamentTeamsUpdated;
+  }
+
+  private final int tournamentTeamsUnchanged;
+
+  /**
+   * @return number of teams that were already in a tournament with the same
+   *         award group and judging group
+   */
+  public int getTournamentTeamsUnchanged() {
+    return tournamentTeamsUnchanged;
+  }
+
+  private final List<String> tournamentsCreated;
+
+  /**
+   * @return names of the tournaments that didn't exist and were created
+   */
+  public List<String> getTournamentsCreated() {
+    return tournamentsCreated;
+  }
+
+  /**
+   * @return the summary formatted for display to the user
+   */
+  public String toHtml() {
+    final StringBuilder html = new StringBuilder();
+    html.append("<ul>");
+    html.append("<li>Teams added: "
+        + teamsAdded
+        + "</li>");
+    html.append("<li>Teams updated: "
+        + teamsUpdated
+        + "</li>");
+    html.append("<li>Teams unchanged: "
+        + teamsUnchanged
+        + "</li>");
+    html.append("<li>Teams added to tournaments: "
+        + tournamentTeamsAdded
+        + "</li>");
+    html.append("<li>Teams updated in tournaments: "
+        + tournamentTeamsUpdated
+        + "</li>");
+    html.append("<li>Teams unchanged in tournaments: "
+        + tournamentTeamsUnchanged
+        + "</li>");
+    if (!tournamentsCreated.isEmpty()) {
+      html.append("<li>Tournaments created: "
+          + StringEscapeUtils.escapeHtml4(String.join(", ", tournamentsCreated))
+          + "</li>");
+    }
+    html.append("</ul>");
+    return html.toString();
+  }
+
+  @Override
+  public String toString() {
+    return "TeamImportSummary [teamsAdded="
+        + teamsAdded
+        + ", teamsUpdated="
+        + teamsUpdated
+        + ", teamsUnchanged="
+        + teamsUnchanged
+        + ", tournamentTeamsAdded="
+        + tournamentTeamsAdded
+        + ", tournamentTeamsUpdated="
+        + tournamentTeamsUpdated
+        + ", tournamentTeamsUnchanged="
+        + tournamentTeamsUnchanged
+        + ", tournamentsCreated="
+        + tournamentsCreated
+        + "]";
+  }
+
+}
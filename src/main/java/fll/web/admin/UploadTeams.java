@@ -5,6 +5,8 @@
  */
 package fll.web.admin;
 
+import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
+
 import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
@@ -15,8 +17,11 @@ import java.sql.Statement;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,8 +36,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import fll.Tournament;
 import fll.TournamentLevel;
 import fll.Utilities;
-import fll.db.Queries;
 import fll.util.CellFileReader;
+import fll.util.FLLInternalException;
 import fll.util.FLLRuntimeException;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
@@ -41,6 +46,9 @@ import fll.web.SessionAttributes;
 import fll.web.StoreColumnNames;
 import fll.web.UploadSpreadsheet;
 import fll.web.UserRole;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -204,8 +212,17 @@ public final class UploadTeams extends BaseFLLServlet {
       }
       stmt.executeUpdate(createTable.toString()); // create AllTeams
 
+      // stage all rows in a single transaction
+      final boolean oldAutoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
       try (PreparedStatement insertPrep = connection.prepareStatement(insertPrepSQL.toString())) {
         insertLinesIntoAllTeams(reader, columnNamesSeen, insertPrep);
+        connection.commit();
+      } catch (final SQLException | IOException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(oldAutoCommit);
       }
     }
 
@@ -213,11 +230,18 @@ public final class UploadTeams extends BaseFLLServlet {
     session.setAttribute("columnSelectOptions", selectOptions.toString());
   }
 
+  /**
+   * Number of rows sent to the database at once when staging the spreadsheet
+   * in AllTeams.
+   */
+  private static final int INSERT_BATCH_SIZE = 500;
+
   private static void insertLinesIntoAllTeams(final CellFileReader reader,
                                               final List<String> columnNamesSeen,
                                               final PreparedStatement insertPrep)
       throws IOException, SQLException {
     // loop over the rest of the rows and insert them into AllTeams
+    int batchSize = 0;
     @Nullable
     String @Nullable [] values;
     while (null != (values = reader.readNext())) {
@@ -255,14 +279,34 @@ public final class UploadTeams extends BaseFLLServlet {
           }
 
           if (!allEmpty) {
-            insertPrep.executeUpdate();
+            insertPrep.addBatch();
+            ++batchSize;
           }
         } catch (final SQLException e) {
           throw new FLLRuntimeException("Error inserting row in to AllTeam: "
               + Arrays.toString(values), e);
         }
+
+        if (batchSize >= INSERT_BATCH_SIZE) {
+          executeAllTeamsBatch(insertPrep, reader.getLineNumber());
+          batchSize = 0;
+        }
       }
     }
+
+    if (batchSize > 0) {
+      executeAllTeamsBatch(insertPrep, reader.getLineNumber());
+    }
+  }
+
+  private static void executeAllTeamsBatch(final PreparedStatement insertPrep,
+                                           final long lineNumber) {
+    try {
+      insertPrep.executeBatch();
+    } catch (final SQLException e) {
+      throw new FLLRuntimeException("Error inserting rows in to AllTeams ending at line "
+          + lineNumber, e);
+    }
   }
 
   /**
@@ -273,6 +317,8 @@ public final class UploadTeams extends BaseFLLServlet {
    * <li>Insert the new teams into the Teams table</li>
    * <li>update tournament teams table</li>
    * </ul>
+   * On success a summary of the changes is added to the message in the
+   * session, see {@link #importTeams(Connection, String, Map, Map, String, String, String)}.
    *
    * @param connection connection with admin priviliges to DB
    * @param request used to get the information about which columns are mapped
@@ -323,16 +369,8 @@ public final class UploadTeams extends BaseFLLServlet {
 
     final StringBuilder message = new StringBuilder();
 
-    final StringBuffer dbColumns = new StringBuffer();
-    final StringBuffer dataColumns = new StringBuffer();
-    final StringBuffer values = new StringBuffer();
-
-    // always have TeamNumber
-    dbColumns.append("TeamNumber");
-    dataColumns.append(teamNumberColumn);
-    values.append("?");
-    int numValues = 1;
-
+    // Teams column -> AllTeams column, TeamNumber is handled separately
+    final Map<String, String> teamColumns = new LinkedHashMap<>();
     final Enumeration<?> paramIter = request.getParameterNames();
     while (paramIter.hasMoreElements()) {
       final String parameter = (String) paramIter.nextElement();
@@ -345,12 +383,7 @@ public final class UploadTeams extends BaseFLLServlet {
         final String value = request.getParameter(parameter);
         if (null != value
             && !"".equals(value)) {
-          dbColumns.append(", "
-              + parameter);
-          dataColumns.append(", "
-              + value);
-          values.append(",?");
-          numValues++;
+          teamColumns.put(parameter, value);
         }
       }
     }
@@ -361,94 +394,25 @@ public final class UploadTeams extends BaseFLLServlet {
       return false;
     }
 
-    // now copy the data over converting the team number to an integer
-    final String selectSQL = "SELECT "
-        + dataColumns.toString()
-        + " FROM AllTeams";
-    final String insertSQL = "INSERT INTO Teams ("
-        + dbColumns.toString()
-        + ") VALUES("
-        + values.toString()
-        + ")";
-    try (PreparedStatement prep = connection.prepareStatement(insertSQL);
-        Statement stmt = connection.createStatement();
-        ResultSet rs = stmt.executeQuery(selectSQL)) {
-      while (rs.next()) {
-        // convert TeamNumber to an integer
-        final String teamNumStr = rs.getString(1);
-
-        if (null == teamNumStr) {
-          out.println("<font color='red'>Error team number 'null' is not numeric.<br/>");
-          out.println("Go back and check your input file for errors.<br/></font>");
-          return false;
-        }
-
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Inserting "
-              + teamNumStr
-              + " into Teams");
-        }
-        try {
-          final Number num = Utilities.getFloatingPointNumberFormat().parse(teamNumStr);
-
-          if (((int) Math.floor(num.doubleValue()) != (int) Math.ceil(num.doubleValue()))
-              || num.intValue() < 0) {
-            SessionAttributes.appendToMessage(session, "<p class='error'>All team numbers must be positive integers: "
-                + num
-                + "</p>");
-            response.sendRedirect(response.encodeRedirectURL("index.jsp"));
-            return false;
-          }
-
-          final int teamNum = num.intValue();
-          prep.setInt(1, teamNum);
-        } catch (final ParseException e) {
-          out.println("<font color='red'>Error, "
-              + teamNumStr
-              + " is not numeric.<br/>");
-          out.println("Go back and check your input file for errors.<br/></font>");
-          if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(e, e);
-          }
-          return false;
-        } catch (final NumberFormatException nfe) {
-          out.println("<font color='red'>Error, "
-              + teamNumStr
-              + " is not numeric.<br/>");
-          out.println("Go back and check your input file for errors.<br/></font>");
-          if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(nfe, nfe);
-          }
-          return false;
-        }
-
-        for (int i = 1; i < numValues; i++) { // skip TeamNumber
-          String value = rs.getString(i
-              + 1);
-          if (null == value) {
-            // handle empty data as empty string instead of null, handled better
-            // elsewhere
-            value = "";
-          }
-          prep.setString(i
-              + 1, value);
-        }
-        try {
-          prep.executeUpdate();
-        } catch (final SQLException sqle) {
-          throw new FLLRuntimeException("Got error inserting teamNumber "
-              + teamNumStr
-              + " into Teams table, probably have two teams with the same team number", sqle);
-        }
-      } // for each row imported
+    final @Nullable Map<String, Integer> teamNumbers = parseTeamNumbers(connection, response, session, out,
+                                                                        teamNumberColumn);
+    if (null == teamNumbers) {
+      return false;
     }
 
     // if a tournament column is specified, put teams in tournaments
-    if (!StringUtils.isBlank(tournamentColumn)
+    final boolean assignTournaments = !StringUtils.isBlank(tournamentColumn)
         && !StringUtils.isBlank(eventDivisionColumn)
-        && !StringUtils.isBlank(judgingStationColumn)) {
-      updateTournamentTeams(connection, teamNumberColumn, tournamentColumn, eventDivisionColumn, judgingStationColumn);
-    }
+        && !StringUtils.isBlank(judgingStationColumn);
+
+    final TeamImportSummary summary = importTeams(connection, teamNumberColumn, teamNumbers, teamColumns,
+                                                  assignTournaments ? tournamentColumn : null,
+                                                  assignTournaments ? eventDivisionColumn : null,
+                                                  assignTournaments ? judgingStationColumn : null);
+    LOGGER.info("Imported teams: {}", summary);
+
+    SessionAttributes.appendToMessage(session, "<p id='success'><i>Teams successfully uploaded</i></p>"
+        + summary.toHtml());
 
     return true;
   }
@@ -499,79 +463,422 @@ public final class UploadTeams extends BaseFLLServlet {
   }
 
   /**
-   * Update TournamentTeams table with newly inserted teams.
+   * Check that all values in the team number column are positive integers.
+   *
+   * @return value in AllTeams -&gt; team number, null if there is an invalid
+   *         team number and the user has been told about it
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate name of teamNumberColumn")
+  private static @Nullable Map<String, Integer> parseTeamNumbers(final Connection connection,
+                                                                 final HttpServletResponse response,
+                                                                 final HttpSession session,
+                                                                 final JspWriter out,
+                                                                 final String teamNumberColumn)
+      throws SQLException, IOException {
+    final Map<String, Integer> teamNumbers = new HashMap<>();
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT DISTINCT "
+            + teamNumberColumn
+            + " FROM AllTeams")) {
+      while (rs.next()) {
+        final String teamNumStr = rs.getString(1);
+
+        if (null == teamNumStr) {
+          out.println("<font color='red'>Error team number 'null' is not numeric.<br/>");
+          out.println("Go back and check your input file for errors.<br/></font>");
+          return null;
+        }
+
+        try {
+          final Number num = Utilities.getFloatingPointNumberFormat().parse(teamNumStr);
+
+          if (((int) Math.floor(num.doubleValue()) != (int) Math.ceil(num.doubleValue()))
+              || num.intValue() < 0) {
+            SessionAttributes.appendToMessage(session, "<p class='error'>All team numbers must be positive integers: "
+                + num
+                + "</p>");
+            response.sendRedirect(response.encodeRedirectURL("index.jsp"));
+            return null;
+          }
+
+          teamNumbers.put(teamNumStr, num.intValue());
+        } catch (final ParseException e) {
+          out.println("<font color='red'>Error, "
+              + teamNumStr
+              + " is not numeric.<br/>");
+          out.println("Go back and check your input file for errors.<br/></font>");
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(e, e);
+          }
+          return null;
+        } catch (final NumberFormatException nfe) {
+          out.println("<font color='red'>Error, "
+              + teamNumStr
+              + " is not numeric.<br/>");
+          out.println("Go back and check your input file for errors.<br/></font>");
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(nfe, nfe);
+          }
+          return null;
+        }
+      } // for each team number
+    }
+
+    return teamNumbers;
+  }
+
+  /**
+   * Copy the teams in AllTeams into the Teams table and optionally into
+   * tournaments. Everything is done in a single transaction, if anything fails
+   * the database is not modified. If the connection is already in a
+   * transaction the caller is responsible for committing.
+   * The team numbers in AllTeams are normalized to integers and then
+   * the teams are added with a single MERGE statement. Teams that are already
+   * in the database are updated with the values from AllTeams. Tournaments
+   * that don't exist are created and the teams are added to them with a second
+   * MERGE statement, which also updates the award group and judging station of
+   * teams that are already in the tournament. Rows that are missing the
+   * tournament, award group or judging station are not added to a tournament.
    *
    * @param connection database connection
-   * @param teamNumberColumn which column in AllTeams contains the team
-   *          number
-   * @param tournamentColumn which column in AllTeams contains the
-   *          tournament
-   * @param eventDivisionColumn which column in AllTeams contains the event
-   *          division
-   * @param judgingStationColumn which column in AllTeams contains the
-   *          judging station
+   * @param teamNumberColumn which column in AllTeams contains the team number
+   * @param teamNumbers value in the team number column -&gt; team number, see
+   *          {@link #parseTeamNumbers(Connection, HttpServletResponse, HttpSession, JspWriter, String)}
+   * @param teamColumns column in Teams -&gt; column in AllTeams, not including
+   *          the team number
+   * @param tournamentColumn which column in AllTeams contains the tournament,
+   *          null to not add the teams to tournaments
+   * @param eventDivisionColumn which column in AllTeams contains the award
+   *          group, null to not add the teams to tournaments
+   * @param judgingStationColumn which column in AllTeams contains the judging
+   *          station, null to not add the teams to tournaments
+   * @return what changed
    * @throws SQLException on a database error
+   * @throws FLLRuntimeException if a team number is in AllTeams more than once
    */
-  @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING",
-                                "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate the list of columns for AllTeams table, Can't use PreparedStatement for constant value to select when inserting dummy tournament id")
-  private static void updateTournamentTeams(final Connection connection,
-                                            final String teamNumberColumn,
-                                            final String tournamentColumn,
-                                            final String eventDivisionColumn,
-                                            final String judgingStationColumn)
+  public static TeamImportSummary importTeams(final Connection connection,
+                                              final String teamNumberColumn,
+                                              final Map<String, Integer> teamNumbers,
+                                              final Map<String, String> teamColumns,
+                                              final @Nullable String tournamentColumn,
+                                              final @Nullable String eventDivisionColumn,
+                                              final @Nullable String judgingStationColumn)
       throws SQLException {
+    final MergeCounts teams;
+    MergeCounts tournamentTeams = MergeCounts.NONE;
+    final List<String> tournamentsCreated = new LinkedList<>();
+
+    final boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      normalizeTeamNumbers(connection, teamNumberColumn, teamNumbers);
+
+      teams = mergeTeams(connection, teamNumberColumn, teamColumns);
+
+      if (null != tournamentColumn
+          && null != eventDivisionColumn
+          && null != judgingStationColumn) {
+        tournamentsCreated.addAll(createMissingTournaments(connection, tournamentColumn, eventDivisionColumn,
+                                                           judgingStationColumn));
+        tournamentTeams = mergeTournamentTeams(connection, teamNumberColumn, tournamentColumn, eventDivisionColumn,
+                                               judgingStationColumn);
+      }
+
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
+
+      if (autoCommit) {
+        connection.commit();
+        TournamentEventBus.transactionCommitted(connection);
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (autoCommit) {
+        connection.rollback();
+        TournamentEventBus.transactionRolledBack(connection);
+      }
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+
+    return new TeamImportSummary(teams.added, teams.updated, teams.unchanged, tournamentTeams.added,
+                                 tournamentTeams.updated, tournamentTeams.unchanged, tournamentsCreated);
+  }
+
+  /**
+   * Replace team numbers that aren't in their integer form, such as "12.0", so
+   * that the database can convert them.
+   */
+  @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Need to generate name of teamNumberColumn")
+  private static void normalizeTeamNumbers(final Connection connection,
+                                           final String teamNumberColumn,
+                                           final Map<String, Integer> teamNumbers)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("UPDATE AllTeams SET "
+        + teamNumberColumn
+        + " = ? WHERE "
+        + teamNumberColumn
+        + " = ?")) {
+      boolean haveUpdates = false;
+      for (final Map.Entry<String, Integer> entry : teamNumbers.entrySet()) {
+        final String normalized = String.valueOf(entry.getValue());
+        if (!normalized.equals(entry.getKey())) {
+          prep.setString(1, normalized);
+          prep.setString(2, entry.getKey());
+          prep.addBatch();
+          haveUpdates = true;
+        }
+      }
+      if (haveUpdates) {
+        prep.executeBatch();
+      }
+    }
+  }
+
+  /**
+   * @return how many teams were added, updated and unchanged
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate the list of columns for AllTeams table")
+  private static MergeCounts mergeTeams(final Connection connection,
+                                        final String teamNumberColumn,
+                                        final Map<String, String> teamColumns)
+      throws SQLException {
+    final StringBuilder dbColumns = new StringBuilder();
+    final StringBuilder dataColumns = new StringBuilder();
+    final StringBuilder sourceColumns = new StringBuilder();
+    final StringBuilder updateColumns = new StringBuilder();
+    final StringBuilder changedColumns = new StringBuilder();
+
+    // always have TeamNumber
+    dbColumns.append("TeamNumber");
+    dataColumns.append("CAST("
+        + teamNumberColumn
+        + " AS INTEGER)");
+    sourceColumns.append("source.TeamNumber");
+
+    for (final Map.Entry<String, String> entry : teamColumns.entrySet()) {
+      dbColumns.append(", "
+          + entry.getKey());
+      // handle empty data as empty string instead of null, handled better
+      // elsewhere
+      dataColumns.append(", COALESCE("
+          + entry.getValue()
+          + ", '')");
+      sourceColumns.append(", source."
+          + entry.getKey());
+
+      if (updateColumns.length() > 0) {
+        updateColumns.append(", ");
+        changedColumns.append(" OR ");
+      }
+      updateColumns.append(entry.getKey()
+          + " = source."
+          + entry.getKey());
+      changedColumns.append("Teams."
+          + entry.getKey()
+          + " IS DISTINCT FROM source."
+          + entry.getKey());
+    }
+
+    final String source = "(SELECT "
+        + dataColumns.toString()
+        + " FROM AllTeams) AS source("
+        + dbColumns.toString()
+        + ")";
+
+    final boolean haveUpdateColumns = updateColumns.length() > 0;
+    final MergeCounts counts = countChanges(connection, source, "Teams", "Teams.TeamNumber = source.TeamNumber",
+                                            haveUpdateColumns ? changedColumns.toString() : null);
+
+    // with only the team number there is nothing to update
+    final String whenMatched = haveUpdateColumns ? " WHEN MATCHED THEN UPDATE SET "
+        + updateColumns.toString() : "";
+    final String sql = "MERGE INTO Teams USING "
+        + source
+        + " ON Teams.TeamNumber = source.TeamNumber" //
+        + whenMatched
+        + " WHEN NOT MATCHED THEN INSERT ("
+        + dbColumns.toString()
+        + ") VALUES ("
+        + sourceColumns.toString()
+        + ")";
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Inserting teams: "
+          + sql);
+    }
+
     try (Statement stmt = connection.createStatement()) {
-      final StringBuilder sql = new StringBuilder();
-      sql.append("SELECT ");
-      sql.append(teamNumberColumn);
-      sql.append(", "
-          + tournamentColumn);
-
-      sql.append(", "
-          + eventDivisionColumn);
-      sql.append(", "
-          + judgingStationColumn);
-
-      sql.append(" FROM AllTeams");
-
-      try (ResultSet rs = stmt.executeQuery(sql.toString())) {
-
-        while (rs.next()) {
-          final int teamNumber = rs.getInt(1);
-          final String tournamentName = rs.getString(2);
-          if (null == tournamentName) {
-            LOGGER.debug("Team {} is missing tournament, skipping", teamNumber);
-            continue;
-          }
+      stmt.executeUpdate(sql);
+    } catch (final SQLException sqle) {
+      throw new FLLRuntimeException("Got error inserting teams into Teams table, probably have two teams with the same team number",
+                                    sqle);
+    }
+    return counts;
+  }
 
-          final String eventDivision = rs.getString(3);
-          if (null == eventDivision) {
-            LOGGER.debug("Team {} is missing award group, skipping", teamNumber);
-            continue;
-          }
+  /**
+   * Count the rows in {@code source} that will be added, changed and left
+   * unchanged by merging them into {@code table}.
+   *
+   * @param source the source of the merge, named "source"
+   * @param table the table being merged into
+   * @param match condition for a row of {@code source} to match a row of
+   *          {@code table}
+   * @param changed condition for a matched row to be changed by the merge, null
+   *          if matched rows aren't changed
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate the list of columns for AllTeams table")
+  private static MergeCounts countChanges(final Connection connection,
+                                          final String source,
+                                          final String table,
+                                          final String match,
+                                          final @Nullable String changed)
+      throws SQLException {
+    final String sql = "SELECT COUNT(*)" //
+        + ", COALESCE(SUM(CASE WHEN "
+        + table
+        + ".TeamNumber IS NULL THEN 1 ELSE 0 END), 0)" //
+        + ", COALESCE(SUM(CASE WHEN "
+        + table
+        + ".TeamNumber IS NOT NULL AND ("
+        + (null == changed ? "FALSE" : changed)
+        + ") THEN 1 ELSE 0 END), 0)" //
+        + " FROM "
+        + source
+        + " LEFT JOIN "
+        + table
+        + " ON "
+        + match;
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      if (!rs.next()) {
+        throw new FLLInternalException("No result counting the teams to import");
+      }
+      final int total = rs.getInt(1);
+      final int added = rs.getInt(2);
+      final int updated = rs.getInt(3);
+      return new MergeCounts(added, updated, total
+          - added
+          - updated);
+    }
+  }
 
-          final String judgingStation = rs.getString(4);
-          if (null == judgingStation) {
-            LOGGER.debug("Team {} is missing judging group, skipping", teamNumber);
-            continue;
-          }
+  /**
+   * Number of rows added, updated and unchanged by a merge.
+   */
+  private static final class MergeCounts {
+    static final MergeCounts NONE = new MergeCounts(0, 0, 0);
+
+    MergeCounts(final int added,
+                final int updated,
+                final int unchanged) {
+      this.added = added;
+      this.updated = updated;
+      this.unchanged = unchanged;
+    }
 
-          final Tournament tournament;
-          if (!Tournament.doesTournamentExist(connection, tournamentName)) {
-            Tournament.createTournament(connection, tournamentName, tournamentName, null,
-                                        TournamentLevel.getByName(connection,
-                                                                  TournamentLevel.DEFAULT_TOURNAMENT_LEVEL_NAME));
-            tournament = Tournament.findTournamentByName(connection, tournamentName);
-          } else {
-            tournament = Tournament.findTournamentByName(connection, tournamentName);
-          }
+    private final int added;
+
+    private final int updated;
 
-          Queries.addTeamToTournament(connection, teamNumber, tournament.getTournamentID(), eventDivision,
-                                      judgingStation);
-        } // foreach result
+    private final int unchanged;
+  }
+
+  /**
+   * Create the tournaments referenced in AllTeams that don't exist.
+   *
+   * @return the names of the tournaments that were created
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate the list of columns for AllTeams table")
+  private static List<String> createMissingTournaments(final Connection connection,
+                                                       final String tournamentColumn,
+                                                       final String eventDivisionColumn,
+                                                       final String judgingStationColumn)
+      throws SQLException {
+    final List<String> created = new LinkedList<>();
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT DISTINCT "
+            + tournamentColumn
+            + " FROM AllTeams" //
+            + " WHERE "
+            + tournamentColumn
+            + " IS NOT NULL" //
+            + " AND "
+            + eventDivisionColumn
+            + " IS NOT NULL" //
+            + " AND "
+            + judgingStationColumn
+            + " IS NOT NULL" //
+            + " AND "
+            + tournamentColumn
+            + " NOT IN (SELECT Name FROM Tournaments)" //
+            + " ORDER BY "
+            + tournamentColumn)) {
+      @Nullable
+      TournamentLevel level = null;
+      while (rs.next()) {
+        final String tournamentName = castNonNull(rs.getString(1));
+        if (null == level) {
+          level = TournamentLevel.getByName(connection, TournamentLevel.DEFAULT_TOURNAMENT_LEVEL_NAME);
+        }
+        Tournament.createTournament(connection, tournamentName, tournamentName, null, level);
+        created.add(tournamentName);
       }
-    } // stmt
+    }
+    return created;
+  }
 
+  /**
+   * Add the teams in AllTeams to their tournaments and update the award group
+   * and judging station of teams that are already in the tournament.
+   *
+   * @return how many teams were added to, updated in and unchanged in a
+   *         tournament
+   */
+  @SuppressFBWarnings(value = { "SQL_NONCONSTANT_STRING_PASSED_TO_EXECUTE" }, justification = "Need to generate the list of columns for AllTeams table")
+  private static MergeCounts mergeTournamentTeams(final Connection connection,
+                                                  final String teamNumberColumn,
+                                                  final String tournamentColumn,
+                                                  final String eventDivisionColumn,
+                                                  final String judgingStationColumn)
+      throws SQLException {
+    final String source = "(SELECT" //
+        + " CAST(AllTeams."
+        + teamNumberColumn
+        + " AS INTEGER)" //
+        + ", Tournaments.tournament_id" //
+        + ", AllTeams."
+        + eventDivisionColumn
+        + ", AllTeams."
+        + judgingStationColumn
+        + " FROM AllTeams, Tournaments" //
+        + " WHERE AllTeams."
+        + tournamentColumn
+        + " = Tournaments.Name" //
+        + " AND AllTeams."
+        + eventDivisionColumn
+        + " IS NOT NULL" //
+        + " AND AllTeams."
+        + judgingStationColumn
+        + " IS NOT NULL" //
+        + ") AS source(TeamNumber, Tournament, event_division, judging_station)";
+    final String match = "TournamentTeams.TeamNumber = source.TeamNumber" //
+        + " AND TournamentTeams.Tournament = source.Tournament";
+
+    final MergeCounts counts = countChanges(connection, source, "TournamentTeams", match,
+                                            "TournamentTeams.event_division IS DISTINCT FROM source.event_division" //
+                                                + " OR TournamentTeams.judging_station IS DISTINCT FROM source.judging_station");
+
+    final String sql = "MERGE INTO TournamentTeams USING "
+        + source //
+        + " ON "
+        + match //
+        + " WHEN MATCHED THEN UPDATE SET event_division = source.event_division, judging_station = source.judging_station" //
+        + " WHEN NOT MATCHED THEN INSERT (TeamNumber, Tournament, event_division, judging_station)" //
+        + " VALUES (source.TeamNumber, source.Tournament, source.event_division, source.judging_station)";
+    try (Statement stmt = connection.createStatement()) {
+      stmt.executeUpdate(sql);
+    }
+    return counts;
   }
 
   /**
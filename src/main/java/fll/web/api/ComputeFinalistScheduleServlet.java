@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.api;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fll.Utilities;
+import fll.web.AuthenticationContext;
+import fll.web.SessionAttributes;
+import fll.web.report.finalist.FinalistSchedule;
+import fll.web.report.finalist.FinalistScheduleRequest;
+import fll.web.report.finalist.FinalistScheduler;
+
+/**
+ * Create a {@link FinalistSchedule} from a {@link FinalistScheduleRequest}.
+ * The schedule is returned and not stored, it is stored with
+ * {@link FinalistScheduleServlet} once the judges are happy with it.
+ */
+@WebServlet("/api/ComputeFinalistSchedule")
+public class ComputeFinalistScheduleServlet extends HttpServlet {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  @Override
+  protected final void doPost(final HttpServletRequest request,
+                              final HttpServletResponse response)
+      throws IOException, ServletException {
+    final HttpSession session = request.getSession();
+    final AuthenticationContext auth = SessionAttributes.getAuthentication(session);
+
+    if (!auth.isJudge()) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+
+    final ObjectMapper jsonMapper = Utilities.createJsonMapper();
+
+    final StringWriter debugWriter = new StringWriter();
+    request.getReader().transferTo(debugWriter);
+
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Read data: "
+          + debugWriter.toString());
+    }
+
+    final Reader reader = new StringReader(debugWriter.toString());
+
+    final FinalistScheduleRequest scheduleRequest;
+    try {
+      scheduleRequest = jsonMapper.readValue(reader, FinalistScheduleRequest.class);
+    } catch (final JsonProcessingException e) {
+      LOGGER.warn("Invalid finalist schedule request", e);
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    final FinalistSchedule schedule = new FinalistScheduler(scheduleRequest).schedule();
+
+    response.reset();
+    response.setContentType("application/json");
+    final PrintWriter writer = response.getWriter();
+    jsonMapper.writeValue(writer, schedule);
+  }
+
+}
@@ -27,6 +27,7 @@ import fll.db.Queries;
 import fll.scheduler.TournamentSchedule;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
+import fll.web.ScheduleCache;
 import fll.web.SessionAttributes;
 
 /**
@@ -60,7 +61,7 @@ public class ScheduleServlet extends HttpServlet {
 
       final int currentTournament = Queries.getCurrentTournament(connection);
       if (TournamentSchedule.scheduleExistsInDatabase(connection, currentTournament)) {
-        final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournament);
+        final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournament);
 
         jsonMapper.writeValue(writer, schedule);
       } else {
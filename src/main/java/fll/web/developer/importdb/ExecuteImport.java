@@ -12,10 +12,7 @@ import java.util.Set;
 
 import javax.sql.DataSource;
 
-import fll.Tournament;
-import fll.db.GlobalParameters;
 import fll.db.ImportDB;
-import fll.db.Queries;
 import fll.util.FLLInternalException;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
@@ -23,7 +20,6 @@ import fll.web.BaseFLLServlet;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.web.WebUtils;
-import fll.xml.ChallengeDescription;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -76,16 +72,21 @@ public class ExecuteImport extends BaseFLLServlet {
         message.append("<p class='error'>Error, there are still differences that need to be resolved before the import can be completed.</p>");
         session.setAttribute(SessionAttributes.REDIRECT_URL, "CheckTeamInfo");
       } else {
-        ImportDB.importDatabase(sourceConnection, destConnection, tournament, sessionInfo.isImportPerformance(),
-                                sessionInfo.isImportSubjective(), sessionInfo.isImportFinalist());
-
-        // update score totals
-        final Tournament destTournament = Tournament.findTournamentByName(destConnection, tournament);
-        final int destTournamentID = destTournament.getTournamentID();
-        final ChallengeDescription description = GlobalParameters.getChallengeDescription(destConnection);
-        Queries.updateScoreTotals(description, destConnection, destTournamentID);
+        // score totals are updated as part of the import
+        final ImportDB.ImportStatistics statistics = ImportDB.importDatabase(sourceConnection, destConnection,
+                                                                             tournament,
+                                                                             sessionInfo.isImportPerformance(),
+                                                                             sessionInfo.isImportSubjective(),
+                                                                             sessionInfo.isImportFinalist());
 
         message.append(String.format("<p>Import of tournament %s successful.</p>", tournament));
+        if (sessionInfo.isImportPerformance()) {
+          message.append(String.format("<p>Imported %d performance scores in %.1f seconds (%.1f scores/second).</p>",
+                                       statistics.getNumPerformanceScores(),
+                                       statistics.getPerformanceDuration().toMillis()
+                                           / 1000.0,
+                                       statistics.getPerformanceScoresPerSecond()));
+        }
         session.setAttribute(SessionAttributes.REDIRECT_URL, sessionInfo.getRedirectURL());
 
         session.removeAttribute(ImportDBDump.IMPORT_DB_SESSION_KEY);
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+import fll.web.playoff.BracketUpdate;
+
+/**
+ * An entry in a head to head bracket changed. The update contains the
+ * information as it was in the database when the event was created.
+ */
+public final class BracketChanged extends TournamentEvent {
+
+  private final BracketUpdate update;
+
+  /**
+   * @param tournamentId the tournament
+   * @param update see {@link #getUpdate()}
+   */
+  public BracketChanged(final int tournamentId,
+                        final BracketUpdate update) {
+    super(tournamentId);
+    this.update = update;
+  }
+
+  /**
+   * @return the new information for the bracket entry
+   */
+  public BracketUpdate getUpdate() {
+    return update;
+  }
+
+}
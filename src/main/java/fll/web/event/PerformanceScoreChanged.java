@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+/**
+ * A performance score was inserted, modified or deleted. A single event is
+ * published when many scores are written at once, see
+ * {@link #PerformanceScoreChanged(int)}.
+ */
+public final class PerformanceScoreChanged extends TournamentEvent {
+
+  /**
+   * Value of {@link #getTeamNumber()} and {@link #getRunNumber()} when more
+   * than one score changed.
+   */
+  public static final int MULTIPLE_SCORES = -1;
+
+  private final int teamNumber;
+
+  private final int runNumber;
+
+  /**
+   * @param tournamentId the tournament
+   * @param teamNumber see {@link #getTeamNumber()}
+   * @param runNumber see {@link #getRunNumber()}
+   */
+  public PerformanceScoreChanged(final int tournamentId,
+                                 final int teamNumber,
+                                 final int runNumber) {
+    super(tournamentId);
+    this.teamNumber = teamNumber;
+    this.runNumber = runNumber;
+  }
+
+  /**
+   * More than one performance score in the tournament changed.
+   *
+   * @param tournamentId the tournament
+   */
+  public PerformanceScoreChanged(final int tournamentId) {
+    this(tournamentId, MULTIPLE_SCORES, MULTIPLE_SCORES);
+  }
+
+  /**
+   * @return the team that the score is for, {@link #MULTIPLE_SCORES} if more
+   *         than one score changed
+   */
+  public int getTeamNumber() {
+    return teamNumber;
+  }
+
+  /**
+   * @return the run number of the score, {@link #MULTIPLE_SCORES} if more
+   *         than one score changed
+   */
+  public int getRunNumber() {
+    return runNumber;
+  }
+
+}
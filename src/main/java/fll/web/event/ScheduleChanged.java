@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+/**
+ * The schedule for a tournament was stored.
+ */
+public final class ScheduleChanged extends TournamentEvent {
+
+  /**
+   * @param tournamentId the tournament
+   */
+  public ScheduleChanged(final int tournamentId) {
+    super(tournamentId);
+  }
+
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+/**
+ * Team information was modified. Changes to the team name and organization use
+ * {@link TournamentEvent#ALL_TOURNAMENTS} as they are shared by all
+ * tournaments.
+ */
+public final class TeamsChanged extends TournamentEvent {
+
+  /**
+   * @param tournamentId the tournament or {@link TournamentEvent#ALL_TOURNAMENTS}
+   */
+  public TeamsChanged(final int tournamentId) {
+    super(tournamentId);
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+/**
+ * Base class for events published on {@link TournamentEventBus}.
+ * Events for the same tournament are delivered in the order that they are
+ * published.
+ */
+public abstract class TournamentEvent {
+
+  /**
+   * Tournament identifier for events that apply to all tournaments, such as a
+   * change to a team name.
+   */
+  public static final int ALL_TOURNAMENTS = Integer.MIN_VALUE;
+
+  private final int tournamentId;
+
+  /**
+   * @param tournamentId see {@link #getTournamentId()}
+   */
+  protected TournamentEvent(final int tournamentId) {
+    this.tournamentId = tournamentId;
+  }
+
+  /**
+   * @return the tournament that the event is for, may be
+   *         {@link #ALL_TOURNAMENTS}
+   */
+  public final int getTournamentId() {
+    return tournamentId;
+  }
+
+  /**
+   * @param tournament a tournament identifier
+   * @return true if this event affects the specified tournament
+   */
+  public final boolean appliesTo(final int tournament) {
+    return ALL_TOURNAMENTS == tournamentId
+        || tournament == tournamentId;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + " tournament: "
+        + tournamentId;
+  }
+
+}
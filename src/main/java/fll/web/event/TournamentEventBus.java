@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * In-process publish/subscribe of changes to tournament data. Caches and
+ * displays subscribe to the events that they care about rather than being
+ * called directly from the code that modifies the database.
+ * Events are delivered asynchronously. Events for the same tournament are
+ * delivered one at a time in the order that they were published, events for
+ * different tournaments may be delivered concurrently. Events for
+ * {@link TournamentEvent#ALL_TOURNAMENTS} are delivered after all events
+ * published before them and before all events published after them.
+ * Events should be published after the database changes have been committed,
+ * see {@link fll.web.NotificationQueue} and
+ * {@link #publishAfterCommit(Connection, TournamentEvent)}.
+ */
+public final class TournamentEventBus {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private static final ExecutorService DELIVERY = Executors.newCachedThreadPool(r -> {
+    final Thread thread = new Thread(r, "Tournament events");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final List<Subscription<?>> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+  private static final List<Subscription<?>> SYNCHRONOUS_SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+  private static final Object LANES_LOCK = new Object();
+
+  /**
+   * Tournament id to the delivery of the last event published for that
+   * tournament. New events are chained onto this to keep them in order.
+   * The entry for {@link TournamentEvent#ALL_TOURNAMENTS} is the delivery of
+   * the last event for all tournaments.
+   * Guarded by {@link #LANES_LOCK}.
+   */
+  private static final Map<Integer, CompletableFuture<Void>> LANES = new HashMap<>();
+
+  /**
+   * Events published on connections that are in a transaction, waiting for
+   * the transaction to finish.
+   */
+  private static final Map<Connection, List<TournamentEvent>> PENDING = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private TournamentEventBus() {
+  }
+
+  /**
+   * Subscribe to events.
+   *
+   * @param <T> the type of event
+   * @param type the type of event, subclasses are also delivered
+   * @param subscriber called with each event, called from a background thread
+   */
+  public static <T extends TournamentEvent> void subscribe(final Class<T> type,
+                                                           final Consumer<? super T> subscriber) {
+    SUBSCRIPTIONS.add(new Subscription<>(type, subscriber));
+  }
+
+  /**
+   * Subscribe to events on the thread that publishes them. The subscriber is
+   * called before {@link #publish(TournamentEvent)} returns, so it must be
+   * fast. This is for caches that must not return stale data once a change
+   * has been committed.
+   *
+   * @param <T> the type of event
+   * @param type the type of event, subclasses are also delivered
+   * @param subscriber called with each event
+   */
+  public static <T extends TournamentEvent> void subscribeSynchronous(final Class<T> type,
+                                                                      final Consumer<? super T> subscriber) {
+    SYNCHRONOUS_SUBSCRIPTIONS.add(new Subscription<>(type, subscriber));
+  }
+
+  /**
+   * Remove all subscribers. Used when the web application is shutdown.
+   */
+  public static void unsubscribeAll() {
+    SUBSCRIPTIONS.clear();
+    SYNCHRONOUS_SUBSCRIPTIONS.clear();
+  }
+
+  /**
+   * Publish an event to all subscribers.
+   *
+   * @param event the event to publish
+   */
+  public static void publish(final TournamentEvent event) {
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Publishing "
+          + event);
+    }
+
+    deliver(SYNCHRONOUS_SUBSCRIPTIONS, event);
+
+    synchronized (LANES_LOCK) {
+      if (TournamentEvent.ALL_TOURNAMENTS == event.getTournamentId()) {
+        // wait for all lanes and then make every lane wait for this event
+        final CompletableFuture<Void> previous = CompletableFuture.allOf(LANES.values()
+                                                                              .toArray(new CompletableFuture<?>[0]));
+        final CompletableFuture<Void> delivery = chain(previous, event);
+        LANES.replaceAll((tournament,
+                          lane) -> delivery);
+        LANES.put(TournamentEvent.ALL_TOURNAMENTS, delivery);
+      } else {
+        @Nullable
+        CompletableFuture<Void> previous = LANES.get(event.getTournamentId());
+        if (null == previous) {
+          // first event for this tournament, order after the last event for all
+          // tournaments
+          previous = LANES.get(TournamentEvent.ALL_TOURNAMENTS);
+        }
+        LANES.put(event.getTournamentId(), chain(previous, event));
+      }
+    }
+  }
+
+  private static CompletableFuture<Void> chain(final @Nullable CompletableFuture<Void> previous,
+                                               final TournamentEvent event) {
+    if (null == previous) {
+      return CompletableFuture.runAsync(() -> deliver(SUBSCRIPTIONS, event), DELIVERY);
+    } else {
+      // a failed delivery must not stop the events after it
+      return previous.exceptionally(e -> null).thenRunAsync(() -> deliver(SUBSCRIPTIONS, event), DELIVERY);
+    }
+  }
+
+  /**
+   * Publish an event once the changes on the connection are committed. If the
+   * connection is in auto commit mode the event is published immediately,
+   * otherwise it is held until {@link #transactionCommitted(Connection)} is
+   * called and dropped if {@link #transactionRolledBack(Connection)} is called.
+   * Use this from code that may be called inside a transaction owned by the
+   * caller.
+   *
+   * @param connection the connection that the changes were made on
+   * @param event the event to publish
+   * @throws SQLException if there is an error checking the auto commit state
+   */
+  public static void publishAfterCommit(final Connection connection,
+                                        final TournamentEvent event)
+      throws SQLException {
+    if (connection.getAutoCommit()) {
+      publish(event);
+    } else {
+      PENDING.computeIfAbsent(connection, c -> new LinkedList<>()).add(event);
+    }
+  }
+
+  /**
+   * Publish the events held for a connection. Called by the code that owns a
+   * transaction after it commits.
+   *
+   * @param connection the connection that was committed
+   * @see #publishAfterCommit(Connection, TournamentEvent)
+   */
+  public static void transactionCommitted(final Connection connection) {
+    final @Nullable List<TournamentEvent> events = PENDING.remove(connection);
+    if (null != events) {
+      for (final TournamentEvent event : events) {
+        publish(event);
+      }
+    }
+  }
+
+  /**
+   * Drop the events held for a connection. Called by the code that owns a
+   * transaction after it rolls back.
+   *
+   * @param connection the connection that was rolled back
+   * @see #publishAfterCommit(Connection, TournamentEvent)
+   */
+  public static void transactionRolledBack(final Connection connection) {
+    PENDING.remove(connection);
+  }
+
+  /**
+   * Wait for all events published so far to be delivered. Used by tests.
+   */
+  /* package */ static void awaitDelivery() {
+    final CompletableFuture<?>[] lanes;
+    synchronized (LANES_LOCK) {
+      lanes = LANES.values().toArray(new CompletableFuture<?>[0]);
+    }
+    CompletableFuture.allOf(lanes).exceptionally(e -> null).join();
+  }
+
+  private static void deliver(final List<Subscription<?>> subscriptions,
+                              final TournamentEvent event) {
+    for (final Subscription<?> subscription : subscriptions) {
+      try {
+        subscription.offer(event);
+      } catch (final Throwable e) {
+        // keep going so that one bad subscriber doesn't stop the others or the
+        // later events
+        LOGGER.error("Error delivering "
+            + event, e);
+      }
+    }
+  }
+
+  private static final class Subscription<T extends TournamentEvent> {
+    Subscription(final Class<T> type,
+                 final Consumer<? super T> subscriber) {
+      this.type = type;
+      this.subscriber = subscriber;
+    }
+
+    private final Class<T> type;
+
+    private final Consumer<? super T> subscriber;
+
+    void offer(final TournamentEvent event) {
+      if (type.isInstance(event)) {
+        subscriber.accept(type.cast(event));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,605 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.playoff;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static org.checkerframework.checker.nullness.util.NullnessUtil.castNonNull;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import fll.Team;
+import fll.Tournament;
+import fll.util.DummyTeamScore;
+import fll.util.FLLInternalException;
+import fll.web.event.PerformanceScoreChanged;
+import fll.web.event.TournamentEventBus;
+import fll.xml.AbstractGoal;
+import fll.xml.ChallengeDescription;
+import fll.xml.PerformanceScoreCategory;
+import fll.xml.ScoreType;
+
+/**
+ * Bulk version of
+ * {@link Playoff#finishBracket(Connection, ChallengeDescription, Tournament, String)}.
+ * All scores for the bracket are loaded with a single query, the matches of
+ * each playoff round are evaluated in parallel on the common fork-join pool and
+ * the resulting performance scores and PlayoffData changes are written as
+ * batches inside a single transaction.
+ * The end result is the same as finishing the bracket one round at a time.
+ */
+final class BulkBracketFinisher {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  private final Connection connection;
+
+  private final ChallengeDescription challenge;
+
+  private final Tournament tournament;
+
+  private final String bracketName;
+
+  /**
+   * playoff round -> line number -> team number.
+   */
+  private final SortedMap<Integer, SortedMap<Integer, Integer>> slots = new TreeMap<>();
+
+  /**
+   * playoff round -> performance run number.
+   */
+  private final Map<Integer, Integer> runNumbers = new HashMap<>();
+
+  /**
+   * Scores that exist in the database and the ones that will be added, keyed by
+   * {@link #scoreKey(int, int)}.
+   */
+  private final Map<Long, BracketScore> scores = new HashMap<>();
+
+  private final List<BracketScore> newScores = new LinkedList<>();
+
+  private final List<SlotUpdate> slotUpdates = new LinkedList<>();
+
+  private final Map<Integer, Team> teams = new HashMap<>();
+
+  private final Map<String, Double> simpleGoals = new HashMap<>();
+
+  private final Map<String, String> enumGoals = new HashMap<>();
+
+  private BulkBracketFinisher(final Connection connection,
+                              final ChallengeDescription challenge,
+                              final Tournament tournament,
+                              final String bracketName) {
+    this.connection = connection;
+    this.challenge = challenge;
+    this.tournament = tournament;
+    this.bracketName = bracketName;
+  }
+
+  /**
+   * Finish the specified bracket.
+   *
+   * @param connection the database connection
+   * @param challenge the challenge description
+   * @param tournament the tournament that the bracket is in
+   * @param bracketName the bracket to finish
+   * @return true if the bracket is finished when the method returns, false if a
+   *         tie is found
+   * @throws SQLException on a database error, the database is left unmodified
+   * @see Playoff#finishBracket(Connection, ChallengeDescription, Tournament,
+   *      String)
+   */
+  public static boolean finish(final Connection connection,
+                               final ChallengeDescription challenge,
+                               final Tournament tournament,
+                               final String bracketName)
+      throws SQLException {
+    if (Playoff.bracketHasTie(connection, tournament.getTournamentID(), bracketName)) {
+      return false;
+    }
+    if (!Playoff.isPlayoffBracketUnfinished(connection, tournament.getTournamentID(), bracketName)) {
+      // nothing to do
+      return true;
+    }
+
+    final BulkBracketFinisher finisher = new BulkBracketFinisher(connection, challenge, tournament, bracketName);
+    finisher.loadBracket();
+    finisher.loadScores();
+    finisher.resolveRounds();
+    finisher.store();
+    finisher.notifyDisplays();
+    return true;
+  }
+
+  private static long scoreKey(final int teamNumber,
+                               final int runNumber) {
+    return (((long) teamNumber) << Integer.SIZE)
+        | (runNumber & 0xFFFFFFFFL);
+  }
+
+  private int getSlot(final int round,
+                      final int line) {
+    final @Nullable SortedMap<Integer, Integer> lines = slots.get(round);
+    if (null == lines) {
+      return Team.NULL_TEAM_NUMBER;
+    } else {
+      return lines.getOrDefault(line, Team.NULL_TEAM_NUMBER);
+    }
+  }
+
+  private int getRunNumber(final int round) {
+    final @Nullable Integer runNumber = runNumbers.get(round);
+    if (null == runNumber) {
+      throw new FLLInternalException("Cannot find run number for bracket: "
+          + bracketName
+          + " round: "
+          + round);
+    }
+    return runNumber;
+  }
+
+  private Team getTeam(final int teamNumber) throws SQLException {
+    Team team = teams.get(teamNumber);
+    if (null == team) {
+      team = Team.getTeamFromDatabase(connection, teamNumber);
+      teams.put(teamNumber, team);
+    }
+    return team;
+  }
+
+  private void loadBracket() throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("SELECT PlayoffRound, LineNumber, Team, run_number" //
+        + " FROM PlayoffData" //
+        + " WHERE Tournament = ?" //
+        + " AND event_division = ?")) {
+      prep.setInt(1, tournament.getTournamentID());
+      prep.setString(2, bracketName);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final int round = rs.getInt(1);
+          final int line = rs.getInt(2);
+          int team = rs.getInt(3);
+          if (rs.wasNull()) {
+            team = Team.NULL_TEAM_NUMBER;
+          }
+          final int runNumber = rs.getInt(4);
+
+          slots.computeIfAbsent(round, k -> new TreeMap<>()).put(line, team);
+          runNumbers.put(round, runNumber);
+        }
+      }
+    }
+
+    Playoff.populateInitialScoreMaps(challenge, simpleGoals, enumGoals);
+  }
+
+  /**
+   * Load all performance scores for the teams in the bracket with one query.
+   */
+  private void loadScores() throws SQLException {
+    final PerformanceScoreCategory performance = challenge.getPerformance();
+
+    try (PreparedStatement prep = connection.prepareStatement("SELECT Performance.*" //
+        + " FROM Performance, PlayoffData" //
+        + " WHERE PlayoffData.Tournament = ?" //
+        + " AND PlayoffData.event_division = ?" //
+        + " AND Performance.Tournament = PlayoffData.Tournament" //
+        + " AND Performance.TeamNumber = PlayoffData.Team" //
+        + " AND Performance.RunNumber = PlayoffData.run_number")) {
+      prep.setInt(1, tournament.getTournamentID());
+      prep.setString(2, bracketName);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final int teamNumber = rs.getInt("TeamNumber");
+          final int runNumber = rs.getInt("RunNumber");
+
+          final Map<String, Double> scoreSimpleGoals = new HashMap<>();
+          final Map<String, String> scoreEnumGoals = new HashMap<>();
+          for (final AbstractGoal goal : performance.getAllGoals()) {
+            if (!goal.isComputed()) {
+              final String name = goal.getName();
+              if (goal.isEnumerated()) {
+                final String value = rs.getString(name);
+                if (null != value) {
+                  scoreEnumGoals.put(name, value);
+                }
+              } else {
+                final double value = rs.getDouble(name);
+                if (!rs.wasNull()) {
+                  scoreSimpleGoals.put(name, value);
+                }
+              }
+            }
+          }
+
+          final TeamScore score = new DummyTeamScore(teamNumber, runNumber, scoreSimpleGoals, scoreEnumGoals,
+                                                     rs.getBoolean("NoShow"), rs.getBoolean("Bye"));
+          scores.put(scoreKey(teamNumber, runNumber), new BracketScore(score, rs.getBoolean("Verified")));
+        }
+      }
+    }
+  }
+
+  /**
+   * Walk the rounds from the beginning, filling in dummy scores and winners.
+   * The matches within a round are independent of each other and are evaluated
+   * in parallel.
+   */
+  private void resolveRounds() throws SQLException {
+    final SortedMap<Integer, Integer> firstRound = slots.get(1);
+    if (null == firstRound
+        || firstRound.isEmpty()) {
+      throw new FLLInternalException("Bracket "
+          + bracketName
+          + " has not been initialized");
+    }
+    final int finalRound = (int) Math.round(Math.log(firstRound.size())
+        / Math.log(2));
+    final int semiFinalRound = finalRound
+        - 1;
+    final SortedMap<Integer, Integer> finalRoundLines = slots.get(finalRound);
+    final boolean thirdPlace = null != finalRoundLines
+        && finalRoundLines.size() == 4;
+
+    final PerformanceScoreCategory performance = challenge.getPerformance();
+
+    for (final Map.Entry<Integer, SortedMap<Integer, Integer>> roundEntry : slots.entrySet()) {
+      final int round = roundEntry.getKey();
+      if (round < 2) {
+        continue;
+      }
+
+      final List<Match> matches = new LinkedList<>();
+      for (final Map.Entry<Integer, Integer> lineEntry : roundEntry.getValue().entrySet()) {
+        final int line = lineEntry.getKey();
+        if (Team.NULL_TEAM_NUMBER != lineEntry.getValue()) {
+          continue;
+        }
+        if (finalRound == round
+            && line > 2) {
+          // 3rd place bracket computation, filled in by the semi-final losers
+          continue;
+        }
+
+        LOGGER.trace("Computing winner for bracket: "
+            + bracketName
+            + " round: "
+            + round
+            + " line: "
+            + line);
+
+        final @Nullable Match match = createMatch(round, line);
+        if (null != match) {
+          matches.add(match);
+        }
+      }
+
+      // the expensive part is computing the scores and tiebreakers
+      matches.parallelStream().forEach(m -> m.pickWinner(performance, challenge));
+
+      for (final Match match : matches) {
+        final @Nullable Team winner = match.winner;
+        if (null == winner) {
+          continue;
+        }
+
+        setSlot(round, match.line, winner);
+
+        if (round
+            - 1 == semiFinalRound
+            && thirdPlace) {
+          final Team loser = winner.equals(match.teamA) ? match.teamB : match.teamA;
+          setSlot(round, Playoff.computeThirdPlaceDbLine(match.teamAdbLine), loser);
+        }
+      }
+    }
+  }
+
+  private void setSlot(final int round,
+                       final int line,
+                       final Team team) {
+    final SortedMap<Integer, Integer> lines = castNonNull(slots.get(round));
+    lines.put(line, team.getTeamNumber());
+    slotUpdates.add(new SlotUpdate(team, getRunNumber(round), line));
+  }
+
+  /**
+   * Find the teams competing for the specified slot and add dummy scores for
+   * those that don't have a score yet.
+   *
+   * @return the match or null if there is nothing to compute
+   */
+  private @Nullable Match createMatch(final int round,
+                                      final int line)
+      throws SQLException {
+    final int competeRound = round
+        - 1;
+    final int runNumber = getRunNumber(competeRound);
+
+    final int teamBdbLine = line
+        * 2;
+    final int teamAdbLine = teamBdbLine
+        - 1;
+
+    final int teamAteamNumber = getSlot(competeRound, teamAdbLine);
+    if (Team.NULL_TEAM_NUMBER == teamAteamNumber) {
+      throw new FLLInternalException("Cannot find team for bracket: "
+          + bracketName
+          + " round: "
+          + competeRound
+          + " line: "
+          + teamAdbLine);
+    }
+    final int teamBteamNumber = getSlot(competeRound, teamBdbLine);
+    if (Team.NULL_TEAM_NUMBER == teamBteamNumber) {
+      throw new FLLInternalException("Cannot find team for bracket: "
+          + bracketName
+          + " round: "
+          + competeRound
+          + " line: "
+          + teamBdbLine);
+    }
+
+    LOGGER.trace("Finishing performance run: "
+        + runNumber
+        + " for teams "
+        + teamAteamNumber
+        + ", "
+        + teamBteamNumber);
+
+    BracketScore teamAscore = scores.get(scoreKey(teamAteamNumber, runNumber));
+    BracketScore teamBscore = scores.get(scoreKey(teamBteamNumber, runNumber));
+    if (null != teamAscore
+        && null != teamBscore) {
+      LOGGER.warn("Trying to finish bracket "
+          + bracketName
+          + " round "
+          + competeRound
+          + " found that it's already finished, skipping");
+      return null;
+    } else if (null != teamAscore) {
+      teamBscore = addDummyScore(teamBteamNumber, runNumber, true);
+    } else if (null != teamBscore) {
+      teamAscore = addDummyScore(teamAteamNumber, runNumber, true);
+    } else {
+      // initial value score
+      teamAscore = addDummyScore(teamAteamNumber, runNumber, false);
+      // no show
+      teamBscore = addDummyScore(teamBteamNumber, runNumber, true);
+    }
+
+    return new Match(line, teamAdbLine, getTeam(teamAteamNumber), teamAscore, getTeam(teamBteamNumber), teamBscore);
+  }
+
+  private BracketScore addDummyScore(final int teamNumber,
+                                     final int runNumber,
+                                     final boolean noShow) {
+    final TeamScore score = new DummyTeamScore(teamNumber, runNumber, simpleGoals, enumGoals, noShow, false);
+    final BracketScore bracketScore = new BracketScore(score, true);
+    scores.put(scoreKey(teamNumber, runNumber), bracketScore);
+    newScores.add(bracketScore);
+    return bracketScore;
+  }
+
+  /**
+   * Write all changes in one transaction.
+   */
+  @SuppressFBWarnings(value = { "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING" }, justification = "Goals determine columns")
+  private void store() throws SQLException {
+    final PerformanceScoreCategory performance = challenge.getPerformance();
+
+    final List<AbstractGoal> goals = new LinkedList<>();
+    final StringBuilder columns = new StringBuilder();
+    final StringBuilder values = new StringBuilder();
+    columns.append("TeamNumber, Tournament, ComputedTotal, RunNumber, NoShow, Verified");
+    values.append("?, ?, ?, ?, ?, ?");
+    for (final AbstractGoal goal : performance.getAllGoals()) {
+      if (!goal.isComputed()) {
+        goals.add(goal);
+        columns.append(", "
+            + goal.getName());
+        values.append(", ?");
+      }
+    }
+
+    final boolean oldAutoCommit = connection.getAutoCommit();
+    try {
+      connection.setAutoCommit(false);
+
+      try (PreparedStatement insertPrep = connection.prepareStatement("INSERT INTO Performance ("
+          + columns.toString()
+          + ") VALUES ("
+          + values.toString()
+          + ")")) {
+        insertPrep.setInt(2, tournament.getTournamentID());
+        for (final BracketScore bracketScore : newScores) {
+          final TeamScore score = bracketScore.score;
+          insertPrep.setInt(1, score.getTeamNumber());
+          if (score.isNoShow()) {
+            insertPrep.setNull(3, Types.DOUBLE);
+          } else {
+            insertPrep.setDouble(3, performance.evaluate(score));
+          }
+          insertPrep.setInt(4, score.getRunNumber());
+          insertPrep.setBoolean(5, score.isNoShow());
+          insertPrep.setBoolean(6, bracketScore.verified);
+
+          int paramIndex = 7;
+          for (final AbstractGoal goal : goals) {
+            if (goal.isEnumerated()) {
+              insertPrep.setString(paramIndex, score.getEnumRawScore(goal.getName()));
+            } else {
+              insertPrep.setDouble(paramIndex, score.getRawScore(goal.getName()));
+            }
+            ++paramIndex;
+          }
+          insertPrep.addBatch();
+        }
+        insertPrep.executeBatch();
+      }
+
+      try (PreparedStatement updatePrep = connection.prepareStatement("UPDATE PlayoffData" //
+          + " SET Team = ?" //
+          + ", Printed = ?" //
+          + " WHERE event_division = ?" //
+          + " AND Tournament = ?" //
+          + " AND run_number = ?" //
+          + " AND LineNumber = ?")) {
+        updatePrep.setBoolean(2, false);
+        updatePrep.setString(3, bracketName);
+        updatePrep.setInt(4, tournament.getTournamentID());
+        for (final SlotUpdate update : slotUpdates) {
+          updatePrep.setInt(1, update.team.getTeamNumber());
+          updatePrep.setInt(5, update.runNumber);
+          updatePrep.setInt(6, update.dbLine);
+          updatePrep.addBatch();
+        }
+        updatePrep.executeBatch();
+      }
+
+      // mark bracket as automatically finished
+      try (
+          PreparedStatement prep = connection.prepareStatement("INSERT INTO automatic_finished_playoff (tournament_id, bracket_name) VALUES (?, ?)")) {
+        prep.setInt(1, tournament.getTournamentID());
+        prep.setString(2, bracketName);
+        prep.executeUpdate();
+      }
+
+      connection.commit();
+    } catch (final SQLException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(oldAutoCommit);
+    }
+  }
+
+  /**
+   * Publish the new scores and bracket positions once everything
+   * is committed. The scores are published as a single
+   * {@link PerformanceScoreChanged} so that the displays refresh once for the
+   * bracket rather than once per score.
+   */
+  private void notifyDisplays() throws SQLException {
+    final ScoreType performanceScoreType = challenge.getPerformance().getScoreType();
+
+    for (final BracketScore bracketScore : newScores) {
+      final TeamScore score = bracketScore.score;
+      H2HUpdateWebSocket.updateBracket(connection, performanceScoreType, bracketName,
+                                       getTeam(score.getTeamNumber()), score.getRunNumber());
+    }
+    if (!newScores.isEmpty()) {
+      TournamentEventBus.publish(new PerformanceScoreChanged(tournament.getTournamentID()));
+    }
+
+    for (final SlotUpdate update : slotUpdates) {
+      H2HUpdateWebSocket.updateBracket(connection, performanceScoreType, bracketName, update.team, update.runNumber,
+                                       update.dbLine);
+    }
+
+  }
+
+  /**
+   * A score in the bracket and whether or not it's verified.
+   */
+  private static final class BracketScore {
+    BracketScore(final TeamScore score,
+                 final boolean verified) {
+      this.score = score;
+      this.verified = verified;
+    }
+
+    private final TeamScore score;
+
+    private final boolean verified;
+  }
+
+  /**
+   * A change to a row of PlayoffData.
+   */
+  private static final class SlotUpdate {
+    SlotUpdate(final Team team,
+               final int runNumber,
+               final int dbLine) {
+      this.team = team;
+      this.runNumber = runNumber;
+      this.dbLine = dbLine;
+    }
+
+    private final Team team;
+
+    private final int runNumber;
+
+    private final int dbLine;
+  }
+
+  /**
+   * Two teams competing for a line in the next round.
+   */
+  private static final class Match {
+    Match(final int line,
+          final int teamAdbLine,
+          final Team teamA,
+          final BracketScore teamAscore,
+          final Team teamB,
+          final BracketScore teamBscore) {
+      this.line = line;
+      this.teamAdbLine = teamAdbLine;
+      this.teamA = teamA;
+      this.teamAscore = teamAscore;
+      this.teamB = teamB;
+      this.teamBscore = teamBscore;
+    }
+
+    /**
+     * The line in the next round that the winner goes to.
+     */
+    private final int line;
+
+    private final int teamAdbLine;
+
+    private final Team teamA;
+
+    private final BracketScore teamAscore;
+
+    private final Team teamB;
+
+    private final BracketScore teamBscore;
+
+    /**
+     * Set by {@link #pickWinner(PerformanceScoreCategory, ChallengeDescription)},
+     * null if there is no winner yet.
+     */
+    private @Nullable Team winner = null;
+
+    /**
+     * A winner is only recorded when both scores are verified.
+     */
+    void pickWinner(final PerformanceScoreCategory performance,
+                    final ChallengeDescription challenge) {
+      if (teamAscore.verified
+          && teamBscore.verified) {
+        winner = Playoff.pickWinner(performance, performance.getTiebreaker(), challenge.getWinner(), teamA,
+                                    teamAscore.score, teamB, teamBscore.score);
+      } else {
+        winner = null;
+      }
+    }
+  }
+
+}
@@ -9,7 +9,8 @@ package fll.web.playoff;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.servlet.ServletContext;
@@ -32,7 +33,7 @@ import fll.web.WebUtils;
 import fll.xml.ChallengeDescription;
 
 /**
- * Finish a playoff bracket.
+ * Finish one or more playoff brackets.
  */
 @WebServlet("/playoff/FinishBracket")
 public class FinishBracket extends BaseFLLServlet {
@@ -56,9 +57,11 @@ public class FinishBracket extends BaseFLLServlet {
       final int tournamentID = Queries.getCurrentTournament(connection);
       final Tournament tournament = Tournament.findTournamentByID(connection, tournamentID);
 
-      final String bracketName = request.getParameter("bracket");
-      if (null == bracketName
-          || "".equals(bracketName)) {
+      final String[] bracketNames = request.getParameterValues("bracket");
+      if (null == bracketNames
+          || 0 == bracketNames.length
+          || (1 == bracketNames.length
+              && "".equals(bracketNames[0]))) {
         SessionAttributes.appendToMessage(session, "<p class='error'>No playoff bracket specified to finish</p>");
         WebUtils.sendRedirect(application, response, "/playoff/index.jsp");
         return;
@@ -66,25 +69,27 @@ public class FinishBracket extends BaseFLLServlet {
 
       final ChallengeDescription challenge = ApplicationAttributes.getChallengeDescription(application);
 
-      final boolean result = Playoff.finishBracket(connection, challenge, tournament, bracketName);
+      final List<String> tied = Playoff.finishBrackets(connection, challenge, tournament, Arrays.asList(bracketNames));
 
-      if (!result) {
-        LOGGER.warn("Could not finish bracket "
-            + bracketName
-            + ", must have been a tie");
-        SessionAttributes.appendToMessage(session, "<p id='error'>Error finishing playoff bracket "
-            + bracketName
-            + ". Perhaps it ends in a tie?</p>");
-      } else {
-        LOGGER.info("Finished playoff bracket "
-            + bracketName);
-        SessionAttributes.appendToMessage(session, "<p id='success'>Finished playoff bracket "
-            + bracketName
-            + ".</p>");
+      for (final String bracketName : bracketNames) {
+        if (tied.contains(bracketName)) {
+          LOGGER.warn("Could not finish bracket "
+              + bracketName
+              + ", must have been a tie");
+          SessionAttributes.appendToMessage(session, "<p id='error'>Error finishing playoff bracket "
+              + bracketName
+              + ". Perhaps it ends in a tie?</p>");
+        } else {
+          LOGGER.info("Finished playoff bracket "
+              + bracketName);
+          SessionAttributes.appendToMessage(session, "<p id='success'>Finished playoff bracket "
+              + bracketName
+              + ".</p>");
+        }
       }
 
       WebUtils.sendRedirect(application, response, "/playoff/index.jsp");
-    } catch (SQLException | ParseException e) {
+    } catch (SQLException e) {
       LOGGER.error(e.getMessage(), e);
       throw new FLLRuntimeException("Database error finishing bracket", e);
     }
@@ -43,6 +43,9 @@ import fll.util.FLLRuntimeException;
 import fll.web.ApplicationAttributes;
 import fll.web.DisplayInfo;
 import fll.web.GetHttpSessionConfigurator;
+import fll.web.NotificationQueue;
+import fll.web.event.BracketChanged;
+import fll.web.event.TournamentEventBus;
 import fll.xml.ScoreType;
 
 /**
@@ -234,35 +237,18 @@ public class H2HUpdateWebSocket {
   }
 
   /**
-   * Update the head to head display.
+   * Send a bracket change to the head to head displays showing the bracket.
+   * This is subscribed to {@link BracketChanged} events.
    * 
-   * @param bracketName the bracket being updated
-   * @param dbLine the line in the database
-   * @param playoffRound the playoff round
-   * @param maxPlayoffRound the last playoff round for the bracket
-   * @param teamNumber the team that is at the specified row and playoff round,
-   *          may be null
-   * @param teamName team name, may be null
-   * @param score the score for the team, may be null
-   * @param performanceScoreType used to format the score
-   * @param table the table for the team, may be null
+   * @param event the change to send
    */
-  private static void updateBracket(final String bracketName,
-                                    final int dbLine,
-                                    final int playoffRound,
-                                    final int maxPlayoffRound,
-                                    final @Nullable Integer teamNumber,
-                                    final @Nullable String teamName,
-                                    final @Nullable Double score,
-                                    final ScoreType performanceScoreType,
-                                    final boolean noShow,
-                                    final boolean verified,
-                                    final @Nullable String table) {
+  public static void bracketChanged(final BracketChanged event) {
+    final BracketUpdate update = event.getUpdate();
+    final String bracketName = update.bracketName;
 
     final BracketMessage message = new BracketMessage();
     message.isBracketUpdate = true;
-    message.bracketUpdate = new BracketUpdate(bracketName, dbLine, playoffRound, maxPlayoffRound, teamNumber, teamName,
-                                              score, performanceScoreType, noShow, verified, table);
+    message.bracketUpdate = update;
 
     synchronized (SESSIONS_LOCK) {
       if (!SESSIONS.containsKey(bracketName)) {
@@ -360,7 +346,8 @@ public class H2HUpdateWebSocket {
 
   /**
    * Update the display for the information in this bracket. This function queries
-   * the database for the the information to display.
+   * the database for the the information to display and publishes a
+   * {@link BracketChanged} event.
    * 
    * @param connection the database connection
    * @param performanceScoreType the type of scores for performance (used for
@@ -379,8 +366,53 @@ public class H2HUpdateWebSocket {
                                    final int dbLine)
       throws SQLException {
     final int tournamentId = Queries.getCurrentTournament(connection);
+    TournamentEventBus.publish(createBracketChanged(connection, tournamentId, performanceScoreType, headToHeadBracket,
+                                                    team, performanceRunNumber, dbLine));
+  }
+
+  /**
+   * Read the information to display for this bracket entry and add a
+   * {@link BracketChanged} event to <code>notifications</code>. The update is
+   * sent when the queue is published.
+   * 
+   * @param notifications where to add the update
+   * @param connection the database connection
+   * @param tournamentId the tournament that the bracket is in
+   * @param performanceScoreType the type of scores for performance (used for
+   *          display)
+   * @param headToHeadBracket the bracket name
+   * @param team the team
+   * @param performanceRunNumber the run number
+   * @param dbLine the line in the playoff table to find the bracket entry at
+   * @throws SQLException on a database error
+   */
+  public static void queueBracketUpdate(final NotificationQueue notifications,
+                                        final Connection connection,
+                                        final int tournamentId,
+                                        final ScoreType performanceScoreType,
+                                        final String headToHeadBracket,
+                                        final Team team,
+                                        final int performanceRunNumber,
+                                        final int dbLine)
+      throws SQLException {
+    notifications.add(createBracketChanged(connection, tournamentId, performanceScoreType, headToHeadBracket, team,
+                                           performanceRunNumber, dbLine));
+  }
 
+  /**
+   * Read the data to display from the database now so that the event can be
+   * delivered after the connection is closed.
+   */
+  private static BracketChanged createBracketChanged(final Connection connection,
+                                                     final int tournamentId,
+                                                     final ScoreType performanceScoreType,
+                                                     final String headToHeadBracket,
+                                                     final Team team,
+                                                     final int performanceRunNumber,
+                                                     final int dbLine)
+      throws SQLException {
     final int teamNumber = team.getTeamNumber();
+    final String teamName = team.getTeamName();
     final int playoffRound = Playoff.getPlayoffRound(connection, tournamentId, headToHeadBracket, performanceRunNumber);
     final int maxPlayoffRound = Playoff.getMaxPlayoffRound(connection, tournamentId, headToHeadBracket);
 
@@ -390,8 +422,9 @@ public class H2HUpdateWebSocket {
 
     final String table = Queries.getAssignedTable(connection, tournamentId, headToHeadBracket, playoffRound, dbLine);
 
-    updateBracket(headToHeadBracket, dbLine, playoffRound, maxPlayoffRound, teamNumber, team.getTeamName(), score,
-                  performanceScoreType, noShow, verified, table);
+    final BracketUpdate update = new BracketUpdate(headToHeadBracket, dbLine, playoffRound, maxPlayoffRound, teamNumber,
+                                                   teamName, score, performanceScoreType, noShow, verified, table);
+    return new BracketChanged(tournamentId, update);
   }
 
   // CHECKSTYLE:OFF - data class for websocket
@@ -10,6 +10,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.ParseException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -218,13 +219,13 @@ public final class Playoff {
    *
    * @return the winner, null on a tie or a missing score
    */
-  private static @Nullable Team pickWinner(final PerformanceScoreCategory perf,
-                                           final List<TiebreakerTest> tiebreakerElement,
-                                           final WinnerType winnerCriteria,
-                                           final Team teamA,
-                                           final TeamScore teamAScore,
-                                           final Team teamB,
-                                           final TeamScore teamBScore) {
+  /* package */ static @Nullable Team pickWinner(final PerformanceScoreCategory perf,
+                                                 final List<TiebreakerTest> tiebreakerElement,
+                                                 final WinnerType winnerCriteria,
+                                                 final Team teamA,
+                                                 final TeamScore teamAScore,
+                                                 final Team teamB,
+                                                 final TeamScore teamBScore) {
 
     // teamA can actually be a bye here in the degenerate case of a 3-team
     // tournament with 3rd/4th place brackets enabled...
@@ -1224,9 +1225,9 @@ public final class Playoff {
     } // foreach goal
   }
 
-  private static boolean bracketHasTie(final Connection connection,
-                                       final int tournamentId,
-                                       final String bracketName)
+  /* package */ static boolean bracketHasTie(final Connection connection,
+                                             final int tournamentId,
+                                             final String bracketName)
       throws SQLException {
     try (PreparedStatement prep = connection.prepareStatement("SELECT COUNT(*) FROM PlayoffData " //
         + " WHERE event_division = ?" //
@@ -1320,6 +1321,38 @@ public final class Playoff {
     return true;
   }
 
+  /**
+   * Finish multiple brackets using the bulk resolution mode. Each bracket is
+   * loaded with a single query for its scores, the matches in each round are
+   * evaluated in parallel and the changes are written in one transaction per
+   * bracket. The result is the same as calling
+   * {@link #finishBracket(Connection, ChallengeDescription, Tournament, String)}
+   * for each bracket.
+   *
+   * @param connection the database connection
+   * @param challenge the challenge description, used to get the goal names and
+   *          their initial values.
+   * @param tournament the tournament that the brackets are in
+   * @param bracketNames the names of the head to head brackets to finish
+   * @return the brackets that could not be finished because of a tie, empty if
+   *         all brackets are finished
+   * @throws SQLException if there is a problem talking to the database, brackets
+   *           finished before the error stay finished
+   */
+  public static List<String> finishBrackets(final Connection connection,
+                                            final ChallengeDescription challenge,
+                                            final Tournament tournament,
+                                            final Collection<String> bracketNames)
+      throws SQLException {
+    final List<String> tied = new LinkedList<>();
+    for (final String bracketName : bracketNames) {
+      if (!BulkBracketFinisher.finish(connection, challenge, tournament, bracketName)) {
+        tied.add(bracketName);
+      }
+    }
+    return tied;
+  }
+
   private static void finishRound(final Connection connection,
                                   final ChallengeDescription description,
                                   final Tournament tournament,
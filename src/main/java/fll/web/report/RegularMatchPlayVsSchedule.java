@@ -32,6 +32,7 @@ import fll.scheduler.TeamScheduleInfo;
 import fll.scheduler.TournamentSchedule;
 import fll.util.FLLInternalException;
 import fll.web.ApplicationAttributes;
+import fll.web.ScheduleCache;
 import fll.xml.ChallengeDescription;
 import fll.xml.ScoreType;
 import jakarta.servlet.ServletContext;
@@ -67,7 +68,7 @@ public final class RegularMatchPlayVsSchedule {
 
       // use schedule to do initial populate
       if (TournamentSchedule.scheduleExistsInDatabase(connection, currentTournament.getTournamentID())) {
-        final TournamentSchedule schedule = new TournamentSchedule(connection, currentTournament.getTournamentID());
+        final TournamentSchedule schedule = ScheduleCache.getSchedule(connection, currentTournament.getTournamentID());
         for (final TeamScheduleInfo tsi : schedule.getSchedule()) {
           final TournamentTeam team = TournamentTeam.getTournamentTeamFromDatabase(connection, currentTournament,
                                                                                    tsi.getTeamNumber());
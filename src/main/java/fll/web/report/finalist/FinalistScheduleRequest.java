@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.report.finalist;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import fll.db.PlayoffSchedule;
+
+/**
+ * Everything needed by {@link FinalistScheduler} to create the schedule for
+ * an award group. This is sent by the finalist scheduling pages, which keep
+ * the finalists and playoff times in the browser until the schedule is
+ * uploaded.
+ * Property names need to match the javascript/JSON.
+ */
+public final class FinalistScheduleRequest implements Serializable {
+
+  /**
+   * @param parameters {@link #getParameters()}
+   * @param categories {@link #getCategories()}
+   * @param finalists {@link #getFinalists()}
+   * @param playoffSchedules {@link #getPlayoffSchedules()}
+   * @param playoffBrackets {@link #getPlayoffBrackets()}
+   * @throws IllegalArgumentException if the interval between slots isn't
+   *           positive, Jackson reports this as an invalid request
+   */
+  public FinalistScheduleRequest(@JsonProperty("parameters") final FinalistScheduleParameters parameters,
+                                 @JsonProperty("categories") final Collection<FinalistCategory> categories,
+                                 @JsonProperty("finalists") final Map<String, ? extends Collection<Integer>> finalists,
+                                 @JsonProperty("playoffSchedules") final Map<String, PlayoffSchedule> playoffSchedules,
+                                 @JsonProperty("playoffBrackets") final Map<Integer, ? extends Collection<String>> playoffBrackets) {
+    if (parameters.getIntervalMinutes() <= 0) {
+      throw new IllegalArgumentException("Interval between finalist slots must be positive: "
+          + parameters.getIntervalMinutes());
+    }
+    this.parameters = parameters;
+    this.categories = Collections.unmodifiableCollection(new LinkedList<>(categories));
+
+    final Map<String, Collection<Integer>> finalistsCopy = new HashMap<>();
+    finalists.forEach((category,
+                       teams) -> finalistsCopy.put(category,
+                                                   Collections.unmodifiableCollection(new LinkedList<>(teams))));
+    this.finalists = Collections.unmodifiableMap(finalistsCopy);
+
+    this.playoffSchedules = Collections.unmodifiableMap(new HashMap<>(playoffSchedules));
+
+    final Map<Integer, Collection<String>> playoffBracketsCopy = new HashMap<>();
+    playoffBrackets.forEach((team,
+                             brackets) -> playoffBracketsCopy.put(team,
+                                                                  Collections.unmodifiableCollection(new LinkedList<>(brackets))));
+    this.playoffBrackets = Collections.unmodifiableMap(playoffBracketsCopy);
+  }
+
+  private final FinalistScheduleParameters parameters;
+
+  /**
+   * @return start time and slot duration for the schedule
+   */
+  public FinalistScheduleParameters getParameters() {
+    return parameters;
+  }
+
+  private final Collection<FinalistCategory> categories;
+
+  /**
+   * @return the categories to schedule in the order that they are displayed
+   */
+  public Collection<FinalistCategory> getCategories() {
+    return categories;
+  }
+
+  private final Map<String, Collection<Integer>> finalists;
+
+  /**
+   * Categories that are not in {@link #getCategories()} are ignored.
+   *
+   * @return category name to the team numbers of the finalists in the category
+   */
+  public Map<String, Collection<Integer>> getFinalists() {
+    return finalists;
+  }
+
+  private final Map<String, PlayoffSchedule> playoffSchedules;
+
+  /**
+   * @return playoff bracket name to the time that the bracket is run
+   */
+  public Map<String, PlayoffSchedule> getPlayoffSchedules() {
+    return playoffSchedules;
+  }
+
+  private final Map<Integer, Collection<String>> playoffBrackets;
+
+  /**
+   * @return team number to the names of the playoff brackets that the team is
+   *         competing in
+   */
+  public Map<Integer, Collection<String>> getPlayoffBrackets() {
+    return playoffBrackets;
+  }
+
+}
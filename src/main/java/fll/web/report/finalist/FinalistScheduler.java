@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.report.finalist;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import fll.db.PlayoffSchedule;
+import fll.util.FLLInternalException;
+import fll.util.FLLRuntimeException;
+
+/**
+ * Creates the finalist schedule for an award group.
+ * Each team is put in the first time slot where the category is free, the
+ * team isn't being judged in another category and the team isn't in a
+ * playoff bracket that is running. Slots are added to the end of the schedule
+ * as needed. Teams in the most categories are scheduled first.
+ * The result depends on the order that the teams and categories are
+ * considered in, so several orders are tried in parallel and the shortest
+ * schedule is kept. The first order is the one the schedule was created with
+ * in the browser, the other orders are created from a seed so the result is
+ * the same each time.
+ */
+public final class FinalistScheduler {
+
+  private static final org.apache.logging.log4j.Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
+
+  /**
+   * Number of orders tried by {@link #schedule()}.
+   */
+  public static final int NUM_ATTEMPTS = 32;
+
+  private final FinalistScheduleRequest request;
+
+  /**
+   * team number -&gt; categories the team is a finalist in, in the order of
+   * {@link FinalistScheduleRequest#getCategories()}
+   */
+  private final Map<Integer, List<String>> teamCategories = new HashMap<>();
+
+  /**
+   * @param request what to schedule
+   */
+  public FinalistScheduler(final FinalistScheduleRequest request) {
+    this.request = request;
+
+    for (final FinalistCategory category : request.getCategories()) {
+      final @Nullable Collection<Integer> teams = request.getFinalists().get(category.getCategoryName());
+      if (null != teams) {
+        for (final Integer team : teams) {
+          final List<String> categories = teamCategories.computeIfAbsent(team, k -> new ArrayList<>());
+          if (!categories.contains(category.getCategoryName())) {
+            categories.add(category.getCategoryName());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Create the schedule using a thread per processor.
+   *
+   * @return the schedule
+   * @see #schedule(int)
+   */
+  public FinalistSchedule schedule() {
+    return schedule(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Try {@link #NUM_ATTEMPTS} orders and keep the schedule with the fewest
+   * slots. When orders tie the first one is kept, so the result doesn't depend
+   * on the number of threads.
+   *
+   * @param numThreads the number of orders to try at the same time
+   * @return the schedule
+   * @throws IllegalArgumentException if {@code numThreads} is less than 1
+   */
+  public FinalistSchedule schedule(final int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be at least 1: "
+          + numThreads);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, NUM_ATTEMPTS), r -> {
+      final Thread thread = new Thread(r, "Finalist Scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      final List<Future<List<FinalistDBRow>>> results = new ArrayList<>();
+      for (int seed = 0; seed < NUM_ATTEMPTS; ++seed) {
+        final int attemptSeed = seed;
+        results.add(executor.submit(() -> createSchedule(attemptSeed)));
+      }
+
+      List<FinalistDBRow> best = Collections.emptyList();
+      int bestSeed = -1;
+      for (int seed = 0; seed < results.size(); ++seed) {
+        final List<FinalistDBRow> rows = results.get(seed).get();
+        if (bestSeed < 0
+            || rows.size() < best.size()) {
+          best = rows;
+          bestSeed = seed;
+        }
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Best finalist schedule has "
+            + best.size()
+            + " slots and was found with seed "
+            + bestSeed);
+      }
+
+      return new FinalistSchedule(request.getCategories(), best);
+    } catch (final InterruptedException e) {
+      throw new FLLRuntimeException("Interrupted waiting for the finalist schedule", e);
+    } catch (final ExecutionException e) {
+      throw new FLLInternalException("Error creating finalist schedule", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Create a schedule with a single order.
+   *
+   * @param seed 0 for the teams in the most categories first and then by team
+   *          number, otherwise the teams with the same number of categories and
+   *          the categories of each team are shuffled
+   * @return the rows of the schedule sorted by time
+   * @throws FLLRuntimeException if a team can't be scheduled within a day of
+   *           the start time
+   */
+  /* package */ List<FinalistDBRow> createSchedule(final int seed) {
+    final Random random = new Random(seed);
+
+    final List<Integer> teams = new ArrayList<>(teamCategories.keySet());
+    Collections.sort(teams);
+    if (0 != seed) {
+      Collections.shuffle(teams, random);
+    }
+    // stable sort, so teams with the same number of categories stay in the
+    // order from above
+    teams.sort(Comparator.comparingInt((final Integer team) -> getCategories(team).size()).reversed());
+
+    final LocalTime startTime = request.getParameters().getStartTime();
+    final Duration slotDuration = Duration.ofMinutes(request.getParameters().getIntervalMinutes());
+    // stop before the slots wrap past midnight back to the start time
+    final long maxSlots = Duration.ofDays(1).dividedBy(slotDuration);
+
+    final List<Slot> slots = new ArrayList<>();
+    LocalTime nextTime = startTime;
+    for (final Integer team : teams) {
+      final List<String> categories = new ArrayList<>(getCategories(team));
+      if (0 != seed) {
+        Collections.shuffle(categories, random);
+      }
+
+      for (final String category : categories) {
+        boolean scheduled = false;
+        for (final Slot slot : slots) {
+          if (slot.isAvailable(category, team)
+              && !hasPlayoffConflict(team, slot)) {
+            slot.add(category, team);
+            scheduled = true;
+            break;
+          }
+        }
+
+        while (!scheduled) {
+          if (slots.size() >= maxSlots) {
+            throw new FLLRuntimeException("Unable to schedule team "
+                + team
+                + " for "
+                + category
+                + " within a day of "
+                + startTime);
+          }
+
+          final Slot slot = new Slot(nextTime, nextTime.plus(slotDuration));
+          slots.add(slot);
+          nextTime = slot.getEndTime();
+
+          if (!hasPlayoffConflict(team, slot)) {
+            slot.add(category, team);
+            scheduled = true;
+          }
+        }
+      }
+    }
+
+    final List<FinalistDBRow> rows = new ArrayList<>();
+    for (final Slot slot : slots) {
+      rows.add(new FinalistDBRow(slot.getTime(), slot.getEndTime(), slot.getCategories()));
+    }
+    return rows;
+  }
+
+  private List<String> getCategories(final Integer team) {
+    final @Nullable List<String> categories = teamCategories.get(team);
+    return null == categories ? Collections.emptyList() : categories;
+  }
+
+  /**
+   * @return true if the team is in a playoff bracket that is running during the
+   *         slot, brackets without a start or end time don't conflict
+   */
+  private boolean hasPlayoffConflict(final Integer team,
+                                     final Slot slot) {
+    final @Nullable Collection<String> brackets = request.getPlayoffBrackets().get(team);
+    if (null == brackets) {
+      return false;
+    }
+
+    for (final String bracket : brackets) {
+      final @Nullable PlayoffSchedule playoffSchedule = request.getPlayoffSchedules().get(bracket);
+      if (null == playoffSchedule) {
+        continue;
+      }
+
+      // the browser creates the schedule for a bracket without times
+      final @Nullable LocalTime playoffStart = playoffSchedule.getStartTime();
+      final @Nullable LocalTime playoffEnd = playoffSchedule.getEndTime();
+      if (null != playoffStart
+          && null != playoffEnd
+          && playoffStart.isBefore(slot.getEndTime())
+          && slot.getTime().isBefore(playoffEnd)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A time slot while the schedule is being created.
+   */
+  private static final class Slot {
+    Slot(final LocalTime time,
+         final LocalTime endTime) {
+      this.time = time;
+      this.endTime = endTime;
+    }
+
+    private final LocalTime time;
+
+    LocalTime getTime() {
+      return time;
+    }
+
+    private final LocalTime endTime;
+
+    LocalTime getEndTime() {
+      return endTime;
+    }
+
+    /**
+     * category name -&gt; team number
+     */
+    private final Map<String, Integer> categories = new LinkedHashMap<>();
+
+    Map<String, Integer> getCategories() {
+      return categories;
+    }
+
+    private final Set<Integer> teams = new HashSet<>();
+
+    boolean isAvailable(final String category,
+                        final Integer team) {
+      return !categories.containsKey(category)
+          && !teams.contains(team);
+    }
+
+    void add(final String category,
+             final Integer team) {
+      categories.put(category, team);
+      teams.add(team);
+    }
+  }
+
+}
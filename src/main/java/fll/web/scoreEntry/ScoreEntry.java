@@ -122,9 +122,7 @@ public final class ScoreEntry {
     pageContext.setAttribute("EditFlag", edit);
     pageContext.setAttribute("showScores", showScores);
 
-    final ChallengeDescription challengeDescription = ApplicationAttributes.getChallengeDescription(application);
-    final double minimumAllowedScore = challengeDescription.getPerformance().getMinimumScore();
-    pageContext.setAttribute("minimumAllowedScore", minimumAllowedScore);
+    pageContext.setAttribute("scoreEntryScriptPath", ScoreEntryScript.getScriptPath(application));
 
     final boolean previousVerified;
     final boolean regularMatchPlay;
@@ -305,7 +303,7 @@ public final class ScoreEntry {
                                   final PageContext pageContext)
       throws IOException, SQLException {
 
-    setupRangeSliders(writer, application);
+    writer.println("  setupRangeSliders();");
 
     final boolean editFlag = (Boolean) pageContext.getAttribute("EditFlag");
     if (editFlag) {
@@ -315,12 +313,64 @@ public final class ScoreEntry {
     }
   }
 
-  private static void setupRangeSliders(final JspWriter writer,
-                                        final ServletContext application)
+  /**
+   * Generate all of the score entry JavaScript that only depends on the
+   * challenge description. This is the setupRangeSliders, refresh,
+   * check_restrictions and isConsistent functions along with the set, check,
+   * increment and computed goal functions for each goal.
+   * The output is served by {@link ScoreEntryScript} so that it can be cached
+   * by the browser.
+   *
+   * @param writer where to write the JavaScript
+   * @param description the challenge description
+   * @throws IOException if there is an error writing to {@code writer}
+   */
+  public static void generateChallengeScript(final Writer writer,
+                                             final ChallengeDescription description)
       throws IOException {
-    final ChallengeDescription description = ApplicationAttributes.getChallengeDescription(application);
     final PerformanceScoreCategory performanceElement = description.getPerformance();
+    final Formatter formatter = new Formatter(writer);
+
+    formatter.format("function setupRangeSliders() {%n");
+    generateSetupRangeSliders(formatter, performanceElement);
+    formatter.format("}%n%n");
+
+    formatter.format("function refresh() {%n");
+    formatter.format("  var score = 0;%n%n");
+    generateRefreshBody(formatter, performanceElement);
+    formatter.format("%n");
+    formatter.format("  //check for minimum total score%n");
+    formatter.format("  if(score < %s) {%n", performanceElement.getMinimumScore());
+    formatter.format("    score = %s;%n", performanceElement.getMinimumScore());
+    formatter.format("  }%n%n");
+    formatter.format("  document.scoreEntry.totalScore.value = score;%n%n");
+    formatter.format("  check_restrictions();%n");
+    formatter.format("}%n%n");
+
+    formatter.format("function check_restrictions() {%n");
+    formatter.format("  var error_found = false;%n");
+    formatter.format("  $(\"#score-errors\").empty();%n%n");
+    generateCheckRestrictionsBody(formatter, performanceElement);
+    formatter.format("%n");
+    formatter.format("  if(error_found) {%n");
+    formatter.format("    $(\"#submit_score\").attr('disabled', true);%n");
+    formatter.format("    $(\"#score-errors\").show();%n");
+    formatter.format("  } else {%n");
+    formatter.format("    $(\"#submit_score\").attr('disabled', false);%n");
+    formatter.format("    $(\"#score-errors\").hide();%n");
+    formatter.format("  }%n");
+    formatter.format("}%n%n");
+
+    generateIsConsistent(formatter, performanceElement);
+    formatter.format("%n");
+
+    generateGoalMethods(formatter, performanceElement);
+
+    formatter.flush();
+  }
 
+  private static void generateSetupRangeSliders(final Formatter formatter,
+                                                final PerformanceScoreCategory performanceElement) {
     for (final AbstractGoal element : performanceElement.getAllGoals()) {
       if (!element.isComputed()) {
         final Goal goal = (Goal) element;
@@ -335,30 +385,21 @@ public final class ScoreEntry {
         if (!goal.isYesNo()
             && !goal.isEnumerated()
             && range <= SLIDER_RANGE_MAX) {
-          writer.println(String.format("  document.scoreEntry.%s.oninput = function() {", getSliderName(name)));
-          writer.println(String.format("    document.scoreEntry.%s.innerHTML = this.value;", name));
-          writer.println(String.format("    %s(this.value);", getSetMethodName(name)));
-          writer.println("  };");
+          formatter.format("  document.scoreEntry.%s.oninput = function() {%n", getSliderName(name));
+          formatter.format("    document.scoreEntry.%s.innerHTML = this.value;%n", name);
+          formatter.format("    %s(this.value);%n", getSetMethodName(name));
+          formatter.format("  };%n");
         } // use slider
       } // not computed
     } // foreach goal
   }
 
   /**
-   * Generate the isConsistent method for the goals in the performance element
-   * of document.
-   * 
-   * @param writer where to write the HTML
-   * @param application used to get the challenge description
-   * @throws IOException if there is an error writing to {@code writer}
+   * Generate the isConsistent method for the goals in the performance element.
    */
-  public static void generateIsConsistent(final JspWriter writer,
-                                          final ServletContext application)
-      throws IOException {
-    final ChallengeDescription descriptor = ApplicationAttributes.getChallengeDescription(application);
-    final PerformanceScoreCategory performanceElement = descriptor.getPerformance();
-
-    writer.println("function isConsistent() {");
+  private static void generateIsConsistent(final Formatter formatter,
+                                           final PerformanceScoreCategory performanceElement) {
+    formatter.format("function isConsistent() {%n");
 
     // check all goal min and max values
     for (final AbstractGoal element : performanceElement.getAllGoals()) {
@@ -368,59 +409,30 @@ public final class ScoreEntry {
         final double min = goal.getMin();
         final double max = goal.getMax();
 
-        writer.println("  //"
-            + name);
+        formatter.format("  //%s%n", name);
         if (goal.isEnumerated()) {
           // enumerated
-          writer.println("  // nothing to check");
+          formatter.format("  // nothing to check%n");
         } else {
           final String rawVarName = getVarNameForRawScore(name);
-          writer.println("  if("
-              + rawVarName
-              + " < "
-              + min
-              + " || "
-              + rawVarName
-              + " > "
-              + max
-              + ") {");
-          writer.println("    return false;");
-          writer.println("  }");
+          formatter.format("  if(%s < %s || %s > %s) {%n", rawVarName, min, rawVarName, max);
+          formatter.format("    return false;%n");
+          formatter.format("  }%n");
         }
-        writer.println();
+        formatter.format("%n");
       } // !computed
     } // foreach goal
 
-    writer.println("  return true;");
-    writer.println("}");
+    formatter.format("  return true;%n");
+    formatter.format("}%n");
   }
 
   /**
-   * Genrate the increment methods and variable declarations for the goals in
-   * the performance element of document. Generate the methods to compute goals
-   * as well.
-   *
-   * @param writer where to write the text
-   * @param application application context
-   * @param request used to get information about tablet entry
-   * @param pageContext used to get the edit flag state
-   * @param session used to determine when running on a tablet
-   * @throws IOException if there is an error writing to {@code writer}
+   * Generate the increment methods and variable declarations for the goals in
+   * the performance element. Generate the methods to compute goals as well.
    */
-  public static void generateIncrementMethods(final Writer writer,
-                                              final ServletContext application,
-                                              final HttpServletRequest request,
-                                              final HttpSession session,
-                                              final PageContext pageContext)
-      throws IOException {
-    final boolean tabletEntry = isTabletEntry(request, session);
-
-    final boolean editFlag = (Boolean) pageContext.getAttribute("EditFlag");
-
-    final ChallengeDescription description = ApplicationAttributes.getChallengeDescription(application);
-    final PerformanceScoreCategory performanceElement = description.getPerformance();
-    final Formatter formatter = new Formatter(writer);
-
+  private static void generateGoalMethods(final Formatter formatter,
+                                          final PerformanceScoreCategory performanceElement) {
     for (final AbstractGoal goal : performanceElement.getAllGoals()) {
       if (goal.isComputed()) {
         // generate the method to update the computed goal variables
@@ -483,6 +495,29 @@ public final class ScoreEntry {
         formatter.format("%n%n");
       }
     } // end for each goal
+  }
+
+  /**
+   * Generate the variable declaration and set method for the verified flag.
+   * This depends on the request and is therefore not part of
+   * {@link #generateChallengeScript(Writer, ChallengeDescription)}.
+   *
+   * @param writer where to write the text
+   * @param request used to get information about tablet entry
+   * @param pageContext used to get the edit flag state
+   * @param session used to determine when running on a tablet
+   * @throws IOException if there is an error writing to {@code writer}
+   */
+  public static void generateVerifiedMethod(final Writer writer,
+                                            final HttpServletRequest request,
+                                            final HttpSession session,
+                                            final PageContext pageContext)
+      throws IOException {
+    final boolean tabletEntry = isTabletEntry(request, session);
+
+    final boolean editFlag = (Boolean) pageContext.getAttribute("EditFlag");
+
+    final Formatter formatter = new Formatter(writer);
 
     // method for double-check field
     formatter.format("// Verified %n");
@@ -501,27 +536,18 @@ public final class ScoreEntry {
 
     formatter.format("  refresh();%n");
     formatter.format("}%n%n%n");
+    formatter.flush();
   }
 
   /**
    * Generate the body of the refresh function.
-   * 
-   * @param writer where to write the HTML
-   * @param application used to get the challenge descrption
-   * @throws IOException if there is an error writing to {@code writer}
    */
-  public static void generateRefreshBody(final Writer writer,
-                                         final ServletContext application)
-      throws IOException {
+  private static void generateRefreshBody(final Formatter formatter,
+                                          final PerformanceScoreCategory performanceElement) {
     if (LOG.isTraceEnabled()) {
       LOG.trace("Entering generateRefreshBody");
     }
 
-    final ChallengeDescription description = ApplicationAttributes.getChallengeDescription(application);
-    final Formatter formatter = new Formatter(writer);
-
-    final PerformanceScoreCategory performanceElement = description.getPerformance();
-
     // output the assignments of each element
     for (final AbstractGoal agoal : performanceElement.getAllGoals()) {
       if (agoal.isComputed()) {
@@ -627,21 +653,8 @@ public final class ScoreEntry {
 
   }
 
-  /**
-   * Output the body for the check_restrictions method.
-   *
-   * @param writer where to write
-   * @param application used to get the challenge description
-   * @throws IOException on an error writing to {@code writer}
-   */
-  public static void generateCheckRestrictionsBody(final Writer writer,
-                                                   final ServletContext application)
-      throws IOException {
-    final ChallengeDescription description = ApplicationAttributes.getChallengeDescription(application);
-    final Formatter formatter = new Formatter(writer);
-
-    final PerformanceScoreCategory performanceElement = description.getPerformance();
-
+  private static void generateCheckRestrictionsBody(final Formatter formatter,
+                                                    final PerformanceScoreCategory performanceElement) {
     final Collection<Restriction> restrictions = performanceElement.getRestrictions();
 
     // variables to track which goals need to be highlighted
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.scoreEntry;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.google.common.hash.Hashing;
+
+import fll.Utilities;
+import fll.web.ApplicationAttributes;
+import fll.web.BaseFLLServlet;
+import fll.xml.ChallengeDescription;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Serves the score entry JavaScript that only depends on the challenge
+ * description. The script is generated once per challenge description and the
+ * URL contains a hash of the content, so the browser can cache it until the
+ * challenge description changes.
+ *
+ * @see ScoreEntry#generateChallengeScript(java.io.Writer, ChallengeDescription)
+ */
+@WebServlet(ScoreEntryScript.PATH_PREFIX
+    + "*")
+public class ScoreEntryScript extends BaseFLLServlet {
+
+  /**
+   * Path that the script is served from, relative to the web application.
+   */
+  public static final String PATH_PREFIX = "/scoreEntry/generated/";
+
+  private static final String SUFFIX = ".js";
+
+  private static final long MAX_AGE_SECONDS = TimeUnit.DAYS.toSeconds(365);
+
+  private static final Object LOCK = new Object();
+
+  private static @Nullable GeneratedScript cache = null;
+
+  /**
+   * @param application used to get the challenge description
+   * @return the path to the script for the current challenge description,
+   *         relative to the web application
+   */
+  public static String getScriptPath(final ServletContext application) {
+    return PATH_PREFIX
+        + getScript(ApplicationAttributes.getChallengeDescription(application)).hash
+        + SUFFIX;
+  }
+
+  private static GeneratedScript getScript(final ChallengeDescription description) {
+    synchronized (LOCK) {
+      final GeneratedScript current = cache;
+      // the challenge description is replaced rather than modified when it
+      // changes, so an identity check is enough
+      if (null != current
+          && current.description == description) {
+        return current;
+      }
+
+      final StringWriter writer = new StringWriter();
+      try {
+        ScoreEntry.generateChallengeScript(writer, description);
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Error writing to a string", e);
+      }
+      final GeneratedScript script = new GeneratedScript(description, writer.toString());
+      cache = script;
+      return script;
+    }
+  }
+
+  @Override
+  protected void processRequest(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final ServletContext application,
+                                final HttpSession session)
+      throws IOException, ServletException {
+    final GeneratedScript script = getScript(ApplicationAttributes.getChallengeDescription(application));
+
+    final String etag = "\""
+        + script.hash
+        + "\"";
+    final String requested = request.getPathInfo();
+    if (null != requested
+        && requested.equals("/"
+            + script.hash
+            + SUFFIX)) {
+      // the content for this URL never changes
+      response.setHeader("Cache-Control", "public, max-age="
+          + MAX_AGE_SECONDS
+          + ", immutable");
+    } else {
+      // a stale page, send the current script and have the browser check
+      // again next time
+      response.setHeader("Cache-Control", "no-cache");
+    }
+    response.setHeader("ETag", etag);
+
+    if (etag.equals(request.getHeader("If-None-Match"))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    response.setContentType("text/javascript");
+    response.setCharacterEncoding(Utilities.DEFAULT_CHARSET.name());
+    response.getWriter().write(script.content);
+  }
+
+  /**
+   * Script generated for a particular challenge description.
+   */
+  private static final class GeneratedScript {
+    GeneratedScript(final ChallengeDescription description,
+                    final String content) {
+      this.description = description;
+      this.content = content;
+      this.hash = Hashing.sha256().hashString(content, Utilities.DEFAULT_CHARSET).toString();
+    }
+
+    private final ChallengeDescription description;
+
+    private final String content;
+
+    private final String hash;
+  }
+
+}
@@ -30,6 +30,7 @@ import fll.scheduler.PerformanceTime;
 import fll.scheduler.TeamScheduleInfo;
 import fll.scheduler.TournamentSchedule;
 import fll.web.ApplicationAttributes;
+import fll.web.ScheduleCache;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpSession;
 import jakarta.servlet.jsp.PageContext;
@@ -78,7 +79,7 @@ public final class SelectTeam {
 
       final @Nullable TournamentSchedule schedule;
       if (TournamentSchedule.scheduleExistsInDatabase(connection, tournament.getTournamentID())) {
-        schedule = new TournamentSchedule(connection, tournament.getTournamentID());
+        schedule = ScheduleCache.getSchedule(connection, tournament.getTournamentID());
       } else {
         schedule = null;
       }
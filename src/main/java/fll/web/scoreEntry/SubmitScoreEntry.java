@@ -20,6 +20,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import javax.sql.DataSource;
 
+import fll.Tournament;
 import fll.Utilities;
 import fll.db.Queries;
 import fll.util.FLLInternalException;
@@ -27,12 +28,14 @@ import fll.util.FLLRuntimeException;
 import fll.web.ApplicationAttributes;
 import fll.web.AuthenticationContext;
 import fll.web.BaseFLLServlet;
+import fll.web.NotificationQueue;
 import fll.web.SessionAttributes;
 import fll.web.UserRole;
 import fll.xml.ChallengeDescription;
 
 /**
- * Submit performance scores.
+ * Submit performance scores. The score and the playoff information are written
+ * in a single transaction and the displays are notified after the commit.
  */
 @WebServlet("/scoreEntry/SubmitScoreEntry")
 public class SubmitScoreEntry extends BaseFLLServlet {
@@ -54,34 +57,23 @@ public class SubmitScoreEntry extends BaseFLLServlet {
     final DataSource datasource = ApplicationAttributes.getDataSource(application);
     final ChallengeDescription challengeDescription = ApplicationAttributes.getChallengeDescription(application);
 
+    final NotificationQueue notifications = new NotificationQueue();
     try (Connection connection = datasource.getConnection()) {
-      final boolean deleteScore = Boolean.valueOf(request.getParameter("delete"));
-      if (deleteScore) {
-        final String teamNumberStr = request.getParameter("TeamNumber");
-        if (null == teamNumberStr) {
-          throw new RuntimeException("Missing parameter: TeamNumber");
-        }
-        final int teamNumber = Utilities.getIntegerNumberFormat().parse(teamNumberStr).intValue();
-
-        final String runNumber = request.getParameter("RunNumber");
-        if (null == runNumber) {
-          throw new RuntimeException("Missing parameter: RunNumber");
-        }
-        final int irunNumber = Utilities.getIntegerNumberFormat().parse(runNumber).intValue();
-
-        Queries.deletePerformanceScore(connection, teamNumber, irunNumber);
-      } else if (Boolean.valueOf(request.getParameter("EditFlag"))) {
-        final int rowsUpdated = Queries.updatePerformanceScore(challengeDescription, connection, request);
-        if (0 == rowsUpdated) {
-          throw new FLLInternalException("No rows updated - did the score get deleted?");
-        } else if (rowsUpdated > 1) {
-          throw new FLLInternalException("Updated multiple rows!");
-        }
-      } else {
-        Queries.insertPerformanceScore(challengeDescription, connection, request);
-      }
+      final boolean autoCommit = connection.getAutoCommit();
+      try {
+        connection.setAutoCommit(false);
+
+        final Tournament tournament = Tournament.getCurrentTournament(connection);
+        storeScore(request, connection, challengeDescription, tournament, notifications);
 
-      response.sendRedirect(response.encodeRedirectURL("select_team.jsp"));
+        connection.commit();
+      } catch (final SQLException | ParseException | RuntimeException e) {
+        notifications.discard();
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
     } catch (final SQLException e) {
       LOGGER.error(e, e);
       throw new FLLRuntimeException(e);
@@ -91,6 +83,48 @@ public class SubmitScoreEntry extends BaseFLLServlet {
           + e.getMessage(), e);
     }
 
+    // the displays are updated in the background after the score is committed
+    notifications.publish();
+
+    response.sendRedirect(response.encodeRedirectURL("select_team.jsp"));
+  }
+
+  /**
+   * Write the score change described by the request to the database.
+   */
+  private static void storeScore(final HttpServletRequest request,
+                                 final Connection connection,
+                                 final ChallengeDescription challengeDescription,
+                                 final Tournament tournament,
+                                 final NotificationQueue notifications)
+      throws SQLException, ParseException {
+    final boolean deleteScore = Boolean.valueOf(request.getParameter("delete"));
+    if (deleteScore) {
+      final String teamNumberStr = request.getParameter("TeamNumber");
+      if (null == teamNumberStr) {
+        throw new RuntimeException("Missing parameter: TeamNumber");
+      }
+      final int teamNumber = Utilities.getIntegerNumberFormat().parse(teamNumberStr).intValue();
+
+      final String runNumber = request.getParameter("RunNumber");
+      if (null == runNumber) {
+        throw new RuntimeException("Missing parameter: RunNumber");
+      }
+      final int irunNumber = Utilities.getIntegerNumberFormat().parse(runNumber).intValue();
+
+      Queries.deletePerformanceScore(connection, challengeDescription, tournament, teamNumber, irunNumber,
+                                     notifications);
+    } else if (Boolean.valueOf(request.getParameter("EditFlag"))) {
+      final int rowsUpdated = Queries.updatePerformanceScore(challengeDescription, connection, tournament, request,
+                                                             notifications);
+      if (0 == rowsUpdated) {
+        throw new FLLInternalException("No rows updated - did the score get deleted?");
+      } else if (rowsUpdated > 1) {
+        throw new FLLInternalException("Updated multiple rows!");
+      }
+    } else {
+      Queries.insertPerformanceScore(challengeDescription, connection, tournament, request, notifications);
+    }
   }
 
 }
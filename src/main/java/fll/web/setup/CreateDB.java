@@ -40,6 +40,9 @@ import fll.web.MissingRequiredParameterException;
 import fll.web.SessionAttributes;
 import fll.web.UploadProcessor;
 import fll.web.UserRole;
+import fll.web.event.TeamsChanged;
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
 import fll.xml.ChallengeDescription;
 import fll.xml.ChallengeParser;
 import jakarta.servlet.ServletContext;
@@ -178,6 +181,9 @@ public class CreateDB extends BaseFLLServlet {
       if (success) {
         message.append("<p id='success'><i>Successfully initialized database</i></p>");
 
+        // everything in the database has been replaced
+        TournamentEventBus.publish(new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
+
         // setup special authentication for setup
         session.setAttribute(SessionAttributes.AUTHENTICATION, AuthenticationContext.inSetup());
 
@@ -32,8 +32,6 @@ if (null == session.getAttribute("columnSelectOptions")) {
     <%
     if (UploadTeams.verifyTeams(connection, request, response, session, out)) {
     %>
-    <c:set var="message" scope='session'
-        value='<p id="success"><i>Teams successfully uploaded</i></p>' />
     <c:redirect url="index.jsp"></c:redirect>
     <%
     }
@@ -314,8 +314,8 @@ fll.web.playoff.PlayoffIndex.populateContext(application, session, pageContext);
                     <%-- finish bracket --%>
                     <form name="finish_bracket" method="POST"
                         action="FinishBracket">
-                        Select bracket to finish:
-                        <select id='finish-bracket' name='bracket'>
+                        Select brackets to finish:
+                        <select id='finish-bracket' name='bracket' multiple>
                             <c:forEach
                                 items="${playoff_data.unfinishedBrackets }"
                                 var="bracket">
@@ -336,7 +336,8 @@ fll.web.playoff.PlayoffIndex.populateContext(application, session, pageContext);
                             Minnesota does this when running their state
                             head to head as they run 2 brackets down to
                             4 teams each and then run a final 8 team
-                            bracket.<a
+                            bracket. Multiple brackets may be selected to
+                            finish them all at once.<a
                                 href='javascript:hide("FinishBracketsHelp")'>[hide]</a>
                         </div>
 
@@ -900,82 +900,61 @@
         },
 
         /**
-         * Create the finalist schedule for the specified division.
+         * Create the finalist schedule for the specified division on the server.
          * 
          * @param currentDivision
          *          the division to create the schedule for
-         * @return array of timeslots in order from earliest to latest
+         * @param successCallback
+         *          called with the array of timeslots in order from earliest to
+         *          latest
+         * @param failCallback
+         *          called with the server result on failure
+         * @return promise to execute
          */
-        scheduleFinalists: function(currentDivision) {
+        computeSchedule: function(currentDivision, successCallback, failCallback) {
             _log("Creating schedule for " + currentDivision);
 
-            let finalistsCount = $.finalist.getTeamToCategoryMap(currentDivision);
-
-            // sort the map so that the team in the most categories is first,
-            // this
-            // should ensure the minimum amount of time to do the finalist
-            // judging
-            const sortedTeams = [];
-            $.each(finalistsCount, function(teamNum, _) {
-                sortedTeams.push(teamNum);
-            });
-            sortedTeams.sort(function(a, b) {
-                const aCategories = finalistsCount[a];
-                const bCategories = finalistsCount[b];
-
-                const aCount = aCategories.length;
-                const bCount = bCategories.length;
-                if (aCount == bCount) {
-                    return 0;
-                } else if (aCount > bCount) {
-                    return -1;
-                } else {
-                    return 1;
-                }
+            const categories = [];
+            const finalists = {};
+            $.each($.finalist.getAllScheduledCategories(), function(_, category) {
+                categories.push(new FinalistCategory(category.name, $.finalist.getRoom(category,
+                    currentDivision)));
+                finalists[category.name] = [];
             });
 
-            // list of Timeslots in time order
-            const schedule = [];
-            let nextTime = $.finalist.getStartTime(currentDivision);
-            const slotMinutes = $.finalist.getDuration(currentDivision);
-            const slotDuration = JSJoda.Duration.ofMinutes(slotMinutes);
-            $.finalist.log("Next timeslot starts at " + nextTime + " duration is " + slotDuration);
-            $.each(sortedTeams, function(_, teamNum) {
-                const team = $.finalist.lookupTeam(teamNum);
-                const teamCategories = finalistsCount[teamNum];
+            const playoffBrackets = {};
+            const finalistsCount = $.finalist.getTeamToCategoryMap(currentDivision);
+            $.each(finalistsCount, function(teamNum, teamCategories) {
                 $.each(teamCategories, function(_, category) {
+                    finalists[category.name].push(teamNum);
+                });
 
-                    if ($.finalist.isCategoryScheduled(category)) {
-
-                        let scheduled = false;
-                        $.each(schedule, function(_, slot) {
-                            if (!scheduled
-                                && !$.finalist.isTimeslotBusy(slot, category.name)
-                                && !$.finalist.isTeamInTimeslot(slot, teamNum)
-                                && !$.finalist.hasPlayoffConflict(team, slot)) {
-                                $.finalist.addTeamToTimeslot(slot, category.name, teamNum);
-                                scheduled = true;
-                            }
-                        }); // foreach timeslot
-
-                        while (!scheduled) {
-                            const newRow = new FinalistDBRow(nextTime, nextTime.plus(slotDuration));
-                            schedule.push(newRow);
-
-                            nextTime = newRow.endTime;
-
-                            if (!$.finalist.hasPlayoffConflict(team, newRow)) {
-                                scheduled = true;
-                                $.finalist.addTeamToTimeslot(newRow, category.name, teamNum);
-                            }
-                        }
-
-                    } // category is scheduled
-
-                }); // foreach category
-            }); // foreach sorted team
+                const team = $.finalist.lookupTeam(teamNum);
+                playoffBrackets[teamNum] = team.playoffDivisions;
+            });
 
-            return schedule;
+            const dataToUpload = JSON.stringify({
+                parameters: $.finalist.getScheduleParameters(currentDivision),
+                categories: categories,
+                finalists: finalists,
+                playoffSchedules: _playoffSchedules,
+                playoffBrackets: playoffBrackets
+            });
+            return $.ajax({
+                type: "POST",
+                dataType: "json",
+                contentType: "application/json",
+                url: "../../api/ComputeFinalistSchedule",
+                data: dataToUpload,
+                success: function(result) {
+                    $.each(result.schedule, function(_, row) {
+                        _fixFinalistDBRow(row);
+                    });
+                    successCallback(result.schedule);
+                }
+            }).fail(function(result) {
+                failCallback(result);
+            });
         },
 
         /**
@@ -473,11 +473,31 @@ const finalistScheduleModule = {};
         const currentDivision = $.finalist.getCurrentDivision()
         schedule = $.finalist.getSchedule(currentDivision);
         if (null == schedule || 0 == schedule.length) {
-            schedule = $.finalist.scheduleFinalists(currentDivision);
-            $.finalist.setSchedule(currentDivision, schedule);
-            $.finalist.saveToLocalStorage();
+            $("#schedule_body").empty();
+            $.finalist.computeSchedule(currentDivision, function(newSchedule) {
+                // ignore the result if the division changed while waiting
+                if (currentDivision == $.finalist.getCurrentDivision()) {
+                    schedule = newSchedule;
+                    $.finalist.setSchedule(currentDivision, schedule);
+                    $.finalist.saveToLocalStorage();
+                    renderSchedule();
+                }
+            }, function(result) {
+                let message;
+                if (null == result || null == result.responseText) {
+                    message = "Unknown server error";
+                } else {
+                    message = result.responseText;
+                }
+
+                alert("Unable to create the schedule: " + message);
+            });
+        } else {
+            renderSchedule();
         }
+    }
 
+    function renderSchedule() {
         finalistsCount = $.finalist.getTeamToCategoryMap($.finalist
             .getCurrentDivision());
 
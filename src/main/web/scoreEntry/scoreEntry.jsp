@@ -66,6 +66,11 @@ body {
   type='text/javascript'
   src='scoreEntry.js'></script>
 
+<%-- functions that only depend on the challenge description --%>
+<script
+  type='text/javascript'
+  src="<c:url value='${scoreEntryScriptPath}' />"></script>
+
 <script type="text/javascript">
 var EditFlag = false;
 <c:if test="${EditFlag}">
@@ -83,40 +88,7 @@ function init() {
   savedTotalScore = document.scoreEntry.totalScore.value;
 }
 
-function refresh() { 
-  var score = 0;
-
-  <%ScoreEntry.generateRefreshBody(out, application);%>
-
-  //check for minimum total score
-  if(score < ${minimumAllowedScore}) {
-    score = ${minimumAllowedScore};
-  }
-
-  document.scoreEntry.totalScore.value = score;
-
-  check_restrictions();
-}
-
-function check_restrictions() {
-  var error_found = false;
-  $("#score-errors").empty();
-  
-<%ScoreEntry.generateCheckRestrictionsBody(out, application);%>
-
-  if(error_found) {
-    $("#submit_score").attr('disabled', true);
-    $("#score-errors").show();
-  } else {
-    $("#submit_score").attr('disabled', false);
-    $("#score-errors").hide();
-  }
-}
-
-<%ScoreEntry.generateIsConsistent(out, application);%>
-
-
-<%ScoreEntry.generateIncrementMethods(out, application, request, session, pageContext);%>
+<%ScoreEntry.generateVerifiedMethod(out, request, session, pageContext);%>
 
 </c:if> <!-- end check for bye -->
 
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipInputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+import fll.Tournament;
+import fll.Utilities;
+import fll.util.DummyTeamScore;
+import fll.web.NotificationQueue;
+import fll.xml.AbstractGoal;
+import fll.xml.ChallengeDescription;
+import fll.xml.EnumeratedValue;
+import fll.xml.Goal;
+
+/**
+ * Tests for {@link PerformanceSeedingMax}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class PerformanceSeedingMaxTest {
+
+  /**
+   * The table matches grouping the Performance table after importing, changing
+   * the number of seeding rounds and deleting, entering and editing a score
+   * through {@link Queries}.
+   *
+   * @throws SQLException test error
+   * @throws IOException test error
+   * @throws ParseException test error
+   */
+  @Test
+  public void testMatchesPerformance() throws SQLException, IOException, ParseException {
+    final String tournamentName = "11-21 Plymouth Middle";
+
+    final File tempFile = File.createTempFile("flltest", null);
+    final String database = tempFile.getAbsolutePath();
+    try {
+      final InputStream dumpFileIS = PerformanceSeedingMaxTest.class.getResourceAsStream("data/plymouth-2009-11-21.zip");
+      assertNotNull(dumpFileIS, "Cannot find test data");
+
+      try (Connection connection = Utilities.createFileDataSource(database).getConnection()) {
+        final ImportDB.ImportResult importResult = ImportDB.loadFromDumpIntoNewDB(new ZipInputStream(dumpFileIS),
+                                                                                  connection);
+        TestUtils.deleteImportData(importResult);
+
+        final int tournamentID = Tournament.findTournamentByName(connection, tournamentName).getTournamentID();
+        final int seedingRounds = TournamentParameters.getNumSeedingRounds(connection, tournamentID);
+        assertTrue(seedingRounds > 1, "Test data needs more than 1 seeding round");
+
+        final Map<Integer, String> expected = computeSeedingScores(connection, tournamentID, seedingRounds);
+        assertFalse(expected.isEmpty(), "No performance scores in the test data");
+        assertEquals(expected, getSeedingScores(connection, tournamentID));
+
+        // fewer seeding rounds
+        TournamentParameters.setNumSeedingRounds(connection, tournamentID, 1);
+        assertEquals(computeSeedingScores(connection, tournamentID, 1), getSeedingScores(connection, tournamentID));
+
+        TournamentParameters.setNumSeedingRounds(connection, tournamentID, seedingRounds);
+        assertEquals(expected, getSeedingScores(connection, tournamentID));
+
+        final Tournament tournament = Tournament.findTournamentByName(connection, tournamentName);
+        final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
+        // the displays aren't running, so the notifications aren't published
+        final NotificationQueue notifications = new NotificationQueue();
+        final int teamNumber = expected.keySet().iterator().next();
+
+        // remove the first run of a team
+        Queries.deletePerformanceScore(connection, description, tournament, teamNumber, 1, notifications);
+        final Map<Integer, String> afterDelete = computeSeedingScores(connection, tournamentID, seedingRounds);
+        assertNotEquals(expected, afterDelete);
+        assertEquals(afterDelete, getSeedingScores(connection, tournamentID));
+
+        // enter the run again with the lowest value for each goal
+        final Map<String, Double> simpleGoals = new HashMap<>();
+        final Map<String, String> enumGoals = new HashMap<>();
+        final Map<String, String> parameters = new HashMap<>();
+        for (final AbstractGoal abstractGoal : description.getPerformance().getAllGoals()) {
+          if (abstractGoal instanceof Goal) {
+            final Goal goal = (Goal) abstractGoal;
+            if (goal.isEnumerated()) {
+              final Comparator<EnumeratedValue> byScore = Comparator.comparingDouble(EnumeratedValue::getScore);
+              enumGoals.put(goal.getName(), Collections.min(goal.getValues(), byScore).getValue());
+              parameters.put(goal.getName(), Collections.max(goal.getValues(), byScore).getValue());
+            } else {
+              simpleGoals.put(goal.getName(), goal.getMin());
+              parameters.put(goal.getName(), String.valueOf(goal.getMax()));
+            }
+          }
+        }
+        Queries.insertPerformanceScore(connection, description, tournament, true,
+                                       new DummyTeamScore(teamNumber, 1, simpleGoals, enumGoals), notifications);
+        final Map<Integer, String> afterInsert = computeSeedingScores(connection, tournamentID, seedingRounds);
+        assertNotEquals(afterDelete, afterInsert);
+        assertEquals(afterInsert, getSeedingScores(connection, tournamentID));
+
+        // edit the run to the highest value for each goal
+        parameters.put("TeamNumber", String.valueOf(teamNumber));
+        parameters.put("RunNumber", "1");
+        parameters.put("NoShow", "0");
+        parameters.put("Bye", "0");
+        parameters.put("Verified", "1");
+        assertEquals(1, Queries.updatePerformanceScore(description, connection, tournament,
+                                                       createRequest(parameters), notifications));
+        final Map<Integer, String> afterUpdate = computeSeedingScores(connection, tournamentID, seedingRounds);
+        assertNotEquals(afterInsert, afterUpdate);
+        assertEquals(afterUpdate, getSeedingScores(connection, tournamentID));
+      }
+    } finally {
+      if (!tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+      TestUtils.deleteDatabase(database);
+    }
+  }
+
+  /**
+   * Score entry reads everything from the request parameters.
+   * TODO use a mocking library to do this.
+   *
+   * @return a request that only supports {@link HttpServletRequest#getParameter(String)}
+   */
+  private static HttpServletRequest createRequest(final Map<String, String> parameters) {
+    return (HttpServletRequest) Proxy.newProxyInstance(PerformanceSeedingMaxTest.class.getClassLoader(),
+                                                       new Class<?>[] { HttpServletRequest.class },
+                                                       (proxy,
+                                                        method,
+                                                        args) -> {
+                                                         if ("getParameter".equals(method.getName())) {
+                                                           return parameters.get(args[0]);
+                                                         } else {
+                                                           throw new UnsupportedOperationException(method.getName());
+                                                         }
+                                                       });
+  }
+
+  /**
+   * @return team number -&gt; score|average|seeding_runs
+   */
+  private static Map<Integer, String> computeSeedingScores(final Connection connection,
+                                                           final int tournamentID,
+                                                           final int seedingRounds)
+      throws SQLException {
+    final Map<Integer, String> scores = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT TeamNumber"
+        + ", MAX(ComputedTotal), AVG(ComputedTotal), COUNT(*)"
+        + " FROM Performance"
+        + " WHERE Tournament = ? AND RunNumber <= ?"
+        + " GROUP BY TeamNumber")) {
+      prep.setInt(1, tournamentID);
+      prep.setInt(2, seedingRounds);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          scores.put(rs.getInt(1), rs.getString(2)
+              + "|"
+              + rs.getString(3)
+              + "|"
+              + rs.getInt(4));
+        }
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * @return team number -&gt; score|average|seeding_runs
+   */
+  private static Map<Integer, String> getSeedingScores(final Connection connection,
+                                                       final int tournamentID)
+      throws SQLException {
+    final Map<Integer, String> scores = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT TeamNumber, score, average, seeding_runs"
+        + " FROM performance_seeding_max"
+        + " WHERE tournament = ?")) {
+      prep.setInt(1, tournamentID);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          scores.put(rs.getInt(1), rs.getString(2)
+              + "|"
+              + rs.getString(3)
+              + "|"
+              + rs.getInt(4));
+        }
+      }
+    }
+    return scores;
+  }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.ScoreStandardization;
+import fll.TestUtils;
+import fll.Tournament;
+import fll.TournamentLevel;
+import fll.Utilities;
+import fll.xml.ChallengeDescription;
+import fll.xml.ChallengeParser;
+
+/**
+ * Tests for {@link SubjectiveScoreStatistics}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class SubjectiveScoreStatisticsTest {
+
+  private static final String CATEGORY = "project";
+
+  private static final String GOAL_GROUP = "";
+
+  private static final String JUDGE = "JUDGE";
+
+  private static final double LARGE = 1E9;
+
+  /**
+   * When all of a judge's scores are the same the standard deviation is 0 and
+   * every score standardizes to the standardized mean.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testAllScoresEqual() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_subjective_statistics_equal")) {
+      final int tournament = Tournament.findTournamentByName(connection, "ut").getTournamentID();
+
+      final SubjectiveScoreStatistics statistics = new SubjectiveScoreStatistics(tournament);
+      for (int team = 1; team <= 3; ++team) {
+        insertScore(connection, tournament, team, 50);
+        statistics.add(CATEGORY, GOAL_GROUP, JUDGE, 50.0, false);
+      }
+      statistics.store(connection);
+
+      checkStatistics(connection, tournament, 3, 50, 0);
+
+      ScoreStandardization.standardizeSubjectiveScores(connection, tournament);
+      final double mean = GlobalParameters.getStandardizedMean(connection);
+      for (int team = 1; team <= 3; ++team) {
+        final Double standardized = getStandardizedScore(connection, tournament, team);
+        assertNotNull(standardized);
+        assertEquals(mean, standardized, 1E-9);
+      }
+    }
+  }
+
+  /**
+   * Scores that are large compared to their spread keep the precision of the
+   * standard deviation when they are added, removed and rebuilt.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testLargeScores() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_subjective_statistics_large")) {
+      final int tournament = Tournament.findTournamentByName(connection, "ut").getTournamentID();
+
+      final SubjectiveScoreStatistics statistics = new SubjectiveScoreStatistics(tournament);
+      for (int team = 1; team <= 3; ++team) {
+        final double score = LARGE
+            + team
+            - 1;
+        insertScore(connection, tournament, team, score);
+        statistics.add(CATEGORY, GOAL_GROUP, JUDGE, score, false);
+      }
+      statistics.store(connection);
+
+      // scores are LARGE + 0, 1, 2
+      checkStatistics(connection, tournament, 3, LARGE
+          + 1, Math.sqrt(2.0
+              / 3.0));
+
+      // remove the largest score
+      final SubjectiveScoreStatistics removal = new SubjectiveScoreStatistics(tournament);
+      removal.remove(CATEGORY, GOAL_GROUP, JUDGE, LARGE
+          + 2, false);
+      removal.store(connection);
+      try (PreparedStatement prep = connection.prepareStatement("DELETE FROM subjective_computed_scores" //
+          + " WHERE tournament = ? AND team_number = 3")) {
+        prep.setInt(1, tournament);
+        prep.executeUpdate();
+      }
+      checkStatistics(connection, tournament, 2, LARGE
+          + 0.5, 0.5);
+
+      SubjectiveScoreStatistics.rebuild(connection);
+      checkStatistics(connection, tournament, 2, LARGE
+          + 0.5, 0.5);
+
+      // the 2 remaining scores are one standard deviation from the mean
+      ScoreStandardization.standardizeSubjectiveScores(connection, tournament);
+      final double mean = GlobalParameters.getStandardizedMean(connection);
+      final double sigma = GlobalParameters.getStandardizedSigma(connection);
+      final Double low = getStandardizedScore(connection, tournament, 1);
+      assertNotNull(low);
+      assertEquals(mean
+          - sigma, low, 1E-3);
+      final Double high = getStandardizedScore(connection, tournament, 2);
+      assertNotNull(high);
+      assertEquals(mean
+          + sigma, high, 1E-3);
+    }
+  }
+
+  /**
+   * Removing every score leaves empty totals.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testRemoveAllScores() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_subjective_statistics_remove")) {
+      final int tournament = Tournament.findTournamentByName(connection, "ut").getTournamentID();
+
+      final SubjectiveScoreStatistics statistics = new SubjectiveScoreStatistics(tournament);
+      for (int team = 1; team <= 3; ++team) {
+        insertScore(connection, tournament, team, 10
+            * team);
+        statistics.add(CATEGORY, GOAL_GROUP, JUDGE, 10.0
+            * team, false);
+      }
+      statistics.store(connection);
+
+      for (int team = 1; team <= 3; ++team) {
+        SubjectiveScoreStatistics.removeTeam(connection, team, tournament);
+      }
+      checkStatistics(connection, tournament, 0, 0, 0);
+    }
+  }
+
+  private static void checkStatistics(final Connection connection,
+                                      final int tournament,
+                                      final int expectedCount,
+                                      final double expectedMean,
+                                      final double expectedStdev)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("SELECT score_count, score_mean, score_m2" //
+        + " FROM subjective_score_statistics" //
+        + " WHERE tournament = ? AND category = ? AND goal_group = ? AND judge = ?")) {
+      prep.setInt(1, tournament);
+      prep.setString(2, CATEGORY);
+      prep.setString(3, GOAL_GROUP);
+      prep.setString(4, JUDGE);
+      try (ResultSet rs = prep.executeQuery()) {
+        assertTrue(rs.next(), "Missing statistics");
+        final int count = rs.getInt(1);
+        assertEquals(expectedCount, count);
+        assertEquals(expectedMean, rs.getDouble(2), 1E-6);
+        if (count > 0) {
+          assertEquals(expectedStdev, SubjectiveScoreStatistics.standardDeviation(count, rs.getDouble(3)), 1E-6);
+        } else {
+          assertEquals(0, rs.getDouble(3), 1E-6);
+        }
+      }
+    }
+  }
+
+  private static @Nullable Double getStandardizedScore(final Connection connection,
+                                                       final int tournament,
+                                                       final int team)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("SELECT standardized_score" //
+        + " FROM subjective_computed_scores" //
+        + " WHERE tournament = ? AND team_number = ?")) {
+      prep.setInt(1, tournament);
+      prep.setInt(2, team);
+      try (ResultSet rs = prep.executeQuery()) {
+        if (!rs.next()) {
+          return null;
+        }
+        final double score = rs.getDouble(1);
+        return rs.wasNull() ? null : score;
+      }
+    }
+  }
+
+  private static void insertScore(final Connection connection,
+                                  final int tournament,
+                                  final int team,
+                                  final double computedTotal)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("INSERT INTO subjective_computed_scores" //
+        + " (category, goal_group, tournament, team_number, judge, computed_total, no_show)" //
+        + " VALUES(?, ?, ?, ?, ?, ?, FALSE)")) {
+      prep.setString(1, CATEGORY);
+      prep.setString(2, GOAL_GROUP);
+      prep.setInt(3, tournament);
+      prep.setInt(4, team);
+      prep.setString(5, JUDGE);
+      prep.setDouble(6, computedTotal);
+      prep.executeUpdate();
+    }
+  }
+
+  /**
+   * Create the database with tournament "ut" and teams 1-3.
+   */
+  private static Connection createDatabase(final String url) throws SQLException {
+    Utilities.loadDBDriver();
+
+    final InputStream stream = SubjectiveScoreStatisticsTest.class.getResourceAsStream("/fll/db/data/challenge-test.xml");
+    assertNotNull(stream);
+    final ChallengeDescription description = ChallengeParser.parse(new InputStreamReader(stream,
+                                                                                         Utilities.DEFAULT_CHARSET));
+
+    final Connection connection = DriverManager.getConnection(url);
+    GenerateDB.generateDB(description, connection);
+
+    Tournament.createTournament(connection, "ut", null, null,
+                                TournamentLevel.getByName(connection, TournamentLevel.DEFAULT_TOURNAMENT_LEVEL_NAME));
+    for (int team = 1; team <= 3; ++team) {
+      assertNull(Queries.addTeam(connection, team, team
+          + " Name", team
+              + " School"));
+    }
+    return connection;
+  }
+
+}
@@ -7,6 +7,7 @@
 package fll.db;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -17,18 +18,24 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.ZipInputStream;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import fll.ScoreStandardization;
 import fll.TestUtils;
 import fll.Tournament;
 import fll.Utilities;
 import fll.web.playoff.DatabaseTeamScore;
 import fll.xml.ChallengeDescription;
 import fll.xml.PerformanceScoreCategory;
+import fll.xml.SubjectiveScoreCategory;
 import net.mtu.eggplant.util.sql.SQLFunctions;
 
 /**
@@ -96,4 +103,359 @@ public class TestComputedScores {
     }
 
   }
+
+  /**
+   * Computing the subjective totals again only writes the rows that changed
+   * and gives the same result as computing them from scratch.
+   *
+   * @throws SQLException test error
+   * @throws IOException test error
+   */
+  @Test
+  public void testSubjectiveTotalsOnlyWriteChanges() throws SQLException, IOException {
+    final String tournamentName = "11-21 Plymouth Middle";
+
+    final File tempFile = File.createTempFile("flltest", null);
+    final String database = tempFile.getAbsolutePath();
+    try {
+      final InputStream dumpFileIS = TestComputedScores.class.getResourceAsStream("data/plymouth-2009-11-21.zip");
+      assertNotNull(dumpFileIS, "Cannot find test data");
+
+      try (Connection connection = Utilities.createFileDataSource(database).getConnection()) {
+        final ImportDB.ImportResult importResult = ImportDB.loadFromDumpIntoNewDB(new ZipInputStream(dumpFileIS),
+                                                                                  connection);
+        TestUtils.deleteImportData(importResult);
+
+        final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
+        final int tournamentID = Tournament.findTournamentByName(connection, tournamentName).getTournamentID();
+
+        // compute from scratch
+        try (PreparedStatement prep = connection.prepareStatement("DELETE FROM subjective_computed_scores WHERE tournament = ?")) {
+          prep.setInt(1, tournamentID);
+          prep.executeUpdate();
+        }
+        try (PreparedStatement prep = connection.prepareStatement("DELETE FROM subjective_score_statistics WHERE tournament = ?")) {
+          prep.setInt(1, tournamentID);
+          prep.executeUpdate();
+        }
+        Queries.updateSubjectiveScoreTotals(description, connection, tournamentID);
+        final Map<String, Double> expected = getSubjectiveComputedScores(connection, tournamentID);
+        assertFalse(expected.isEmpty(), "No subjective scores in the test data");
+
+        // mark the rows so that rewritten rows can be found
+        try (PreparedStatement prep = connection.prepareStatement("UPDATE subjective_computed_scores SET standardized_score = 1 WHERE tournament = ?")) {
+          prep.setInt(1, tournamentID);
+          prep.executeUpdate();
+        }
+
+        Queries.updateSubjectiveScoreTotals(description, connection, tournamentID);
+        assertEquals(expected, getSubjectiveComputedScores(connection, tournamentID));
+        assertEquals(0, countUnmarkedRows(connection, tournamentID));
+
+        // remove one score, only the rows for that score change
+        final SubjectiveScoreCategory category = description.getSubjectiveCategories().get(0);
+        final int teamNumber;
+        final String judge;
+        try (PreparedStatement prep = connection.prepareStatement("SELECT TeamNumber, Judge FROM "
+            + category.getName()
+            + " WHERE Tournament = ?")) {
+          prep.setInt(1, tournamentID);
+          try (ResultSet rs = prep.executeQuery()) {
+            assertTrue(rs.next(), "No scores in "
+                + category.getName());
+            teamNumber = rs.getInt(1);
+            judge = rs.getString(2);
+          }
+        }
+        try (PreparedStatement prep = connection.prepareStatement("DELETE FROM "
+            + category.getName()
+            + " WHERE Tournament = ? AND TeamNumber = ? AND Judge = ?")) {
+          prep.setInt(1, tournamentID);
+          prep.setInt(2, teamNumber);
+          prep.setString(3, judge);
+          assertEquals(1, prep.executeUpdate());
+        }
+        expected.keySet().removeIf(key -> key.startsWith(category.getName()
+            + "|")
+            && key.endsWith("|"
+                + teamNumber
+                + "|"
+                + judge));
+
+        Queries.updateSubjectiveScoreTotals(description, connection, tournamentID);
+        assertEquals(expected, getSubjectiveComputedScores(connection, tournamentID));
+        assertEquals(0, countUnmarkedRows(connection, tournamentID));
+        assertTrue(connection.getAutoCommit());
+      }
+    } finally {
+      if (!tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+      TestUtils.deleteDatabase(database);
+    }
+  }
+
+  /**
+   * The running totals in subjective_score_statistics match the computed
+   * scores as they change and the standardized scores computed from them match
+   * computing the mean and standard deviation from the scores.
+   *
+   * @throws SQLException test error
+   * @throws IOException test error
+   */
+  @Test
+  public void testSubjectiveScoreStatistics() throws SQLException, IOException {
+    final String tournamentName = "11-21 Plymouth Middle";
+
+    final File tempFile = File.createTempFile("flltest", null);
+    final String database = tempFile.getAbsolutePath();
+    try {
+      final InputStream dumpFileIS = TestComputedScores.class.getResourceAsStream("data/plymouth-2009-11-21.zip");
+      assertNotNull(dumpFileIS, "Cannot find test data");
+
+      try (Connection connection = Utilities.createFileDataSource(database).getConnection()) {
+        final ImportDB.ImportResult importResult = ImportDB.loadFromDumpIntoNewDB(new ZipInputStream(dumpFileIS),
+                                                                                  connection);
+        TestUtils.deleteImportData(importResult);
+
+        final ChallengeDescription description = GlobalParameters.getChallengeDescription(connection);
+        final int tournamentID = Tournament.findTournamentByName(connection, tournamentName).getTournamentID();
+
+        Queries.updateSubjectiveScoreTotals(description, connection, tournamentID);
+        checkStatistics(connection, tournamentID);
+
+        ScoreStandardization.standardizeSubjectiveScores(connection, tournamentID);
+        checkStandardizedScores(connection, tournamentID);
+        assertEquals(0, countDirtyStatistics(connection, tournamentID, null, null));
+
+        // remove one score, only that judge needs to be standardized again
+        final SubjectiveScoreCategory category = description.getSubjectiveCategories().get(0);
+        final int teamNumber;
+        final String judge;
+        try (PreparedStatement prep = connection.prepareStatement("SELECT TeamNumber, Judge FROM "
+            + category.getName()
+            + " WHERE Tournament = ? AND NoShow = FALSE")) {
+          prep.setInt(1, tournamentID);
+          try (ResultSet rs = prep.executeQuery()) {
+            assertTrue(rs.next(), "No scores in "
+                + category.getName());
+            teamNumber = rs.getInt(1);
+            judge = rs.getString(2);
+          }
+        }
+        try (PreparedStatement prep = connection.prepareStatement("DELETE FROM "
+            + category.getName()
+            + " WHERE Tournament = ? AND TeamNumber = ? AND Judge = ?")) {
+          prep.setInt(1, tournamentID);
+          prep.setInt(2, teamNumber);
+          prep.setString(3, judge);
+          assertEquals(1, prep.executeUpdate());
+        }
+
+        Queries.updateSubjectiveScoreTotals(description, connection, tournamentID);
+        checkStatistics(connection, tournamentID);
+        final int dirty = countDirtyStatistics(connection, tournamentID, null, null);
+        assertTrue(dirty > 0, "Removing a score should mark the judge to be standardized again");
+        assertEquals(dirty, countDirtyStatistics(connection, tournamentID, category.getName(), judge));
+
+        ScoreStandardization.standardizeSubjectiveScores(connection, tournamentID);
+        checkStandardizedScores(connection, tournamentID);
+        assertEquals(0, countDirtyStatistics(connection, tournamentID, null, null));
+        assertTrue(connection.getAutoCommit());
+      }
+    } finally {
+      if (!tempFile.delete()) {
+        tempFile.deleteOnExit();
+      }
+      TestUtils.deleteDatabase(database);
+    }
+  }
+
+  /**
+   * Compare subjective_score_statistics with the totals computed from
+   * subjective_computed_scores.
+   */
+  private static void checkStatistics(final Connection connection,
+                                      final int tournamentID)
+      throws SQLException {
+    final Map<String, double[]> expected = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT category, goal_group, judge, computed_total"
+        + " FROM subjective_computed_scores"
+        + " WHERE tournament = ? AND no_show = FALSE AND computed_total IS NOT NULL")) {
+      prep.setInt(1, tournamentID);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final double[] totals = expected.computeIfAbsent(rs.getString(1)
+              + "|"
+              + rs.getString(2)
+              + "|"
+              + rs.getString(3), k -> new double[3]);
+          // count, sum, sum of squares, converted to mean and m2 below
+          final double score = rs.getDouble(4);
+          totals[0] += 1;
+          totals[1] += score;
+          totals[2] += score
+              * score;
+        }
+      }
+    }
+    assertFalse(expected.isEmpty(), "No subjective scores in the test data");
+    for (final double[] totals : expected.values()) {
+      final double mean = totals[1]
+          / totals[0];
+      totals[2] = totals[2]
+          - totals[0]
+              * mean
+              * mean;
+      totals[1] = mean;
+    }
+
+    try (PreparedStatement prep = connection.prepareStatement("SELECT category, goal_group, judge"
+        + ", score_count, score_mean, score_m2"
+        + " FROM subjective_score_statistics"
+        + " WHERE tournament = ?")) {
+      prep.setInt(1, tournamentID);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final String key = rs.getString(1)
+              + "|"
+              + rs.getString(2)
+              + "|"
+              + rs.getString(3);
+          final double[] totals = expected.remove(key);
+          if (null == totals) {
+            // judges that no longer have scores are left with empty totals
+            assertEquals(0, rs.getInt(4), key);
+          } else {
+            assertEquals((int) totals[0], rs.getInt(4), key);
+            assertEquals(totals[1], rs.getDouble(5), 1E-6, key);
+            assertEquals(totals[2], rs.getDouble(6), 1E-6, key);
+          }
+        }
+      }
+    }
+    assertTrue(expected.isEmpty(), "Missing statistics: "
+        + expected.keySet());
+  }
+
+  /**
+   * Compare the standardized scores with standardizing using the mean and
+   * standard deviation computed from the scores.
+   */
+  private static void checkStandardizedScores(final Connection connection,
+                                              final int tournamentID)
+      throws SQLException {
+    final double mean = GlobalParameters.getStandardizedMean(connection);
+    final double sigma = GlobalParameters.getStandardizedSigma(connection);
+
+    int checked = 0;
+    try (PreparedStatement prep = connection.prepareStatement("SELECT scores.standardized_score, scores.computed_total"
+        + ", judge_stats.sg_mean, judge_stats.sg_stdev, judge_stats.sg_count"
+        + " FROM subjective_computed_scores AS scores"
+        + " JOIN (SELECT category, goal_group, judge"
+        + "   , AVG(computed_total) AS sg_mean, stddev_pop(computed_total) AS sg_stdev, COUNT(computed_total) AS sg_count"
+        + "   FROM subjective_computed_scores"
+        + "   WHERE tournament = ? AND no_show = FALSE"
+        + "   GROUP BY category, goal_group, judge) AS judge_stats"
+        + " ON scores.category = judge_stats.category"
+        + " AND scores.goal_group = judge_stats.goal_group"
+        + " AND scores.judge = judge_stats.judge"
+        + " WHERE scores.tournament = ? AND scores.no_show = FALSE AND scores.computed_total IS NOT NULL")) {
+      prep.setInt(1, tournamentID);
+      prep.setInt(2, tournamentID);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          final double actual = rs.getDouble(1);
+          final boolean actualNull = rs.wasNull();
+          final double computedTotal = rs.getDouble(2);
+          final double sgMean = rs.getDouble(3);
+          final double sgStdev = rs.getDouble(4);
+          final int sgCount = rs.getInt(5);
+          if (sgCount > 1
+              && sgStdev > 1E-6) {
+            assertFalse(actualNull);
+            final double expected = ((computedTotal
+                - sgMean)
+                * (sigma
+                    / sgStdev))
+                + mean;
+            assertEquals(expected, actual, 1E-6);
+            ++checked;
+          } else if (sgCount <= 1) {
+            assertTrue(actualNull);
+          }
+        }
+      }
+    }
+    assertTrue(checked > 0, "No standardized scores were checked");
+  }
+
+  /**
+   * @param category if not null, only count statistics for this category
+   * @param judge if not null, only count statistics for this judge
+   * @return number of statistics that need to be standardized again
+   */
+  private static int countDirtyStatistics(final Connection connection,
+                                          final int tournamentID,
+                                          final @Nullable String category,
+                                          final @Nullable String judge)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("SELECT COUNT(*) FROM subjective_score_statistics"
+        + " WHERE tournament = ?"
+        + " AND (standardized_mean IS NULL OR standardized_sigma IS NULL)"
+        + " AND (CAST(? AS LONGVARCHAR) IS NULL OR category = ?)"
+        + " AND (CAST(? AS VARCHAR(64)) IS NULL OR judge = ?)")) {
+      prep.setInt(1, tournamentID);
+      prep.setString(2, category);
+      prep.setString(3, category);
+      prep.setString(4, judge);
+      prep.setString(5, judge);
+      try (ResultSet rs = prep.executeQuery()) {
+        assertTrue(rs.next());
+        return rs.getInt(1);
+      }
+    }
+  }
+
+  /**
+   * @return category|goal_group|team_number|judge -&gt; computed_total, NaN for
+   *         null
+   */
+  private static Map<String, Double> getSubjectiveComputedScores(final Connection connection,
+                                                                 final int tournamentID)
+      throws SQLException {
+    final Map<String, Double> scores = new HashMap<>();
+    try (PreparedStatement prep = connection.prepareStatement("SELECT category, goal_group, team_number, judge, computed_total"
+        + " FROM subjective_computed_scores WHERE tournament = ?")) {
+      prep.setInt(1, tournamentID);
+      try (ResultSet rs = prep.executeQuery()) {
+        while (rs.next()) {
+          double computedTotal = rs.getDouble(5);
+          if (rs.wasNull()) {
+            computedTotal = Double.NaN;
+          }
+          scores.put(rs.getString(1)
+              + "|"
+              + rs.getString(2)
+              + "|"
+              + rs.getInt(3)
+              + "|"
+              + rs.getString(4), computedTotal);
+        }
+      }
+    }
+    return scores;
+  }
+
+  private static int countUnmarkedRows(final Connection connection,
+                                       final int tournamentID)
+      throws SQLException {
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM subjective_computed_scores"
+            + " WHERE standardized_score IS NULL AND tournament = "
+            + tournamentID)) {
+      assertTrue(rs.next());
+      return rs.getInt(1);
+    }
+  }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+import fll.scheduler.SchedParams.InvalidParametersException;
+import fll.util.CellFileReader;
+
+/**
+ * Tests for {@link GreedySolver}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class GreedySolverTest {
+
+  /**
+   * Seed that finds more than 1 solution for tiny.properties, so there is
+   * search left to resume after the first solution.
+   */
+  private static final long RESUME_SEED = 2;
+
+  /**
+   * The schedule found for a small tournament has no hard constraint
+   * violations.
+   *
+   * @throws IOException test error
+   * @throws ParseException test error
+   * @throws InvalidParametersException test error
+   */
+  @Test
+  public void testSolve() throws IOException, ParseException, InvalidParametersException {
+    final Path basedir = Files.createTempDirectory("fll-greedy-solver");
+    try {
+      final File datafile = copyResource(basedir, "small.properties");
+      final GreedySolver solver = new GreedySolver(datafile, false);
+      assertEquals(1, solver.solve(null));
+
+      final TournamentSchedule schedule = solver.getIncumbent().getBestSchedule();
+      assertNotNull(schedule);
+      assertEquals(8, schedule.getSchedule().size());
+
+      final ScheduleChecker checker = new ScheduleChecker(solver.getParameters(), schedule);
+      final List<ConstraintViolation> hardViolations = checker.verifySchedule().stream()
+                                                             .filter(v -> ConstraintViolation.Type.HARD == v.getType())
+                                                             .collect(Collectors.toList());
+      assertTrue(hardViolations.isEmpty(), "Hard constraint violations: "
+          + hardViolations);
+    } finally {
+      deleteDirectory(basedir);
+    }
+  }
+
+  /**
+   * The first seed searches the same way as the solver did before it supported
+   * seeds. small-schedule.csv was written by that solver.
+   *
+   * @throws IOException test error
+   * @throws ParseException test error
+   * @throws InvalidParametersException test error
+   * @throws InvalidFormatException test error
+   */
+  @Test
+  public void testFirstSeedSchedule()
+      throws IOException, ParseException, InvalidParametersException, InvalidFormatException {
+    final Path basedir = Files.createTempDirectory("fll-greedy-solver");
+    try {
+      final File datafile = copyResource(basedir, "small.properties");
+      final File expected = copyResource(basedir, "small-schedule.csv");
+
+      final GreedySolver solver = new GreedySolver(datafile, false, 0, null);
+      solver.solve(null);
+
+      final File actual = solver.getBestSchedule();
+      assertNotNull(actual);
+      assertEquals(readCells(expected), readCells(actual));
+    } finally {
+      deleteDirectory(basedir);
+    }
+  }
+
+  /**
+   * Stopping an optimizing solve after the first solution and resuming it from
+   * the checkpoint finds the same best schedule as a solve that isn't stopped.
+   *
+   * @throws IOException test error
+   * @throws ParseException test error
+   * @throws InvalidParametersException test error
+   * @throws InvalidFormatException test error
+   */
+  @Test
+  public void testCheckpointResume()
+      throws IOException, ParseException, InvalidParametersException, InvalidFormatException {
+    final Path basedir = Files.createTempDirectory("fll-greedy-solver");
+    try {
+      final File fullDatafile = copyResource(Files.createDirectory(basedir.resolve("full")), "tiny.properties");
+      final GreedySolver full = new GreedySolver(fullDatafile, true, RESUME_SEED, null);
+      full.solve(null);
+      final ObjectiveValue fullObjective = full.getIncumbent().getBestObjective();
+      assertNotNull(fullObjective);
+      final File fullSchedule = full.getBestSchedule();
+      assertNotNull(fullSchedule);
+
+      final File datafile = copyResource(Files.createDirectory(basedir.resolve("resume")), "tiny.properties");
+      final GreedySolver stopped = new GreedySolver(datafile, true, RESUME_SEED, null);
+      stopped.solve(() -> stopped.getIncumbent().getNumSolutions() > 0);
+      assertTrue(stopped.getCheckpointFile().exists(), "Stopping the solve should leave a checkpoint");
+
+      final GreedySolver resumed = new GreedySolver(datafile, true, RESUME_SEED, null);
+      assertTrue(resumed.resumeFromCheckpoint());
+      resumed.solve(null);
+      assertFalse(resumed.getCheckpointFile().exists(), "Finishing the solve should remove the checkpoint");
+
+      final ObjectiveValue resumedObjective = resumed.getIncumbent().getBestObjective();
+      assertNotNull(resumedObjective);
+      assertEquals(0, fullObjective.compareTo(resumedObjective), "Objective after resume: "
+          + resumedObjective
+          + " without stopping: "
+          + fullObjective);
+      assertEquals(full.getNodes(), resumed.getNodes());
+
+      final File resumedSchedule = resumed.getBestSchedule();
+      assertNotNull(resumedSchedule);
+      assertEquals(readCells(fullSchedule), readCells(resumedSchedule));
+    } finally {
+      deleteDirectory(basedir);
+    }
+  }
+
+  /**
+   * Copy a file from the test data into a directory.
+   *
+   * @return the copy
+   */
+  /* package */ static File copyResource(final Path directory,
+                                         final String name)
+      throws IOException {
+    final Path file = directory.resolve(name);
+    try (InputStream stream = GreedySolverTest.class.getResourceAsStream("data/"
+        + name)) {
+      assertNotNull(stream, "Cannot find test data "
+          + name);
+      Files.copy(stream, file);
+    }
+    return file.toFile();
+  }
+
+  /* package */ static void deleteDirectory(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private static List<List<@Nullable String>> readCells(final File file) throws IOException, InvalidFormatException {
+    final List<List<@Nullable String>> cells = new ArrayList<>();
+    try (CellFileReader reader = CellFileReader.createCellReader(file, null)) {
+      @Nullable
+      String @Nullable [] line;
+      while (null != (line = reader.readNext())) {
+        cells.add(Arrays.asList(line));
+      }
+    }
+    return cells;
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+import fll.scheduler.SchedParams.InvalidParametersException;
+
+/**
+ * Tests for {@link PortfolioSolver}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class PortfolioSolverTest {
+
+  private static final int NUM_THREADS = 4;
+
+  private static final long FIRST_SEED = 0;
+
+  /**
+   * The best schedule of an optimizing portfolio is at least as good as the
+   * best schedule of each of its seeds solving by itself, and solving with the
+   * seed that found it repeats it.
+   *
+   * @throws IOException test error
+   * @throws ParseException test error
+   * @throws InvalidParametersException test error
+   */
+  @Test
+  public void testNeverWorseThanSingleSolver() throws IOException, ParseException, InvalidParametersException {
+    final Path basedir = Files.createTempDirectory("fll-portfolio-solver");
+    try {
+      final File datafile = GreedySolverTest.copyResource(basedir, "tiny.properties");
+
+      final PortfolioSolver portfolio = new PortfolioSolver(datafile, true, NUM_THREADS, FIRST_SEED, null);
+      assertTrue(portfolio.solve(null) > 0);
+      final ObjectiveValue best = portfolio.getIncumbent().getBestObjective();
+      assertNotNull(best);
+
+      for (int i = 0; i < NUM_THREADS; ++i) {
+        final long seed = FIRST_SEED
+            + i;
+        final GreedySolver solver = new GreedySolver(datafile, true, seed, null);
+        solver.solve(null);
+        final ObjectiveValue single = solver.getIncumbent().getBestObjective();
+        if (null != single) {
+          assertTrue(best.compareTo(single) <= 0, "Portfolio: "
+              + best
+              + " seed "
+              + seed
+              + ": "
+              + single);
+        }
+      }
+
+      final GreedySolver replay = new GreedySolver(datafile, true, portfolio.getIncumbent().getBestSeed(), null);
+      replay.solve(null);
+      final ObjectiveValue replayBest = replay.getIncumbent().getBestObjective();
+      assertNotNull(replayBest);
+      assertEquals(0, best.compareTo(replayBest), "Portfolio: "
+          + best
+          + " replay: "
+          + replayBest);
+    } finally {
+      GreedySolverTest.deleteDirectory(basedir);
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+
+/**
+ * Tests for {@link ScheduleChecker}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class ScheduleCheckerTest {
+
+  private static final List<String> TABLES = Arrays.asList("Red", "Blue", "Green");
+
+  private static final int NUM_TEAMS = 40;
+
+  private static final int NUM_ROUNDS = 3;
+
+  private static final LocalTime START = LocalTime.of(9, 0);
+
+  /**
+   * The checks run in parallel, the violations must still be in the order of
+   * running the checks one after the other.
+   */
+  @Test
+  public void testParallelMatchesSequential() {
+    final SchedParams params = new SchedParams(Arrays.asList(new SubjectiveStation("Project", 20),
+                                                             new SubjectiveStation("Robot", 20)),
+                                               15, 15, 15);
+    final ScheduleChecker checker = new ScheduleChecker(params, createSchedule());
+
+    final List<ConstraintViolation> sequential = new LinkedList<>();
+    for (final Consumer<Collection<ConstraintViolation>> check : checker.getChecks()) {
+      check.accept(sequential);
+    }
+    final List<String> expected = describe(sequential);
+
+    // violations from many teams and the checks across teams, so that out of
+    // order collection would show
+    assertTrue(sequential.stream().map(ConstraintViolation::getTeam).distinct().count() > NUM_TEAMS
+        / 2, "Not enough teams with violations: "
+            + expected);
+    assertTrue(sequential.stream().anyMatch(v -> ConstraintViolation.Type.HARD == v.getType()),
+               "No hard violations: "
+                   + expected);
+    assertTrue(sequential.stream().anyMatch(v -> ConstraintViolation.Type.SOFT == v.getType()),
+               "No soft violations: "
+                   + expected);
+
+    for (int i = 0; i < 20; ++i) {
+      assertEquals(expected, describe(checker.verifySchedule()));
+    }
+  }
+
+  private static List<String> describe(final List<ConstraintViolation> violations) {
+    return violations.stream()
+                     .map(v -> v.getType()
+                         + " "
+                         + v.getTeam()
+                         + " "
+                         + v.getMessage())
+                     .collect(Collectors.toList());
+  }
+
+  /**
+   * Judging sessions every 5 minutes with a single judging group and
+   * performances at random tables and sides, so most teams have violations.
+   */
+  private static TournamentSchedule createSchedule() {
+    final Random random = new Random(42);
+    final List<TeamScheduleInfo> teams = new ArrayList<>();
+    for (int index = 0; index < NUM_TEAMS; ++index) {
+      final TeamScheduleInfo ti = new TeamScheduleInfo(index
+          + 1);
+      ti.setTeamName("Team "
+          + ti.getTeamNumber());
+      ti.setOrganization("Org");
+      ti.setDivision("A");
+      ti.setJudgingGroup("J");
+
+      ti.addSubjectiveTime(new SubjectiveTime("Project", START.plusMinutes(5
+          * index)));
+      ti.addSubjectiveTime(new SubjectiveTime("Robot", START.plusMinutes(5
+          * index
+          + 40)));
+
+      for (int round = 0; round < NUM_ROUNDS; ++round) {
+        final LocalTime time = START.plusHours(round).plusMinutes(10
+            * (index
+                / 6));
+        ti.addPerformance(new PerformanceTime(time, TABLES.get(random.nextInt(TABLES.size())), 1
+            + random.nextInt(2), false));
+      }
+
+      teams.add(ti);
+    }
+
+    return new TournamentSchedule("test", teams, Arrays.asList("Project", "Robot"));
+  }
+
+}
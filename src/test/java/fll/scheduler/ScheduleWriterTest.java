@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.xml.transform.TransformerException;
+
+import org.apache.fop.apps.FOPException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import fll.TestUtils;
+import fll.util.FOPUtils;
+
+/**
+ * Tests for {@link ScheduleWriter}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class ScheduleWriterTest {
+
+  private static final int NUM_TEAMS = 45;
+
+  private static final Pattern PAGE_NUMBER = Pattern.compile("Page \\d+ of \\d+");
+
+  /**
+   * The team schedules are a single document with page numbers that count
+   * through all of the teams.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testTeamSchedules() throws IOException {
+    final SchedParams params = new SchedParams(Arrays.asList(new SubjectiveStation("Project", 20),
+                                                             new SubjectiveStation("Robot", 20)),
+                                               5, 15, 15);
+    final TournamentSchedule schedule = createSchedule();
+
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      ScheduleWriter.outputTeamSchedules(schedule, params, out);
+
+      final List<String> pages = getPageText(out.toByteArray());
+      assertTrue(pages.size() > 1, "Expecting the teams to need multiple pages: "
+          + pages.size());
+      for (int index = 0; index < pages.size(); ++index) {
+        final String pageNumber = String.format("Page %d of %d", index
+            + 1, pages.size());
+        assertTrue(pages.get(index).contains(pageNumber), "Missing '"
+            + pageNumber
+            + "' in: "
+            + pages.get(index));
+      }
+    }
+  }
+
+  /**
+   * Each subjective station is rendered separately and merged into a single
+   * PDF. The pages match rendering all stations as one document.
+   *
+   * @throws IOException test error
+   * @throws FOPException test error
+   * @throws TransformerException test error
+   */
+  @Test
+  public void testSubjectiveSchedulesByJudgingStation() throws IOException, FOPException, TransformerException {
+    final TournamentSchedule schedule = createSchedule();
+
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      ScheduleWriter.outputSubjectiveSchedulesByJudgingStation(schedule, out);
+
+      final byte[] single = renderSingleDocument(ScheduleWriter.createSubjectiveSchedulesByJudgingStation(schedule));
+      assertEquals(getPageContent(single), getPageContent(out.toByteArray()));
+    }
+  }
+
+  /**
+   * Each table side is rendered separately and merged into a single PDF. The
+   * pages match rendering all tables as one document.
+   *
+   * @throws IOException test error
+   * @throws FOPException test error
+   * @throws TransformerException test error
+   */
+  @Test
+  public void testPerformanceSchedulePerTable() throws IOException, FOPException, TransformerException {
+    final TournamentSchedule schedule = createSchedule();
+
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      ScheduleWriter.outputPerformanceSchedulePerTableByTime(schedule, out);
+
+      final byte[] single = renderSingleDocument(ScheduleWriter.createPerformanceSchedulePerTable(schedule));
+      assertEquals(getPageContent(single), getPageContent(out.toByteArray()));
+    }
+  }
+
+  /**
+   * Render the documents as one document the way the schedules were written
+   * before they were split, each document starts a new page.
+   */
+  private static byte[] renderSingleDocument(final List<Document> documents)
+      throws IOException, FOPException, TransformerException {
+    assertTrue(documents.size() > 1, "Expecting multiple documents: "
+        + documents.size());
+
+    final Document single = documents.get(0);
+    final Element singleBody = getBody(single);
+    for (final Document document : documents.subList(1, documents.size())) {
+      final NodeList children = getBody(document).getChildNodes();
+      for (int index = 0; index < children.getLength(); ++index) {
+        final Element child = (Element) single.importNode(children.item(index), true);
+        if (0 == index) {
+          child.setAttribute("page-break-before", "always");
+        }
+        singleBody.appendChild(child);
+      }
+    }
+
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      FOPUtils.renderPdf(FOPUtils.createSimpleFopFactory(), single, out);
+      return out.toByteArray();
+    }
+  }
+
+  private static Element getBody(final Document document) {
+    final NodeList flows = document.getElementsByTagNameNS(FOPUtils.XSL_FO_NAMESPACE, "flow");
+    assertEquals(1, flows.getLength());
+    return (Element) flows.item(0);
+  }
+
+  /**
+   * @return the text of each page without the page numbers
+   */
+  private static List<String> getPageContent(final byte[] pdfData) throws IOException {
+    return getPageText(pdfData).stream() //
+                               .map(text -> PAGE_NUMBER.matcher(text).replaceAll("")) //
+                               .collect(Collectors.toList());
+  }
+
+  /**
+   * @return the text of each page
+   */
+  private static List<String> getPageText(final byte[] pdfData) throws IOException {
+    final List<String> pages = new ArrayList<>();
+    try (PDDocument pdf = PDDocument.load(pdfData)) {
+      final PDFTextStripper stripper = new PDFTextStripper();
+      for (int page = 1; page <= pdf.getNumberOfPages(); ++page) {
+        stripper.setStartPage(page);
+        stripper.setEndPage(page);
+        pages.add(stripper.getText(pdf));
+      }
+    }
+    return pages;
+  }
+
+  private static TournamentSchedule createSchedule() {
+    final List<TeamScheduleInfo> teams = new ArrayList<>();
+    for (int index = 0; index < NUM_TEAMS; ++index) {
+      final TeamScheduleInfo ti = new TeamScheduleInfo(index
+          + 1);
+      ti.setTeamName("Team "
+          + ti.getTeamNumber());
+      ti.setOrganization("Org");
+      ti.setDivision("A");
+      ti.setJudgingGroup("J");
+      ti.addSubjectiveTime(new SubjectiveTime("Project", LocalTime.of(9, 0).plusMinutes(20
+          * index)));
+      ti.addSubjectiveTime(new SubjectiveTime("Robot", LocalTime.of(9, 20).plusMinutes(20
+          * index)));
+      ti.addPerformance(new PerformanceTime(LocalTime.of(8, 0).plusMinutes(10
+          * (index
+              / 2)), "Red", index
+                  % 2
+                  + 1, false));
+      teams.add(ti);
+    }
+
+    return new TournamentSchedule("test", teams, Arrays.asList("Project", "Robot"));
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+
+/**
+ * Tests for {@link TableAssignmentScorer}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class TableAssignmentScorerTest {
+
+  private static final List<String> TABLES = Arrays.asList("Red", "Blue");
+
+  private static final int NUM_TEAMS = 9;
+
+  private static final int NUM_ROUNDS = 3;
+
+  private static final LocalTime START = LocalTime.of(9, 0);
+
+  /**
+   * Move teams between tables at random and check that the scorer always
+   * agrees with a full run of {@link ScheduleChecker}.
+   */
+  @Test
+  public void testMatchesChecker() {
+    final SchedParams params = new SchedParams(Arrays.asList(new SubjectiveStation("Project", 20),
+                                                             new SubjectiveStation("Robot", 20)),
+                                               15, 15, 15);
+    final TournamentSchedule schedule = createSchedule();
+
+    final TableAssignmentScorer scorer = new TableAssignmentScorer(params, schedule);
+    assertScore(params, schedule, scorer);
+
+    final List<LocalTime> times = new ArrayList<>(schedule.getMatches().keySet());
+    final Random random = new Random(42);
+    for (int i = 0; i < 500; ++i) {
+      final LocalTime time = times.get(random.nextInt(times.size()));
+      for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+        final PerformanceTime current = ti.getPerformanceAtTime(time);
+        if (null != current) {
+          // tables and sides may be reused so that the hard constraints are
+          // exercised as well
+          final PerformanceTime moved = new PerformanceTime(time, TABLES.get(random.nextInt(TABLES.size())),
+                                                            1
+                                                                + random.nextInt(2),
+                                                            current.isPractice());
+          schedule.reassignTable(ti, time, moved);
+        }
+      }
+      scorer.update(time);
+
+      assertScore(params, schedule, scorer);
+    }
+  }
+
+  private static void assertScore(final SchedParams params,
+                                  final TournamentSchedule schedule,
+                                  final TableAssignmentScorer scorer) {
+    final int expectedViolations = new ScheduleChecker(params, schedule).verifySchedule().size();
+    assertEquals(expectedViolations, scorer.getNumViolations());
+
+    final Map<String, Integer> tableUse = new HashMap<>();
+    for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+      ti.allPerformances().forEach(performance -> tableUse.merge(performance.getTable(), 1, Integer::sum));
+    }
+    final int expectedTableUse = tableUse.values().stream().mapToInt(Integer::intValue).max().orElse(0)
+        - tableUse.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+    assertEquals(expectedTableUse, scorer.getTableUseScore());
+  }
+
+  /**
+   * Each round has 2 full times and a time with a single team. The last team
+   * has overlapping subjective times so that the checker skips its table
+   * checks.
+   */
+  private static TournamentSchedule createSchedule() {
+    final List<TeamScheduleInfo> teams = new ArrayList<>();
+    for (int index = 0; index < NUM_TEAMS; ++index) {
+      final TeamScheduleInfo ti = new TeamScheduleInfo(index
+          + 1);
+      ti.setTeamName("Team "
+          + ti.getTeamNumber());
+      ti.setOrganization("Org");
+      ti.setDivision("A");
+      ti.setJudgingGroup("J");
+
+      final LocalTime project = LocalTime.of(13, 0).plusMinutes(20
+          * index);
+      ti.addSubjectiveTime(new SubjectiveTime("Project", project));
+      if (index == NUM_TEAMS
+          - 1) {
+        ti.addSubjectiveTime(new SubjectiveTime("Robot", project));
+      } else {
+        ti.addSubjectiveTime(new SubjectiveTime("Robot", LocalTime.of(17, 0).plusMinutes(20
+            * index)));
+      }
+
+      final int slot = index
+          / 4;
+      final int position = index
+          % 4;
+      for (int round = 0; round < NUM_ROUNDS; ++round) {
+        final LocalTime time = START.plusHours(round).plusMinutes(10
+            * slot);
+        // shift the tables each round so the schedule doesn't start with the
+        // same sides reused
+        final int shifted = (position
+            + round)
+            % 4;
+        ti.addPerformance(new PerformanceTime(time, TABLES.get(shifted
+            / 2), shifted
+                % 2
+                + 1, false));
+      }
+
+      teams.add(ti);
+    }
+
+    return new TournamentSchedule("test", teams, Arrays.asList("Project", "Robot"));
+  }
+
+}
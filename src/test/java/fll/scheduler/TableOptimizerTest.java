@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+
+/**
+ * Tests for {@link TableOptimizer}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class TableOptimizerTest {
+
+  /**
+   * The times that aren't full have no teams in common and are optimized in
+   * parallel. The result must be the same no matter how many threads are used
+   * and better than the original schedule.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testDeterministic() throws IOException {
+    final Map<Integer, List<PerformanceTime>> single = optimize(1);
+    final Map<Integer, List<PerformanceTime>> parallel = optimize(4);
+    assertEquals(single, parallel);
+
+    final Map<String, Integer> tableUse = new HashMap<>();
+    parallel.values().forEach(performances -> performances.forEach(p -> tableUse.merge(p.getTable(), 1,
+                                                                                        Integer::sum)));
+    assertTrue(Math.abs(tableUse.get("Red")
+        - tableUse.get("Blue")) < 6, "Table use should be more even: "
+            + tableUse);
+  }
+
+  private static Map<Integer, List<PerformanceTime>> optimize(final int numThreads) throws IOException {
+    final SchedParams params = new SchedParams(Arrays.asList(new SubjectiveStation("Project", 20),
+                                                             new SubjectiveStation("Robot", 20)),
+                                               5, 15, 15);
+    final TournamentSchedule schedule = createSchedule();
+
+    final Path basedir = Files.createTempDirectory("fll-table-optimizer");
+    try {
+      final TableOptimizer optimizer = new TableOptimizer(params, schedule, basedir.toFile(), numThreads);
+      optimizer.optimize(() -> false);
+    } finally {
+      try (Stream<Path> files = Files.walk(basedir)) {
+        files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+      }
+    }
+
+    final Map<Integer, List<PerformanceTime>> result = new HashMap<>();
+    for (final TeamScheduleInfo ti : schedule.getSchedule()) {
+      result.put(ti.getTeamNumber(), new ArrayList<>(ti.getAllPerformances()));
+    }
+    return result;
+  }
+
+  private static TournamentSchedule createSchedule() {
+    final Map<Integer, TeamScheduleInfo> teams = new HashMap<>();
+    for (int teamNumber = 1; teamNumber <= 6; ++teamNumber) {
+      final TeamScheduleInfo ti = new TeamScheduleInfo(teamNumber);
+      ti.setTeamName("Team "
+          + teamNumber);
+      ti.setOrganization("Org");
+      ti.setDivision("A");
+      ti.setJudgingGroup("J");
+      ti.addSubjectiveTime(new SubjectiveTime("Project", LocalTime.of(13, 0).plusMinutes(20
+          * teamNumber)));
+      ti.addSubjectiveTime(new SubjectiveTime("Robot", LocalTime.of(16, 0).plusMinutes(20
+          * teamNumber)));
+      teams.put(teamNumber, ti);
+    }
+
+    // each round has a full time and a time 10 minutes later with a single
+    // table used, there are no violations, but Red is used twice as often as
+    // Blue
+    final LocalTime round1 = LocalTime.of(9, 0);
+    addPerformance(teams, 1, round1, "Red", 1);
+    addPerformance(teams, 2, round1, "Red", 2);
+    addPerformance(teams, 3, round1, "Blue", 1);
+    addPerformance(teams, 4, round1, "Blue", 2);
+    addPerformance(teams, 5, round1.plusMinutes(10), "Red", 1);
+    addPerformance(teams, 6, round1.plusMinutes(10), "Red", 2);
+
+    final LocalTime round2 = LocalTime.of(10, 0);
+    addPerformance(teams, 4, round2, "Red", 1);
+    addPerformance(teams, 5, round2, "Red", 2);
+    addPerformance(teams, 2, round2, "Blue", 1);
+    addPerformance(teams, 6, round2, "Blue", 2);
+    addPerformance(teams, 3, round2.plusMinutes(10), "Red", 1);
+    addPerformance(teams, 1, round2.plusMinutes(10), "Red", 2);
+
+    final LocalTime round3 = LocalTime.of(11, 0);
+    addPerformance(teams, 6, round3, "Red", 1);
+    addPerformance(teams, 3, round3, "Red", 2);
+    addPerformance(teams, 5, round3, "Blue", 1);
+    addPerformance(teams, 1, round3, "Blue", 2);
+    addPerformance(teams, 2, round3.plusMinutes(10), "Red", 1);
+    addPerformance(teams, 4, round3.plusMinutes(10), "Red", 2);
+
+    return new TournamentSchedule("test", teams.values(), Arrays.asList("Project", "Robot"));
+  }
+
+  private static void addPerformance(final Map<Integer, TeamScheduleInfo> teams,
+                                     final int teamNumber,
+                                     final LocalTime time,
+                                     final String table,
+                                     final int side) {
+    teams.get(teamNumber).addPerformance(new PerformanceTime(time, table, side, false));
+  }
+
+}
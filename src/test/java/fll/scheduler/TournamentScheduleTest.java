@@ -9,7 +9,10 @@ package fll.scheduler;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -22,7 +25,9 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.text.ParseException;
+import java.time.LocalTime;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -38,10 +43,14 @@ import fll.TournamentLevel;
 import fll.Utilities;
 import fll.db.CategoryColumnMapping;
 import fll.db.GenerateDB;
+import fll.db.ImportDB;
 import fll.db.Queries;
 import fll.scheduler.TournamentSchedule.ColumnInformation;
 import fll.util.CellFileReader;
 import fll.util.ExcelCellReader;
+import fll.web.ScheduleCache;
+import fll.web.event.TournamentEvent;
+import fll.web.event.TournamentEventBus;
 import fll.xml.ChallengeDescription;
 import fll.xml.ChallengeParser;
 import net.mtu.eggplant.util.sql.SQLFunctions;
@@ -183,7 +192,146 @@ public class TournamentScheduleTest {
       final boolean existsAfter = TournamentSchedule.scheduleExistsInDatabase(memConnection,
                                                                               tournament.getTournamentID());
       assertTrue(existsAfter, "Schedule should exist now that it's been stored");
+
+      // the cache shares the stored schedule until it's invalidated
+      final TournamentSchedule cached = ScheduleCache.getSchedule(memConnection, tournament.getTournamentID());
+      assertEquals(schedule.getSchedule().size(), cached.getSchedule().size());
+      assertSame(cached, ScheduleCache.getSchedule(memConnection, tournament.getTournamentID()));
+
+      ScheduleCache.invalidate(tournament.getTournamentID());
+      final TournamentSchedule reloaded = ScheduleCache.getSchedule(memConnection, tournament.getTournamentID());
+      assertNotSame(cached, reloaded);
+      assertSame(reloaded, ScheduleCache.getSchedule(memConnection, tournament.getTournamentID()));
+
+      ScheduleCache.invalidate(TournamentEvent.ALL_TOURNAMENTS);
+      assertNotSame(reloaded, ScheduleCache.getSchedule(memConnection, tournament.getTournamentID()));
+      ScheduleCache.clear();
+
+      // a failed store leaves the previous schedule in place, team 999 isn't in
+      // the database
+      final TeamScheduleInfo unknownTeam = new TeamScheduleInfo(999);
+      unknownTeam.setJudgingGroup("Group");
+      unknownTeam.addPerformance(new PerformanceTime(LocalTime.of(9, 0), "Red", 1, false));
+      final TournamentSchedule badSchedule = new TournamentSchedule("Bad", Collections.singletonList(unknownTeam),
+                                                                    Collections.emptyList());
+      assertThrows(SQLException.class, () -> badSchedule.storeSchedule(memConnection, tournament.getTournamentID()));
+      assertTrue(memConnection.getAutoCommit());
+
+      final TournamentSchedule afterFailure = new TournamentSchedule(memConnection, tournament.getTournamentID());
+      assertEquals(schedule.getSchedule().size(), afterFailure.getSchedule().size());
+      assertNull(afterFailure.getSchedInfoForTeam(999));
+    }
+  }
+
+  /**
+   * Storing a schedule inside a caller's transaction leaves the transaction
+   * open, so rolling it back removes the schedule.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testStoreScheduleInCallerTransaction() throws SQLException {
+    Utilities.loadDBDriver();
+
+    final String tournamentName = "ut_ts_caller_transaction";
+    final InputStream stream = TournamentScheduleTest.class.getResourceAsStream("/fll/db/data/challenge-test.xml");
+    assertNotNull(stream);
+    final ChallengeDescription description = ChallengeParser.parse(new InputStreamReader(stream,
+                                                                                         Utilities.DEFAULT_CHARSET));
+
+    try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:ut_ts_caller_transaction")) {
+      final int tournamentID = createTournamentWithTeams(description, connection, tournamentName, 2);
+
+      connection.setAutoCommit(false);
+      try {
+        createSchedule(1, 2).storeSchedule(connection, tournamentID);
+        assertFalse(connection.getAutoCommit());
+        assertTrue(TournamentSchedule.scheduleExistsInDatabase(connection, tournamentID));
+
+        connection.rollback();
+        TournamentEventBus.transactionRolledBack(connection);
+        assertFalse(TournamentSchedule.scheduleExistsInDatabase(connection, tournamentID));
+
+        createSchedule(1).storeSchedule(connection, tournamentID);
+        connection.commit();
+        TournamentEventBus.transactionCommitted(connection);
+      } finally {
+        connection.setAutoCommit(true);
+      }
+      assertTrue(TournamentSchedule.scheduleExistsInDatabase(connection, tournamentID));
+    }
+  }
+
+  /**
+   * Importing a tournament drops the cached schedule as soon as the import has
+   * committed, so the next read returns the imported schedule.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testImportInvalidatesScheduleCache() throws SQLException {
+    Utilities.loadDBDriver();
+
+    final String tournamentName = "ut_ts_import_cache";
+    final InputStream stream = TournamentScheduleTest.class.getResourceAsStream("/fll/db/data/challenge-test.xml");
+    assertNotNull(stream);
+    final ChallengeDescription description = ChallengeParser.parse(new InputStreamReader(stream,
+                                                                                         Utilities.DEFAULT_CHARSET));
+
+    ScheduleCache.subscribe();
+    try (Connection source = DriverManager.getConnection("jdbc:hsqldb:mem:ut_ts_import_cache_source");
+        Connection dest = DriverManager.getConnection("jdbc:hsqldb:mem:ut_ts_import_cache_dest")) {
+      final int sourceTournament = createTournamentWithTeams(description, source, tournamentName, 2);
+      final int destTournament = createTournamentWithTeams(description, dest, tournamentName, 2);
+
+      createSchedule(1, 2).storeSchedule(source, sourceTournament);
+      createSchedule(1).storeSchedule(dest, destTournament);
+
+      final TournamentSchedule before = ScheduleCache.getSchedule(dest, destTournament);
+      assertEquals(1, before.getSchedule().size());
+      assertSame(before, ScheduleCache.getSchedule(dest, destTournament));
+
+      ImportDB.importDatabase(source, dest, tournamentName, false, false, false);
+
+      // read immediately, without waiting for the asynchronous delivery
+      final TournamentSchedule after = ScheduleCache.getSchedule(dest, destTournament);
+      assertNotSame(before, after);
+      assertEquals(2, after.getSchedule().size());
+    } finally {
+      TournamentEventBus.unsubscribeAll();
+      ScheduleCache.clear();
+    }
+  }
+
+  private static int createTournamentWithTeams(final ChallengeDescription description,
+                                               final Connection connection,
+                                               final String tournamentName,
+                                               final int numTeams)
+      throws SQLException {
+    GenerateDB.generateDB(description, connection);
+    Tournament.createTournament(connection, tournamentName, null, null,
+                                TournamentLevel.getByName(connection, TournamentLevel.DEFAULT_TOURNAMENT_LEVEL_NAME));
+    final int tournamentID = Tournament.findTournamentByName(connection, tournamentName).getTournamentID();
+    for (int teamNumber = 1; teamNumber <= numTeams; ++teamNumber) {
+      assertNull(Queries.addTeam(connection, teamNumber, teamNumber
+          + " Name", teamNumber
+              + " School"));
+      Queries.addTeamToTournament(connection, teamNumber, tournamentID, GenerateDB.DEFAULT_TEAM_DIVISION,
+                                  GenerateDB.DEFAULT_TEAM_DIVISION);
+    }
+    return tournamentID;
+  }
+
+  private static TournamentSchedule createSchedule(final int... teamNumbers) {
+    final List<TeamScheduleInfo> teams = new LinkedList<>();
+    for (final int teamNumber : teamNumbers) {
+      final TeamScheduleInfo team = new TeamScheduleInfo(teamNumber);
+      team.setJudgingGroup(GenerateDB.DEFAULT_TEAM_DIVISION);
+      team.setDivision(GenerateDB.DEFAULT_TEAM_DIVISION);
+      team.addPerformance(new PerformanceTime(LocalTime.of(9, teamNumber), "Red", 1, false));
+      teams.add(team);
     }
+    return new TournamentSchedule("Import", teams, Collections.emptyList());
   }
 
   /**
@@ -274,6 +422,41 @@ public class TournamentScheduleTest {
     }
   }
 
+  /**
+   * Lookups by team number and time follow changes to the schedule.
+   */
+  @Test
+  public void testLookups() {
+    final List<TeamScheduleInfo> teams = new LinkedList<>();
+    for (int teamNumber = 1; teamNumber <= 2; ++teamNumber) {
+      final TeamScheduleInfo ti = new TeamScheduleInfo(teamNumber);
+      ti.addPerformance(new PerformanceTime(LocalTime.of(9, 0), "Red", teamNumber, false));
+      teams.add(ti);
+    }
+    // the same team twice is ignored
+    teams.add(new TeamScheduleInfo(1));
+
+    final TournamentSchedule schedule = new TournamentSchedule("test", teams, Collections.emptyList());
+    assertEquals(2, schedule.getSchedule().size());
+
+    final TeamScheduleInfo team1 = schedule.getSchedInfoForTeam(1);
+    assertNotNull(team1);
+    assertEquals(1, team1.getTeamNumber());
+    assertNull(schedule.getSchedInfoForTeam(3));
+
+    final TeamScheduleInfo team2 = schedule.getSchedInfoForTeam(2);
+    assertNotNull(team2);
+    final PerformanceTime original = team1.getPerformanceAtTime(LocalTime.of(9, 0));
+    assertNotNull(original);
+    assertEquals(team2, schedule.findOpponent(team1, original));
+    assertNull(team1.getPerformanceAtTime(LocalTime.of(10, 0)));
+
+    final PerformanceTime moved = new PerformanceTime(LocalTime.of(9, 0), "Blue", 1, false);
+    schedule.reassignTable(team1, LocalTime.of(9, 0), moved);
+    assertEquals(moved, team1.getPerformanceAtTime(LocalTime.of(9, 0)));
+    assertNull(schedule.findOpponent(team1, moved));
+  }
+
   private TournamentSchedule loadSchedule(final URL path,
                                           final TournamentSchedule.ColumnInformation columnInfo)
       throws IOException, InvalidFormatException, ParseException, ScheduleParseException {
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+
+/**
+ * Tests for {@link XlsxCellReader}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class XlsxCellReaderTest {
+
+  private static final String SHEET_NAME = "Teams";
+
+  private Path file;
+
+  /**
+   * Create a workbook with a header, strings, integers, decimals, times, blank
+   * and missing cells, missing rows, booleans and formulas with a number and a
+   * time result.
+   *
+   * @throws IOException test error
+   */
+  @BeforeEach
+  public void setup() throws IOException {
+    file = Files.createTempFile("fll-xlsx-reader", ".xlsx");
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+      workbook.createSheet("Empty");
+      final Sheet sheet = workbook.createSheet(SHEET_NAME);
+
+      final CellStyle timeStyle = workbook.createCellStyle();
+      timeStyle.setDataFormat(workbook.createDataFormat().getFormat("h:mm AM/PM"));
+
+      final Row header = sheet.createRow(0);
+      header.createCell(0).setCellValue("Team #");
+      header.createCell(1).setCellValue("Name");
+      header.createCell(2).setCellValue("Time");
+      header.createCell(3).setCellValue("Score");
+      header.createCell(4).setCellValue("Paid");
+      header.createCell(5).setCellValue("Double");
+      header.createCell(6).setCellValue("End");
+
+      final Row team1 = sheet.createRow(1);
+      team1.createCell(0).setCellValue(1);
+      team1.createCell(1).setCellValue("Robots");
+      // 1:20 PM as a fraction of a day
+      team1.createCell(2).setCellValue((13
+          * 60
+          + 20)
+          / (24.0
+              * 60));
+      team1.getCell(2).setCellStyle(timeStyle);
+      team1.createCell(3).setCellValue(12.5);
+      team1.createCell(4).setCellValue(true);
+      team1.createCell(5).setCellFormula("A2*2");
+      // 20 minutes after the time
+      team1.createCell(6).setCellFormula("C2+1/72");
+      team1.getCell(6).setCellStyle(timeStyle);
+
+      // row 3 is missing
+
+      final Row team2 = sheet.createRow(3);
+      team2.createCell(0).setCellValue(22);
+      // name is missing
+      team2.createCell(2).setCellStyle(timeStyle);
+      team2.createCell(3).setCellValue(7);
+      team2.createCell(4).setCellValue(false);
+      team2.createCell(5).setCellFormula("A4*2");
+
+      workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+      try (OutputStream out = Files.newOutputStream(file)) {
+        workbook.write(out);
+      }
+    }
+  }
+
+  /**
+   * @throws IOException test error
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Every row matches {@link ExcelCellReader}.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testMatchesExcelCellReader() throws IOException {
+    try (InputStream stream = Files.newInputStream(file);
+        ExcelCellReader expected = new ExcelCellReader(stream, SHEET_NAME);
+        XlsxCellReader actual = new XlsxCellReader(file, SHEET_NAME)) {
+      @Nullable
+      String @Nullable [] expectedRow;
+      while (null != (expectedRow = expected.readNext())) {
+        final @Nullable String @Nullable [] actualRow = actual.readNext();
+        assertArrayEquals(expectedRow, actualRow, "Line "
+            + expected.getLineNumber()
+            + " expected: "
+            + Arrays.toString(expectedRow)
+            + " actual: "
+            + Arrays.toString(actualRow));
+        assertEquals(expected.getLineNumber(), actual.getLineNumber());
+      }
+      assertNull(actual.readNext());
+    }
+  }
+
+  /**
+   * Check the values that the schedule and team uploads depend on. The result
+   * of a formula is formatted with the style of the cell.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testValues() throws IOException {
+    try (XlsxCellReader reader = new XlsxCellReader(file, SHEET_NAME)) {
+      assertArrayEquals(new String[] { "Team #", "Name", "Time", "Score", "Paid", "Double", "End" }, reader.readNext());
+      assertArrayEquals(new String[] { "1", "Robots", "01:20:00 PM", "12.5", "TRUE", "2", "1:40 PM" }, reader.readNext());
+      assertArrayEquals(new String[0], reader.readNext());
+      assertArrayEquals(new String[] { "22", null, "", "7", "FALSE", "44" }, reader.readNext());
+      assertEquals(3, reader.getLineNumber());
+      assertNull(reader.readNext());
+    }
+  }
+
+  /**
+   * Sheet names are read from the workbook index.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testSheetNames() throws IOException {
+    assertTrue(XlsxCellReader.isXlsxFile(file));
+    assertEquals(Arrays.asList("Empty", SHEET_NAME), XlsxCellReader.getAllSheetNames(file));
+    assertEquals(Arrays.asList("Empty", SHEET_NAME), ExcelCellReader.getAllSheetNames(file.toFile()));
+    try (InputStream stream = Files.newInputStream(file)) {
+      assertEquals(Arrays.asList("Empty", SHEET_NAME), ExcelCellReader.getAllSheetNames(stream));
+    }
+
+    try (XlsxCellReader reader = new XlsxCellReader(file, "Empty")) {
+      assertNull(reader.readNext());
+    }
+
+    assertThrows(IOException.class, () -> new XlsxCellReader(file, "Missing"));
+  }
+
+  /**
+   * {@link CellFileReader#createCellReader(Path, String)} streams XLSX files.
+   *
+   * @throws Exception test error
+   */
+  @Test
+  public void testCreateCellReader() throws Exception {
+    try (CellFileReader reader = CellFileReader.createCellReader(file, SHEET_NAME)) {
+      assertTrue(reader instanceof XlsxCellReader);
+    }
+
+    final Path csv = Files.createTempFile("fll-xlsx-reader", ".csv");
+    try {
+      Files.write(csv, Arrays.asList("a,b", "1,2"));
+      assertFalse(XlsxCellReader.isXlsxFile(csv));
+    } finally {
+      Files.delete(csv);
+    }
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.Team;
+import fll.TestUtils;
+import fll.Tournament;
+import fll.TournamentLevel;
+import fll.TournamentTeam;
+import fll.Utilities;
+import fll.db.GenerateDB;
+import fll.db.Queries;
+import fll.util.FLLRuntimeException;
+import fll.xml.ChallengeDescription;
+import fll.xml.ChallengeParser;
+
+/**
+ * Tests for {@link UploadTeams}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class UploadTeamsTest {
+
+  private static final String EXISTING_TOURNAMENT = "Region";
+
+  private static final String NEW_TOURNAMENT = "State";
+
+  /**
+   * Teams are added, tournaments that don't exist are created and the teams are
+   * added to their tournaments.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testImportTeams() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_upload_teams_import")) {
+      insertRow(connection, "1", "Team 1", "School 1", NEW_TOURNAMENT, "D1", "J1");
+      insertRow(connection, "2.0", "Team 2", null, NEW_TOURNAMENT, "D1", "J2");
+      // no tournament
+      insertRow(connection, "3", null, "School 3", null, null, null);
+      insertRow(connection, "4", "Team 4", "School 4", EXISTING_TOURNAMENT, "D2", "J1");
+
+      final Map<String, Integer> teamNumbers = new HashMap<>();
+      teamNumbers.put("1", 1);
+      teamNumbers.put("2.0", 2);
+      teamNumbers.put("3", 3);
+      teamNumbers.put("4", 4);
+
+      final TeamImportSummary summary = UploadTeams.importTeams(connection, "TeamNum", teamNumbers, createTeamColumns(),
+                                                                "Tourn", "Division", "Judging");
+      assertEquals(4, summary.getTeamsAdded());
+      assertEquals(3, summary.getTournamentTeamsAdded());
+      assertEquals(Collections.singletonList(NEW_TOURNAMENT), summary.getTournamentsCreated());
+      assertTrue(connection.getAutoCommit());
+
+      final Team team2 = Team.getTeamFromDatabase(connection, 2);
+      assertEquals("Team 2", team2.getTeamName());
+      assertEquals("", team2.getOrganization());
+
+      final Team team3 = Team.getTeamFromDatabase(connection, 3);
+      assertEquals("", team3.getTeamName());
+      assertEquals("School 3", team3.getOrganization());
+
+      final Tournament state = Tournament.findTournamentByName(connection, NEW_TOURNAMENT);
+      final Map<Integer, TournamentTeam> stateTeams = Queries.getTournamentTeams(connection,
+                                                                                 state.getTournamentID());
+      assertEquals(new HashSet<>(Arrays.asList(1, 2)), stateTeams.keySet());
+      final @Nullable TournamentTeam stateTeam2 = stateTeams.get(2);
+      assertNotNull(stateTeam2);
+      assertEquals("D1", stateTeam2.getAwardGroup());
+      assertEquals("J2", stateTeam2.getJudgingGroup());
+
+      final Tournament region = Tournament.findTournamentByName(connection, EXISTING_TOURNAMENT);
+      final Map<Integer, TournamentTeam> regionTeams = Queries.getTournamentTeams(connection,
+                                                                                  region.getTournamentID());
+      assertEquals(Collections.singleton(4), regionTeams.keySet());
+    }
+  }
+
+  /**
+   * Uploading a team list that overlaps teams already in the database updates
+   * the teams that changed and reports what was added, updated and unchanged.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testReimportOverlappingTeams() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_upload_teams_reimport")) {
+      insertRow(connection, "1", "Team 1", "School 1", NEW_TOURNAMENT, "D1", "J1");
+      insertRow(connection, "2", "Team 2", "School 2", NEW_TOURNAMENT, "D1", "J1");
+
+      final Map<String, Integer> firstTeamNumbers = new HashMap<>();
+      firstTeamNumbers.put("1", 1);
+      firstTeamNumbers.put("2", 2);
+      final TeamImportSummary first = UploadTeams.importTeams(connection, "TeamNum", firstTeamNumbers,
+                                                              createTeamColumns(), "Tourn", "Division", "Judging");
+      assertEquals(2, first.getTeamsAdded());
+      assertEquals(0, first.getTeamsUpdated());
+      assertEquals(0, first.getTeamsUnchanged());
+      assertEquals(2, first.getTournamentTeamsAdded());
+
+      try (Statement stmt = connection.createStatement()) {
+        stmt.executeUpdate("DELETE FROM AllTeams");
+      }
+      // unchanged
+      insertRow(connection, "1", "Team 1", "School 1", NEW_TOURNAMENT, "D1", "J1");
+      // new name and judging group
+      insertRow(connection, "2", "Team 2 renamed", "School 2", NEW_TOURNAMENT, "D1", "J2");
+      // new team
+      insertRow(connection, "5", "Team 5", "School 5", NEW_TOURNAMENT, "D1", "J1");
+
+      final Map<String, Integer> secondTeamNumbers = new HashMap<>();
+      secondTeamNumbers.put("1", 1);
+      secondTeamNumbers.put("2", 2);
+      secondTeamNumbers.put("5", 5);
+      final TeamImportSummary second = UploadTeams.importTeams(connection, "TeamNum", secondTeamNumbers,
+                                                               createTeamColumns(), "Tourn", "Division", "Judging");
+      assertEquals(1, second.getTeamsAdded());
+      assertEquals(1, second.getTeamsUpdated());
+      assertEquals(1, second.getTeamsUnchanged());
+      assertEquals(1, second.getTournamentTeamsAdded());
+      assertEquals(1, second.getTournamentTeamsUpdated());
+      assertEquals(1, second.getTournamentTeamsUnchanged());
+      assertTrue(second.getTournamentsCreated().isEmpty());
+
+      assertEquals("Team 2 renamed", Team.getTeamFromDatabase(connection, 2).getTeamName());
+
+      final Tournament state = Tournament.findTournamentByName(connection, NEW_TOURNAMENT);
+      final Map<Integer, TournamentTeam> stateTeams = Queries.getTournamentTeams(connection,
+                                                                                 state.getTournamentID());
+      assertEquals(new HashSet<>(Arrays.asList(1, 2, 5)), stateTeams.keySet());
+      final @Nullable TournamentTeam stateTeam2 = stateTeams.get(2);
+      assertNotNull(stateTeam2);
+      assertEquals("J2", stateTeam2.getJudgingGroup());
+    }
+  }
+
+  /**
+   * A team number that is in the spreadsheet twice fails the import and
+   * nothing is changed.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testDuplicateTeamRollsBack() throws SQLException {
+    try (Connection connection = createDatabase("jdbc:hsqldb:mem:ut_upload_teams_duplicate")) {
+      final Collection<Integer> teamsBefore = Queries.getAllTeamNumbers(connection);
+
+      insertRow(connection, "1", "Team 1", "School 1", NEW_TOURNAMENT, "D1", "J1");
+      insertRow(connection, "1", "Team 1 again", "School 1", NEW_TOURNAMENT, "D1", "J1");
+
+      assertThrows(FLLRuntimeException.class,
+                   () -> UploadTeams.importTeams(connection, "TeamNum", Collections.singletonMap("1", 1),
+                                                 createTeamColumns(), "Tourn", "Division", "Judging"));
+
+      assertEquals(new HashSet<>(teamsBefore), new HashSet<>(Queries.getAllTeamNumbers(connection)));
+      assertTrue(Tournament.doesTournamentExist(connection, EXISTING_TOURNAMENT));
+      assertFalse(Tournament.doesTournamentExist(connection, NEW_TOURNAMENT));
+      assertTrue(connection.getAutoCommit());
+    }
+  }
+
+  private static Map<String, String> createTeamColumns() {
+    final Map<String, String> teamColumns = new LinkedHashMap<>();
+    teamColumns.put("TeamName", "Name");
+    teamColumns.put("Organization", "School");
+    return teamColumns;
+  }
+
+  /**
+   * Create the database, {@link #EXISTING_TOURNAMENT} and the AllTeams table
+   * like {@link UploadTeams#parseFile(java.io.File, String, Connection, jakarta.servlet.http.HttpSession)}
+   * does.
+   */
+  private static Connection createDatabase(final String url) throws SQLException {
+    Utilities.loadDBDriver();
+
+    final InputStream stream = UploadTeamsTest.class.getResourceAsStream("/fll/db/data/challenge-test.xml");
+    assertNotNull(stream);
+    final ChallengeDescription description = ChallengeParser.parse(new InputStreamReader(stream,
+                                                                                         Utilities.DEFAULT_CHARSET));
+
+    final Connection connection = DriverManager.getConnection(url);
+    GenerateDB.generateDB(description, connection);
+
+    Tournament.createTournament(connection, EXISTING_TOURNAMENT, EXISTING_TOURNAMENT, null,
+                                TournamentLevel.getByName(connection, TournamentLevel.DEFAULT_TOURNAMENT_LEVEL_NAME));
+
+    try (Statement stmt = connection.createStatement()) {
+      stmt.executeUpdate("CREATE TABLE AllTeams (TeamNum longvarchar, Name longvarchar, School longvarchar"
+          + ", Tourn longvarchar, Division longvarchar, Judging longvarchar)");
+    }
+    return connection;
+  }
+
+  private static void insertRow(final Connection connection,
+                                final String number,
+                                final @Nullable String name,
+                                final @Nullable String school,
+                                final @Nullable String tournament,
+                                final @Nullable String division,
+                                final @Nullable String judging)
+      throws SQLException {
+    try (PreparedStatement prep = connection.prepareStatement("INSERT INTO AllTeams VALUES(?, ?, ?, ?, ?, ?)")) {
+      prep.setString(1, number);
+      prep.setString(2, name);
+      prep.setString(3, school);
+      prep.setString(4, tournament);
+      prep.setString(5, division);
+      prep.setString(6, judging);
+      prep.executeUpdate();
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import fll.TestUtils;
+import fll.Utilities;
+
+/**
+ * Tests for {@link TournamentEventBus}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class TournamentEventBusTest {
+
+  /**
+   * Make sure the subscribers from one test don't see events from another.
+   */
+  @AfterEach
+  public void cleanup() {
+    TournamentEventBus.awaitDelivery();
+    TournamentEventBus.unsubscribeAll();
+  }
+
+  /**
+   * Events for a tournament are delivered in the order they are published and
+   * only to subscribers of the matching type.
+   */
+  @Test
+  public void testOrderedDelivery() {
+    final List<Integer> runs = Collections.synchronizedList(new LinkedList<>());
+    final List<TournamentEvent> teams = Collections.synchronizedList(new LinkedList<>());
+    TournamentEventBus.subscribe(PerformanceScoreChanged.class, e -> {
+      if (1 == e.getRunNumber()) {
+        // make the first delivery slow so that out of order delivery would show
+        try {
+          Thread.sleep(100);
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      runs.add(e.getRunNumber());
+    });
+    TournamentEventBus.subscribe(TeamsChanged.class, teams::add);
+
+    for (int run = 1; run <= 5; ++run) {
+      TournamentEventBus.publish(new PerformanceScoreChanged(2, 100, run));
+    }
+    TournamentEventBus.awaitDelivery();
+
+    assertThat(runs, contains(1, 2, 3, 4, 5));
+    assertThat(teams, empty());
+  }
+
+  /**
+   * An exception in one subscriber doesn't stop delivery to the others or
+   * delivery of later events.
+   */
+  @Test
+  public void testSubscriberError() {
+    final List<Integer> tournaments = Collections.synchronizedList(new LinkedList<>());
+    TournamentEventBus.subscribe(ScheduleChanged.class, e -> {
+      throw new IllegalStateException("Expected test exception");
+    });
+    TournamentEventBus.subscribe(ScheduleChanged.class, e -> tournaments.add(e.getTournamentId()));
+
+    TournamentEventBus.publish(new ScheduleChanged(3));
+    TournamentEventBus.publish(new ScheduleChanged(3));
+    TournamentEventBus.awaitDelivery();
+
+    assertThat(tournaments, contains(3, 3));
+  }
+
+  /**
+   * An {@link Error} in a subscriber doesn't stop delivery of later events for
+   * the same tournament.
+   */
+  @Test
+  public void testSubscriberErrorKeepsLane() {
+    final List<Integer> runs = Collections.synchronizedList(new LinkedList<>());
+    TournamentEventBus.subscribe(PerformanceScoreChanged.class, e -> {
+      if (1 == e.getRunNumber()) {
+        throw new AssertionError("Expected test error");
+      }
+      runs.add(e.getRunNumber());
+    });
+
+    for (int run = 1; run <= 3; ++run) {
+      TournamentEventBus.publish(new PerformanceScoreChanged(4, 100, run));
+    }
+    TournamentEventBus.awaitDelivery();
+
+    assertThat(runs, contains(2, 3));
+  }
+
+  /**
+   * Events for all tournaments are delivered after the events published before
+   * them and before the events published after them.
+   */
+  @Test
+  public void testAllTournamentsOrdering() {
+    final List<String> delivered = Collections.synchronizedList(new LinkedList<>());
+    TournamentEventBus.subscribe(TournamentEvent.class, e -> {
+      if (e instanceof ScheduleChanged
+          && 5 == e.getTournamentId()) {
+        // make the first delivery slow so that out of order delivery would show
+        try {
+          Thread.sleep(100);
+        } catch (final InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      delivered.add(e.getClass().getSimpleName()
+          + " "
+          + e.getTournamentId());
+    });
+
+    TournamentEventBus.publish(new ScheduleChanged(5));
+    TournamentEventBus.publish(new TeamsChanged(TournamentEvent.ALL_TOURNAMENTS));
+    TournamentEventBus.publish(new ScheduleChanged(6));
+    TournamentEventBus.awaitDelivery();
+
+    assertThat(delivered, contains("ScheduleChanged 5", "TeamsChanged "
+        + TournamentEvent.ALL_TOURNAMENTS, "ScheduleChanged 6"));
+  }
+
+  /**
+   * Events published in a transaction are held until the transaction is
+   * committed and dropped when it is rolled back.
+   *
+   * @throws SQLException test error
+   */
+  @Test
+  public void testPublishAfterCommit() throws SQLException {
+    final List<Integer> tournaments = Collections.synchronizedList(new LinkedList<>());
+    TournamentEventBus.subscribe(TeamsChanged.class, e -> tournaments.add(e.getTournamentId()));
+
+    Utilities.loadDBDriver();
+    try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:ut_event_bus_commit")) {
+      // auto commit publishes immediately
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(7));
+      TournamentEventBus.awaitDelivery();
+      assertThat(tournaments, contains(7));
+
+      connection.setAutoCommit(false);
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(8));
+      TournamentEventBus.awaitDelivery();
+      assertThat(tournaments, contains(7));
+
+      connection.rollback();
+      TournamentEventBus.transactionRolledBack(connection);
+      TournamentEventBus.awaitDelivery();
+      assertThat(tournaments, contains(7));
+
+      TournamentEventBus.publishAfterCommit(connection, new TeamsChanged(9));
+      connection.commit();
+      TournamentEventBus.transactionCommitted(connection);
+      TournamentEventBus.awaitDelivery();
+      assertThat(tournaments, contains(7, 9));
+    }
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.playoff;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fll.db.GlobalParameters;
+import fll.xml.ChallengeDescription;
+
+/**
+ * Test that
+ * {@link Playoff#finishBrackets(Connection, ChallengeDescription, fll.Tournament, Collection)}
+ * finishes all of the unfinished brackets at once and reports the ties.
+ */
+public final class UnfinishedTestFinishBulk extends UnfinishedBaseTest {
+
+  /**
+   * Finish all unfinished brackets in one call.
+   *
+   * @throws SQLException internal test error
+   */
+  @Test
+  public void test() throws SQLException {
+    final ChallengeDescription challenge = GlobalParameters.getChallengeDescription(getConnection());
+    assertThat(challenge, notNullValue());
+
+    final List<String> tied = Playoff.finishBrackets(getConnection(), challenge, getTournament(),
+                                                     Arrays.asList(UnfinishedBaseTest.UNFINISHED_BRACKET_NAMES));
+    assertThat(tied,
+               containsInAnyOrder(UnfinishedBaseTest.TIE_1ST_3RD_BRACKET_NAME, UnfinishedBaseTest.TIE_3RD_BRACKET_NAME,
+                                  UnfinishedBaseTest.TIE_BRACKET_NAME, UnfinishedBaseTest.TIE_MIDDLE_BRACKET_NAME));
+
+    for (final String bracketName : UnfinishedTestFinish.names()) {
+      final boolean unfinished = Playoff.isPlayoffBracketUnfinished(getConnection(),
+                                                                    getTournament().getTournamentID(), bracketName);
+      assertThat(bracketName, unfinished, is(false));
+
+      final boolean automatic = Playoff.isAutomaticallyFinished(getConnection(), getTournament().getTournamentID(),
+                                                                bracketName);
+      assertThat(bracketName, automatic, is(true));
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2022 High Tech Kids.  All rights reserved
+ * HighTechKids is on the web at: http://www.hightechkids.org
+ * This code is released under GPL; see LICENSE.txt for details.
+ */
+
+package fll.web.report.finalist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fll.TestUtils;
+import fll.Utilities;
+import fll.db.PlayoffSchedule;
+
+/**
+ * Tests for {@link FinalistScheduler}.
+ */
+@ExtendWith(TestUtils.InitializeLogging.class)
+public class FinalistSchedulerTest {
+
+  private static final LocalTime START = LocalTime.of(14, 0);
+
+  private static final int INTERVAL = 20;
+
+  private static final LocalTime PLAYOFF_START = LocalTime.of(14, 0);
+
+  private static final LocalTime PLAYOFF_END = LocalTime.of(14, 50);
+
+  /**
+   * Every finalist is scheduled once per category, a team is only in one
+   * category at a time and teams in a running playoff bracket aren't scheduled.
+   */
+  @Test
+  public void testConstraints() {
+    final FinalistScheduleRequest request = createRequest();
+    final FinalistSchedule schedule = new FinalistScheduler(request).schedule(4);
+
+    final Map<String, Set<Integer>> scheduled = new HashMap<>();
+    LocalTime expectedTime = START;
+    for (final FinalistDBRow row : schedule.getSchedule()) {
+      assertEquals(expectedTime, row.getTime());
+      assertEquals(row.getTime().plusMinutes(INTERVAL), row.getEndTime());
+      expectedTime = row.getEndTime();
+
+      final Set<Integer> teamsInRow = new HashSet<>();
+      for (final Map.Entry<String, Integer> entry : row.getCategories().entrySet()) {
+        final int team = entry.getValue();
+        assertTrue(teamsInRow.add(team), "Team "
+            + team
+            + " is in 2 categories at "
+            + row.getTime());
+        assertTrue(scheduled.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(team), "Team "
+            + team
+            + " is scheduled twice in "
+            + entry.getKey());
+
+        if (request.getPlayoffBrackets().containsKey(team)) {
+          assertFalse(row.getTime().isBefore(PLAYOFF_END)
+              && PLAYOFF_START.isBefore(row.getEndTime()), "Team "
+                  + team
+                  + " is in the playoffs at "
+                  + row.getTime());
+        }
+      }
+    }
+
+    for (final FinalistCategory category : request.getCategories()) {
+      assertEquals(new HashSet<>(request.getFinalists().get(category.getCategoryName())),
+                   scheduled.get(category.getCategoryName()));
+    }
+    assertFalse(scheduled.containsKey("Core Values"));
+  }
+
+  /**
+   * The orders are tried in parallel, the result must not depend on the number
+   * of threads.
+   */
+  @Test
+  public void testDeterministic() {
+    final FinalistScheduleRequest request = createRequest();
+    final List<FinalistDBRow> single = new ArrayList<>(new FinalistScheduler(request).schedule(1).getSchedule());
+    final List<FinalistDBRow> parallel = new ArrayList<>(new FinalistScheduler(request).schedule(4).getSchedule());
+
+    assertEquals(single.size(), parallel.size());
+    for (int i = 0; i < single.size(); ++i) {
+      assertEquals(single.get(i).getTime(), parallel.get(i).getTime());
+      assertEquals(single.get(i).getCategories(), parallel.get(i).getCategories());
+    }
+  }
+
+  /**
+   * Trying more than one order never makes the schedule longer than the order
+   * used by the browser.
+   */
+  @Test
+  public void testNotLongerThanFirstOrder() {
+    final FinalistScheduleRequest request = createRequest();
+    final FinalistScheduler scheduler = new FinalistScheduler(request);
+    final int firstOrderSlots = scheduler.createSchedule(0).size();
+    assertTrue(scheduler.schedule(2).getSchedule().size() <= firstOrderSlots);
+  }
+
+  /**
+   * The browser creates a playoff schedule without a start or end time, a
+   * bracket without times doesn't block any slot and all finalists are still
+   * scheduled.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testPlayoffScheduleWithoutTimes() throws IOException {
+    final PlayoffSchedule noTimes = Utilities.createJsonMapper()
+                                             .readValue("{\"startTime\": null, \"endTime\": null}",
+                                                        PlayoffSchedule.class);
+
+    final FinalistScheduleRequest request = createRequest();
+    final Map<String, PlayoffSchedule> playoffSchedules = new HashMap<>();
+    playoffSchedules.put("Bracket", noTimes);
+    final FinalistScheduleRequest noTimesRequest = new FinalistScheduleRequest(request.getParameters(),
+                                                                               request.getCategories(),
+                                                                               request.getFinalists(),
+                                                                               playoffSchedules,
+                                                                               request.getPlayoffBrackets());
+
+    final FinalistSchedule schedule = new FinalistScheduler(noTimesRequest).schedule(2);
+
+    final Map<String, Set<Integer>> scheduled = new HashMap<>();
+    for (final FinalistDBRow row : schedule.getSchedule()) {
+      for (final Map.Entry<String, Integer> entry : row.getCategories().entrySet()) {
+        scheduled.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(entry.getValue());
+      }
+    }
+    for (final FinalistCategory category : request.getCategories()) {
+      assertEquals(new HashSet<>(request.getFinalists().get(category.getCategoryName())),
+                   scheduled.get(category.getCategoryName()));
+    }
+  }
+
+  /**
+   * A request with an interval of 0 minutes is rejected when it is parsed,
+   * otherwise the slots would never advance and the scheduler wouldn't stop.
+   *
+   * @throws IOException test error
+   */
+  @Test
+  public void testZeroInterval() throws IOException {
+    final ObjectMapper jsonMapper = Utilities.createJsonMapper();
+    final String json = jsonMapper.writeValueAsString(createRequest());
+
+    // make sure that the valid request is accepted
+    final FinalistScheduleRequest parsed = jsonMapper.readValue(json, FinalistScheduleRequest.class);
+    assertEquals(INTERVAL, parsed.getParameters().getIntervalMinutes());
+
+    final String zeroInterval = json.replace("\"intervalMinutes\":"
+        + INTERVAL, "\"intervalMinutes\":0");
+    assertFalse(json.equals(zeroInterval), "Interval not found in "
+        + json);
+    assertThrows(JsonProcessingException.class,
+                 () -> jsonMapper.readValue(zeroInterval, FinalistScheduleRequest.class));
+  }
+
+  /**
+   * 3 categories, teams 1-4 are finalists in several categories and teams 1 and
+   * 5 are in a playoff bracket at the start of the schedule.
+   */
+  private static FinalistScheduleRequest createRequest() {
+    final List<FinalistCategory> categories = Arrays.asList(new FinalistCategory("Champion's", "A"),
+                                                            new FinalistCategory("Project", "B"),
+                                                            new FinalistCategory("Robot Design", null));
+
+    final Map<String, Collection<Integer>> finalists = new HashMap<>();
+    finalists.put("Champion's", Arrays.asList(1, 2, 3, 4));
+    finalists.put("Project", Arrays.asList(1, 2, 5, 6, 7));
+    finalists.put("Robot Design", Arrays.asList(1, 3, 5, 8));
+    // not scheduled
+    finalists.put("Core Values", Arrays.asList(9, 10));
+
+    final Map<String, PlayoffSchedule> playoffSchedules = new HashMap<>();
+    playoffSchedules.put("Bracket", new PlayoffSchedule(PLAYOFF_START, PLAYOFF_END));
+
+    final Map<Integer, Collection<String>> playoffBrackets = new HashMap<>();
+    playoffBrackets.put(1, Collections.singletonList("Bracket"));
+    playoffBrackets.put(5, Collections.singletonList("Bracket"));
+
+    return new FinalistScheduleRequest(new FinalistScheduleParameters(START, INTERVAL), categories, finalists,
+                                       playoffSchedules, playoffBrackets);
+  }
+
+}
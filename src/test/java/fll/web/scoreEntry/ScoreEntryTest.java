@@ -18,8 +18,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import fll.TestUtils;
 import fll.Utilities;
-import fll.web.ApplicationAttributes;
-import fll.web.DummyServletContext;
 import fll.xml.ChallengeDescription;
 import fll.xml.ChallengeParser;
 import fll.xml.ChallengeParserTest;
@@ -30,48 +28,33 @@ import fll.xml.ChallengeParserTest;
 @ExtendWith(TestUtils.InitializeLogging.class)
 public class ScoreEntryTest {
 
-  /**
-   * Just returns the document when asked.
-   * TODO use a mocking library to do this.
-   */
-  private static class TestServletContext extends DummyServletContext {
-    @Override
-    public Object getAttribute(final String attr) {
-      try {
-        if (ApplicationAttributes.CHALLENGE_DESCRIPTION.equals(attr)) {
-          try (InputStream stream = ChallengeParserTest.class.getResourceAsStream("data/all-elements.xml")) {
-            assertNotNull(stream);
-            final ChallengeDescription description = ChallengeParser.parse(new InputStreamReader(stream,
-                                                                                                 Utilities.DEFAULT_CHARSET));
-            assertNotNull(description);
-            return description;
-          }
-        } else {
-          return null;
-        }
-      } catch (final IOException e) {
-        throw new RuntimeException("Internal test error", e);
-      }
-    }
-  }
-
   /**
    * Test method for
-   * {@link fll.web.scoreEntry.ScoreEntry#generateCheckRestrictionsBody(java.io.Writer, org.w3c.dom.Document)}
+   * {@link fll.web.scoreEntry.ScoreEntry#generateChallengeScript(java.io.Writer, ChallengeDescription)}
    * .
    * <p>
    * Load all-elements.xml (from {@link ChallengeParserTest}) and make sure
-   * there are no errors.
+   * there are no errors and the restriction checks are generated.
    * </p>
    * 
    * @throws IOException test error
    */
   @Test
-  public void testGenerateCheckRestrictionsBody() throws IOException {
+  public void testGenerateChallengeScript() throws IOException {
+    final ChallengeDescription description;
+    try (InputStream stream = ChallengeParserTest.class.getResourceAsStream("data/all-elements.xml")) {
+      assertNotNull(stream);
+      description = ChallengeParser.parse(new InputStreamReader(stream, Utilities.DEFAULT_CHARSET));
+    }
+    assertNotNull(description);
+
     final StringWriter writer = new StringWriter();
+    ScoreEntry.generateChallengeScript(writer, description);
 
-    ScoreEntry.generateCheckRestrictionsBody(writer, new TestServletContext());
-    assertTrue(writer.toString().length() > 0);
+    final String script = writer.toString();
+    assertTrue(script.length() > 0);
+    assertTrue(script.contains("function check_restrictions()"), "Missing check_restrictions: "
+        + script);
   }
 
 }